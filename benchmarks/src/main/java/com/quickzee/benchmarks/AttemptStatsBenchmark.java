@@ -0,0 +1,84 @@
+package com.quickzee.benchmarks;
+
+import com.quickzee.common.model.QuizResult;
+import com.quickzee.common.model.User;
+import com.quickzee.common.service.AttemptService;
+import com.quickzee.common.util.SessionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AttemptStatsBenchmark
+ * AttemptService statistics: percentage/grade/pass for a result history in
+ * memory, and the dashboard averages that read the history from the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AttemptStatsBenchmark {
+
+    private AttemptService attemptService;
+    private List<QuizResult> history;
+
+    @Setup
+    public void setup() throws SQLException {
+        EmbeddedDatabase.start();
+        attemptService = new AttemptService();
+
+        // Same kind of history as the seeded students have
+        Random random = new Random(42);
+        history = new ArrayList<>();
+        for (int i = 0; i < EmbeddedDatabase.RESULTS_PER_USER; i++) {
+            QuizResult result = new QuizResult();
+            result.setScore(random.nextInt(EmbeddedDatabase.QUESTIONS + 1));
+            result.setTotalQuestions(EmbeddedDatabase.QUESTIONS);
+            history.add(result);
+        }
+
+        SessionManager.setLoggedInUser(new User(EmbeddedDatabase.userId(0), "Student 0",
+                "student0@example.com", "not-a-real-hash", 1, "student"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SessionManager.logout();
+    }
+
+    @Benchmark
+    public void gradeHistoryInMemory(Blackhole bh) {
+        for (QuizResult result : history) {
+            double percentage = attemptService.calculatePercentage(result);
+            bh.consume(attemptService.getGrade(percentage));
+            bh.consume(attemptService.isPassed(result));
+        }
+    }
+
+    @Benchmark
+    public double myAverageScore() throws SQLException {
+        return attemptService.getMyAverageScore();
+    }
+
+    @Benchmark
+    public double myBestScore() throws SQLException {
+        return attemptService.getMyBestScore();
+    }
+}
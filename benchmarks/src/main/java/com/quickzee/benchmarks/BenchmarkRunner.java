@@ -0,0 +1,48 @@
+package com.quickzee.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BenchmarkRunner
+ * Entry point of benchmarks.jar: runs JMH with the given arguments and, unless
+ * a result file is chosen with -rf/-rff, writes the results as JSON to
+ * results/<version>-<timestamp>.json so releases can be compared.
+ *
+ * Run: java -jar target/benchmarks.jar                  (all benchmarks)
+ *      java -jar target/benchmarks.jar Scoring -f 1     (usual JMH options)
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+
+        if (!jmhArgs.contains("-rf") && !jmhArgs.contains("-rff")) {
+            Path results = resultFile();
+            jmhArgs.addAll(List.of("-rf", "json", "-rff", results.toString()));
+            System.out.println("📋 Results will be written to " + results);
+        }
+
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+
+    private static Path resultFile() throws IOException {
+        String version = System.getProperty("quickzee.version",
+                BenchmarkRunner.class.getPackage().getImplementationVersion());
+        if (version == null) {
+            version = "dev";
+        }
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+        Path dir = Paths.get("results");
+        Files.createDirectories(dir);
+        return dir.resolve(version + "-" + timestamp + ".json");
+    }
+}
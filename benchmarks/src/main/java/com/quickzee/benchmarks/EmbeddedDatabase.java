@@ -0,0 +1,206 @@
+package com.quickzee.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+
+/**
+ * EmbeddedDatabase
+ * In-memory H2 database (MySQL mode) with a fixed, seeded dataset, so DAO and
+ * service benchmarks run offline and give the same data on every run.
+ *
+ * start() points DBConnection at this database through the quickzee.db.*
+ * settings, so it must be called before anything touches DBConnection.
+ *
+ * Dataset: QUIZZES quizzes of QUESTIONS questions with OPTIONS options each,
+ * USERS students with RESULTS_PER_USER stored results each.
+ * IDs are fixed: quiz q, question q*1000+i, option question*10+o.
+ */
+public final class EmbeddedDatabase {
+
+    public static final String URL = "jdbc:h2:mem:quickzee_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    public static final int QUIZZES = 50;
+    public static final int QUESTIONS = 20;
+    public static final int OPTIONS = 4;
+    public static final int USERS = 100;
+    public static final int RESULTS_PER_USER = 20;
+
+    private static final long SEED = 42;
+
+    private static boolean started = false;
+
+    private EmbeddedDatabase() {}
+
+    /**
+     * Create and seed the database (once per JVM) and route DBConnection to it
+     * @throws SQLException if the schema or data cannot be created
+     */
+    public static synchronized void start() throws SQLException {
+        if (started) {
+            return;
+        }
+
+        System.setProperty("quickzee.db.url", URL);
+        System.setProperty("quickzee.db.user", "sa");
+        System.setProperty("quickzee.db.password", "sa");
+        // Benchmarks must not leave journal files behind or replay old ones
+        System.setProperty("quickzee.journal.enabled", "false");
+
+        try (Connection conn = DriverManager.getConnection(URL, "sa", "sa")) {
+            runScript(conn, "/benchmark-schema.sql");
+            installLastInsertId(conn);
+            seed(conn);
+        }
+        started = true;
+    }
+
+    /**
+     * @param quizIndex 0 .. QUIZZES-1
+     * @return Quiz ID
+     */
+    public static long quizId(int quizIndex) {
+        return quizIndex + 1;
+    }
+
+    /**
+     * @param userIndex 0 .. USERS-1
+     * @return User ID
+     */
+    public static long userId(int userIndex) {
+        return userIndex + 1;
+    }
+
+    // IdGenerator relies on MySQL's LAST_INSERT_ID(expr); add it if this H2 version lacks it
+    private static void installLastInsertId(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT LAST_INSERT_ID(7), LAST_INSERT_ID()")) {
+            if (rs.next() && rs.getLong(1) == 7 && rs.getLong(2) == 7) {
+                return;
+            }
+        } catch (SQLException missing) {
+            // fall through and define it
+        }
+        try (Statement st = conn.createStatement()) {
+            st.execute("CREATE ALIAS LAST_INSERT_ID FOR 'com.quickzee.benchmarks.H2Functions.lastInsertId'");
+        }
+    }
+
+    private static void seed(Connection conn) throws SQLException {
+        Random random = new Random(SEED);
+        conn.setAutoCommit(false);
+
+        // 1) Users (students of 8 semesters)
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO users (id, name, email, password, semester, role) VALUES (?, ?, ?, ?, ?, 'student')")) {
+            for (int u = 0; u < USERS; u++) {
+                ps.setLong(1, userId(u));
+                ps.setString(2, "Student " + u);
+                ps.setString(3, "student" + u + "@example.com");
+                ps.setString(4, "not-a-real-hash");
+                ps.setInt(5, u % 8 + 1);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        // 2) Quizzes, questions and options; option o of question i is correct when o == i % OPTIONS
+        try (PreparedStatement quiz = conn.prepareStatement(
+                     "INSERT INTO quizzes (id, title, semester, duration_minutes) VALUES (?, ?, ?, 30)");
+             PreparedStatement question = conn.prepareStatement(
+                     "INSERT INTO questions (id, quiz_id, ordinal, text) VALUES (?, ?, ?, ?)");
+             PreparedStatement option = conn.prepareStatement(
+                     "INSERT INTO options (id, question_id, ordinal, text, is_correct) VALUES (?, ?, ?, ?, ?)")) {
+
+            for (int q = 0; q < QUIZZES; q++) {
+                long quizId = quizId(q);
+                quiz.setLong(1, quizId);
+                quiz.setString(2, "Benchmark Quiz " + quizId);
+                quiz.setInt(3, q % 8 + 1);
+                quiz.addBatch();
+
+                for (int i = 0; i < QUESTIONS; i++) {
+                    long questionId = quizId * 1000 + i;
+                    question.setLong(1, questionId);
+                    question.setLong(2, quizId);
+                    question.setInt(3, i + 1);
+                    question.setString(4, "Question " + (i + 1) + " of quiz " + quizId + ": which answer is right?");
+                    question.addBatch();
+
+                    for (int o = 0; o < OPTIONS; o++) {
+                        option.setLong(1, questionId * 10 + o);
+                        option.setLong(2, questionId);
+                        option.setInt(3, o);
+                        option.setString(4, o == OPTIONS - 1 ? "None of the above" : "Answer " + (char) ('A' + o));
+                        option.setInt(5, o == i % OPTIONS ? 1 : 0);
+                        option.addBatch();
+                    }
+                }
+            }
+            quiz.executeBatch();
+            question.executeBatch();
+            option.executeBatch();
+        }
+
+        // 3) Stored results, so history and statistics have something to read
+        long resultId = 1;
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO quiz_results (id, user_id, quiz_id, score, total_questions, submitted_at, created_at) " +
+                        "VALUES (?, ?, ?, ?, ?, NOW(), NOW())")) {
+            for (int u = 0; u < USERS; u++) {
+                for (int r = 0; r < RESULTS_PER_USER; r++) {
+                    ps.setLong(1, resultId++);
+                    ps.setLong(2, userId(u));
+                    ps.setLong(3, quizId(random.nextInt(QUIZZES)));
+                    ps.setInt(4, random.nextInt(QUESTIONS + 1));
+                    ps.setInt(5, QUESTIONS);
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+
+        // 4) ID sequences start after the seeded rows
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO id_sequences (name, next_id) VALUES (?, ?)")) {
+            String[] tables = {"quizzes", "questions", "options", "quiz_results"};
+            long[] next = {QUIZZES + 1, (QUIZZES + 1) * 1000L, (QUIZZES + 1) * 10000L, resultId};
+            for (int t = 0; t < tables.length; t++) {
+                ps.setString(1, tables[t]);
+                ps.setLong(2, next[t]);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        conn.commit();
+        conn.setAutoCommit(true);
+    }
+
+    // Run a script of ';'-terminated statements (no procedures, so a plain split is enough)
+    private static void runScript(Connection conn, String resource) throws SQLException {
+        String script;
+        try (InputStream in = EmbeddedDatabase.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new SQLException("Missing " + resource);
+            }
+            script = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Cannot read " + resource, e);
+        }
+
+        try (Statement st = conn.createStatement()) {
+            for (String sql : script.replaceAll("(?m)^--.*$", "").split(";")) {
+                if (!sql.isBlank()) {
+                    st.execute(sql);
+                }
+            }
+        }
+    }
+}
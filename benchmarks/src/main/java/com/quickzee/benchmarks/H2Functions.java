@@ -0,0 +1,30 @@
+package com.quickzee.benchmarks;
+
+/**
+ * H2Functions
+ * MySQL functions the application uses that H2 may not provide, registered
+ * with CREATE ALIAS by EmbeddedDatabase.
+ */
+public final class H2Functions {
+
+    // The embedded database runs statements on the caller's thread, and every
+    // benchmark thread uses its own connection, so per thread is per connection here
+    private static final ThreadLocal<long[]> LAST_INSERT_ID = ThreadLocal.withInitial(() -> new long[1]);
+
+    private H2Functions() {}
+
+    /**
+     * LAST_INSERT_ID(): value remembered by the last LAST_INSERT_ID(expr)
+     */
+    public static long lastInsertId() {
+        return LAST_INSERT_ID.get()[0];
+    }
+
+    /**
+     * LAST_INSERT_ID(expr): remember and return expr
+     */
+    public static long lastInsertId(long value) {
+        LAST_INSERT_ID.get()[0] = value;
+        return value;
+    }
+}
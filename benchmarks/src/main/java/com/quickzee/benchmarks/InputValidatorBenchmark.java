@@ -0,0 +1,64 @@
+package com.quickzee.benchmarks;
+
+import com.quickzee.common.util.InputValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InputValidatorBenchmark
+ * The checks run on every login, registration and quiz edit, over a mix of
+ * valid and invalid input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputValidatorBenchmark {
+
+    private final String[] emails = {
+            "student42@example.com", "first.last+tag@uni.edu.bd", "not-an-email", "a@b", "  padded@example.org  ", ""
+    };
+    private final String[] names = {"Istiack Ahmed", "A", "Jean-Luc O'Neil", "1234", ""};
+    private final String[] numbers = {"8", "0", "-3", "12x", "2147483648", ""};
+    private final String title = "  Data Structures - Midterm <Section A>  ";
+
+    @Benchmark
+    public void isValidEmail(Blackhole bh) {
+        for (String email : emails) {
+            bh.consume(InputValidator.isValidEmail(email));
+        }
+    }
+
+    @Benchmark
+    public void isValidName(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(InputValidator.isValidName(name));
+        }
+    }
+
+    @Benchmark
+    public void parseInteger(Blackhole bh) {
+        for (String number : numbers) {
+            bh.consume(InputValidator.parseInteger(number));
+        }
+    }
+
+    @Benchmark
+    public void quizTitleChecks(Blackhole bh) {
+        bh.consume(InputValidator.isValidQuizTitle(title));
+        bh.consume(InputValidator.sanitize(title));
+        bh.consume(InputValidator.isWithinMaxLength(title, 255));
+    }
+}
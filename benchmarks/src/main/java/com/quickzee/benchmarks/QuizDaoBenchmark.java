@@ -0,0 +1,63 @@
+package com.quickzee.benchmarks;
+
+import com.quickzee.common.dao.QuizDao;
+import com.quickzee.common.model.CompactQuiz;
+import com.quickzee.common.model.Quiz;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QuizDaoBenchmark
+ * Loading a quiz with its questions and options through QuizDao (queries plus
+ * row mapping and object graph assembly), and turning the graph into the
+ * compact form kept by QuizCache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QuizDaoBenchmark {
+
+    private QuizDao quizDao;
+    private Quiz loaded;
+    private int next;
+
+    @Setup
+    public void setup() throws SQLException {
+        EmbeddedDatabase.start();
+        quizDao = new QuizDao();
+        loaded = quizDao.findByIdWithQuestions(EmbeddedDatabase.quizId(0));
+    }
+
+    @Benchmark
+    public Quiz findByIdWithQuestions() throws SQLException {
+        next = (next + 1) % EmbeddedDatabase.QUIZZES;
+        return quizDao.findByIdWithQuestions(EmbeddedDatabase.quizId(next));
+    }
+
+    @Benchmark
+    public List<Quiz> findBySemester() throws SQLException {
+        next = (next + 1) % 8;
+        return quizDao.findBySemester(next + 1);
+    }
+
+    @Benchmark
+    public CompactQuiz compactFromGraph() {
+        return CompactQuiz.from(loaded, new HashMap<>());
+    }
+}
@@ -0,0 +1,96 @@
+package com.quickzee.benchmarks;
+
+import com.quickzee.common.model.AnswerSheet;
+import com.quickzee.common.model.CompactQuiz;
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScoringBenchmark
+ * Scoring of a submission as done by ResultDao.submitQuiz, without the database:
+ * a selection against the cached answer key, and a shuffled question-keyed
+ * answer sheet resolved into a selection first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScoringBenchmark {
+
+    @Param({"20", "100"})
+    public int questions;
+
+    private CompactQuiz quiz;
+    private long[] selection;
+    private AnswerSheet sheet;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        quiz = CompactQuiz.from(buildQuiz(questions, 4), new HashMap<>());
+
+        // Every question answered, about half of them correctly
+        selection = quiz.newSelection();
+        List<Integer> shuffled = new ArrayList<>();
+        for (int i = 0; i < questions; i++) {
+            selection[i] = quiz.getOptionId(i, random.nextInt(quiz.getOptionCount(i)));
+            shuffled.add(i);
+        }
+
+        Collections.shuffle(shuffled, random);
+        sheet = new AnswerSheet(questions);
+        for (int i : shuffled) {
+            sheet.put(quiz.getQuestionId(i), selection[i]);
+        }
+    }
+
+    @Benchmark
+    public int scoreSelection() {
+        return quiz.score(selection);
+    }
+
+    @Benchmark
+    public int resolveAndScoreAnswerSheet() {
+        return quiz.score(quiz.resolve(sheet));
+    }
+
+    // Same shape as EmbeddedDatabase's quizzes, built in memory
+    static Quiz buildQuiz(int questionCount, int optionCount) {
+        Quiz quiz = new Quiz(1L, "Benchmark Quiz", 1, 30);
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < questionCount; i++) {
+            long questionId = 1000L + i;
+            Question question = new Question(questionId, 1L, i + 1, "Question " + (i + 1));
+            List<Option> options = new ArrayList<>();
+            for (int o = 0; o < optionCount; o++) {
+                options.add(new Option(questionId * 10 + o, questionId, o, "Answer " + (char) ('A' + o),
+                        o == i % optionCount ? 1 : 0));
+            }
+            question.setOptions(options);
+            questions.add(question);
+        }
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+}
@@ -0,0 +1,70 @@
+package com.quickzee.benchmarks;
+
+import com.quickzee.common.dao.ResultDao;
+import com.quickzee.common.model.CompactQuiz;
+import com.quickzee.common.model.QuizResult;
+import com.quickzee.common.service.QuizCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SubmitBenchmark
+ * ResultDao.submitQuiz end to end against the embedded database: scored
+ * against the cached quiz (exam path), and the older path that loads questions
+ * and the answer key inside the transaction.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SubmitBenchmark {
+
+    private ResultDao resultDao;
+    private CompactQuiz quiz;
+    private long[] selection;
+    private List<Long> answerList;
+    private long userId;
+
+    @Setup
+    public void setup() throws SQLException {
+        EmbeddedDatabase.start();
+        Random random = new Random(42);
+
+        resultDao = new ResultDao();
+        quiz = QuizCache.get(EmbeddedDatabase.quizId(0));
+        userId = EmbeddedDatabase.userId(random.nextInt(EmbeddedDatabase.USERS));
+
+        selection = quiz.newSelection();
+        answerList = new ArrayList<>();
+        for (int i = 0; i < quiz.getQuestionCount(); i++) {
+            selection[i] = quiz.getOptionId(i, random.nextInt(quiz.getOptionCount(i)));
+            answerList.add(selection[i]);
+        }
+    }
+
+    @Benchmark
+    public QuizResult submitScoredFromCache() throws SQLException {
+        return resultDao.submitQuiz(userId, quiz, selection, null);
+    }
+
+    @Benchmark
+    public QuizResult submitLoadingAnswerKey() throws SQLException {
+        return resultDao.submitQuiz(userId, quiz.getId(), answerList, null);
+    }
+}
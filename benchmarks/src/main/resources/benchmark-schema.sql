@@ -0,0 +1,79 @@
+-- Schema for the embedded benchmark database (H2 in MySQL mode).
+-- Same tables and keys as src/main/resources/sql/ schema.sql, without the MySQL-only table options.
+
+CREATE TABLE users (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  name VARCHAR(255) NOT NULL,
+  email VARCHAR(255) NOT NULL UNIQUE,
+  password VARCHAR(255) NOT NULL,
+  semester INT,
+  role VARCHAR(50) NOT NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE quizzes (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  title VARCHAR(255) NOT NULL,
+  semester INT,
+  duration_minutes INT NOT NULL DEFAULT 15,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+CREATE INDEX idx_quizzes_semester ON quizzes (semester);
+
+CREATE TABLE questions (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  quiz_id BIGINT NOT NULL,
+  ordinal INT NOT NULL,
+  text VARCHAR(4096) NOT NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_questions_quiz FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE,
+  CONSTRAINT uq_quiz_ordinal UNIQUE (quiz_id, ordinal)
+);
+
+CREATE TABLE options (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  question_id BIGINT NOT NULL,
+  ordinal INT NOT NULL,
+  text VARCHAR(1024) NOT NULL,
+  is_correct TINYINT NOT NULL DEFAULT 0,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_options_question FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE,
+  CONSTRAINT uq_question_option_ordinal UNIQUE (question_id, ordinal)
+);
+
+CREATE TABLE quiz_results (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  quiz_id BIGINT NOT NULL,
+  score INT,
+  total_questions INT,
+  attempt_token CHAR(36) NULL,
+  submitted_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_results_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE RESTRICT,
+  CONSTRAINT fk_results_quiz FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE,
+  CONSTRAINT uq_results_attempt_token UNIQUE (attempt_token)
+);
+CREATE INDEX idx_results_user ON quiz_results (user_id);
+CREATE INDEX idx_results_quiz ON quiz_results (quiz_id);
+
+CREATE TABLE quiz_result_answers (
+  id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  result_id BIGINT NOT NULL,
+  question_id BIGINT NOT NULL,
+  selected_option_id BIGINT NULL,
+  created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT fk_answers_result FOREIGN KEY (result_id) REFERENCES quiz_results(id) ON DELETE CASCADE,
+  CONSTRAINT fk_answers_question FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE RESTRICT,
+  CONSTRAINT fk_answers_option FOREIGN KEY (selected_option_id) REFERENCES options(id) ON DELETE SET NULL
+);
+CREATE INDEX idx_answers_result ON quiz_result_answers (result_id);
+
+CREATE TABLE id_sequences (
+  name VARCHAR(64) NOT NULL PRIMARY KEY,
+  next_id BIGINT NOT NULL
+);
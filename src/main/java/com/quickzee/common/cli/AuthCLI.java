@@ -3,6 +3,7 @@ package com.quickzee.common.cli;
 import com.quickzee.common.model.User;
 import com.quickzee.common.service.AuthService;
 import com.quickzee.common.util.InputValidator;
+import com.quickzee.common.util.RateLimitedException;
 
 import java.sql.SQLException;
 
@@ -41,6 +42,10 @@ public class AuthCLI {
                 return null;
             }
 
+        } catch (RateLimitedException e) {
+            CLIHelper.printError(e.getMessage());
+            CLIHelper.pause();
+            return null;
         } catch (SQLException e) {
             CLIHelper.printError("Database error: " + e.getMessage());
             CLIHelper.pause();
@@ -1,6 +1,12 @@
 package com.quickzee.common.cli;
 
-import java.util.Scanner;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * CLIHelper - Utility class for CLI operations
@@ -8,7 +14,16 @@ import java.util.Scanner;
  */
 public class CLIHelper {
 
-    private static final Scanner scanner = new Scanner(System.in);
+    // Lines typed by the user, read by a background thread so that a read can stop at a deadline
+    private static final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private static final String END_OF_INPUT = new String("<end of input>"); // compared by identity
+    private static volatile boolean closed = false;
+
+    static {
+        Thread reader = new Thread(CLIHelper::readLines, "qz-cli-input");
+        reader.setDaemon(true);
+        reader.start();
+    }
 
 
     /**
@@ -16,7 +31,7 @@ public class CLIHelper {
      */
     public static String readString(String prompt) {
         System.out.print(prompt);
-        return scanner.nextLine().trim();
+        return nextLine().trim();
     }
 
     /**
@@ -39,7 +54,7 @@ public class CLIHelper {
         while (true) {
             try {
                 System.out.print(prompt);
-                String input = scanner.nextLine().trim();
+                String input = nextLine().trim();
                 if (input.isEmpty()) {
                     return null;
                 }
@@ -63,6 +78,30 @@ public class CLIHelper {
         }
     }
 
+    /**
+     * Read an integer within a specific range, giving up when a deadline passes
+     * @return The number, or null if the deadline passed before it was entered
+     */
+    public static Integer readIntBefore(String prompt, int min, int max, long deadlineMillis) {
+        while (true) {
+            System.out.print(prompt);
+            String line = nextLine(deadlineMillis);
+            if (line == null) {
+                System.out.println();
+                return null;
+            }
+            try {
+                int value = Integer.parseInt(line.trim());
+                if (value >= min && value <= max) {
+                    return value;
+                }
+            } catch (NumberFormatException ignored) {
+                // same message as an out-of-range number
+            }
+            printError("Please enter a number between " + min + " and " + max);
+        }
+    }
+
     /**
      * Read a long input from user
      */
@@ -70,7 +109,7 @@ public class CLIHelper {
         while (true) {
             try {
                 System.out.print(prompt);
-                String input = scanner.nextLine().trim();
+                String input = nextLine().trim();
                 if (input.isEmpty()) {
                     return null;
                 }
@@ -87,7 +126,7 @@ public class CLIHelper {
     public static String readPassword(String prompt) {
         System.out.print(prompt);
         // Note: Console.readPassword() doesn't work in IDEs, using regular input
-        return scanner.nextLine().trim();
+        return nextLine().trim();
     }
 
     /**
@@ -191,7 +230,7 @@ public class CLIHelper {
     public static void pause() {
         System.out.println();
         System.out.print("Press ENTER to continue...");
-        scanner.nextLine();
+        nextLine();
     }
 
     /**
@@ -219,9 +258,53 @@ public class CLIHelper {
     }
 
     /**
-     * Close scanner (call on application exit)
+     * Stop reading input (call on application exit)
      */
     public static void closeScanner() {
-        scanner.close();
+        closed = true;
+        try {
+            System.in.close();
+        } catch (IOException ignored) {
+            // exiting anyway
+        }
+    }
+
+    // Next typed line (waits as long as needed); throws NoSuchElementException when input ends
+    private static String nextLine() {
+        return nextLine(Long.MAX_VALUE);
+    }
+
+    // Next typed line, or null if the deadline passes first
+    private static String nextLine(long deadlineMillis) {
+        try {
+            String line = deadlineMillis == Long.MAX_VALUE
+                    ? lines.take()
+                    : lines.poll(Math.max(0, deadlineMillis - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            if (line == END_OF_INPUT) {
+                lines.add(END_OF_INPUT); // every later read fails too
+                throw new NoSuchElementException("No line found");
+            }
+            return line;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NoSuchElementException("Interrupted while waiting for input");
+        }
+    }
+
+    // Runs on the input thread
+    private static void readLines() {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                System.err.println("⚠️ Could not read input: " + e.getMessage());
+            }
+        } finally {
+            lines.add(END_OF_INPUT);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,403 @@
+package com.quickzee.common.cli;
+
+import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.IdGenerator;
+import com.quickzee.common.util.PasswordHasher;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DataGeneratorCLI - Bulk-loads a synthetic dataset for scale testing
+ *
+ * Creates students spread over the 8 semesters, quizzes with questions and
+ * options, and quiz results with one answer row per question. Scores follow a
+ * per-student ability and a per-quiz difficulty, so averages, grade spread and
+ * per-question statistics look like real exams rather than uniform noise.
+ *
+ * Results are written by several threads, each with its own connection and
+ * JDBC batches. For MySQL add rewriteBatchedStatements=true to quickzee.db.url,
+ * otherwise the driver still sends batched rows one by one.
+ *
+ * Run: DataGeneratorCLI [--users N] [--quizzes N] [--questions N] [--options N]
+ *                       [--results N] [--threads N] [--batch N] [--seed N] [--yes]
+ * All generated students have the password "password123".
+ */
+public class DataGeneratorCLI {
+
+    private static final int SEMESTERS = 8;
+    private static final String PASSWORD = "password123";
+    private static final long HISTORY_MILLIS = TimeUnit.DAYS.toMillis(180);
+
+    private static final IdGenerator USER_IDS = IdGenerator.forTable("users");
+    private static final IdGenerator QUIZ_IDS = IdGenerator.forTable("quizzes");
+    private static final IdGenerator QUESTION_IDS = IdGenerator.forTable("questions");
+    private static final IdGenerator OPTION_IDS = IdGenerator.forTable("options");
+    private static final IdGenerator RESULT_IDS = IdGenerator.forTable("quiz_results");
+
+    private int users = 10_000;
+    private int quizzes = 200;
+    private int questions = 20;
+    private int options = 4;
+    private long results = 500_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int batchSize = 1000;
+    private long seed = System.currentTimeMillis();
+    private boolean confirmed = false;
+
+    // Generated entities, kept in memory to build results
+    private long[] userIds;
+    private double[] userAbility;           // chance to answer an average question correctly
+    private GeneratedQuiz[] generatedQuizzes;
+    private List<List<Integer>> quizzesBySemester;
+
+    private final AtomicLong resultsWritten = new AtomicLong();
+    private final AtomicLong answersWritten = new AtomicLong();
+
+    // One quiz as needed to generate answers
+    private static class GeneratedQuiz {
+        long id;
+        int semester;
+        double difficulty;      // subtracted from the student's ability
+        long[] questionIds;
+        long[][] optionIds;     // [question][option]
+        int[] correctOption;    // [question] -> option index
+    }
+
+    public static void main(String[] args) {
+        DataGeneratorCLI generator = new DataGeneratorCLI();
+        try {
+            generator.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            CLIHelper.printError(e.getMessage());
+            printUsage();
+            return;
+        }
+
+        if (!DBConnection.testConnection()) {
+            CLIHelper.printError("Failed to connect to database!");
+            return;
+        }
+
+        try {
+            generator.run();
+        } catch (SQLException e) {
+            CLIHelper.printError("Database error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            CLIHelper.printError("Interrupted");
+        } finally {
+            CLIHelper.closeScanner();
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: DataGeneratorCLI [--users N] [--quizzes N] [--questions N] [--options N]");
+        System.out.println("                        [--results N] [--threads N] [--batch N] [--seed N] [--yes]");
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--yes".equals(arg)) {
+                confirmed = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            long value;
+            try {
+                value = Long.parseLong(args[++i]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + args[i]);
+            }
+            switch (arg) {
+                case "--users": users = (int) positive(arg, value); break;
+                case "--quizzes": quizzes = (int) positive(arg, value); break;
+                case "--questions": questions = (int) positive(arg, value); break;
+                case "--options": options = (int) Math.max(2, positive(arg, value)); break;
+                case "--results": results = value; break;
+                case "--threads": threads = (int) positive(arg, value); break;
+                case "--batch": batchSize = (int) positive(arg, value); break;
+                case "--seed": seed = value; break;
+                default: throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (results < 0) {
+            throw new IllegalArgumentException("--results cannot be negative");
+        }
+    }
+
+    private static long positive(String name, long value) {
+        if (value <= 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(name + " must be between 1 and " + Integer.MAX_VALUE);
+        }
+        return value;
+    }
+
+    private void run() throws SQLException, InterruptedException {
+        long rows = users + quizzes * (1L + questions + (long) questions * options) + results * (1L + questions);
+
+        CLIHelper.printHeader("SYNTHETIC DATA GENERATOR");
+        DBConnection.printConnectionInfo();
+        System.out.printf("Users: %,d | Quizzes: %,d x %d questions x %d options | Results: %,d%n",
+                users, quizzes, questions, options, results);
+        System.out.printf("About %,d rows with %d threads (seed %d)%n", rows, threads, seed);
+
+        if (!confirmed && !CLIHelper.readYesNo("Add this data to the database above?")) {
+            CLIHelper.printInfo("Cancelled");
+            return;
+        }
+
+        long started = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+
+        // 1) Users and quizzes (single thread, results depend on them)
+        insertUsers(random.split());
+        insertQuizzes(random.split());
+        CLIHelper.printSuccess(String.format("%,d users and %,d quizzes written", users, quizzes));
+
+        // 2) Results, split over the worker threads
+        insertResults(random.split());
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        long written = resultsWritten.get() + answersWritten.get();
+        CLIHelper.printSuccess(String.format("Done: %,d results and %,d answers in %.1f s (%,.0f rows/s)",
+                resultsWritten.get(), answersWritten.get(), seconds, written / Math.max(seconds, 0.001)));
+    }
+
+    private void insertUsers(SplittableRandom random) throws SQLException {
+        String sql = "INSERT INTO users (id, name, email, password, semester, role) VALUES (?, ?, ?, ?, ?, 'student')";
+        String passwordHash = PasswordHasher.hashPassword(PASSWORD);
+        String runTag = Long.toString(seed, 36).replace('-', 'n');
+
+        userIds = USER_IDS.nextIds(users);
+        userAbility = new double[users];
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            conn.setAutoCommit(false);
+            for (int u = 0; u < users; u++) {
+                int semester = u % SEMESTERS + 1;
+                // Most students do fairly well, a few struggle, a few ace everything
+                userAbility[u] = clamp(0.65 + random.nextGaussian() * 0.15, 0.05, 0.98);
+
+                ps.setLong(1, userIds[u]);
+                ps.setString(2, "Student " + (u + 1));
+                ps.setString(3, "student" + (u + 1) + "." + runTag + "@example.com");
+                ps.setString(4, passwordHash);
+                ps.setInt(5, semester);
+                ps.addBatch();
+
+                if ((u + 1) % batchSize == 0) {
+                    ps.executeBatch();
+                    conn.commit();
+                }
+            }
+            ps.executeBatch();
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private void insertQuizzes(SplittableRandom random) throws SQLException {
+        generatedQuizzes = new GeneratedQuiz[quizzes];
+        quizzesBySemester = new ArrayList<>();
+        for (int s = 0; s < SEMESTERS; s++) {
+            quizzesBySemester.add(new ArrayList<>());
+        }
+
+        long[] quizIds = QUIZ_IDS.nextIds(quizzes);
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement quizPs = conn.prepareStatement(
+                     "INSERT INTO quizzes (id, title, semester, duration_minutes) VALUES (?, ?, ?, ?)");
+             PreparedStatement questionPs = conn.prepareStatement(
+                     "INSERT INTO questions (id, quiz_id, ordinal, text) VALUES (?, ?, ?, ?)");
+             PreparedStatement optionPs = conn.prepareStatement(
+                     "INSERT INTO options (id, question_id, ordinal, text, is_correct) VALUES (?, ?, ?, ?, ?)")) {
+            conn.setAutoCommit(false);
+
+            for (int q = 0; q < quizzes; q++) {
+                GeneratedQuiz quiz = new GeneratedQuiz();
+                quiz.id = quizIds[q];
+                quiz.semester = q % SEMESTERS + 1;
+                quiz.difficulty = random.nextGaussian() * 0.1;
+                quiz.questionIds = QUESTION_IDS.nextIds(questions);
+                quiz.optionIds = new long[questions][];
+                quiz.correctOption = new int[questions];
+                generatedQuizzes[q] = quiz;
+                quizzesBySemester.get(quiz.semester - 1).add(q);
+
+                quizPs.setLong(1, quiz.id);
+                quizPs.setString(2, "Generated Quiz " + (q + 1) + " (Semester " + quiz.semester + ")");
+                quizPs.setInt(3, quiz.semester);
+                quizPs.setInt(4, 15 + 5 * random.nextInt(10));
+                quizPs.addBatch();
+
+                // Questions and options; one correct option per question
+                for (int i = 0; i < questions; i++) {
+                    questionPs.setLong(1, quiz.questionIds[i]);
+                    questionPs.setLong(2, quiz.id);
+                    questionPs.setInt(3, i + 1);
+                    questionPs.setString(4, "Generated question " + (i + 1) + " of quiz " + (q + 1) + "?");
+                    questionPs.addBatch();
+
+                    quiz.optionIds[i] = OPTION_IDS.nextIds(options);
+                    quiz.correctOption[i] = random.nextInt(options);
+                    for (int o = 0; o < options; o++) {
+                        optionPs.setLong(1, quiz.optionIds[i][o]);
+                        optionPs.setLong(2, quiz.questionIds[i]);
+                        optionPs.setInt(3, o);
+                        optionPs.setString(4, "Option " + (char) ('A' + o % 26));
+                        optionPs.setInt(5, o == quiz.correctOption[i] ? 1 : 0);
+                        optionPs.addBatch();
+                    }
+                }
+
+                // Parents before children, committed per quiz group so batches stay bounded
+                if ((q + 1) % Math.max(1, batchSize / Math.max(1, questions * options)) == 0) {
+                    flushQuizBatches(conn, quizPs, questionPs, optionPs);
+                }
+            }
+            flushQuizBatches(conn, quizPs, questionPs, optionPs);
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static void flushQuizBatches(Connection conn, PreparedStatement quizPs,
+                                         PreparedStatement questionPs, PreparedStatement optionPs) throws SQLException {
+        quizPs.executeBatch();
+        questionPs.executeBatch();
+        optionPs.executeBatch();
+        conn.commit();
+    }
+
+    private void insertResults(SplittableRandom random) throws SQLException, InterruptedException {
+        if (results == 0) {
+            return;
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Void>> workers = new ArrayList<>();
+        long perWorker = results / threads;
+        for (int w = 0; w < threads; w++) {
+            long count = perWorker + (w < results % threads ? 1 : 0);
+            SplittableRandom workerRandom = random.split();
+            workers.add(pool.submit(() -> {
+                writeResults(count, workerRandom);
+                return null;
+            }));
+        }
+        pool.shutdown();
+
+        // Progress while the workers run
+        long started = System.nanoTime();
+        while (!pool.awaitTermination(5, TimeUnit.SECONDS)) {
+            double seconds = (System.nanoTime() - started) / 1e9;
+            System.out.printf("   %,d / %,d results (%,.0f rows/s)%n", resultsWritten.get(), results,
+                    (resultsWritten.get() + answersWritten.get()) / seconds);
+        }
+
+        for (Future<Void> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw new IllegalStateException("Result generation failed", e.getCause());
+            }
+        }
+    }
+
+    // One worker: its own connection, a transaction per batch of results
+    private void writeResults(long count, SplittableRandom random) throws SQLException {
+        String resultSql = "INSERT INTO quiz_results " +
+                "(id, user_id, quiz_id, score, total_questions, submitted_at, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String answerSql = "INSERT INTO quiz_result_answers " +
+                "(result_id, question_id, selected_option_id, created_at) VALUES (?, ?, ?, ?)";
+        long now = System.currentTimeMillis();
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement resultPs = conn.prepareStatement(resultSql);
+             PreparedStatement answerPs = conn.prepareStatement(answerSql)) {
+            conn.setAutoCommit(false);
+
+            long done = 0;
+            while (done < count) {
+                int batch = (int) Math.min(batchSize, count - done);
+                long[] resultIds = RESULT_IDS.nextIds(batch);
+
+                for (int r = 0; r < batch; r++) {
+                    int user = random.nextInt(users);
+                    GeneratedQuiz quiz = pickQuiz(user, random);
+                    double chance = clamp(userAbility[user] - quiz.difficulty, 0.02, 0.99);
+                    Timestamp submittedAt = new Timestamp(now - (long) (random.nextDouble() * HISTORY_MILLIS));
+
+                    // Answers first, so the score matches them
+                    int score = 0;
+                    for (int i = 0; i < questions; i++) {
+                        answerPs.setLong(1, resultIds[r]);
+                        answerPs.setLong(2, quiz.questionIds[i]);
+                        if (random.nextDouble() < 0.03) {
+                            answerPs.setNull(3, Types.BIGINT); // skipped
+                        } else if (random.nextDouble() < chance) {
+                            answerPs.setLong(3, quiz.optionIds[i][quiz.correctOption[i]]);
+                            score++;
+                        } else {
+                            int wrong = (quiz.correctOption[i] + 1 + random.nextInt(options - 1)) % options;
+                            answerPs.setLong(3, quiz.optionIds[i][wrong]);
+                        }
+                        answerPs.setTimestamp(4, submittedAt);
+                        answerPs.addBatch();
+                    }
+
+                    resultPs.setLong(1, resultIds[r]);
+                    resultPs.setLong(2, userIds[user]);
+                    resultPs.setLong(3, quiz.id);
+                    resultPs.setInt(4, score);
+                    resultPs.setInt(5, questions);
+                    resultPs.setTimestamp(6, submittedAt);
+                    resultPs.setTimestamp(7, submittedAt);
+                    resultPs.addBatch();
+                }
+
+                resultPs.executeBatch();
+                answerPs.executeBatch();
+                conn.commit();
+
+                done += batch;
+                resultsWritten.addAndGet(batch);
+                answersWritten.addAndGet((long) batch * questions);
+            }
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // Students mostly take quizzes of their own semester
+    private GeneratedQuiz pickQuiz(int user, SplittableRandom random) {
+        List<Integer> own = quizzesBySemester.get(user % SEMESTERS);
+        if (!own.isEmpty() && random.nextDouble() < 0.9) {
+            return generatedQuizzes[own.get(random.nextInt(own.size()))];
+        }
+        return generatedQuizzes[random.nextInt(generatedQuizzes.length)];
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
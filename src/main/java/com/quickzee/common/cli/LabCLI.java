@@ -0,0 +1,219 @@
+package com.quickzee.common.cli;
+
+import com.quickzee.common.dao.OfflineResultDao;
+import com.quickzee.common.model.OfflineResult;
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+import com.quickzee.common.model.User;
+import com.quickzee.common.offline.LabSession;
+import com.quickzee.common.offline.LabStore;
+import com.quickzee.common.offline.ResultMerger;
+import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.SessionManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LabCLI - Offline exam lab mode
+ *
+ * On the central machine (needs the database, admin login):
+ *   export <package.qzp> <quizId> [quizId...]   export quizzes and students
+ *   merge <labDir> [labDir...]                  merge results copied back from labs
+ *
+ * On the lab machine (no database):
+ *   setup <labDir> <package.qzp>                create a lab folder and start exams
+ *   run <labDir>                                start exams in an existing lab folder
+ */
+public class LabCLI {
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            printUsage();
+            return;
+        }
+
+        try {
+            switch (args[0]) {
+                case "export":
+                    export(args);
+                    break;
+                case "merge":
+                    merge(args);
+                    break;
+                case "setup":
+                    if (args.length < 3) {
+                        printUsage();
+                        return;
+                    }
+                    try (LabStore store = LabStore.create(Paths.get(args[1]), Paths.get(args[2]))) {
+                        runLab(store);
+                    }
+                    break;
+                case "run":
+                    try (LabStore store = LabStore.open(Paths.get(args[1]))) {
+                        runLab(store);
+                    }
+                    break;
+                default:
+                    printUsage();
+            }
+        } catch (IOException e) {
+            CLIHelper.printError("File error: " + e.getMessage());
+        } catch (SQLException e) {
+            CLIHelper.printError("Database error: " + e.getMessage());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            CLIHelper.printError(e.getMessage());
+        } finally {
+            CLIHelper.closeScanner();
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage:");
+        System.out.println("  LabCLI export <package.qzp> <quizId> [quizId...]");
+        System.out.println("  LabCLI merge <labDir> [labDir...]");
+        System.out.println("  LabCLI setup <labDir> <package.qzp>");
+        System.out.println("  LabCLI run <labDir>");
+    }
+
+    // ---------- central machine ----------
+
+    private static void export(String[] args) throws SQLException, IOException {
+        List<Long> quizIds = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            quizIds.add(Long.parseLong(args[i]));
+        }
+        if (!adminLogin()) {
+            return;
+        }
+        new ResultMerger().exportPackage(quizIds, Paths.get(args[1]));
+    }
+
+    private static void merge(String[] args) throws SQLException, IOException {
+        List<Path> labDirs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            labDirs.add(Paths.get(args[i]));
+        }
+        if (!adminLogin()) {
+            return;
+        }
+
+        OfflineResultDao.MergeReport report = new ResultMerger().merge(labDirs);
+        if (!report.getConflicts().isEmpty()) {
+            CLIHelper.printWarning(report.getConflicts().size() + " results were not merged (see above)");
+        }
+    }
+
+    private static boolean adminLogin() {
+        if (!DBConnection.testConnection()) {
+            CLIHelper.printError("Failed to connect to database!");
+            return false;
+        }
+        User user = new AuthCLI().showLoginMenu();
+        if (user == null || !SessionManager.isAdmin()) {
+            CLIHelper.printError("An admin login is required");
+            return false;
+        }
+        return true;
+    }
+
+    // ---------- lab machine ----------
+
+    private static void runLab(LabStore store) throws IOException {
+        LabSession lab = new LabSession(store);
+
+        CLIHelper.printWelcomeBanner();
+        CLIHelper.printInfo("Offline lab '" + lab.getLabName() + "': " +
+                store.getPackage().getQuizzes().size() + " quizzes, " +
+                store.getPackage().getRoster().size() + " students, " +
+                LabStore.readResults(store.getDirectory()).size() + " results collected");
+
+        while (true) {
+            CLIHelper.printHeader("LAB LOGIN");
+            System.out.println("(leave email empty to close the lab)");
+            String email = CLIHelper.readString("Email: ");
+            if (email.isEmpty()) {
+                return;
+            }
+            String password = CLIHelper.readPassword("Password: ");
+
+            try {
+                if (lab.login(email, password) == null) {
+                    CLIHelper.printError("Invalid email or password");
+                    CLIHelper.pause();
+                    continue;
+                }
+                takeQuiz(lab);
+            } catch (IllegalArgumentException e) {
+                CLIHelper.printError(e.getMessage());
+                CLIHelper.pause();
+            } finally {
+                SessionManager.logout();
+            }
+        }
+    }
+
+    private static void takeQuiz(LabSession lab) throws IOException {
+        List<Quiz> quizzes = lab.getAvailableQuizzes();
+        if (quizzes.isEmpty()) {
+            CLIHelper.printInfo("No quizzes in this lab for your semester");
+            CLIHelper.pause();
+            return;
+        }
+
+        CLIHelper.printHeader("LAB QUIZZES");
+        for (int i = 0; i < quizzes.size(); i++) {
+            Quiz quiz = quizzes.get(i);
+            System.out.printf("%d. %-35s %d min%n", i + 1, quiz.getTitle(), quiz.getDuration_minutes());
+        }
+        int choice = CLIHelper.readInt("Choose a quiz (0 to log out): ", 0, quizzes.size());
+        if (choice == 0) {
+            return;
+        }
+
+        Quiz quiz = quizzes.get(choice - 1);
+        OfflineResult attempt = lab.beginAttempt(quiz);
+        boolean timed = quiz.getDuration_minutes() != null && quiz.getDuration_minutes() > 0;
+        long deadline = timed
+                ? attempt.getStartedAtMillis() + TimeUnit.MINUTES.toMillis(quiz.getDuration_minutes())
+                : Long.MAX_VALUE;
+
+        for (int i = 0; i < quiz.getQuestions().size(); i++) {
+            Question question = quiz.getQuestions().get(i);
+
+            String header = "QUESTION " + (i + 1) + " of " + quiz.getQuestions().size();
+            if (timed) {
+                long secondsLeft = Math.max(0, (deadline - System.currentTimeMillis()) / 1000);
+                header += String.format("  (%d:%02d left)", secondsLeft / 60, secondsLeft % 60);
+            }
+            CLIHelper.printSubHeader(header);
+            System.out.println(question.getText());
+            System.out.println();
+
+            List<Option> options = question.getOptions();
+            for (int o = 0; o < options.size(); o++) {
+                System.out.println((o + 1) + ". " + options.get(o).getText());
+            }
+
+            System.out.println();
+            Integer answer = CLIHelper.readIntBefore("Your answer (1-" + options.size() + ", or 0 to skip): ",
+                    0, options.size(), deadline);
+            if (answer == null) {
+                CLIHelper.printWarning("Time is up! Submitting the answers given so far.");
+                break;
+            }
+            attempt.getAnswers().put(question.getId(), answer == 0 ? null : options.get(answer - 1).getId());
+        }
+
+        lab.submit(attempt);
+        CLIHelper.printSuccess("Your answers are saved. Results are published after the exam.");
+        CLIHelper.pause();
+    }
+}
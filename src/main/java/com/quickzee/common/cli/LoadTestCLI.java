@@ -0,0 +1,383 @@
+package com.quickzee.common.cli;
+
+import com.quickzee.common.model.AnswerSheet;
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+import com.quickzee.common.service.AttemptRegistry;
+import com.quickzee.common.service.AttemptService;
+import com.quickzee.common.service.AuthService;
+import com.quickzee.common.service.QuizService;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.Bulkheads;
+import com.quickzee.common.util.ConnectionPool;
+import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.LatencyHistogram;
+import com.quickzee.common.util.QueryProfiler;
+import com.quickzee.common.util.Session;
+import com.quickzee.common.util.SessionManager;
+import com.quickzee.common.util.SessionStore;
+import com.quickzee.common.util.SqlCall;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadTestCLI - Headless load generator for exam capacity planning
+ *
+ * Simulates many students taking an exam at the same time, each on its own
+ * virtual thread, through the real service layer (no HTTP in between):
+ * login -> quiz catalog -> start attempt -> think time -> submit.
+ * Students start spread over the ramp-up period and answer randomly.
+ *
+ * At the end it prints throughput and latency percentiles per step, the time
+ * spent waiting for database connections, and the errors seen. Run it against
+ * a test database filled by DataGeneratorCLI, with the same pool size and
+ * bulkhead settings as the exam server.
+ *
+ * Run: LoadTestCLI [--students N] [--ramp SECONDS] [--think SECONDS] [--pool N]
+ *                  [--emails PATTERN] [--password TEXT] [--seed N] [--verbose]
+ */
+public class LoadTestCLI {
+
+    private static final String[] STEPS = {"login", "catalog", "start", "submit"};
+    private static final int LOGIN = 0;
+    private static final int CATALOG = 1;
+    private static final int START = 2;
+    private static final int SUBMIT = 3;
+
+    private int students = 1000;
+    private long rampMillis = TimeUnit.SECONDS.toMillis(30);
+    private long thinkMillis = TimeUnit.SECONDS.toMillis(60);
+    private int poolSize = AppConfig.getInt("quickzee.server.dbPoolSize", 32);
+    private String emailPattern = "student%@example.com";
+    private String password = "password123";
+    private long seed = System.currentTimeMillis();
+    private boolean verbose = false;
+
+    private final AuthService authService = new AuthService();
+    private final QuizService quizService = new QuizService();
+    private final AttemptService attemptService = new AttemptService();
+
+    private final LatencyHistogram[] latencies = new LatencyHistogram[STEPS.length];
+    private final LongAdder[] failures = new LongAdder[STEPS.length];
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger finished = new AtomicInteger();
+
+    // Real stdout; System.out is silenced during the run unless --verbose
+    private final PrintStream out = System.out;
+
+    public LoadTestCLI() {
+        for (int i = 0; i < STEPS.length; i++) {
+            latencies[i] = new LatencyHistogram();
+            failures[i] = new LongAdder();
+        }
+    }
+
+    // One simulated student
+    private static class Student {
+        final int index;
+        final String email;
+        final SplittableRandom random;
+
+        Student(int index, String email, SplittableRandom random) {
+            this.index = index;
+            this.email = email;
+            this.random = random;
+        }
+    }
+
+    public static void main(String[] args) {
+        LoadTestCLI loadTest = new LoadTestCLI();
+        try {
+            loadTest.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            CLIHelper.printError(e.getMessage());
+            printUsage();
+            return;
+        }
+
+        if (!DBConnection.testConnection()) {
+            CLIHelper.printError("Failed to connect to database!");
+            return;
+        }
+
+        try {
+            loadTest.run();
+        } catch (SQLException e) {
+            CLIHelper.printError("Database error: " + e.getMessage());
+        } finally {
+            DBConnection.shutdownPool();
+        }
+        // Background services (autosave, attempt deadlines) keep the JVM alive
+        System.exit(0);
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: LoadTestCLI [--students N] [--ramp SECONDS] [--think SECONDS] [--pool N]");
+        System.out.println("                   [--emails PATTERN] [--password TEXT] [--seed N] [--verbose]");
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if ("--verbose".equals(arg)) {
+                verbose = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--students": students = (int) number(arg, value, 1, Integer.MAX_VALUE); break;
+                case "--ramp": rampMillis = TimeUnit.SECONDS.toMillis(number(arg, value, 0, 86_400)); break;
+                case "--think": thinkMillis = TimeUnit.SECONDS.toMillis(number(arg, value, 0, 86_400)); break;
+                case "--pool": poolSize = (int) number(arg, value, 1, 10_000); break;
+                case "--emails": emailPattern = value; break;
+                case "--password": password = value; break;
+                case "--seed": seed = number(arg, value, Long.MIN_VALUE, Long.MAX_VALUE); break;
+                default: throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+    }
+
+    private static long number(String name, String value, long min, long max) {
+        long parsed;
+        try {
+            parsed = Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + value);
+        }
+        if (parsed < min || parsed > max) {
+            throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+        }
+        return parsed;
+    }
+
+    private void run() throws SQLException {
+        CLIHelper.printHeader("EXAM LOAD TEST");
+        DBConnection.printConnectionInfo();
+
+        // 1) Pick the accounts before any load starts
+        List<String> emails = loadStudentEmails();
+        if (emails.isEmpty()) {
+            CLIHelper.printError("No students match " + emailPattern + " (fill the database with DataGeneratorCLI)");
+            return;
+        }
+        if (emails.size() < students) {
+            CLIHelper.printWarning(String.format("Only %,d students match %s, simulating %,d",
+                    emails.size(), emailPattern, emails.size()));
+            students = emails.size();
+        }
+        System.out.printf("Students: %,d | Ramp-up: %d s | Think time: ~%d s | DB pool: %d (seed %d)%n",
+                students, rampMillis / 1000, thinkMillis / 1000, poolSize, seed);
+
+        // 2) Same connection setup as the exam server
+        DBConnection.enablePool(poolSize, AppConfig.getLong("quickzee.server.dbPoolWaitMillis", 10000));
+        DBConnection.getConnectionWaits().reset();
+        QueryProfiler.reset();
+
+        if (!verbose) {
+            // The services log every login and submit; thousands of threads printing would skew timings
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        // 3) One virtual thread per student, started over the ramp-up period
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor();
+        long started = System.nanoTime();
+        progress.scheduleAtFixedRate(() -> printProgress(started), 5, 5, TimeUnit.SECONDS);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < students; i++) {
+                Student student = new Student(i, emails.get(i), random.split());
+                executor.execute(() -> simulate(student));
+            }
+        } finally {
+            progress.shutdownNow();
+            System.setOut(out);
+        }
+
+        // 4) Report
+        printReport((System.nanoTime() - started) / 1e9);
+    }
+
+    private List<String> loadStudentEmails() throws SQLException {
+        String sql = "SELECT email FROM users WHERE role = 'student' AND email LIKE ? ORDER BY id LIMIT ?";
+        List<String> emails = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, emailPattern);
+            ps.setInt(2, students);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    emails.add(rs.getString("email"));
+                }
+            }
+        }
+        return emails;
+    }
+
+    // One student's exam; a failed step ends the session (as a real client would give up)
+    private void simulate(Student student) {
+        try {
+            Thread.sleep(rampMillis * student.index / students);
+        } catch (InterruptedException e) {
+            return;
+        }
+
+        active.incrementAndGet();
+        Session session = null;
+        try {
+            // 1) Login (own client address, so the per-address limit does not throttle the test)
+            session = timed(LOGIN, () -> authService.loginWithToken(
+                    student.email, password, "loadtest-" + student.index));
+            if (session == null) {
+                failed(LOGIN, "Login rejected");
+                return;
+            }
+
+            Session current = session;
+            SessionManager.callAs(session, () -> {
+                takeExam(student, current);
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            // already counted by timed()
+        } finally {
+            if (session != null) {
+                SessionStore.invalidate(session.getToken());
+            }
+            active.decrementAndGet();
+            finished.incrementAndGet();
+        }
+    }
+
+    private void takeExam(Student student, Session session) throws SQLException {
+        // 2) Catalog: own semester plus "all semesters", like the dashboard
+        Integer semester = session.getUser().getSemester();
+        List<Quiz> catalog = timed(CATALOG, () -> {
+            List<Quiz> quizzes = new ArrayList<>();
+            if (semester != null && semester > 0) {
+                quizzes.addAll(quizService.getQuizzesBySemester(semester));
+            }
+            quizzes.addAll(quizService.getQuizzesBySemester(0));
+            return quizzes;
+        });
+        if (catalog.isEmpty()) {
+            failed(CATALOG, "No quiz for semester " + semester);
+            return;
+        }
+        long quizId = catalog.get(student.random.nextInt(catalog.size())).getId();
+
+        // 3) Start (or resume) the attempt, as the exam server does
+        String[] attemptToken = new String[1];
+        Quiz quiz = timed(START, () -> {
+            Quiz loaded = attemptService.startQuizAttempt(quizId);
+            AttemptRegistry.Attempt resumed = attemptService.resumeAttempt(loaded);
+            attemptToken[0] = resumed != null ? resumed.getToken() : attemptService.beginAttempt(loaded);
+            return loaded;
+        });
+
+        // 4) Think: answer time varies between half and one and a half times the average
+        try {
+            Thread.sleep((long) (thinkMillis * (0.5 + student.random.nextDouble())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        // 5) Submit random answers
+        AnswerSheet answers = new AnswerSheet(quiz.getQuestions().size());
+        for (Question question : quiz.getQuestions()) {
+            List<Option> options = question.getOptions();
+            if (options != null && !options.isEmpty()) {
+                answers.put(question.getId(), options.get(student.random.nextInt(options.size())).getId());
+            }
+        }
+        timed(SUBMIT, () -> attemptService.submitQuizAttempt(quizId, answers, attemptToken[0]));
+    }
+
+    // Run one step, recording its latency on success and its error on failure
+    private <T> T timed(int step, SqlCall<T> call) throws SQLException {
+        long started = System.nanoTime();
+        try {
+            T result = call.call();
+            latencies[step].recordSince(started);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            failed(step, e.getClass().getSimpleName() + ": " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private void failed(int step, String error) {
+        failures[step].increment();
+        errors.computeIfAbsent(STEPS[step] + " - " + error, key -> new LongAdder()).increment();
+    }
+
+    private void printProgress(long startedNanos) {
+        out.printf("⏱️  %4.0f s | active %,d | finished %,d/%,d | submitted %,d | failed %,d%n",
+                (System.nanoTime() - startedNanos) / 1e9, active.get(), finished.get(), students,
+                latencies[SUBMIT].getCount(), totalFailures());
+    }
+
+    private long totalFailures() {
+        long total = 0;
+        for (LongAdder failure : failures) {
+            total += failure.sum();
+        }
+        return total;
+    }
+
+    private void printReport(double seconds) {
+        CLIHelper.printHeader("LOAD TEST RESULTS");
+        System.out.printf("%,d students in %.1f s%n%n", students, seconds);
+
+        System.out.printf("%-9s %9s %7s %8s %9s %9s %9s %9s %9s%n",
+                "Step", "OK", "Failed", "ops/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (int i = 0; i < STEPS.length; i++) {
+            printRow(STEPS[i], latencies[i], failures[i].sum(), seconds);
+        }
+        printRow("conn-wait", DBConnection.getConnectionWaits(), 0, seconds);
+
+        ConnectionPool pool = DBConnection.getPool();
+        if (pool != null) {
+            System.out.printf("%nPool: %d of %d connections open, %d idle%n",
+                    pool.getTotalConnections(), pool.getMaxSize(), pool.getIdleConnections());
+        }
+        Bulkheads.printStatus();
+        QueryProfiler.printReport(10);
+
+        if (!errors.isEmpty()) {
+            System.out.println("Errors:");
+            new TreeMap<>(errors).forEach((error, count) ->
+                    System.out.printf("  %,8d  %s%n", count.sum(), error));
+        }
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram, long failed, double seconds) {
+        System.out.printf("%-9s %,9d %,7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, histogram.getCount(), failed, histogram.getCount() / Math.max(seconds, 0.001),
+                histogram.getMeanMillis(), histogram.getPercentileMillis(50), histogram.getPercentileMillis(90),
+                histogram.getPercentileMillis(99), histogram.getMaxMillis());
+    }
+}
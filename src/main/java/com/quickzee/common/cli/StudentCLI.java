@@ -1,5 +1,6 @@
 package com.quickzee.common.cli;
 
+import com.quickzee.common.model.CompactQuiz;
 import com.quickzee.common.model.Quiz;
 import com.quickzee.common.model.Question;
 import com.quickzee.common.model.Option;
@@ -7,11 +8,12 @@ import com.quickzee.common.model.QuizResult;
 import com.quickzee.common.service.AuthService;
 import com.quickzee.common.service.QuizService;
 import com.quickzee.common.service.AttemptService;
+import com.quickzee.common.util.RateLimitedException;
 import com.quickzee.common.util.SessionManager;
+import com.quickzee.common.util.SubmissionQueuedException;
 
 import java.sql.SQLException;
 import java.util.List;
-import java.util.ArrayList;
 
 /**
  * StudentCLI - Student dashboard and operations
@@ -154,7 +156,8 @@ public class StudentCLI {
             }
 
             // Collect answers
-            List<Long> selectedAnswers = new ArrayList<>();
+            String attemptToken = attemptService.beginAttempt(quiz);
+            long[] selectedAnswers = new long[quiz.getQuestions().size()]; // 0 = skipped
 
             for (int i = 0; i < quiz.getQuestions().size(); i++) {
                 Question question = quiz.getQuestions().get(i);
@@ -172,25 +175,31 @@ public class StudentCLI {
                 int answer = CLIHelper.readInt("Your answer (1-4, or 0 to skip): ", 0, 4);
 
                 if (answer == 0) {
-                    selectedAnswers.add(null); // Skipped
+                    selectedAnswers[i] = CompactQuiz.NO_ANSWER; // Skipped
                 } else {
                     // Find the option ID for the selected answer
                     Option selectedOption = question.getOptions().get(answer - 1);
-                    selectedAnswers.add(selectedOption.getId());
+                    selectedAnswers[i] = selectedOption.getId();
                 }
+
+                // Saved answers are submitted automatically if time runs out
+                attemptService.saveAnswers(attemptToken, selectedAnswers);
             }
 
             // Submit quiz
             CLIHelper.printInfo("Submitting quiz...");
-            QuizResult result = attemptService.submitQuizAttempt(quizId, selectedAnswers);
+            QuizResult result = attemptService.submitQuizAttempt(quizId, selectedAnswers, attemptToken);
 
             // Display result
             attemptService.printDetailedResult(result);
             CLIHelper.pause();
 
-        } catch (IllegalArgumentException e) {
+        } catch (IllegalArgumentException | RateLimitedException e) {
             CLIHelper.printError(e.getMessage());
             CLIHelper.pause();
+        } catch (SubmissionQueuedException e) {
+            CLIHelper.printWarning(e.getMessage());
+            CLIHelper.pause();
         } catch (SQLException e) {
             CLIHelper.printError("Database error: " + e.getMessage());
             CLIHelper.pause();
@@ -0,0 +1,220 @@
+package com.quickzee.common.dao;
+
+import com.quickzee.common.model.AttemptDraft;
+import com.quickzee.common.monitor.DaoMetrics;
+import com.quickzee.common.util.DBConnection;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * DraftDAO
+ * Reads and writes autosaved drafts of running attempts
+ * (attempt_drafts and attempt_draft_answers tables).
+ */
+public class DraftDao {
+
+    private static final DaoMetrics METRICS = DaoMetrics.forDao(DraftDao.class);
+
+    private static final String SELECT_DRAFTS =
+            "SELECT d.attempt_token, d.user_id, d.quiz_id, d.started_at, d.deadline_at, " +
+            "a.question_index, a.option_id " +
+            "FROM attempt_drafts d " +
+            "LEFT JOIN attempt_draft_answers a ON a.attempt_token = d.attempt_token ";
+
+    /**
+     * Write one round of autosave changes in a single transaction
+     * (one batch per statement, however many students changed answers).
+     * @param created New drafts to insert (already existing ones are ignored)
+     * @param changes Changed answers: attempt token -> (question index -> option ID, null = cleared)
+     * @param deleted Tokens of drafts to remove (submitted attempts)
+     * @throws SQLException if database error occurs (nothing is written)
+     */
+    public void applyBatch(Collection<AttemptDraft> created,
+                           Map<String, Map<Integer, Long>> changes,
+                           Collection<String> deleted) throws SQLException {
+        METRICS.time("applyBatch", () -> {
+            String insertDraft = "INSERT IGNORE INTO attempt_drafts " +
+                    "(attempt_token, user_id, quiz_id, started_at, deadline_at) VALUES (?, ?, ?, ?, ?)";
+
+            // Only for drafts that exist, so a missing draft row can never fail the whole batch
+            String upsertAnswer = "INSERT INTO attempt_draft_answers (attempt_token, question_index, option_id) " +
+                    "SELECT attempt_token, ?, ? FROM attempt_drafts WHERE attempt_token = ? " +
+                    "ON DUPLICATE KEY UPDATE option_id = VALUES(option_id)";
+
+            String deleteDraft = "DELETE FROM attempt_drafts WHERE attempt_token = ?";
+
+            Connection conn = null;
+            try {
+                conn = DBConnection.getConnection();
+                conn.setAutoCommit(false);
+
+                // 1) New drafts first, so their answers in this round have a parent row
+                if (!created.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(insertDraft)) {
+                        for (AttemptDraft draft : created) {
+                            ps.setString(1, draft.getAttemptToken());
+                            ps.setLong(2, draft.getUserId());
+                            ps.setLong(3, draft.getQuizId());
+                            ps.setTimestamp(4, new Timestamp(draft.getStartedAtMillis()));
+                            if (draft.getDeadlineMillis() > 0) {
+                                ps.setTimestamp(5, new Timestamp(draft.getDeadlineMillis()));
+                            } else {
+                                ps.setNull(5, Types.TIMESTAMP);
+                            }
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+
+                // 2) Changed answers only
+                if (!changes.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(upsertAnswer)) {
+                        for (Map.Entry<String, Map<Integer, Long>> attempt : changes.entrySet()) {
+                            for (Map.Entry<Integer, Long> answer : attempt.getValue().entrySet()) {
+                                ps.setInt(1, answer.getKey());
+                                if (answer.getValue() != null) {
+                                    ps.setLong(2, answer.getValue());
+                                } else {
+                                    ps.setNull(2, Types.BIGINT);
+                                }
+                                ps.setString(3, attempt.getKey());
+                                ps.addBatch();
+                            }
+                        }
+                        ps.executeBatch();
+                    }
+                }
+
+                // 3) Finished attempts (answers go with them via ON DELETE CASCADE)
+                if (!deleted.isEmpty()) {
+                    try (PreparedStatement ps = conn.prepareStatement(deleteDraft)) {
+                        for (String token : deleted) {
+                            ps.setString(1, token);
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+                    }
+                }
+
+                conn.commit();
+
+            } catch (SQLException e) {
+                if (conn != null) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException ignore) {}
+                }
+                throw e;
+            } finally {
+                if (conn != null) {
+                    try {
+                        conn.setAutoCommit(true);
+                        conn.close();
+                    } catch (SQLException ignore) {}
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Find the most recent draft of a user for a quiz
+     * @param userId User ID
+     * @param quizId Quiz ID
+     * @return Draft with its answers, or null if there is none
+     * @throws SQLException if database error occurs
+     */
+    public AttemptDraft findLatest(Long userId, Long quizId) throws SQLException {
+        return METRICS.time("findLatest", () -> {
+            String sql = SELECT_DRAFTS +
+                    "WHERE d.attempt_token = (SELECT attempt_token FROM attempt_drafts " +
+                    "WHERE user_id = ? AND quiz_id = ? ORDER BY started_at DESC LIMIT 1) " +
+                    "ORDER BY a.question_index";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setLong(1, userId);
+                ps.setLong(2, quizId);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    List<AttemptDraft> drafts = mapRowsToDrafts(rs);
+                    return drafts.isEmpty() ? null : drafts.get(0);
+                }
+            }
+        });
+    }
+
+    /**
+     * Find all drafts (used to resume running attempts after a restart)
+     * @return Drafts with their answers
+     * @throws SQLException if database error occurs
+     */
+    public List<AttemptDraft> findAll() throws SQLException {
+        return METRICS.time("findAll", () -> {
+            String sql = SELECT_DRAFTS + "ORDER BY d.attempt_token, a.question_index";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                return mapRowsToDrafts(rs);
+            }
+        });
+    }
+
+    /**
+     * Delete a draft and its answers
+     * @param attemptToken Attempt token
+     * @throws SQLException if database error occurs
+     */
+    public void delete(String attemptToken) throws SQLException {
+        METRICS.time("delete", () -> {
+            String sql = "DELETE FROM attempt_drafts WHERE attempt_token = ?";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+                ps.setString(1, attemptToken);
+                ps.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    // Rows are ordered by token, so each draft's answer rows are consecutive
+    private List<AttemptDraft> mapRowsToDrafts(ResultSet rs) throws SQLException {
+        List<AttemptDraft> drafts = new ArrayList<>();
+        AttemptDraft current = null;
+
+        while (rs.next()) {
+            String token = rs.getString("attempt_token");
+
+            if (current == null || !current.getAttemptToken().equals(token)) {
+                Timestamp deadline = rs.getTimestamp("deadline_at");
+                current = new AttemptDraft(
+                        token,
+                        rs.getLong("user_id"),
+                        rs.getLong("quiz_id"),
+                        rs.getTimestamp("started_at").getTime(),
+                        deadline != null ? deadline.getTime() : 0);
+                drafts.add(current);
+            }
+
+            int index = rs.getInt("question_index");
+            if (rs.wasNull()) {
+                continue; // draft without answers
+            }
+
+            long optionId = rs.getLong("option_id");
+            Long answer = rs.wasNull() ? null : optionId;
+
+            List<Long> answers = current.getAnswers();
+            while (answers.size() <= index) {
+                answers.add(null);
+            }
+            answers.set(index, answer);
+        }
+        return drafts;
+    }
+}
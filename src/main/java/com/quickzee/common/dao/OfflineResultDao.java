@@ -0,0 +1,358 @@
+package com.quickzee.common.dao;
+
+import com.quickzee.common.model.OfflineResult;
+import com.quickzee.common.monitor.DaoMetrics;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.IdGenerator;
+import com.quickzee.common.util.QuizFingerprint;
+
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OfflineResultDAO
+ * Merges results collected in offline exam labs into quiz_results and
+ * quiz_result_answers, many results per transaction.
+ *
+ * Every result is checked before it is written:
+ * - its attempt token is already stored for the same user and quiz -> skipped (merged before)
+ * - its attempt token is stored for someone else, the user or quiz no longer
+ *   exists, the quiz's questions changed since export, or it was submitted
+ *   later than the quiz's time limit plus quickzee.attempt.graceSeconds -> conflict, not written
+ * Results are scored here against the current answer key.
+ */
+public class OfflineResultDao {
+
+    private static final DaoMetrics METRICS = DaoMetrics.forDao(OfflineResultDao.class);
+
+    private static final IdGenerator RESULT_IDS = IdGenerator.forTable("quiz_results");
+
+    // Same grace as for online attempts (see AttemptRegistry)
+    private static final long GRACE_MILLIS = TimeUnit.SECONDS.toMillis(
+            AppConfig.getLong("quickzee.attempt.graceSeconds", 30));
+
+    /**
+     * Outcome of a merge
+     */
+    public static class MergeReport {
+        private int merged;
+        private int alreadyMerged;
+        private final List<String> conflicts = new ArrayList<>();
+
+        public int getMerged() {
+            return merged;
+        }
+
+        public int getAlreadyMerged() {
+            return alreadyMerged;
+        }
+
+        /**
+         * @return One line per result that was not merged, with the reason
+         */
+        public List<String> getConflicts() {
+            return conflicts;
+        }
+
+        @Override
+        public String toString() {
+            return "MergeReport{merged=" + merged +
+                    ", alreadyMerged=" + alreadyMerged +
+                    ", conflicts=" + conflicts.size() + '}';
+        }
+    }
+
+    // Current questions, options and answer key of one quiz
+    private static class QuizKey {
+        String fingerprint;
+        long durationMillis; // 0 = no time limit
+        final List<Long> questionIds = new ArrayList<>();
+        final Map<Long, Long> optionToQuestion = new HashMap<>();
+        final Set<Long> correctOptions = new HashSet<>();
+    }
+
+    /**
+     * Merge offline results (safe to run again with the same results)
+     * @param results Results read from lab stores
+     * @param batchSize Results per transaction
+     * @return What was merged, skipped and rejected
+     * @throws SQLException if database error occurs (the current batch is rolled back,
+     *                      earlier batches stay merged)
+     */
+    public MergeReport merge(List<OfflineResult> results, int batchSize) throws SQLException {
+        return METRICS.time("merge", () -> {
+            MergeReport report = new MergeReport();
+            Map<Long, QuizKey> keys = new HashMap<>();
+            Set<String> seenTokens = new HashSet<>();
+
+            for (int from = 0; from < results.size(); from += batchSize) {
+                List<OfflineResult> batch = results.subList(from, Math.min(results.size(), from + batchSize));
+                mergeBatch(batch, keys, seenTokens, report);
+            }
+            return report;
+        });
+    }
+
+    private void mergeBatch(List<OfflineResult> batch, Map<Long, QuizKey> keys,
+                            Set<String> seenTokens, MergeReport report) throws SQLException {
+        Connection conn = null;
+        try {
+            conn = DBConnection.getConnection();
+            conn.setAutoCommit(false);
+
+            // 1) Everything needed to check the batch, in three queries
+            Map<String, long[]> stored = loadStoredTokens(conn, batch);
+            Set<Long> users = loadExistingUsers(conn, batch);
+            loadQuizKeys(conn, batch, keys);
+
+            // 2) Check and score
+            List<OfflineResult> accepted = new ArrayList<>();
+            List<Integer> scores = new ArrayList<>();
+            for (OfflineResult result : batch) {
+                String token = result.getAttemptToken();
+                long[] existing = stored.get(token);
+                QuizKey key = keys.get(result.getQuizId());
+
+                if (!seenTokens.add(token)) {
+                    report.alreadyMerged++;
+                } else if (existing != null) {
+                    if (existing[0] == result.getUserId() && existing[1] == result.getQuizId()) {
+                        report.alreadyMerged++;
+                    } else {
+                        report.conflicts.add(describe(result) + ": attempt token already used by another result");
+                    }
+                } else if (!users.contains(result.getUserId())) {
+                    report.conflicts.add(describe(result) + ": user no longer exists");
+                } else if (key == null) {
+                    report.conflicts.add(describe(result) + ": quiz no longer exists");
+                } else if (!key.fingerprint.equals(result.getQuizFingerprint())) {
+                    report.conflicts.add(describe(result) + ": quiz questions changed since the package was exported");
+                } else if (isOverTime(result, key)) {
+                    report.conflicts.add(describe(result) + ": submitted after " +
+                            formatMinutes(result.getSubmittedAtMillis() - result.getStartedAtMillis()) +
+                            ", over the " + formatMinutes(key.durationMillis) + " time limit");
+                } else {
+                    accepted.add(result);
+                    scores.add(score(result, key));
+                }
+            }
+
+            // 3) Insert all accepted results and their answers as two batches
+            if (!accepted.isEmpty()) {
+                long[] ids = RESULT_IDS.nextIds(accepted.size());
+                insertResults(conn, accepted, scores, keys, ids);
+                insertAnswers(conn, accepted, keys, ids);
+            }
+
+            conn.commit();
+            report.merged += accepted.size();
+
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ignore) {}
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                try {
+                    conn.setAutoCommit(true);
+                    conn.close();
+                } catch (SQLException ignore) {}
+            }
+        }
+    }
+
+    private int score(OfflineResult result, QuizKey key) {
+        int score = 0;
+        for (Long questionId : key.questionIds) {
+            Long selected = validAnswer(result, key, questionId);
+            if (selected != null && key.correctOptions.contains(selected)) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    // Selected option of a question, or null if skipped or not an option of that question
+    private Long validAnswer(OfflineResult result, QuizKey key, Long questionId) {
+        Long selected = result.getAnswers().get(questionId);
+        return selected != null && questionId.equals(key.optionToQuestion.get(selected)) ? selected : null;
+    }
+
+    // Taken longer than the time limit plus grace (a missing start time counts as over time too)
+    private boolean isOverTime(OfflineResult result, QuizKey key) {
+        if (key.durationMillis <= 0) {
+            return false;
+        }
+        long taken = result.getSubmittedAtMillis() - result.getStartedAtMillis();
+        return result.getStartedAtMillis() <= 0 || taken > key.durationMillis + GRACE_MILLIS;
+    }
+
+    private static String formatMinutes(long millis) {
+        return String.format("%.1f min", millis / 60_000.0);
+    }
+
+    private String describe(OfflineResult result) {
+        return "user " + result.getUserId() + ", quiz " + result.getQuizId() +
+                " (lab " + result.getLabName() + ", attempt " + result.getAttemptToken() + ")";
+    }
+
+    // attempt token -> {user_id, quiz_id} for tokens of this batch that are already stored
+    private Map<String, long[]> loadStoredTokens(Connection conn, List<OfflineResult> batch) throws SQLException {
+        Map<String, long[]> stored = new HashMap<>();
+        String sql = "SELECT attempt_token, user_id, quiz_id FROM quiz_results WHERE attempt_token IN (" +
+                placeholders(batch.size()) + ")";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < batch.size(); i++) {
+                ps.setString(i + 1, batch.get(i).getAttemptToken());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    stored.put(rs.getString("attempt_token"),
+                            new long[]{rs.getLong("user_id"), rs.getLong("quiz_id")});
+                }
+            }
+        }
+        return stored;
+    }
+
+    private Set<Long> loadExistingUsers(Connection conn, List<OfflineResult> batch) throws SQLException {
+        Set<Long> wanted = new LinkedHashSet<>();
+        for (OfflineResult result : batch) {
+            wanted.add(result.getUserId());
+        }
+
+        Set<Long> existing = new HashSet<>();
+        String sql = "SELECT id FROM users WHERE id IN (" + placeholders(wanted.size()) + ")";
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (Long userId : wanted) {
+                ps.setLong(i++, userId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getLong("id"));
+                }
+            }
+        }
+        return existing;
+    }
+
+    // Load questions, options and answer keys of quizzes not loaded by an earlier batch
+    private void loadQuizKeys(Connection conn, List<OfflineResult> batch, Map<Long, QuizKey> keys) throws SQLException {
+        Set<Long> missing = new LinkedHashSet<>();
+        for (OfflineResult result : batch) {
+            if (!keys.containsKey(result.getQuizId())) {
+                missing.add(result.getQuizId());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        String sql = "SELECT q.quiz_id, z.duration_minutes, q.id AS question_id, o.id AS option_id, o.is_correct " +
+                "FROM questions q JOIN quizzes z ON z.id = q.quiz_id " +
+                "LEFT JOIN options o ON o.question_id = q.id " +
+                "WHERE q.quiz_id IN (" + placeholders(missing.size()) + ") " +
+                "ORDER BY q.quiz_id, q.ordinal, o.ordinal";
+
+        Map<Long, QuizFingerprint> fingerprints = new HashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (Long quizId : missing) {
+                ps.setLong(i++, quizId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long quizId = rs.getLong("quiz_id");
+                    long questionId = rs.getLong("question_id");
+                    QuizKey key = keys.computeIfAbsent(quizId, id -> new QuizKey());
+                    key.durationMillis = TimeUnit.MINUTES.toMillis(rs.getInt("duration_minutes"));
+                    QuizFingerprint fingerprint = fingerprints.computeIfAbsent(quizId, QuizFingerprint::new);
+
+                    // Rows are ordered by question, so a new question starts when the id changes
+                    if (key.questionIds.isEmpty() || key.questionIds.get(key.questionIds.size() - 1) != questionId) {
+                        key.questionIds.add(questionId);
+                        fingerprint.addQuestion(questionId);
+                    }
+
+                    long optionId = rs.getLong("option_id");
+                    if (rs.wasNull()) {
+                        continue; // question without options
+                    }
+                    key.optionToQuestion.put(optionId, questionId);
+                    fingerprint.addOption(optionId);
+                    if (rs.getInt("is_correct") == 1) {
+                        key.correctOptions.add(optionId);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<Long, QuizFingerprint> entry : fingerprints.entrySet()) {
+            keys.get(entry.getKey()).fingerprint = entry.getValue().finish();
+        }
+    }
+
+    private void insertResults(Connection conn, List<OfflineResult> accepted, List<Integer> scores,
+                               Map<Long, QuizKey> keys, long[] ids) throws SQLException {
+        String sql = "INSERT INTO quiz_results " +
+                "(id, user_id, quiz_id, score, total_questions, attempt_token, submitted_at, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, NOW())";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < accepted.size(); i++) {
+                OfflineResult result = accepted.get(i);
+                ps.setLong(1, ids[i]);
+                ps.setLong(2, result.getUserId());
+                ps.setLong(3, result.getQuizId());
+                ps.setInt(4, scores.get(i));
+                ps.setInt(5, keys.get(result.getQuizId()).questionIds.size());
+                ps.setString(6, result.getAttemptToken());
+                ps.setTimestamp(7, new Timestamp(result.getSubmittedAtMillis()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private void insertAnswers(Connection conn, List<OfflineResult> accepted,
+                               Map<Long, QuizKey> keys, long[] ids) throws SQLException {
+        String sql = "INSERT INTO quiz_result_answers " +
+                "(result_id, question_id, selected_option_id, created_at) " +
+                "VALUES (?, ?, ?, NOW())";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < accepted.size(); i++) {
+                OfflineResult result = accepted.get(i);
+                QuizKey key = keys.get(result.getQuizId());
+
+                for (Long questionId : key.questionIds) {
+                    Long selected = validAnswer(result, key, questionId);
+                    ps.setLong(1, ids[i]);
+                    ps.setLong(2, questionId);
+                    if (selected == null) {
+                        ps.setNull(3, Types.BIGINT);
+                    } else {
+                        ps.setLong(3, selected);
+                    }
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private String placeholders(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "?" : ",?");
+        }
+        return sb.toString();
+    }
+}
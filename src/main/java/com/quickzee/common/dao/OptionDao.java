@@ -1,7 +1,9 @@
 package com.quickzee.common.dao;
 
 import com.quickzee.common.model.Option;
+import com.quickzee.common.monitor.DaoMetrics;
 import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.IdGenerator;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -9,91 +11,132 @@ import java.util.List;
 
 public class OptionDao {
 
+    private static final DaoMetrics METRICS = DaoMetrics.forDao(OptionDao.class);
+
+    private static final IdGenerator OPTION_IDS = IdGenerator.forTable("options");
+
     // Insert a new option into the database
     public void insert(Option option) throws SQLException {
-        String sql = "INSERT INTO options (question_id, ordinal, text, is_correct) VALUES (?, ?, ?, ?)";
+        METRICS.time("insert", () -> {
+            String sql = "INSERT INTO options (id, question_id, ordinal, text, is_correct) VALUES (?, ?, ?, ?, ?)";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            // Id is assigned on the client, no generated-keys round trip needed
+            option.setId(OPTION_IDS.nextId());
 
-            ps.setLong(1, option.getQuestion_id());
-            ps.setInt(2, option.getOrdinal());
-            ps.setString(3, option.getText());
-            ps.setInt(4, option.getIs_correct());
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.executeUpdate();
+                bindOption(ps, option);
+                ps.executeUpdate();
+            }
+            return null;
+        });
+    }
 
-            // Get the generated option ID and set it in the object
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    option.setId(rs.getLong(1));
-                }
+    // Reserve ids for a list of options (question_id must already be set)
+    static void assignIds(List<Option> options) throws SQLException {
+        long[] ids = OPTION_IDS.nextIds(options.size());
+        for (int i = 0; i < options.size(); i++) {
+            options.get(i).setId(ids[i]);
+        }
+    }
+
+    // Batch-insert options on the caller's connection (ids already assigned)
+    static void insertBatch(Connection conn, List<Option> options) throws SQLException {
+        if (options.isEmpty()) return;
+
+        String sql = "INSERT INTO options (id, question_id, ordinal, text, is_correct) VALUES (?, ?, ?, ?, ?)";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Option option : options) {
+                bindOption(ps, option);
+                ps.addBatch();
             }
+            ps.executeBatch();
         }
     }
 
+    // Bind id, question_id, ordinal, text, is_correct for the options INSERT
+    private static void bindOption(PreparedStatement ps, Option option) throws SQLException {
+        ps.setLong(1, option.getId());
+        ps.setLong(2, option.getQuestion_id());
+        ps.setInt(3, option.getOrdinal());
+        ps.setString(4, option.getText());
+        ps.setInt(5, option.getIs_correct() != null ? option.getIs_correct() : 0);
+    }
+
     // Find an option by its ID
     public Option findById(Long id) throws SQLException {
-        String sql = "SELECT id, question_id, ordinal, text, is_correct FROM options WHERE id = ?";
+        return METRICS.time("findById", () -> {
+            String sql = "SELECT id, question_id, ordinal, text, is_correct FROM options WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, id);
+                ps.setLong(1, id);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToOption(rs);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRowToOption(rs);
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     // Find all options for a specific question
     public List<Option> findByQuestionId(Long questionId) throws SQLException {
-        String sql = "SELECT id, question_id, ordinal, text, is_correct FROM options WHERE question_id = ? ORDER BY ordinal";
+        return METRICS.time("findByQuestionId", () -> {
+            String sql = "SELECT id, question_id, ordinal, text, is_correct FROM options WHERE question_id = ? ORDER BY ordinal";
 
-        List<Option> options = new ArrayList<>();
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            List<Option> options = new ArrayList<>();
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, questionId);
+                ps.setLong(1, questionId);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    options.add(mapRowToOption(rs));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        options.add(mapRowToOption(rs));
+                    }
                 }
             }
-        }
-        return options;
+            return options;
+        });
     }
 
     // Update an existing option
     public void update(Option option) throws SQLException {
-        String sql = "UPDATE options SET text = ?, is_correct = ? WHERE id = ?";
+        METRICS.time("update", () -> {
+            String sql = "UPDATE options SET text = ?, is_correct = ? WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, option.getText());
-            ps.setInt(2, option.getIs_correct());
-            ps.setLong(3, option.getId());
+                ps.setString(1, option.getText());
+                ps.setInt(2, option.getIs_correct());
+                ps.setLong(3, option.getId());
 
-            ps.executeUpdate();
-        }
+                ps.executeUpdate();
+            }
+            return null;
+        });
     }
 
     // Delete an option by its ID
     public void deleteById(Long id) throws SQLException {
-        String sql = "DELETE FROM options WHERE id = ?";
+        METRICS.time("deleteById", () -> {
+            String sql = "DELETE FROM options WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, id);
-            ps.executeUpdate();
-        }
+                ps.setLong(1, id);
+                ps.executeUpdate();
+            }
+            return null;
+        });
     }
 
     // Helper method to map a ResultSet row to an Option object
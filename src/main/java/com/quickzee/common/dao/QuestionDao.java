@@ -1,7 +1,10 @@
 package com.quickzee.common.dao;
 
+import com.quickzee.common.model.Option;
 import com.quickzee.common.model.Question;
+import com.quickzee.common.monitor.DaoMetrics;
 import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.IdGenerator;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -9,90 +12,185 @@ import java.util.List;
 
 public class QuestionDao {
 
+    private static final DaoMetrics METRICS = DaoMetrics.forDao(QuestionDao.class);
+
+    private static final IdGenerator QUESTION_IDS = IdGenerator.forTable("questions");
+
     // Insert a new question into the database
     public void insert(Question question) throws SQLException {
-        String sql = "INSERT INTO questions (quiz_id, ordinal, text) VALUES (?, ?, ?)";
+        METRICS.time("insert", () -> {
+            String sql = "INSERT INTO questions (id, quiz_id, ordinal, text) VALUES (?, ?, ?, ?)";
+
+            // Id is assigned on the client, no generated-keys round trip needed
+            question.setId(QUESTION_IDS.nextId());
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setLong(1, question.getId());
+                ps.setLong(2, question.getQuiz_id());
+                ps.setInt(3, question.getOrdinal());
+                ps.setString(4, question.getText());
+
+                ps.executeUpdate();
+            }
+            return null;
+        });
+    }
+
+    // Insert several questions (with their options) in one transaction, one batch per table
+    public void insertAllWithOptions(Long quizId, List<Question> questions) throws SQLException {
+        METRICS.time("insertAllWithOptions", () -> {
+            assignIds(quizId, questions);
+
+            Connection conn = null;
+            try {
+                conn = DBConnection.getConnection();
+                conn.setAutoCommit(false);
+
+                insertBatch(conn, questions);
+
+                conn.commit();
+
+            } catch (SQLException ex) {
+                if (conn != null) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException ignore) {
+                    }
+                }
+                throw ex;
+            } finally {
+                if (conn != null) {
+                    try {
+                        conn.setAutoCommit(true);
+                        conn.close();
+                    } catch (SQLException ignore) {
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    // Reserve ids for the questions (and their options) and set the parent references
+    private static void assignIds(Long quizId, List<Question> questions) throws SQLException {
+        long[] ids = QUESTION_IDS.nextIds(questions.size());
+
+        List<Option> allOptions = new ArrayList<>();
+        for (int i = 0; i < questions.size(); i++) {
+            Question q = questions.get(i);
+            q.setId(ids[i]);
+            q.setQuiz_id(quizId);
+
+            if (q.getOptions() != null) {
+                for (Option opt : q.getOptions()) {
+                    opt.setQuestion_id(q.getId());
+                    allOptions.add(opt);
+                }
+            }
+        }
+
+        OptionDao.assignIds(allOptions);
+    }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+    // Batch-insert questions and then their options on the caller's connection (ids already assigned)
+    private static void insertBatch(Connection conn, List<Question> questions) throws SQLException {
+        if (questions.isEmpty()) return;
 
-            ps.setLong(1, question.getQuiz_id());
-            ps.setInt(2, question.getOrdinal());
-            ps.setString(3, question.getText());
+        String sql = "INSERT INTO questions (id, quiz_id, ordinal, text) VALUES (?, ?, ?, ?)";
 
-            ps.executeUpdate();
+        List<Option> allOptions = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (Question q : questions) {
+                ps.setLong(1, q.getId());
+                ps.setLong(2, q.getQuiz_id());
+                ps.setInt(3, q.getOrdinal());
+                ps.setString(4, q.getText());
+                ps.addBatch();
 
-            // Get the generated question ID and set it in the object
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    question.setId(rs.getLong(1));
+                if (q.getOptions() != null) {
+                    allOptions.addAll(q.getOptions());
                 }
             }
+            ps.executeBatch();
         }
+
+        OptionDao.insertBatch(conn, allOptions);
     }
 
     // Find a question by its ID
     public Question findById(Long id) throws SQLException {
-        String sql = "SELECT id, quiz_id, ordinal, text FROM questions WHERE id = ?";
+        return METRICS.time("findById", () -> {
+            String sql = "SELECT id, quiz_id, ordinal, text FROM questions WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, id);
+                ps.setLong(1, id);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToQuestion(rs);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRowToQuestion(rs);
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     // Find all questions for a specific quiz, ordered by ordinal
     public List<Question> findByQuizId(Long quizId) throws SQLException {
-        String sql = "SELECT id, quiz_id, ordinal, text FROM questions WHERE quiz_id = ? ORDER BY ordinal";
+        return METRICS.time("findByQuizId", () -> {
+            String sql = "SELECT id, quiz_id, ordinal, text FROM questions WHERE quiz_id = ? ORDER BY ordinal";
 
-        List<Question> questions = new ArrayList<>();
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            List<Question> questions = new ArrayList<>();
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, quizId);
+                ps.setLong(1, quizId);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    questions.add(mapRowToQuestion(rs));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        questions.add(mapRowToQuestion(rs));
+                    }
                 }
             }
-        }
-        return questions;
+            return questions;
+        });
     }
 
     // Update an existing question
     public void update(Question question) throws SQLException {
-        String sql = "UPDATE questions SET text = ?, ordinal = ? WHERE id = ?";
+        METRICS.time("update", () -> {
+            String sql = "UPDATE questions SET text = ?, ordinal = ? WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, question.getText());
-            ps.setInt(2, question.getOrdinal());
-            ps.setLong(3, question.getId());
+                ps.setString(1, question.getText());
+                ps.setInt(2, question.getOrdinal());
+                ps.setLong(3, question.getId());
 
-            ps.executeUpdate();
-        }
+                ps.executeUpdate();
+            }
+            return null;
+        });
     }
 
     // Delete a question by its ID
     public void deleteById(Long id) throws SQLException {
-        String sql = "DELETE FROM questions WHERE id = ?";
+        METRICS.time("deleteById", () -> {
+            String sql = "DELETE FROM questions WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, id);
-            ps.executeUpdate();
-        }
+                ps.setLong(1, id);
+                ps.executeUpdate();
+            }
+            return null;
+        });
     }
 
     // Helper method to map a ResultSet row to a Question object
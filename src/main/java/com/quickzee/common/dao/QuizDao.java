@@ -3,7 +3,9 @@ package com.quickzee.common.dao;
 import com.quickzee.common.model.Quiz;
 import com.quickzee.common.model.Question;
 import com.quickzee.common.model.Option;
+import com.quickzee.common.monitor.DaoMetrics;
 import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.IdGenerator;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -11,29 +13,35 @@ import java.util.List;
 
 public class QuizDao {
 
+    private static final DaoMetrics METRICS = DaoMetrics.forDao(QuizDao.class);
+
+    private static final IdGenerator QUIZ_IDS = IdGenerator.forTable("quizzes");
+
     /**
      * Find all quizzes for a given semester.
      * This is typically used for the dashboard list.
      * It does NOT load questions/options, only quiz header info.
      */
     public List<Quiz> findBySemester(int semester) throws SQLException {
-        String sql = "SELECT id, title, semester, duration_minutes " +
-                "FROM quizzes WHERE semester = ? ORDER BY id";
+        return METRICS.time("findBySemester", () -> {
+            String sql = "SELECT id, title, semester, duration_minutes " +
+                    "FROM quizzes WHERE semester = ? ORDER BY id";
 
-        List<Quiz> quizzes = new ArrayList<>();
+            List<Quiz> quizzes = new ArrayList<>();
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setInt(1, semester);
+                ps.setInt(1, semester);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    quizzes.add(mapRowToQuiz(rs));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        quizzes.add(mapRowToQuiz(rs));
+                    }
                 }
             }
-        }
-        return quizzes;
+            return quizzes;
+        });
     }
 
     /**
@@ -41,29 +49,31 @@ public class QuizDao {
      * This is used when the user actually starts a quiz.
      */
     public Quiz findByIdWithQuestions(long quizId) throws SQLException {
-        String sql = "SELECT id, title, semester, duration_minutes " +
-                "FROM quizzes WHERE id = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setLong(1, quizId);
-
-            Quiz quiz = null;
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    quiz = mapRowToQuiz(rs);
-                } else {
-                    return null; // quiz not found
+        return METRICS.time("findByIdWithQuestions", () -> {
+            String sql = "SELECT id, title, semester, duration_minutes " +
+                    "FROM quizzes WHERE id = ?";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setLong(1, quizId);
+
+                Quiz quiz = null;
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        quiz = mapRowToQuiz(rs);
+                    } else {
+                        return null; // quiz not found
+                    }
                 }
-            }
 
-            // Load questions (and their options) for this quiz
-            List<Question> questions = loadQuestionsForQuiz(conn, quizId);
-            quiz.setQuestions(questions);
+                // Load questions (and their options) for this quiz
+                List<Question> questions = loadQuestionsForQuiz(conn, quizId);
+                quiz.setQuestions(questions);
 
-            return quiz;
-        }
+                return quiz;
+            }
+        });
     }
 
 
@@ -154,59 +164,69 @@ public class QuizDao {
      * Insert a new quiz (without questions)
      */
     public void insert(Quiz quiz) throws SQLException {
-        String sql = "INSERT INTO quizzes (title, semester, duration_minutes) VALUES (?, ?, ?)";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        METRICS.time("insert", () -> {
+            String sql = "INSERT INTO quizzes (id, title, semester, duration_minutes) VALUES (?, ?, ?, ?)";
 
-            ps.setString(1, quiz.getTitle());
-            if (quiz.getSemester() != null) {
-                ps.setInt(2, quiz.getSemester());
-            } else {
-                ps.setNull(2, Types.INTEGER);
-            }
-            ps.setInt(3, quiz.getDuration_minutes() != null ? quiz.getDuration_minutes() : 15);
+            // Id is assigned on the client, no generated-keys round trip needed
+            quiz.setId(QUIZ_IDS.nextId());
 
-            ps.executeUpdate();
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    quiz.setId(rs.getLong(1));
-                }
+                bindQuiz(ps, quiz);
+                ps.executeUpdate();
             }
+            return null;
+        });
+    }
+
+    // Bind id, title, semester, duration for the quizzes INSERT
+    private void bindQuiz(PreparedStatement ps, Quiz quiz) throws SQLException {
+        ps.setLong(1, quiz.getId());
+        ps.setString(2, quiz.getTitle());
+        if (quiz.getSemester() != null) {
+            ps.setInt(3, quiz.getSemester());
+        } else {
+            ps.setNull(3, Types.INTEGER);
         }
+        ps.setInt(4, quiz.getDuration_minutes() != null ? quiz.getDuration_minutes() : 15);
     }
 
     /**
      * Get all quizzes (for admin view)
      */
     public List<Quiz> findAll() throws SQLException {
-        String sql = "SELECT id, title, semester, duration_minutes FROM quizzes ORDER BY id DESC";
+        return METRICS.time("findAll", () -> {
+            String sql = "SELECT id, title, semester, duration_minutes FROM quizzes ORDER BY id DESC";
 
-        List<Quiz> quizzes = new ArrayList<>();
+            List<Quiz> quizzes = new ArrayList<>();
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                quizzes.add(mapRowToQuiz(rs));
+                while (rs.next()) {
+                    quizzes.add(mapRowToQuiz(rs));
+                }
             }
-        }
-        return quizzes;
+            return quizzes;
+        });
     }
 
     /**
      * Delete a quiz by ID
      */
     public void deleteById(Long id) throws SQLException {
-        String sql = "DELETE FROM quizzes WHERE id = ?";
+        METRICS.time("deleteById", () -> {
+            String sql = "DELETE FROM quizzes WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, id);
-            ps.executeUpdate();
-        }
+                ps.setLong(1, id);
+                ps.executeUpdate();
+            }
+            return null;
+        });
     }
 }
\ No newline at end of file
@@ -1,7 +1,11 @@
 package com.quickzee.common.dao;
 
+import com.quickzee.common.jfr.ResultInsertEvent;
+import com.quickzee.common.model.CompactQuiz;
 import com.quickzee.common.model.QuizResult;
+import com.quickzee.common.monitor.DaoMetrics;
 import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.IdGenerator;
 
 import java.sql.*;
 import java.time.LocalDateTime;
@@ -14,6 +18,10 @@ import java.util.*;
  */
 public class ResultDao {
 
+    private static final DaoMetrics METRICS = DaoMetrics.forDao(ResultDao.class);
+
+    private static final IdGenerator RESULT_IDS = IdGenerator.forTable("quiz_results");
+
     /**
      * Submit a quiz attempt.
      *
@@ -26,130 +34,363 @@ public class ResultDao {
     public QuizResult submitQuiz(long userId,
                                  long quizId,
                                  List<Long> selectedOptionIds) throws SQLException {
+        return submitQuiz(userId, quizId, selectedOptionIds, null);
+    }
 
-        Connection conn = null;
-        try {
-            conn = DBConnection.getConnection();
-            conn.setAutoCommit(false); // Start transaction
+    /**
+     * Submit a quiz attempt idempotently.
+     * If a result with the same attempt token already exists (e.g. the first try
+     * committed but the reply was lost), that stored result is returned instead
+     * of inserting a second row.
+     *
+     * @param userId            The ID of the user taking the quiz
+     * @param quizId            The ID of the quiz (quizzes.id)
+     * @param selectedOptionIds List of selected option IDs, one per question
+     *                          in the same order as questions.ordinal.
+     *                          If a question is skipped, the element can be null or -1.
+     * @param attemptToken      Token generated when the attempt started (null = not idempotent)
+     */
+    public QuizResult submitQuiz(long userId,
+                                 long quizId,
+                                 List<Long> selectedOptionIds,
+                                 String attemptToken) throws SQLException {
+        return METRICS.time("submitQuiz", () -> {
+            // Reserve the result id up front so the answers never wait on generated keys
+            long resultId = RESULT_IDS.nextId();
+
+            Connection conn = null;
+            try {
+                conn = DBConnection.getConnection();
+                conn.setAutoCommit(false); // Start transaction
+
+                // 1) Load all question IDs for this quiz (ordered by ordinal)
+                List<Long> questionIds = loadQuestionIdsForQuiz(conn, quizId);
+
+                int totalQuestions = questionIds.size();
+                if (totalQuestions == 0) {
+                    throw new SQLException("No questions found for quizId=" + quizId);
+                }
 
-            // 1) Load all question IDs for this quiz (ordered by ordinal)
-            List<Long> questionIds = loadQuestionIdsForQuiz(conn, quizId);
+                // 2) Build a map of all options' correctness (optionId -> isCorrect)
+                Map<Long, Boolean> optionCorrectMap = loadOptionCorrectMap(conn, questionIds);
 
-            int totalQuestions = questionIds.size();
-            if (totalQuestions == 0) {
-                throw new SQLException("No questions found for quizId=" + quizId);
-            }
+                // Optional: map optionId -> questionId (if needed later)
+                Map<Long, Long> optionToQuestionMap = loadOptionToQuestionMap(conn, questionIds);
 
-            // 2) Build a map of all options' correctness (optionId -> isCorrect)
-            Map<Long, Boolean> optionCorrectMap = loadOptionCorrectMap(conn, questionIds);
+                // 3) Calculate score and prepare answer data
+                int score = 0;
+                List<AnswerRow> answerRows = new ArrayList<>();
 
-            // Optional: map optionId -> questionId (if needed later)
-            Map<Long, Long> optionToQuestionMap = loadOptionToQuestionMap(conn, questionIds);
+                for (int i = 0; i < totalQuestions; i++) {
+                    Long questionId = questionIds.get(i);
 
-            // 3) Calculate score and prepare answer data
-            int score = 0;
-            List<AnswerRow> answerRows = new ArrayList<>();
-
-            for (int i = 0; i < totalQuestions; i++) {
-                Long questionId = questionIds.get(i);
+                    Long selectedOptionId = null;
+                    if (selectedOptionIds != null && i < selectedOptionIds.size()) {
+                        Long candidate = selectedOptionIds.get(i);
+                        if (candidate != null && candidate > 0) {
+                            selectedOptionId = candidate;
+                        }
+                    }
 
-                Long selectedOptionId = null;
-                if (selectedOptionIds != null && i < selectedOptionIds.size()) {
-                    Long candidate = selectedOptionIds.get(i);
-                    if (candidate != null && candidate > 0) {
-                        selectedOptionId = candidate;
+                    // Score calculation
+                    if (selectedOptionId != null) {
+                        boolean isCorrect = optionCorrectMap.getOrDefault(selectedOptionId, false);
+                        if (isCorrect) {
+                            score++;
+                        }
                     }
+
+                    // Keep data to insert later into quiz_result_answers
+                    AnswerRow row = new AnswerRow();
+                    row.questionId = questionId;
+                    row.selectedOptionId = selectedOptionId;
+                    answerRows.add(row);
                 }
 
-                // Score calculation
-                if (selectedOptionId != null) {
-                    boolean isCorrect = optionCorrectMap.getOrDefault(selectedOptionId, false);
-                    if (isCorrect) {
-                        score++;
+                // 4) Insert one row into quiz_results (id reserved on the client)
+                ResultInsertEvent event = new ResultInsertEvent();
+                event.begin();
+                insertQuizResult(conn, resultId, userId, quizId, score, totalQuestions, attemptToken);
+
+                // 5) Insert one row per question into quiz_result_answers
+                insertQuizResultAnswers(conn, resultId, answerRows);
+
+                // 6) Commit transaction if everything succeeded
+                conn.commit();
+                commitInsertEvent(event, quizId, 1 + answerRows.size(), false);
+
+                // 7) Build Java-side QuizResult object to return
+                QuizResult result = new QuizResult();
+                result.setId(resultId);
+                result.setUserId(userId);
+                result.setQuizId(quizId);
+                result.setScore(score);
+                result.setTotalQuestions(totalQuestions);
+                result.setSubmittedAt(LocalDateTime.now()); // approximately matches DB time
+
+                return result;
+
+            } catch (SQLException ex) {
+                if (conn != null) {
+                    try {
+                        conn.rollback(); // Roll back everything on error
+                    } catch (SQLException ignore) {
+                    }
+                }
+                if (attemptToken == null || !isDuplicateKey(ex)) {
+                    throw ex;
+                }
+            } finally {
+                if (conn != null) {
+                    try {
+                        conn.setAutoCommit(true);
+                        conn.close();
+                    } catch (SQLException ignore) {
                     }
                 }
+            }
 
-                // Keep data to insert later into quiz_result_answers
-                AnswerRow row = new AnswerRow();
-                row.questionId = questionId;
-                row.selectedOptionId = selectedOptionId;
-                answerRows.add(row);
+            // Only reached when this attempt was already submitted before
+            return findExistingSubmission(userId, quizId, attemptToken);
+        });
+    }
+
+    /**
+     * Submit a quiz attempt scored against a cached quiz.
+     * Same contract as submitQuiz with a token, but the questions and answer key
+     * come from the CompactQuiz, so the transaction only inserts (no lookups).
+     * Answers stay primitive from scoring to the JDBC batch.
+     *
+     * @param userId       The ID of the user taking the quiz
+     * @param quiz         The quiz as cached by QuizCache
+     * @param selected     Selected option ID per question slot of the quiz
+     *                     (see CompactQuiz); CompactQuiz.NO_ANSWER = skipped.
+     * @param attemptToken Token generated when the attempt started (null = not idempotent)
+     */
+    public QuizResult submitQuiz(long userId,
+                                 CompactQuiz quiz,
+                                 long[] selected,
+                                 String attemptToken) throws SQLException {
+        return METRICS.time("submitQuiz", () -> {
+            int totalQuestions = quiz.getQuestionCount();
+            if (totalQuestions == 0) {
+                throw new SQLException("No questions found for quizId=" + quiz.getId());
             }
 
-            // 4) Insert one row into quiz_results
-            long resultId = insertQuizResult(conn, userId, quizId, score, totalQuestions);
+            // 1) Score in memory
+            int score = quiz.score(selected);
+
+            long resultId = RESULT_IDS.nextId();
+
+            Connection conn = null;
+            try {
+                conn = DBConnection.getConnection();
+                conn.setAutoCommit(false);
+
+                // 2) Two inserts, one commit
+                ResultInsertEvent event = new ResultInsertEvent();
+                event.begin();
+                insertQuizResult(conn, resultId, userId, quiz.getId(), score, totalQuestions, attemptToken);
+                insertQuizResultAnswers(conn, resultId, quiz, selected);
+                conn.commit();
+                commitInsertEvent(event, quiz.getId(), 1 + totalQuestions, false);
+
+                QuizResult result = new QuizResult();
+                result.setId(resultId);
+                result.setUserId(userId);
+                result.setQuizId(quiz.getId());
+                result.setScore(score);
+                result.setTotalQuestions(totalQuestions);
+                result.setSubmittedAt(LocalDateTime.now()); // approximately matches DB time
+
+                return result;
+
+            } catch (SQLException ex) {
+                if (conn != null) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException ignore) {
+                    }
+                }
+                if (attemptToken == null || !isDuplicateKey(ex)) {
+                    throw ex;
+                }
+            } finally {
+                if (conn != null) {
+                    try {
+                        conn.setAutoCommit(true);
+                        conn.close();
+                    } catch (SQLException ignore) {
+                    }
+                }
+            }
+
+            // Only reached when this attempt was already submitted before
+            return findExistingSubmission(userId, quiz.getId(), attemptToken);
+        });
+    }
+
+    /**
+     * Submit a quiz attempt through the submit_quiz_answers stored procedure.
+     * Same contract as submitQuiz, but the answers go to the server in one call
+     * and scoring plus both inserts happen there in a single transaction.
+     * Requires migrations 002_submit_quiz_procedure.sql and 003_attempt_tokens.sql.
+     *
+     * @param userId            The ID of the user taking the quiz
+     * @param quizId            The ID of the quiz (quizzes.id)
+     * @param selectedOptionIds List of selected option IDs, one per question
+     *                          in the same order as questions.ordinal.
+     *                          If a question is skipped, the element can be null or -1.
+     * @param attemptToken      Token generated when the attempt started (null = not idempotent)
+     */
+    public QuizResult submitQuizViaProcedure(long userId,
+                                             long quizId,
+                                             List<Long> selectedOptionIds,
+                                             String attemptToken) throws SQLException {
+        return METRICS.time("submitQuizViaProcedure", () -> {
+            return callSubmitProcedure(userId, quizId, toJsonArray(selectedOptionIds), attemptToken);
+        });
+    }
+
+    /**
+     * Submit a quiz attempt through the submit_quiz_answers stored procedure.
+     * Same as the list version, for a selection (CompactQuiz.NO_ANSWER = skipped).
+     */
+    public QuizResult submitQuizViaProcedure(long userId,
+                                             long quizId,
+                                             long[] selected,
+                                             String attemptToken) throws SQLException {
+        return METRICS.time("submitQuizViaProcedure", () -> {
+            return callSubmitProcedure(userId, quizId, toJsonArray(selected), attemptToken);
+        });
+    }
 
-            // 5) Insert one row per question into quiz_result_answers
-            insertQuizResultAnswers(conn, resultId, answerRows);
+    // Call submit_quiz_answers with the answers already encoded as a JSON array
+    private QuizResult callSubmitProcedure(long userId,
+                                           long quizId,
+                                           String answersJson,
+                                           String attemptToken) throws SQLException {
 
-            // 6) Commit transaction if everything succeeded
-            conn.commit();
+        long resultId = RESULT_IDS.nextId();
+
+        try (Connection conn = DBConnection.getConnection();
+             CallableStatement cs = conn.prepareCall("{CALL submit_quiz_answers(?, ?, ?, ?, ?, ?, ?)}")) {
+
+            cs.setLong(1, resultId);
+            cs.setLong(2, userId);
+            cs.setLong(3, quizId);
+            cs.setString(4, attemptToken);
+            cs.setString(5, answersJson);
+            cs.registerOutParameter(6, Types.INTEGER);
+            cs.registerOutParameter(7, Types.INTEGER);
+
+            ResultInsertEvent event = new ResultInsertEvent();
+            event.begin();
+            cs.execute();
+            commitInsertEvent(event, quizId, 1 + cs.getInt(7), true);
 
-            // 7) Build Java-side QuizResult object to return
             QuizResult result = new QuizResult();
             result.setId(resultId);
             result.setUserId(userId);
             result.setQuizId(quizId);
-            result.setScore(score);
-            result.setTotalQuestions(totalQuestions);
+            result.setScore(cs.getInt(6));
+            result.setTotalQuestions(cs.getInt(7));
             result.setSubmittedAt(LocalDateTime.now()); // approximately matches DB time
 
             return result;
 
         } catch (SQLException ex) {
-            if (conn != null) {
-                try {
-                    conn.rollback(); // Roll back everything on error
-                } catch (SQLException ignore) {
-                }
-            }
-            throw ex;
-        } finally {
-            if (conn != null) {
-                try {
-                    conn.setAutoCommit(true);
-                    conn.close();
-                } catch (SQLException ignore) {
-                }
+            if (attemptToken == null || !isDuplicateKey(ex)) {
+                throw ex;
             }
         }
+
+        // Only reached when this attempt was already submitted before
+        return findExistingSubmission(userId, quizId, attemptToken);
     }
 
     /**
      * Find all quiz results for a given user (optional usage).
      */
     public List<QuizResult> findByUserId(long userId) throws SQLException {
-        String sql = "SELECT id, user_id, quiz_id, score, total_questions, submitted_at " +
-                "FROM quiz_results WHERE user_id = ? ORDER BY submitted_at DESC";
+        return METRICS.time("findByUserId", () -> {
+            String sql = "SELECT id, user_id, quiz_id, score, total_questions, submitted_at " +
+                    "FROM quiz_results WHERE user_id = ? ORDER BY submitted_at DESC";
 
-        List<QuizResult> list = new ArrayList<>();
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            List<QuizResult> list = new ArrayList<>();
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, userId);
+                ps.setLong(1, userId);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) {
-                    QuizResult r = new QuizResult();
-                    r.setId(rs.getLong("id"));
-                    r.setUserId(rs.getLong("user_id"));
-                    r.setQuizId(rs.getLong("quiz_id"));
-                    r.setScore(rs.getInt("score"));
-                    r.setTotalQuestions(rs.getInt("total_questions"));
-
-                    Timestamp ts = rs.getTimestamp("submitted_at");
-                    if (ts != null) {
-                        r.setSubmittedAt(ts.toLocalDateTime());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        list.add(mapRowToResult(rs));
                     }
+                }
+            }
+            return list;
+        });
+    }
+
+    /**
+     * Find the result stored for an attempt token, or null if it was never submitted.
+     */
+    public QuizResult findByAttemptToken(String attemptToken) throws SQLException {
+        return METRICS.time("findByAttemptToken", () -> {
+            String sql = "SELECT id, user_id, quiz_id, score, total_questions, submitted_at " +
+                    "FROM quiz_results WHERE attempt_token = ?";
 
-                    list.add(r);
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setString(1, attemptToken);
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRowToResult(rs);
+                    }
                 }
             }
+            return null;
+        });
+    }
+
+    // Map one row from quiz_results to a QuizResult object
+    private QuizResult mapRowToResult(ResultSet rs) throws SQLException {
+        QuizResult r = new QuizResult();
+        r.setId(rs.getLong("id"));
+        r.setUserId(rs.getLong("user_id"));
+        r.setQuizId(rs.getLong("quiz_id"));
+        r.setScore(rs.getInt("score"));
+        r.setTotalQuestions(rs.getInt("total_questions"));
+
+        Timestamp ts = rs.getTimestamp("submitted_at");
+        if (ts != null) {
+            r.setSubmittedAt(ts.toLocalDateTime());
         }
-        return list;
+        return r;
     }
 
+    // Return the result an earlier try of the same attempt already stored
+    private QuizResult findExistingSubmission(long userId, long quizId, String attemptToken) throws SQLException {
+        QuizResult existing = findByAttemptToken(attemptToken);
+
+        if (existing == null) {
+            throw new SQLException("Duplicate submission detected but no result found for attempt " + attemptToken);
+        }
+        if (existing.getUserId() != userId || existing.getQuizId() != quizId) {
+            throw new SQLException("Attempt token " + attemptToken + " belongs to a different submission");
+        }
+
+        System.out.println("ℹ️ Attempt " + attemptToken + " was already submitted, returning stored result");
+        return existing;
+    }
 
+    // MySQL ER_DUP_ENTRY: a unique key (here uq_results_attempt_token) was violated
+    private boolean isDuplicateKey(SQLException ex) {
+        return ex.getErrorCode() == 1062;
+    }
 
     // Load all question IDs for a quiz, ordered by ordinal
     private List<Long> loadQuestionIdsForQuiz(Connection conn, long quizId) throws SQLException {
@@ -231,32 +472,32 @@ public class ResultDao {
         return map;
     }
 
-    // Insert one row into quiz_results and return the generated result ID
-    private long insertQuizResult(Connection conn,
+    // Insert one row into quiz_results with a client-assigned result ID
+    private void insertQuizResult(Connection conn,
+                                  long resultId,
                                   long userId,
                                   long quizId,
                                   int score,
-                                  int totalQuestions) throws SQLException {
+                                  int totalQuestions,
+                                  String attemptToken) throws SQLException {
 
         String sql = "INSERT INTO quiz_results " +
-                "(user_id, quiz_id, score, total_questions, submitted_at, created_at) " +
-                "VALUES (?, ?, ?, ?, NOW(), NOW())";
+                "(id, user_id, quiz_id, score, total_questions, attempt_token, submitted_at, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, NOW(), NOW())";
 
-        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            ps.setLong(1, userId);
-            ps.setLong(2, quizId);
-            ps.setInt(3, score);
-            ps.setInt(4, totalQuestions);
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, resultId);
+            ps.setLong(2, userId);
+            ps.setLong(3, quizId);
+            ps.setInt(4, score);
+            ps.setInt(5, totalQuestions);
+            if (attemptToken != null) {
+                ps.setString(6, attemptToken);
+            } else {
+                ps.setNull(6, Types.CHAR);
+            }
 
             ps.executeUpdate();
-
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
-                } else {
-                    throw new SQLException("Failed to get generated id for quiz_results");
-                }
-            }
         }
     }
 
@@ -287,6 +528,75 @@ public class ResultDao {
         }
     }
 
+    // Insert one row per question of a cached quiz, bound straight from the selection
+    private void insertQuizResultAnswers(Connection conn,
+                                         long resultId,
+                                         CompactQuiz quiz,
+                                         long[] selected) throws SQLException {
+
+        String sql = "INSERT INTO quiz_result_answers " +
+                "(result_id, question_id, selected_option_id, created_at) " +
+                "VALUES (?, ?, ?, NOW())";
+
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            for (int i = 0; i < quiz.getQuestionCount(); i++) {
+                long optionId = selected != null && i < selected.length ? selected[i] : CompactQuiz.NO_ANSWER;
+
+                ps.setLong(1, resultId);
+                ps.setLong(2, quiz.getQuestionId(i));
+                if (optionId <= 0) {
+                    ps.setNull(3, Types.BIGINT);
+                } else {
+                    ps.setLong(3, optionId);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void commitInsertEvent(ResultInsertEvent event, long quizId, int rows, boolean procedure) {
+        if (event.shouldCommit()) {
+            event.quizId = quizId;
+            event.rowsInserted = rows;
+            event.procedure = procedure;
+            event.commit();
+        }
+    }
+
+    // Encode selected option IDs as a JSON array for the stored procedure (skipped -> null)
+    private String toJsonArray(List<Long> selectedOptionIds) {
+        StringBuilder sb = new StringBuilder("[");
+        if (selectedOptionIds != null) {
+            for (int i = 0; i < selectedOptionIds.size(); i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                Long id = selectedOptionIds.get(i);
+                sb.append(id != null && id > 0 ? id.toString() : "null");
+            }
+        }
+        return sb.append("]").toString();
+    }
+
+    // Same for a selection
+    private String toJsonArray(long[] selected) {
+        StringBuilder sb = new StringBuilder("[");
+        if (selected != null) {
+            for (int i = 0; i < selected.length; i++) {
+                if (i > 0) {
+                    sb.append(",");
+                }
+                if (selected[i] > 0) {
+                    sb.append(selected[i]);
+                } else {
+                    sb.append("null");
+                }
+            }
+        }
+        return sb.append("]").toString();
+    }
+
     // Internal helper class to carry per-question data before insert
     private static class AnswerRow {
         long questionId;
@@ -1,7 +1,9 @@
 package com.quickzee.common.dao;
 
 import com.quickzee.common.model.User;
+import com.quickzee.common.monitor.DaoMetrics;
 import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.IdGenerator;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -9,137 +11,157 @@ import java.util.List;
 
 public class UserDao {
 
-    // Create (register)
-    public void insert(User user) throws SQLException {
-        String sql = "INSERT INTO users (name, email, password, semester, role) VALUES (?, ?, ?, ?, ?)";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-
-            ps.setString(1, user.getName());
-            ps.setString(2, user.getEmail());
-            ps.setString(3, user.getPassword());
-            if (user.getSemester() != null) {
-                ps.setInt(4, user.getSemester());
-            } else {
-                ps.setNull(4, Types.INTEGER);
-            }
-            ps.setString(5, user.getRole() != null ? user.getRole() : "student");
+    private static final DaoMetrics METRICS = DaoMetrics.forDao(UserDao.class);
 
-            ps.executeUpdate();
+    // Same sequence as DataGeneratorCLI, so generated and registered users never share an id
+    private static final IdGenerator USER_IDS = IdGenerator.forTable("users");
 
-            // Get generated ID
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    user.setId(rs.getLong(1));
+    // Create (register)
+    public void insert(User user) throws SQLException {
+        METRICS.time("insert", () -> {
+            String sql = "INSERT INTO users (id, name, email, password, semester, role) VALUES (?, ?, ?, ?, ?, ?)";
+
+            // Id is assigned on the client, no generated-keys round trip needed
+            long id = USER_IDS.nextId();
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setLong(1, id);
+                ps.setString(2, user.getName());
+                ps.setString(3, user.getEmail());
+                ps.setString(4, user.getPassword());
+                if (user.getSemester() != null) {
+                    ps.setInt(5, user.getSemester());
+                } else {
+                    ps.setNull(5, Types.INTEGER);
                 }
+                ps.setString(6, user.getRole() != null ? user.getRole() : "student");
+
+                ps.executeUpdate();
             }
-        }
+            user.setId(id);
+            return null;
+        });
     }
 
     // Read: find by id
     public User findById(Long id) throws SQLException {
-        String sql = "SELECT id, name, email, password, semester, role FROM users WHERE id = ?";
+        return METRICS.time("findById", () -> {
+            String sql = "SELECT id, name, email, password, semester, role FROM users WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, id);
+                ps.setLong(1, id);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToUser(rs);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRowToUser(rs);
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     // Read: find by email (for login)
     public User findByEmail(String email) throws SQLException {
-        String sql = "SELECT id, name, email, password, semester, role FROM users WHERE email = ?";
+        return METRICS.time("findByEmail", () -> {
+            String sql = "SELECT id, name, email, password, semester, role FROM users WHERE email = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, email);
+                ps.setString(1, email);
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToUser(rs);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRowToUser(rs);
+                    }
                 }
             }
-        }
-        return null;
+            return null;
+        });
     }
 
     // Read: find all users (optional)
     public List<User> findAll() throws SQLException {
-        String sql = "SELECT id, name, email, password, semester, role FROM users";
-        List<User> list = new ArrayList<>();
+        return METRICS.time("findAll", () -> {
+            String sql = "SELECT id, name, email, password, semester, role FROM users";
+            List<User> list = new ArrayList<>();
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
 
-            while (rs.next()) {
-                list.add(mapRowToUser(rs));
+                while (rs.next()) {
+                    list.add(mapRowToUser(rs));
+                }
             }
-        }
-        return list;
+            return list;
+        });
     }
 
     // Update
     public void update(User user) throws SQLException {
-        String sql = "UPDATE users SET name = ?, email = ?, password = ?, semester = ?, role = ? WHERE id = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, user.getName());
-            ps.setString(2, user.getEmail());
-            ps.setString(3, user.getPassword());
-            if (user.getSemester() != null) {
-                ps.setInt(4, user.getSemester());
-            } else {
-                ps.setNull(4, Types.INTEGER);
-            }
-            ps.setString(5, user.getRole());
-            ps.setLong(6, user.getId());
+        METRICS.time("update", () -> {
+            String sql = "UPDATE users SET name = ?, email = ?, password = ?, semester = ?, role = ? WHERE id = ?";
+
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+
+                ps.setString(1, user.getName());
+                ps.setString(2, user.getEmail());
+                ps.setString(3, user.getPassword());
+                if (user.getSemester() != null) {
+                    ps.setInt(4, user.getSemester());
+                } else {
+                    ps.setNull(4, Types.INTEGER);
+                }
+                ps.setString(5, user.getRole());
+                ps.setLong(6, user.getId());
 
-            ps.executeUpdate();
-        }
+                ps.executeUpdate();
+            }
+            return null;
+        });
     }
 
     // Delete
     public void deleteById(Long id) throws SQLException {
-        String sql = "DELETE FROM users WHERE id = ?";
+        METRICS.time("deleteById", () -> {
+            String sql = "DELETE FROM users WHERE id = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setLong(1, id);
-            ps.executeUpdate();
-        }
+                ps.setLong(1, id);
+                ps.executeUpdate();
+            }
+            return null;
+        });
     }
 
     // Login helper
     public User login(String email, String password) throws SQLException {
-        String sql = "SELECT id, name, email, password, semester, role FROM users WHERE email = ? AND password = ?";
+        return METRICS.time("login", () -> {
+            String sql = "SELECT id, name, email, password, semester, role FROM users WHERE email = ? AND password = ?";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
 
-            ps.setString(1, email);
-            ps.setString(2, password);  // Will use hashed password
+                ps.setString(1, email);
+                ps.setString(2, password);  // Will use hashed password
 
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return mapRowToUser(rs);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) {
+                        return mapRowToUser(rs);
+                    }
                 }
             }
-        }
-        return null; // Invalid credentials
+            return null; // Invalid credentials
+        });
     }
 
     // Helper method
@@ -14,6 +14,7 @@ import com.quickzee.common.model.Quiz;
 import com.quickzee.common.model.Question;
 import com.quickzee.common.model.Option;
 import com.quickzee.common.service.AuthService;
+import com.quickzee.common.service.QuizCache;
 import com.quickzee.common.service.QuizService;
 import com.quickzee.common.util.SessionManager;
 
@@ -455,6 +456,8 @@ public class AdminDashboard {
     }
 
     private void saveQuestions(Long quizId, List<QuestionData> questionsData) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+
         for (QuestionData qData : questionsData) {
             String questionText = qData.questionField.getText().trim();
 
@@ -482,16 +485,26 @@ public class AdminDashboard {
                 }
             }
 
-            // Save question
-            Question question = quizService.addQuestion(quizId, qData.number, questionText);
+            // Build question with its options
+            Question question = new Question();
+            question.setOrdinal(qData.number);
+            question.setText(questionText);
 
-            // Save options
+            List<Option> options = new ArrayList<>();
             for (int i = 0; i < 4; i++) {
-                String optionText = qData.optionFields[i].getText().trim();
-                boolean isCorrect = (i == correctIndex);
-                quizService.addOption(question.getId(), i, optionText, isCorrect);
+                Option option = new Option();
+                option.setOrdinal(i);
+                option.setText(qData.optionFields[i].getText().trim());
+                option.setCorrect(i == correctIndex);
+                options.add(option);
             }
+            question.setOptions(options);
+
+            questions.add(question);
         }
+
+        // Save all questions and options in one batch
+        quizService.addQuestionsWithOptions(quizId, questions);
     }
 
 
@@ -872,6 +885,9 @@ public class AdminDashboard {
 
                     } catch (Exception ex) {
                         UIHelper.showError("Error", "Failed to update quiz: " + ex.getMessage());
+                    } finally {
+                        // Attempts and scoring read the quiz from the cache (even a partly saved edit)
+                        QuizCache.invalidate(quizId);
                     }
                 }
                 return buttonType;
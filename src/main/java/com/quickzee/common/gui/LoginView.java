@@ -7,6 +7,7 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import com.quickzee.common.model.User;
 import com.quickzee.common.service.AuthService;
+import com.quickzee.common.util.RateLimitedException;
 import com.quickzee.common.util.SessionManager;
 
 import java.sql.SQLException;
@@ -95,6 +96,8 @@ public class LoginView {
                 UIHelper.showError("Login Failed", "Invalid email or password");
             }
 
+        } catch (RateLimitedException e) {
+            UIHelper.showError("Login Blocked", e.getMessage());
         } catch (SQLException e) {
             UIHelper.showError("Database Error", e.getMessage());
         }
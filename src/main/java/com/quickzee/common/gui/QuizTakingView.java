@@ -10,11 +10,15 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.util.Duration;
+import com.quickzee.common.model.AnswerSheet;
 import com.quickzee.common.model.Quiz;
 import com.quickzee.common.model.Question;
 import com.quickzee.common.model.Option;
 import com.quickzee.common.model.QuizResult;
+import com.quickzee.common.service.AttemptRegistry;
 import com.quickzee.common.service.AttemptService;
+import com.quickzee.common.util.RateLimitedException;
+import com.quickzee.common.util.SubmissionQueuedException;
 
 import java.sql.SQLException;
 import java.util.*;
@@ -31,7 +35,8 @@ public class QuizTakingView {
     private final Scene scene;
     private final AttemptService attemptService;
     private final Quiz quiz;
-    private final List<Long> selectedAnswers; // index -> optionId (null = unanswered)
+    private final AnswerSheet selectedAnswers; // questionId -> optionId, whatever order questions are shown in
+    private final String attemptToken; // same token for every submit of this attempt
 
     private int timeRemainingSeconds;
 
@@ -50,11 +55,11 @@ public class QuizTakingView {
 
     public QuizTakingView(Long quizId) {
         this.attemptService = new AttemptService();
-        this.selectedAnswers = new ArrayList<>();
-
         // Load quiz
         try {
             this.quiz = attemptService.startQuizAttempt(quizId);
+            // Saved answers come back in the quiz's own question order
+            List<Question> quizOrder = new ArrayList<>(quiz.getQuestions());
             // Randomize Questions
             Collections.shuffle(quiz.getQuestions());
             // Randomize Options
@@ -63,13 +68,29 @@ public class QuizTakingView {
                     Collections.shuffle(question.getOptions());
                 }
             }
-            // Initialize answers list (null = unanswered)
-            for (int i = 0; i < quiz.getQuestions().size(); i++) {
-                selectedAnswers.add(null);
+            // Initialize answers (nothing answered yet)
+            this.selectedAnswers = new AnswerSheet(quiz.getQuestions().size());
+
+            // Continue an unfinished attempt (window closed, crash) or register a new one;
+            // the deadline is enforced even if this window dies
+            AttemptRegistry.Attempt resumed = attemptService.resumeAttempt(quiz);
+            if (resumed != null) {
+                this.attemptToken = resumed.getToken();
+                List<Long> saved = resumed.getLastAnswers();
+                for (int i = 0; i < saved.size() && i < quizOrder.size(); i++) {
+                    if (saved.get(i) != null) {
+                        selectedAnswers.put(quizOrder.get(i).getId(), saved.get(i));
+                    }
+                }
+            } else {
+                this.attemptToken = attemptService.beginAttempt(quiz);
             }
 
-            // Initialize timer (convert minutes to seconds)
-            this.timeRemainingSeconds = quiz.getDuration_minutes() * 60;
+            // Initialize timer (convert minutes to seconds), counting down to the stored deadline
+            long deadline = attemptService.getDeadline(attemptToken);
+            this.timeRemainingSeconds = deadline > 0
+                    ? (int) Math.max(0, (deadline - System.currentTimeMillis()) / 1000)
+                    : quiz.getDuration_minutes() * 60;
 
         } catch (SQLException e) {
             UIHelper.showError("Error", "Failed to load quiz: " + e.getMessage());
@@ -174,12 +195,14 @@ public class QuizTakingView {
                 rb.setStyle("-fx-font-size: 14px;");
 
                 // restore previous selection if any
-                if (selectedAnswers.get(i) != null && selectedAnswers.get(i).equals(opt.getId())) {
+                if (selectedAnswers.get(q.getId()) == opt.getId()) {
                     rb.setSelected(true);
                 }
 
-                final int questionIndex = i;
-                rb.setOnAction(ev -> selectedAnswers.set(questionIndex, (Long) rb.getUserData()));
+                rb.setOnAction(ev -> {
+                    selectedAnswers.put(q.getId(), (Long) rb.getUserData());
+                    saveProgress();
+                });
 
                 radios.add(rb);
                 opts.getChildren().add(rb);
@@ -276,9 +299,22 @@ public class QuizTakingView {
         }
     }
 
+    // Keep the server copy of the answers current; these are submitted if time runs out
+    private void saveProgress() {
+        try {
+            attemptService.saveAnswers(attemptToken, selectedAnswers);
+        } catch (IllegalArgumentException | SQLException e) {
+            System.out.println("⚠️ Answers not saved: " + e.getMessage());
+        }
+    }
+
     private void handleSubmit() {
+        // Prevent double submits while this one is in flight
+        submitButton.setDisable(true);
+
         try {
-            QuizResult result = attemptService.submitQuizAttempt(quiz.getId(), selectedAnswers);
+            // Transient DB errors are retried inside; the token makes retries safe
+            QuizResult result = attemptService.submitQuizAttempt(quiz.getId(), selectedAnswers, attemptToken);
 
             if (countdown != null) countdown.stop();
 
@@ -287,8 +323,28 @@ public class QuizTakingView {
                 QuickZeeApp.showResultView(result.getId(), result.getScore(), result.getTotalQuestions());
             });
 
+        } catch (SubmissionQueuedException e) {
+            // Saved in the local journal; it is sent on its own once the database is back
+            if (countdown != null) countdown.stop();
+            Platform.runLater(() -> {
+                UIHelper.showWarning("Submission Saved Offline", e.getMessage());
+                QuickZeeApp.showStudentDashboard();
+            });
+        } catch (RateLimitedException e) {
+            submitButton.setDisable(false);
+            Platform.runLater(() -> UIHelper.showError("Submission Error",
+                    e.getMessage() + "\n\nYour answers are kept."));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Rejected (e.g. the attempt is no longer open or the quiz was edited); nothing was stored
+            submitButton.setDisable(false);
+            Platform.runLater(() -> UIHelper.showError("Submission Error",
+                    "Your quiz could not be submitted: " + e.getMessage()));
         } catch (SQLException e) {
-            Platform.runLater(() -> UIHelper.showError("Submission Error", e.getMessage()));
+            // Answers are still here and the same token is reused, so trying again cannot double-count
+            submitButton.setDisable(false);
+            Platform.runLater(() -> UIHelper.showError("Submission Error",
+                    "Your quiz could not be submitted: " + e.getMessage() +
+                            "\n\nYour answers are kept. Please press Submit again."));
         }
     }
 
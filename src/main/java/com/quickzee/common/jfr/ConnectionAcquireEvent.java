@@ -0,0 +1,35 @@
+package com.quickzee.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * ConnectionAcquireEvent
+ * JFR event for the wait in DBConnection.getConnection (bulkhead quota plus
+ * pool, or opening a connection). Only waits of 1 ms or more are recorded by
+ * default, since most acquires are instant.
+ */
+@Name("com.quickzee.ConnectionAcquire")
+@Label("Connection Acquire")
+@Category({"QuickZee", "Database"})
+@Description("Wait for a database connection")
+@StackTrace(false)
+@Threshold("1 ms")
+public class ConnectionAcquireEvent extends Event {
+
+    @Label("Pooled")
+    @Description("Whether the connection came from the shared pool")
+    public boolean pooled;
+
+    @Label("Bulkhead")
+    @Description("Whether a workload connection quota applied")
+    public boolean bulkhead;
+
+    @Label("Failed")
+    public boolean failed;
+}
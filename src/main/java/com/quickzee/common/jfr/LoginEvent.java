@@ -0,0 +1,28 @@
+package com.quickzee.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * LoginEvent
+ * JFR event for one login: validation, throttling, user lookup and password check.
+ */
+@Name("com.quickzee.Login")
+@Label("Login")
+@Category({"QuickZee", "Auth"})
+@Description("Credential check of a login, including the password hash")
+@StackTrace(false)
+public class LoginEvent extends Event {
+
+    @Label("User ID")
+    @Description("0 if the login failed")
+    public long userId;
+
+    @Label("Outcome")
+    @Description("success, bad_credentials, rate_limited, invalid or error")
+    public String outcome;
+}
@@ -0,0 +1,29 @@
+package com.quickzee.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * QuizCacheMissEvent
+ * JFR event for a quiz cache miss, which loads the quiz with its questions from the database.
+ */
+@Name("com.quickzee.QuizCacheMiss")
+@Label("Quiz Cache Miss")
+@Category({"QuickZee", "Cache"})
+@Description("Quiz loaded from the database into the quiz cache")
+@StackTrace(false)
+public class QuizCacheMissEvent extends Event {
+
+    @Label("Quiz ID")
+    public long quizId;
+
+    @Label("Found")
+    public boolean found;
+
+    @Label("Question Count")
+    public int questionCount;
+}
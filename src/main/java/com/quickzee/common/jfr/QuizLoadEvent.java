@@ -0,0 +1,26 @@
+package com.quickzee.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * QuizLoadEvent
+ * JFR event for loading a quiz when an attempt starts (cache lookup and copy for the view).
+ */
+@Name("com.quickzee.QuizLoad")
+@Label("Quiz Load")
+@Category({"QuickZee", "Attempts"})
+@Description("Quiz loaded for a new attempt")
+@StackTrace(false)
+public class QuizLoadEvent extends Event {
+
+    @Label("Quiz ID")
+    public long quizId;
+
+    @Label("Question Count")
+    public int questionCount;
+}
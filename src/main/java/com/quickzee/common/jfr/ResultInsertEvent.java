@@ -0,0 +1,31 @@
+package com.quickzee.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ResultInsertEvent
+ * JFR event for the transaction that stores a result and its answers.
+ */
+@Name("com.quickzee.ResultInsert")
+@Label("Result Insert")
+@Category({"QuickZee", "Database"})
+@Description("Transaction inserting a quiz result and one answer row per question")
+@StackTrace(false)
+public class ResultInsertEvent extends Event {
+
+    @Label("Quiz ID")
+    public long quizId;
+
+    @Label("Rows Inserted")
+    @Description("Result row plus answer rows")
+    public int rowsInserted;
+
+    @Label("Stored Procedure")
+    @Description("Whether submit_quiz_answers did the inserts")
+    public boolean procedure;
+}
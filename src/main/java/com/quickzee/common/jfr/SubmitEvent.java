@@ -0,0 +1,38 @@
+package com.quickzee.common.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * SubmitEvent
+ * JFR event for one submission, from the service call to the stored (or queued) result.
+ */
+@Name("com.quickzee.Submit")
+@Label("Submit Attempt")
+@Category({"QuickZee", "Attempts"})
+@Description("Submission of a quiz attempt")
+@StackTrace(false)
+public class SubmitEvent extends Event {
+
+    @Label("Quiz ID")
+    public long quizId;
+
+    @Label("Answer Count")
+    @Description("Answered questions")
+    public int answerCount;
+
+    @Label("Question Count")
+    @Description("0 unless the result was stored")
+    public int questionCount;
+
+    @Label("Score")
+    public int score;
+
+    @Label("Outcome")
+    @Description("stored, queued, rate_limited, rejected or error")
+    public String outcome;
+}
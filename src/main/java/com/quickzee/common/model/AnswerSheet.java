@@ -0,0 +1,128 @@
+package com.quickzee.common.model;
+
+import java.util.Arrays;
+
+/**
+ * AnswerSheet
+ * A student's answers keyed by question ID (question -> selected option),
+ * independent of the order the questions were shown in.
+ *
+ * Pairs are kept in two primitive arrays in the order they were first put,
+ * with an open-addressing index on the question IDs so filling a sheet is linear.
+ * CompactQuiz.resolve() checks the sheet against the answer key and turns it
+ * into a selection in one pass.
+ */
+public class AnswerSheet {
+    private long[] questionIds;
+    private long[] optionIds; // CompactQuiz.NO_ANSWER = skipped
+    private int size;
+    private int[] slots; // index + 1 into questionIds, 0 = empty slot
+
+    public AnswerSheet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedQuestions Expected number of answers (the sheet grows if needed)
+     */
+    public AnswerSheet(int expectedQuestions) {
+        int capacity = Math.max(4, expectedQuestions);
+        this.questionIds = new long[capacity];
+        this.optionIds = new long[capacity];
+        this.slots = new int[Integer.highestOneBit(capacity * 2 - 1) << 1];
+    }
+
+    /**
+     * Set the answer to a question (replaces an earlier answer)
+     * @param questionId Question ID
+     * @param optionId Selected option ID, or CompactQuiz.NO_ANSWER to clear it
+     */
+    public void put(long questionId, long optionId) {
+        int i = indexOf(questionId);
+        if (i < 0) {
+            if (size == questionIds.length) {
+                grow();
+            }
+            i = size++;
+            questionIds[i] = questionId;
+            slots[freeSlot(questionId)] = i + 1;
+        }
+        optionIds[i] = optionId > 0 ? optionId : CompactQuiz.NO_ANSWER;
+    }
+
+    /**
+     * @param questionId Question ID
+     * @return Selected option ID, or CompactQuiz.NO_ANSWER if not answered
+     */
+    public long get(long questionId) {
+        int i = indexOf(questionId);
+        return i >= 0 ? optionIds[i] : CompactQuiz.NO_ANSWER;
+    }
+
+    /**
+     * @return Number of questions on the sheet (including cleared ones)
+     */
+    public int size() {
+        return size;
+    }
+
+    public long getQuestionId(int index) {
+        checkIndex(index);
+        return questionIds[index];
+    }
+
+    public long getOptionId(int index) {
+        checkIndex(index);
+        return optionIds[index];
+    }
+
+    private int indexOf(long questionId) {
+        int mask = slots.length - 1;
+        int slot = slot(questionId, mask);
+        while (slots[slot] != 0) {
+            if (questionIds[slots[slot] - 1] == questionId) {
+                return slots[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    // First empty slot for a question ID that is not on the sheet yet
+    private int freeSlot(long questionId) {
+        int mask = slots.length - 1;
+        int slot = slot(questionId, mask);
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Double the arrays and rebuild the index (kept at most half full)
+    private void grow() {
+        questionIds = Arrays.copyOf(questionIds, size * 2);
+        optionIds = Arrays.copyOf(optionIds, size * 2);
+        slots = new int[slots.length * 2];
+        for (int i = 0; i < size; i++) {
+            slots[freeSlot(questionIds[i])] = i + 1;
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Answer " + index + " of " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AnswerSheet{" +
+                "answers=" + size +
+                '}';
+    }
+}
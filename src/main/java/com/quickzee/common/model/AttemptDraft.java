@@ -0,0 +1,86 @@
+package com.quickzee.common.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class AttemptDraft {
+    private String attemptToken;
+    private Long userId;
+    private Long quizId;
+    private long startedAtMillis;
+    private long deadlineMillis; // 0 = no time limit
+    private List<Long> answers = new ArrayList<>(); // index -> optionId (null = unanswered)
+
+    // No-arg constructor
+    public AttemptDraft() {}
+
+    // Full constructor
+    public AttemptDraft(String attemptToken, Long userId, Long quizId,
+                        long startedAtMillis, long deadlineMillis) {
+        this.attemptToken = attemptToken;
+        this.userId = userId;
+        this.quizId = quizId;
+        this.startedAtMillis = startedAtMillis;
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    // Getters and Setters
+    public String getAttemptToken() {
+        return attemptToken;
+    }
+
+    public void setAttemptToken(String attemptToken) {
+        this.attemptToken = attemptToken;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public void setStartedAtMillis(long startedAtMillis) {
+        this.startedAtMillis = startedAtMillis;
+    }
+
+    public long getDeadlineMillis() {
+        return deadlineMillis;
+    }
+
+    public void setDeadlineMillis(long deadlineMillis) {
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    public List<Long> getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(List<Long> answers) {
+        this.answers = answers;
+    }
+
+    @Override
+    public String toString() {
+        return "AttemptDraft{" +
+                "userId=" + userId +
+                ", quizId=" + quizId +
+                ", startedAtMillis=" + startedAtMillis +
+                ", deadlineMillis=" + deadlineMillis +
+                ", answers=" + answers +
+                '}';
+    }
+}
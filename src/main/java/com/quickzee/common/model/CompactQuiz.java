@@ -0,0 +1,360 @@
+package com.quickzee.common.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, compact read model of a quiz for caches and the exam/scoring paths.
+ *
+ * Instead of one object per question and option it keeps parallel primitive
+ * arrays: question i owns options optionStart[i] .. optionStart[i+1]-1.
+ * Texts come from a shared pool, so "True", "False" or "None of the above"
+ * exist once however many quizzes use them. Questions and options can be
+ * looked up by ID in O(1). Use toQuiz() only when a mutable Quiz is needed
+ * (editing, existing views).
+ *
+ * Answers are passed around as a selection: a long[] with one slot per
+ * question (slot = indexOfQuestion(questionId)) holding the chosen option ID,
+ * or NO_ANSWER for a skipped question. Scoring a selection allocates nothing.
+ * Clients that show questions in their own order send an AnswerSheet instead,
+ * which resolve() turns into a selection.
+ */
+public final class CompactQuiz {
+
+    /** Selection value of a skipped question (option IDs are always positive) */
+    public static final long NO_ANSWER = 0L;
+
+    private final long id;
+    private final String title;
+    private final int semester;
+    private final int durationMinutes;
+
+    private final long[] questionIds;
+    private final int[] questionOrdinals;
+    private final String[] questionTexts;
+    private final int[] optionStart;      // length = questions + 1
+
+    private final long[] optionIds;
+    private final int[] optionOrdinals;
+    private final String[] optionTexts;
+    private final BitSet correct;         // by option index
+
+    private final LongIndex questionIndex;
+    private final LongIndex optionIndex;
+    private final int[] optionQuestion;   // option index -> question index
+
+    private CompactQuiz(long id, String title, int semester, int durationMinutes,
+                        long[] questionIds, int[] questionOrdinals, String[] questionTexts, int[] optionStart,
+                        long[] optionIds, int[] optionOrdinals, String[] optionTexts, BitSet correct) {
+        this.id = id;
+        this.title = title;
+        this.semester = semester;
+        this.durationMinutes = durationMinutes;
+        this.questionIds = questionIds;
+        this.questionOrdinals = questionOrdinals;
+        this.questionTexts = questionTexts;
+        this.optionStart = optionStart;
+        this.optionIds = optionIds;
+        this.optionOrdinals = optionOrdinals;
+        this.optionTexts = optionTexts;
+        this.correct = correct;
+
+        this.questionIndex = new LongIndex(questionIds);
+        this.optionIndex = new LongIndex(optionIds);
+        this.optionQuestion = new int[optionIds.length];
+        for (int q = 0; q < questionIds.length; q++) {
+            for (int o = optionStart[q]; o < optionStart[q + 1]; o++) {
+                optionQuestion[o] = q;
+            }
+        }
+    }
+
+    /**
+     * Build from a fully loaded quiz
+     * @param quiz Quiz with questions and options (in ordinal order)
+     * @param textPool Shared pool used to deduplicate texts (e.g. a ConcurrentHashMap); may be null
+     * @return Compact copy
+     */
+    public static CompactQuiz from(Quiz quiz, Map<String, String> textPool) {
+        List<Question> questions = quiz.getQuestions() != null ? quiz.getQuestions() : List.of();
+
+        int optionCount = 0;
+        for (Question question : questions) {
+            optionCount += question.getOptions() != null ? question.getOptions().size() : 0;
+        }
+
+        long[] questionIds = new long[questions.size()];
+        int[] questionOrdinals = new int[questions.size()];
+        String[] questionTexts = new String[questions.size()];
+        int[] optionStart = new int[questions.size() + 1];
+        long[] optionIds = new long[optionCount];
+        int[] optionOrdinals = new int[optionCount];
+        String[] optionTexts = new String[optionCount];
+        BitSet correct = new BitSet(optionCount);
+
+        int o = 0;
+        for (int q = 0; q < questions.size(); q++) {
+            Question question = questions.get(q);
+            questionIds[q] = question.getId();
+            questionOrdinals[q] = question.getOrdinal() != null ? question.getOrdinal() : q;
+            questionTexts[q] = pooled(textPool, question.getText());
+            optionStart[q] = o;
+
+            if (question.getOptions() != null) {
+                for (Option option : question.getOptions()) {
+                    optionIds[o] = option.getId();
+                    optionOrdinals[o] = option.getOrdinal() != null ? option.getOrdinal() : o - optionStart[q];
+                    optionTexts[o] = pooled(textPool, option.getText());
+                    if (option.isCorrect()) {
+                        correct.set(o);
+                    }
+                    o++;
+                }
+            }
+        }
+        optionStart[questions.size()] = o;
+
+        return new CompactQuiz(quiz.getId(), pooled(textPool, quiz.getTitle()),
+                quiz.getSemester() != null ? quiz.getSemester() : 0,
+                quiz.getDuration_minutes() != null ? quiz.getDuration_minutes() : 0,
+                questionIds, questionOrdinals, questionTexts, optionStart,
+                optionIds, optionOrdinals, optionTexts, correct);
+    }
+
+    /**
+     * Build a mutable Quiz (for editing or views that need the object model)
+     * @param withAnswers Whether to fill in which options are correct
+     * @return New Quiz with questions and options
+     */
+    public Quiz toQuiz(boolean withAnswers) {
+        Quiz quiz = new Quiz(id, title, semester, durationMinutes);
+        List<Question> questions = new ArrayList<>(questionIds.length);
+        for (int q = 0; q < questionIds.length; q++) {
+            Question question = new Question(questionIds[q], id, questionOrdinals[q], questionTexts[q]);
+            List<Option> options = new ArrayList<>(getOptionCount(q));
+            for (int o = optionStart[q]; o < optionStart[q + 1]; o++) {
+                options.add(new Option(optionIds[o], questionIds[q], optionOrdinals[o], optionTexts[o],
+                        withAnswers && correct.get(o) ? 1 : 0));
+            }
+            question.setOptions(options);
+            questions.add(question);
+        }
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+
+    /**
+     * Create an empty selection for this quiz (every question unanswered)
+     * @return One slot per question, in question order, all NO_ANSWER
+     */
+    public long[] newSelection() {
+        return new long[questionIds.length];
+    }
+
+    /**
+     * Score a selection
+     * @param selected Selected option ID per question slot (NO_ANSWER = skipped);
+     *                 missing slots and foreign IDs count as wrong
+     * @return Number of correct answers
+     */
+    public int score(long[] selected) {
+        int score = 0;
+        int n = Math.min(questionIds.length, selected != null ? selected.length : 0);
+        for (int q = 0; q < n; q++) {
+            if (selected[q] != NO_ANSWER && isCorrectAnswer(q, selected[q])) {
+                score++;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * Check a question-keyed answer sheet against this quiz and turn it into a selection
+     * One pass over the sheet with O(1) lookups; questions not on the sheet are skipped.
+     * @param answers Answers keyed by question ID
+     * @return Selection in this quiz's question order
+     * @throws IllegalArgumentException if a question is not part of this quiz,
+     *         or an option does not belong to the question it answers
+     */
+    public long[] resolve(AnswerSheet answers) {
+        long[] selected = newSelection();
+        for (int i = 0; i < answers.size(); i++) {
+            long questionId = answers.getQuestionId(i);
+            int q = questionIndex.get(questionId);
+            if (q < 0) {
+                throw new IllegalArgumentException("Question " + questionId + " is not part of this quiz");
+            }
+
+            long optionId = answers.getOptionId(i);
+            if (optionId != NO_ANSWER) {
+                int o = optionIndex.get(optionId);
+                if (o < 0 || optionQuestion[o] != q) {
+                    throw new IllegalArgumentException("Option " + optionId + " is not an answer to question " + questionId);
+                }
+            }
+            selected[q] = optionId;
+        }
+        return selected;
+    }
+
+    /**
+     * Convert answers in the older list form (null or -1 = skipped) to a selection
+     * @param selectedOptionIds One option ID per question, in question order
+     * @return Selection array (same length as the list)
+     */
+    public static long[] toSelection(List<Long> selectedOptionIds) {
+        if (selectedOptionIds == null) {
+            return new long[0];
+        }
+        long[] selected = new long[selectedOptionIds.size()];
+        for (int i = 0; i < selected.length; i++) {
+            Long id = selectedOptionIds.get(i);
+            selected[i] = id != null && id > 0 ? id : NO_ANSWER;
+        }
+        return selected;
+    }
+
+    /**
+     * @param questionIndex Question index
+     * @param optionId Selected option ID
+     * @return true if the option belongs to that question and is correct
+     */
+    public boolean isCorrectAnswer(int questionIndex, long optionId) {
+        int o = optionIndex.get(optionId);
+        return o >= 0 && optionQuestion[o] == questionIndex && correct.get(o);
+    }
+
+    /**
+     * @param questionId Question ID
+     * @return Question index, or -1 if the question is not part of this quiz
+     */
+    public int indexOfQuestion(long questionId) {
+        return questionIndex.get(questionId);
+    }
+
+    /**
+     * @param optionId Option ID
+     * @return Index of the question the option belongs to, or -1 if it is not part of this quiz
+     */
+    public int questionIndexOfOption(long optionId) {
+        int o = optionIndex.get(optionId);
+        return o >= 0 ? optionQuestion[o] : -1;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public int getSemester() {
+        return semester;
+    }
+
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public int getQuestionCount() {
+        return questionIds.length;
+    }
+
+    public long getQuestionId(int questionIndex) {
+        return questionIds[questionIndex];
+    }
+
+    public int getQuestionOrdinal(int questionIndex) {
+        return questionOrdinals[questionIndex];
+    }
+
+    public String getQuestionText(int questionIndex) {
+        return questionTexts[questionIndex];
+    }
+
+    public int getOptionCount(int questionIndex) {
+        return optionStart[questionIndex + 1] - optionStart[questionIndex];
+    }
+
+    public long getOptionId(int questionIndex, int optionPosition) {
+        return optionIds[option(questionIndex, optionPosition)];
+    }
+
+    public int getOptionOrdinal(int questionIndex, int optionPosition) {
+        return optionOrdinals[option(questionIndex, optionPosition)];
+    }
+
+    public String getOptionText(int questionIndex, int optionPosition) {
+        return optionTexts[option(questionIndex, optionPosition)];
+    }
+
+    public boolean isCorrect(int questionIndex, int optionPosition) {
+        return correct.get(option(questionIndex, optionPosition));
+    }
+
+    private int option(int questionIndex, int optionPosition) {
+        if (optionPosition < 0 || optionPosition >= getOptionCount(questionIndex)) {
+            throw new IndexOutOfBoundsException("Option " + optionPosition + " of question " + questionIndex);
+        }
+        return optionStart[questionIndex] + optionPosition;
+    }
+
+    private static String pooled(Map<String, String> textPool, String text) {
+        if (text == null || textPool == null) {
+            return text;
+        }
+        String existing = textPool.putIfAbsent(text, text);
+        return existing != null ? existing : text;
+    }
+
+    @Override
+    public String toString() {
+        return "CompactQuiz{" +
+                "id=" + id +
+                ", title='" + title + '\'' +
+                ", questions=" + questionIds.length +
+                ", options=" + optionIds.length +
+                '}';
+    }
+
+    // Open-addressing map long ID -> array index, no boxing
+    private static final class LongIndex {
+        private final long[] keys;
+        private final int[] values; // index + 1, 0 = empty slot
+        private final int mask;
+
+        LongIndex(long[] ids) {
+            int capacity = Integer.highestOneBit(Math.max(4, ids.length * 2 - 1)) << 1;
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+            for (int i = 0; i < ids.length; i++) {
+                int slot = slot(ids[i]);
+                while (values[slot] != 0 && keys[slot] != ids[i]) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = ids[i];
+                values[slot] = i + 1;
+            }
+        }
+
+        int get(long key) {
+            int slot = slot(key);
+            while (values[slot] != 0) {
+                if (keys[slot] == key) {
+                    return values[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.quickzee.common.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class OfflineResult {
+    private String attemptToken;
+    private Long userId;
+    private Long quizId;
+    private String quizFingerprint; // structure of the quiz when the package was exported
+    private String labName;
+    private long startedAtMillis;
+    private long submittedAtMillis;
+    private Map<Long, Long> answers = new LinkedHashMap<>(); // questionId -> optionId (null = skipped)
+
+    // No-arg constructor
+    public OfflineResult() {}
+
+    // Full constructor
+    public OfflineResult(String attemptToken, Long userId, Long quizId, String quizFingerprint,
+                         String labName, long startedAtMillis, long submittedAtMillis) {
+        this.attemptToken = attemptToken;
+        this.userId = userId;
+        this.quizId = quizId;
+        this.quizFingerprint = quizFingerprint;
+        this.labName = labName;
+        this.startedAtMillis = startedAtMillis;
+        this.submittedAtMillis = submittedAtMillis;
+    }
+
+    // Getters and Setters
+    public String getAttemptToken() {
+        return attemptToken;
+    }
+
+    public void setAttemptToken(String attemptToken) {
+        this.attemptToken = attemptToken;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getQuizId() {
+        return quizId;
+    }
+
+    public void setQuizId(Long quizId) {
+        this.quizId = quizId;
+    }
+
+    public String getQuizFingerprint() {
+        return quizFingerprint;
+    }
+
+    public void setQuizFingerprint(String quizFingerprint) {
+        this.quizFingerprint = quizFingerprint;
+    }
+
+    public String getLabName() {
+        return labName;
+    }
+
+    public void setLabName(String labName) {
+        this.labName = labName;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public void setStartedAtMillis(long startedAtMillis) {
+        this.startedAtMillis = startedAtMillis;
+    }
+
+    public long getSubmittedAtMillis() {
+        return submittedAtMillis;
+    }
+
+    public void setSubmittedAtMillis(long submittedAtMillis) {
+        this.submittedAtMillis = submittedAtMillis;
+    }
+
+    public Map<Long, Long> getAnswers() {
+        return answers;
+    }
+
+    public void setAnswers(Map<Long, Long> answers) {
+        this.answers = answers;
+    }
+
+    @Override
+    public String toString() {
+        return "OfflineResult{" +
+                "userId=" + userId +
+                ", quizId=" + quizId +
+                ", labName='" + labName + '\'' +
+                ", submittedAtMillis=" + submittedAtMillis +
+                ", answers=" + answers.size() +
+                '}';
+    }
+}
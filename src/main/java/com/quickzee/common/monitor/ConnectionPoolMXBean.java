@@ -0,0 +1,42 @@
+package com.quickzee.common.monitor;
+
+/**
+ * JMX gauges of the shared connection pool and of the time callers wait for
+ * a connection. Registered as com.quickzee:type=ConnectionPool.
+ * Pool sizes are 0 while pooling is off (desktop mode).
+ */
+public interface ConnectionPoolMXBean {
+
+    boolean isPoolEnabled();
+
+    int getMaxConnections();
+
+    int getOpenConnections();
+
+    int getIdleConnections();
+
+    int getBusyConnections();
+
+    long getWaitCount();
+
+    double getWaitMeanMillis();
+
+    double getWaitP99Millis();
+
+    double getWaitMaxMillis();
+
+    long getLongHoldCount();
+
+    long getReclaimedCount();
+
+    /**
+     * List the borrowed connections with owner thread, age and (if captured) borrowing stack
+     * @return One line block per connection, oldest first
+     */
+    String dumpBorrowedConnections();
+
+    /**
+     * Start a new wait-time measurement
+     */
+    void resetWaits();
+}
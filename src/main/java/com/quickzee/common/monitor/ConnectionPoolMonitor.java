@@ -0,0 +1,94 @@
+package com.quickzee.common.monitor;
+
+import com.quickzee.common.util.ConnectionPool;
+import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.LatencyHistogram;
+
+import java.util.List;
+
+/**
+ * Reads the pool gauges live from DBConnection, so it works whether the pool
+ * is enabled before or after the MBean is registered.
+ */
+public class ConnectionPoolMonitor implements ConnectionPoolMXBean {
+
+    @Override
+    public boolean isPoolEnabled() {
+        return DBConnection.getPool() != null;
+    }
+
+    @Override
+    public int getMaxConnections() {
+        ConnectionPool pool = DBConnection.getPool();
+        return pool != null ? pool.getMaxSize() : 0;
+    }
+
+    @Override
+    public int getOpenConnections() {
+        ConnectionPool pool = DBConnection.getPool();
+        return pool != null ? pool.getTotalConnections() : 0;
+    }
+
+    @Override
+    public int getIdleConnections() {
+        ConnectionPool pool = DBConnection.getPool();
+        return pool != null ? pool.getIdleConnections() : 0;
+    }
+
+    @Override
+    public int getBusyConnections() {
+        ConnectionPool pool = DBConnection.getPool();
+        return pool != null ? Math.max(0, pool.getTotalConnections() - pool.getIdleConnections()) : 0;
+    }
+
+    @Override
+    public long getWaitCount() {
+        return waits().getCount();
+    }
+
+    @Override
+    public double getWaitMeanMillis() {
+        return waits().getMeanMillis();
+    }
+
+    @Override
+    public double getWaitP99Millis() {
+        return waits().getPercentileMillis(99);
+    }
+
+    @Override
+    public double getWaitMaxMillis() {
+        return waits().getMaxMillis();
+    }
+
+    @Override
+    public long getLongHoldCount() {
+        ConnectionPool pool = DBConnection.getPool();
+        return pool != null ? pool.getLongHoldCount() : 0;
+    }
+
+    @Override
+    public long getReclaimedCount() {
+        ConnectionPool pool = DBConnection.getPool();
+        return pool != null ? pool.getReclaimedCount() : 0;
+    }
+
+    @Override
+    public String dumpBorrowedConnections() {
+        ConnectionPool pool = DBConnection.getPool();
+        if (pool == null) {
+            return "Connection pool is not enabled";
+        }
+        List<String> entries = pool.describeBorrowed();
+        return entries.isEmpty() ? "No borrowed connections" : String.join("\n", entries);
+    }
+
+    @Override
+    public void resetWaits() {
+        waits().reset();
+    }
+
+    private static LatencyHistogram waits() {
+        return DBConnection.getConnectionWaits();
+    }
+}
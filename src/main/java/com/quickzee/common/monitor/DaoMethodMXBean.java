@@ -0,0 +1,34 @@
+package com.quickzee.common.monitor;
+
+/**
+ * JMX view of one DAO method: call count, errors and latency percentiles.
+ * Registered as e.g. com.quickzee:type=Dao,dao=UserDao,name=findByEmail
+ * (overloads of a method share one entry).
+ */
+public interface DaoMethodMXBean {
+
+    String getDao();
+
+    String getMethod();
+
+    long getCount();
+
+    long getErrorCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    /**
+     * Start a new measurement (e.g. at the beginning of an exam)
+     */
+    void reset();
+}
@@ -0,0 +1,102 @@
+package com.quickzee.common.monitor;
+
+import com.quickzee.common.util.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of one DAO method (see DaoMetrics).
+ * Failed calls count in the latencies too: a query that times out is exactly
+ * the one that should show up in the p99.
+ */
+public class DaoMethodStats implements DaoMethodMXBean {
+
+    private final String dao;
+    private final String method;
+    private final String spanName;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    DaoMethodStats(String dao, String method) {
+        this.dao = dao;
+        this.method = method;
+        this.spanName = dao + "." + method;
+    }
+
+    void record(long startedNanos, boolean failed) {
+        latencies.recordSince(startedNanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    LatencyHistogram histogram() {
+        return latencies;
+    }
+
+    // Name of the tracing span of this method (built once)
+    String spanName() {
+        return spanName;
+    }
+
+    @Override
+    public String getDao() {
+        return dao;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latencies.getMeanMillis();
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latencies.getPercentileMillis(50);
+    }
+
+    @Override
+    public double getP90Millis() {
+        return latencies.getPercentileMillis(90);
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latencies.getPercentileMillis(99);
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latencies.getPercentileMillis(99.9);
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latencies.getMaxMillis();
+    }
+
+    @Override
+    public void reset() {
+        latencies.reset();
+        errors.reset();
+    }
+
+    @Override
+    public String toString() {
+        return dao + "." + method + ": " + latencies.summary() + " errors=" + errors.sum();
+    }
+}
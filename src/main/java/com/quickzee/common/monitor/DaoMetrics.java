@@ -0,0 +1,144 @@
+package com.quickzee.common.monitor;
+
+import com.quickzee.common.trace.Span;
+import com.quickzee.common.trace.Tracer;
+import com.quickzee.common.util.SqlCall;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * DaoMetrics
+ * Latency histograms, call and error counts for the methods of one DAO.
+ *
+ * Every DAO keeps one instance and runs its public methods through time().
+ * Recording is lock-free (see LatencyHistogram). Each method is registered as
+ * an MXBean on first use (com.quickzee:type=Dao,dao=...,name=...), next to the
+ * connection pool gauges (com.quickzee:type=ConnectionPool), so p99s can be
+ * watched live in JConsole or VisualVM during an exam.
+ */
+public final class DaoMetrics {
+
+    private static final String DOMAIN = "com.quickzee";
+
+    private static final List<DaoMetrics> ALL = new CopyOnWriteArrayList<>();
+
+    static {
+        register(DOMAIN + ":type=ConnectionPool", new ConnectionPoolMonitor());
+    }
+
+    private final String dao;
+    private final Map<String, DaoMethodStats> methods = new ConcurrentHashMap<>();
+
+    private DaoMetrics(String dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Create the metrics of a DAO (keep it in a static field)
+     * @param daoClass DAO class
+     * @return Metrics named after the class
+     */
+    public static DaoMetrics forDao(Class<?> daoClass) {
+        DaoMetrics metrics = new DaoMetrics(daoClass.getSimpleName());
+        ALL.add(metrics);
+        return metrics;
+    }
+
+    /**
+     * Run a DAO method and record its latency (and whether it failed)
+     * The call is also a span of the current request trace (see Tracer).
+     * @param method Method name
+     * @param call Method body
+     * @return Result of the call
+     * @throws SQLException if the call fails
+     */
+    public <T> T time(String method, SqlCall<T> call) throws SQLException {
+        DaoMethodStats stats = methods.get(method);
+        if (stats == null) {
+            stats = methods.computeIfAbsent(method, this::newMethod);
+        }
+
+        Span span = Tracer.start(stats.spanName());
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = false;
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            stats.record(started, failed);
+            span.close();
+        }
+    }
+
+    /**
+     * @return Name of the DAO
+     */
+    public String getDao() {
+        return dao;
+    }
+
+    /**
+     * @return Statistics of the methods called so far
+     */
+    public List<DaoMethodStats> getMethods() {
+        return new ArrayList<>(methods.values());
+    }
+
+    /**
+     * @return Statistics of every DAO method called so far, in all DAOs
+     */
+    public static List<DaoMethodStats> allMethods() {
+        List<DaoMethodStats> all = new ArrayList<>();
+        for (DaoMetrics metrics : ALL) {
+            all.addAll(metrics.methods.values());
+        }
+        return all;
+    }
+
+    /**
+     * Print all DAO methods, slowest p99 first (for debugging)
+     */
+    public static void printStatus() {
+        List<DaoMethodStats> all = allMethods();
+        all.sort(Comparator.comparingDouble(DaoMethodStats::getP99Millis).reversed());
+
+        System.out.println("=== DAO Metrics ===");
+        for (DaoMethodStats stats : all) {
+            System.out.println(stats);
+        }
+        System.out.println("===================");
+    }
+
+    private DaoMethodStats newMethod(String method) {
+        DaoMethodStats stats = new DaoMethodStats(dao, method);
+        register(DOMAIN + ":type=Dao,dao=" + dao + ",name=" + method, stats);
+        return stats;
+    }
+
+    // Monitoring must never break a query: problems are only logged
+    private static void register(String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException | RuntimeException e) {
+            System.err.println("⚠️ Could not register MBean " + name + ": " + e.getMessage());
+        }
+    }
+}
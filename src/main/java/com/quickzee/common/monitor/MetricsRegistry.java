@@ -0,0 +1,228 @@
+package com.quickzee.common.monitor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * MetricsRegistry
+ * Process-wide registry of counters, gauges and summaries, rendered in the
+ * Prometheus text format by scrape() (served by MetricsServer).
+ *
+ * - Counters and summaries are updated by the code that owns the event
+ *   (AttemptService, AuthService) with LongAdder/DoubleAdder, so updates
+ *   never lock.
+ * - Gauges and function counters are read from their owner at scrape time.
+ * Metric names must be unique; registering a name twice throws IllegalStateException.
+ */
+public class MetricsRegistry {
+
+    /**
+     * Writes its own samples at scrape time (for metrics with many series, like DAO latencies)
+     */
+    public interface Collector {
+        void collect(StringBuilder out);
+    }
+
+    private static final List<Collector> COLLECTORS = new CopyOnWriteArrayList<>();
+    private static final Map<String, Boolean> NAMES = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {}
+
+    /**
+     * Counter with optional labels
+     */
+    public static final class Counter {
+        private final String[] labelNames;
+        private final Map<List<String>, LongAdder> values = new ConcurrentHashMap<>();
+
+        private Counter(String[] labelNames) {
+            this.labelNames = labelNames;
+        }
+
+        /**
+         * @param labelValues One value per label name, in order
+         */
+        public void inc(String... labelValues) {
+            if (labelValues.length != labelNames.length) {
+                throw new IllegalArgumentException("Expected " + labelNames.length + " label values");
+            }
+            values.computeIfAbsent(List.of(labelValues), key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Sum and count of observed values (average = sum / count)
+     */
+    public static final class Summary {
+        private final DoubleAdder sum = new DoubleAdder();
+        private final LongAdder count = new LongAdder();
+
+        public void observe(double value) {
+            sum.add(value);
+            count.increment();
+        }
+    }
+
+    /**
+     * Register a counter
+     * @param name Metric name (e.g. quickzee_logins_total)
+     * @param help One-line description
+     * @param labelNames Label names (none for a plain counter)
+     * @return Counter to increment
+     */
+    public static Counter counter(String name, String help, String... labelNames) {
+        Counter counter = new Counter(labelNames.clone());
+        register(name, out -> {
+            header(out, name, help, "counter");
+            if (counter.values.isEmpty() && labelNames.length == 0) {
+                sample(out, name, labelNames, List.of(), 0);
+            }
+            counter.values.forEach((labels, value) -> sample(out, name, labelNames, labels, value.sum()));
+        });
+        return counter;
+    }
+
+    /**
+     * Register a counter whose value is kept elsewhere (e.g. cache hits)
+     * @param name Metric name
+     * @param help One-line description
+     * @param labelName Label name
+     * @param values Label value -> current total, read at scrape time
+     */
+    public static void counter(String name, String help, String labelName, Supplier<Map<?, ? extends Number>> values) {
+        register(name, out -> {
+            header(out, name, help, "counter");
+            labeled(out, name, labelName, values.get());
+        });
+    }
+
+    /**
+     * Register a gauge
+     * @param name Metric name
+     * @param help One-line description
+     * @param value Read at scrape time
+     */
+    public static void gauge(String name, String help, DoubleSupplier value) {
+        register(name, out -> {
+            header(out, name, help, "gauge");
+            sample(out, name, new String[0], List.of(), value.getAsDouble());
+        });
+    }
+
+    /**
+     * Register a gauge with one label (e.g. active takers per quiz)
+     * @param name Metric name
+     * @param help One-line description
+     * @param labelName Label name
+     * @param values Label value -> current value, read at scrape time
+     */
+    public static void gauge(String name, String help, String labelName, Supplier<Map<?, ? extends Number>> values) {
+        register(name, out -> {
+            header(out, name, help, "gauge");
+            labeled(out, name, labelName, values.get());
+        });
+    }
+
+    /**
+     * Register a summary without quantiles (name_sum and name_count)
+     * @param name Metric name
+     * @param help One-line description
+     * @return Summary to observe values into
+     */
+    public static Summary summary(String name, String help) {
+        Summary summary = new Summary();
+        register(name, out -> {
+            header(out, name, help, "summary");
+            sample(out, name + "_sum", new String[0], List.of(), summary.sum.sum());
+            sample(out, name + "_count", new String[0], List.of(), summary.count.sum());
+        });
+        return summary;
+    }
+
+    /**
+     * Register a collector that writes its own samples (use header() and sample())
+     * @param name Name of its metric family (checked for uniqueness)
+     * @param collector Collector
+     */
+    public static void register(String name, Collector collector) {
+        if (NAMES.putIfAbsent(name, Boolean.TRUE) != null) {
+            throw new IllegalStateException("Metric " + name + " is already registered");
+        }
+        COLLECTORS.add(collector);
+    }
+
+    /**
+     * Render all metrics in the Prometheus text exposition format (version 0.0.4)
+     * @return Metrics text
+     */
+    public static String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        for (Collector collector : COLLECTORS) {
+            // One broken gauge must not hide all other metrics
+            StringBuilder family = new StringBuilder(256);
+            try {
+                collector.collect(family);
+                out.append(family);
+            } catch (RuntimeException e) {
+                out.append("# collector failed: ").append(String.valueOf(e.getMessage()).replace('\n', ' ')).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Write the HELP and TYPE lines of a metric family
+     */
+    public static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ')
+                .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Write one sample line
+     * @param labelNames Label names
+     * @param labelValues Label values (same order)
+     */
+    public static void sample(StringBuilder out, String name, String[] labelNames, List<String> labelValues, double value) {
+        out.append(name);
+        if (labelNames.length > 0) {
+            out.append('{');
+            for (int i = 0; i < labelNames.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(labelNames[i]).append("=\"").append(escape(labelValues.get(i))).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else if (Double.isInfinite(value)) {
+            out.append(value > 0 ? "+Inf" : "-Inf");
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static void labeled(StringBuilder out, String name, String labelName, Map<?, ? extends Number> values) {
+        String[] labelNames = {labelName};
+        for (Map.Entry<?, ? extends Number> entry : values.entrySet()) {
+            sample(out, name, labelNames, List.of(String.valueOf(entry.getKey())), entry.getValue().doubleValue());
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
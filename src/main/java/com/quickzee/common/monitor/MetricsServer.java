@@ -0,0 +1,72 @@
+package com.quickzee.common.monitor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * MetricsServer
+ * Serves MetricsRegistry.scrape() at GET /metrics in the Prometheus text
+ * format, on its own port (JDK HTTP server, one thread), so scraping never
+ * competes with exam requests. Binds to localhost unless configured otherwise.
+ */
+public class MetricsServer {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final HttpServer server;
+
+    private MetricsServer(HttpServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Register the system metrics and start serving
+     * @param host Address to bind (e.g. 127.0.0.1)
+     * @param port Port to listen on
+     * @return Running server
+     * @throws IOException if the port cannot be bound
+     */
+    public static MetricsServer start(String host, int port) throws IOException {
+        SystemMetrics.register();
+
+        HttpServer server = HttpServer.create(new InetSocketAddress(host, port), 16);
+        server.createContext("/metrics", MetricsServer::handle);
+        server.setExecutor(Executors.newSingleThreadExecutor(runnable -> {
+            Thread t = new Thread(runnable, "qz-metrics");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+
+        System.out.println("✅ Metrics: http://" + host + ":" + port + "/metrics");
+        return new MetricsServer(server);
+    }
+
+    /**
+     * Stop serving
+     */
+    public void stop() {
+        server.stop(0);
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = MetricsRegistry.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
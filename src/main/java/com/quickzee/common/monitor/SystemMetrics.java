@@ -0,0 +1,109 @@
+package com.quickzee.common.monitor;
+
+import com.quickzee.common.util.ConnectionPool;
+import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.LatencyHistogram;
+import com.quickzee.common.util.SessionStore;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * System metrics for the Prometheus endpoint: JVM memory and threads,
+ * sessions, connection pool, connection waits and DAO latencies (DaoMetrics).
+ */
+public final class SystemMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+    private static final AtomicBoolean REGISTERED = new AtomicBoolean(false);
+
+    private SystemMetrics() {}
+
+    /**
+     * Register the system metrics (once; later calls do nothing)
+     */
+    public static void register() {
+        if (!REGISTERED.compareAndSet(false, true)) {
+            return;
+        }
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long startedAt = ManagementFactory.getRuntimeMXBean().getStartTime();
+
+        MetricsRegistry.gauge("quickzee_jvm_heap_used_bytes", "Heap memory in use",
+                () -> memory.getHeapMemoryUsage().getUsed());
+        MetricsRegistry.gauge("quickzee_jvm_heap_max_bytes", "Maximum heap size",
+                () -> memory.getHeapMemoryUsage().getMax());
+        MetricsRegistry.gauge("quickzee_jvm_threads", "Live platform threads", threads::getThreadCount);
+        MetricsRegistry.gauge("quickzee_process_uptime_seconds", "Time since the JVM started",
+                () -> (System.currentTimeMillis() - startedAt) / 1000.0);
+        MetricsRegistry.gauge("quickzee_sessions", "Token and desktop sessions in memory", SessionStore::size);
+
+        MetricsRegistry.gauge("quickzee_db_pool_max_connections", "Size limit of the connection pool (0 = no pool)",
+                () -> {
+                    ConnectionPool pool = DBConnection.getPool();
+                    return pool != null ? pool.getMaxSize() : 0;
+                });
+        MetricsRegistry.gauge("quickzee_db_pool_connections", "Open pooled connections by state", "state", () -> {
+            ConnectionPool pool = DBConnection.getPool();
+            int open = pool != null ? pool.getTotalConnections() : 0;
+            int idle = pool != null ? pool.getIdleConnections() : 0;
+            return Map.of("busy", Math.max(0, open - idle), "idle", idle);
+        });
+        MetricsRegistry.counter("quickzee_db_pool_leaks_total",
+                "Pooled connections held too long (long_hold) or closed by the pool (reclaimed)", "kind", () -> {
+                    ConnectionPool pool = DBConnection.getPool();
+                    return Map.of("long_hold", pool != null ? pool.getLongHoldCount() : 0L,
+                            "reclaimed", pool != null ? pool.getReclaimedCount() : 0L);
+                });
+
+        MetricsRegistry.register("quickzee_db_connection_wait_seconds", out -> {
+            MetricsRegistry.header(out, "quickzee_db_connection_wait_seconds",
+                    "Time spent getting a database connection", "summary");
+            writeLatencies(out, "quickzee_db_connection_wait_seconds", new String[0], List.of(),
+                    DBConnection.getConnectionWaits());
+        });
+
+        MetricsRegistry.register("quickzee_dao_call_seconds", SystemMetrics::writeDaoMetrics);
+    }
+
+    private static void writeDaoMetrics(StringBuilder out) {
+        List<DaoMethodStats> methods = DaoMetrics.allMethods();
+        String[] labels = {"dao", "method"};
+
+        MetricsRegistry.header(out, "quickzee_dao_call_seconds", "Latency of DAO methods", "summary");
+        for (DaoMethodStats stats : methods) {
+            writeLatencies(out, "quickzee_dao_call_seconds", labels,
+                    List.of(stats.getDao(), stats.getMethod()), stats.histogram());
+        }
+
+        MetricsRegistry.header(out, "quickzee_dao_errors_total", "DAO calls that threw", "counter");
+        for (DaoMethodStats stats : methods) {
+            MetricsRegistry.sample(out, "quickzee_dao_errors_total", labels,
+                    List.of(stats.getDao(), stats.getMethod()), stats.getErrorCount());
+        }
+    }
+
+    // Quantiles, sum and count of a histogram, in seconds
+    private static void writeLatencies(StringBuilder out, String name, String[] labelNames,
+                                       List<String> labelValues, LatencyHistogram histogram) {
+        String[] withQuantile = new String[labelNames.length + 1];
+        System.arraycopy(labelNames, 0, withQuantile, 0, labelNames.length);
+        withQuantile[labelNames.length] = "quantile";
+
+        for (double quantile : QUANTILES) {
+            List<String> values = new ArrayList<>(labelValues);
+            values.add(String.valueOf(quantile));
+            MetricsRegistry.sample(out, name, withQuantile, values, histogram.getPercentileMillis(quantile * 100) / 1000);
+        }
+        long count = histogram.getCount();
+        MetricsRegistry.sample(out, name + "_sum", labelNames, labelValues, histogram.getMeanMillis() * count / 1000);
+        MetricsRegistry.sample(out, name + "_count", labelNames, labelValues, count);
+    }
+}
@@ -0,0 +1,125 @@
+package com.quickzee.common.offline;
+
+import com.quickzee.common.model.OfflineResult;
+import com.quickzee.common.model.Quiz;
+import com.quickzee.common.model.User;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.InputValidator;
+import com.quickzee.common.util.PasswordHasher;
+import com.quickzee.common.util.SessionManager;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * LabSession
+ * Exam logic of an offline lab machine: students log in against the package
+ * roster, take quizzes from the package, and results go to the LabStore.
+ * Nothing here touches the database.
+ */
+public class LabSession {
+
+    private final LabStore store;
+    private final String labName;
+
+    public LabSession(LabStore store) {
+        this.store = store;
+        this.labName = AppConfig.getString("quickzee.lab.name", defaultLabName());
+    }
+
+    /**
+     * Log in a student from the package roster
+     * @param email Email
+     * @param password Plain text password
+     * @return Logged-in user, or null if the credentials are wrong
+     * @throws IllegalArgumentException if validation fails
+     */
+    public User login(String email, String password) {
+        if (!InputValidator.isValidEmail(email)) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+        if (InputValidator.isEmpty(password)) {
+            throw new IllegalArgumentException("Password cannot be empty");
+        }
+
+        User user = store.getPackage().findStudent(email.trim());
+        if (user == null || !PasswordHasher.verifyPassword(password, user.getPassword())) {
+            System.out.println("❌ Login failed: not on this lab's roster or incorrect password");
+            return null;
+        }
+
+        SessionManager.setLoggedInUser(user);
+        System.out.println("✅ Lab login: " + user.getName());
+        return user;
+    }
+
+    /**
+     * @return Quizzes in the package for the logged-in student's semester
+     * @throws IllegalStateException if not logged in
+     */
+    public List<Quiz> getAvailableQuizzes() {
+        SessionManager.requireLogin();
+
+        Integer semester = SessionManager.getLoggedInUser().getSemester();
+        List<Quiz> available = new ArrayList<>();
+        for (Quiz quiz : store.getPackage().getQuizzes()) {
+            int quizSemester = quiz.getSemester() != null ? quiz.getSemester() : 0;
+            if (quizSemester == 0 || semester == null || quizSemester == semester) {
+                available.add(quiz);
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Start an attempt
+     * @param quiz Quiz from getAvailableQuizzes
+     * @return Attempt to fill with answers (question ID -> option ID) and pass to submit
+     * @throws IllegalStateException if not logged in
+     */
+    public OfflineResult beginAttempt(Quiz quiz) {
+        SessionManager.requireLogin();
+
+        if (quiz == null || store.getPackage().findQuiz(quiz.getId()) == null) {
+            throw new IllegalArgumentException("Quiz is not part of this lab's package");
+        }
+
+        return new OfflineResult(UUID.randomUUID().toString(), SessionManager.getLoggedInUserId(),
+                quiz.getId(), store.getPackage().getFingerprint(quiz.getId()), labName,
+                System.currentTimeMillis(), 0);
+    }
+
+    /**
+     * Finish an attempt and store it in the lab folder
+     * @param attempt Attempt from beginAttempt with its answers
+     * @throws IllegalStateException if not logged in as the student who started it
+     * @throws IOException if the result cannot be written
+     */
+    public void submit(OfflineResult attempt) throws IOException {
+        SessionManager.requireLogin();
+
+        if (!attempt.getUserId().equals(SessionManager.getLoggedInUserId())) {
+            throw new IllegalStateException("This attempt belongs to a different student");
+        }
+
+        attempt.setSubmittedAtMillis(System.currentTimeMillis());
+        store.record(attempt);
+        System.out.println("✅ Answers saved in the lab. Results are published after they are merged.");
+    }
+
+    public String getLabName() {
+        return labName;
+    }
+
+    private static String defaultLabName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "lab";
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.quickzee.common.offline;
+
+import com.quickzee.common.model.OfflineResult;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * LabStore
+ * Local store of an offline exam lab machine: one folder holding the quiz
+ * package and an append-only results file. Needs no database.
+ *
+ * Each result is one [length][CRC32][payload] record, synced to disk before
+ * record() returns, so a power cut loses at most a result that was being
+ * written; a torn record at the end is cut off when the store is opened again,
+ * so results recorded after it stay readable.
+ * The folder is copied back (e.g. on a USB stick) and merged with ResultMerger.
+ */
+public class LabStore implements Closeable {
+
+    public static final String PACKAGE_FILE = "quizzes.qzp";
+    public static final String RESULTS_FILE = "results.log";
+
+    private static final int MAX_RECORD_BYTES = 1024 * 1024;
+
+    private final Path dir;
+    private final QuizPackage quizPackage;
+    private final FileChannel results;
+
+    private LabStore(Path dir, QuizPackage quizPackage) throws IOException {
+        this.dir = dir;
+        this.quizPackage = quizPackage;
+        this.results = FileChannel.open(dir.resolve(RESULTS_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            truncateDamagedTail();
+        } catch (IOException e) {
+            results.close();
+            throw e;
+        }
+    }
+
+    // Cut the file after the last intact record, so new ones are not written behind a torn one
+    private void truncateDamagedTail() throws IOException {
+        long size = results.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(8);
+
+        while (offset + 8 <= size) {
+            header.clear();
+            while (header.hasRemaining() && results.read(header, offset + header.position()) > 0) {
+                // keep reading
+            }
+            header.flip();
+            int length = header.getInt();
+            int expectedCrc = header.getInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES || offset + 8 + length > size) {
+                break; // torn write
+            }
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            while (payload.hasRemaining() && results.read(payload, offset + 8 + payload.position()) > 0) {
+                // keep reading
+            }
+            CRC32 crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != expectedCrc) {
+                break; // corrupt record
+            }
+            offset += 8 + length;
+        }
+
+        if (offset < size) {
+            System.err.println("⚠️ " + dir.resolve(RESULTS_FILE) + " had a damaged tail, " +
+                    (size - offset) + " bytes dropped");
+            results.truncate(offset);
+            results.force(true);
+        }
+        results.position(offset);
+    }
+
+    /**
+     * Set up a lab folder from an exported package (existing results are kept)
+     * @param dir Lab folder (created if missing)
+     * @param packageFile Package exported by ResultMerger.exportPackage
+     * @return Opened store
+     * @throws IOException if the package is invalid or the folder cannot be written
+     */
+    public static LabStore create(Path dir, Path packageFile) throws IOException {
+        QuizPackage quizPackage = QuizPackage.read(packageFile); // validate before copying
+        Files.createDirectories(dir);
+        Files.copy(packageFile, dir.resolve(PACKAGE_FILE), StandardCopyOption.REPLACE_EXISTING);
+        return new LabStore(dir, quizPackage);
+    }
+
+    /**
+     * Open an existing lab folder
+     * @param dir Lab folder
+     * @return Opened store
+     * @throws IOException if the folder has no valid package
+     */
+    public static LabStore open(Path dir) throws IOException {
+        return new LabStore(dir, QuizPackage.read(dir.resolve(PACKAGE_FILE)));
+    }
+
+    /**
+     * Store a finished attempt and wait until it is on disk
+     * @param result Result with answers keyed by question ID
+     * @throws IOException if it cannot be written
+     */
+    public synchronized void record(OfflineResult result) throws IOException {
+        byte[] payload = encode(result);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer frame = ByteBuffer.allocate(8 + payload.length);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+        while (frame.hasRemaining()) {
+            results.write(frame);
+        }
+        results.force(false);
+    }
+
+    /**
+     * @return All results stored in this lab so far
+     * @throws IOException if the results file cannot be read
+     */
+    public List<OfflineResult> readResults() throws IOException {
+        return readResults(dir);
+    }
+
+    /**
+     * Read the results of a lab folder (e.g. one copied back from the lab)
+     * @param dir Lab folder
+     * @return Results, oldest first; a damaged record ends the list
+     * @throws IOException if the results file cannot be read
+     */
+    public static List<OfflineResult> readResults(Path dir) throws IOException {
+        List<OfflineResult> list = new ArrayList<>();
+        Path file = dir.resolve(RESULTS_FILE);
+        if (!Files.exists(file)) {
+            return list;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+
+                try {
+                    int expectedCrc = in.readInt();
+                    if (length <= 0 || length > MAX_RECORD_BYTES) {
+                        throw new IOException("bad record length " + length);
+                    }
+                    byte[] payload = new byte[length];
+                    in.readFully(payload);
+
+                    CRC32 crc = new CRC32();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != expectedCrc) {
+                        throw new IOException("checksum mismatch");
+                    }
+                    list.add(decode(payload));
+                } catch (IOException e) {
+                    System.err.println("⚠️ " + file + ": damaged record after " + list.size() +
+                            " results (" + e.getMessage() + "), rest ignored");
+                    break;
+                }
+            }
+        }
+        return list;
+    }
+
+    public QuizPackage getPackage() {
+        return quizPackage;
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        results.close();
+    }
+
+    private static byte[] encode(OfflineResult result) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF(result.getAttemptToken());
+        out.writeLong(result.getUserId());
+        out.writeLong(result.getQuizId());
+        out.writeUTF(result.getQuizFingerprint());
+        out.writeUTF(result.getLabName() != null ? result.getLabName() : "");
+        out.writeLong(result.getStartedAtMillis());
+        out.writeLong(result.getSubmittedAtMillis());
+        out.writeInt(result.getAnswers().size());
+        for (Map.Entry<Long, Long> answer : result.getAnswers().entrySet()) {
+            out.writeLong(answer.getKey());
+            out.writeLong(answer.getValue() != null ? answer.getValue() : 0L);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static OfflineResult decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        OfflineResult result = new OfflineResult(
+                in.readUTF(),
+                in.readLong(),
+                in.readLong(),
+                in.readUTF(),
+                in.readUTF(),
+                in.readLong(),
+                in.readLong());
+
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            long questionId = in.readLong();
+            long optionId = in.readLong();
+            result.getAnswers().put(questionId, optionId != 0 ? optionId : null);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,262 @@
+package com.quickzee.common.offline;
+
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+import com.quickzee.common.model.User;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * QuizPackage
+ * Self-contained set of quizzes for an offline exam lab: the quizzes with
+ * their questions and options, the students allowed to sit them, and a
+ * fingerprint of each quiz so results can be checked when they are merged.
+ *
+ * Correct answers are never exported; results are scored on merge.
+ * The file ends with a CRC32 of its contents, so a damaged copy is rejected.
+ */
+public class QuizPackage {
+
+    private static final int MAGIC = 0x515A504B; // "QZPK"
+    private static final int VERSION = 1;
+
+    private final long exportedAtMillis;
+    private final List<Quiz> quizzes;
+    private final Map<Long, String> fingerprints;
+    private final List<User> roster;
+
+    /**
+     * @param exportedAtMillis When the package was created
+     * @param quizzes Quizzes with questions and options (correct answers are dropped when written)
+     * @param fingerprints Quiz ID -> QuizFingerprint taken at export
+     * @param roster Students allowed to log in at the lab (password hashes, never plain passwords)
+     */
+    public QuizPackage(long exportedAtMillis, List<Quiz> quizzes, Map<Long, String> fingerprints, List<User> roster) {
+        this.exportedAtMillis = exportedAtMillis;
+        this.quizzes = Collections.unmodifiableList(new ArrayList<>(quizzes));
+        this.fingerprints = Collections.unmodifiableMap(new LinkedHashMap<>(fingerprints));
+        this.roster = Collections.unmodifiableList(new ArrayList<>(roster));
+
+        for (Quiz quiz : quizzes) {
+            if (!fingerprints.containsKey(quiz.getId())) {
+                throw new IllegalArgumentException("Missing fingerprint for quiz " + quiz.getId());
+            }
+        }
+    }
+
+    /**
+     * Write the package (to a temporary file first, then moved into place)
+     * @param file Target file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        CRC32 crc = new CRC32();
+
+        try (OutputStream fileOut = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(fileOut), crc))) {
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(exportedAtMillis);
+
+            // 1) Quizzes
+            out.writeInt(quizzes.size());
+            for (Quiz quiz : quizzes) {
+                out.writeLong(quiz.getId());
+                out.writeUTF(quiz.getTitle() != null ? quiz.getTitle() : "");
+                out.writeInt(quiz.getSemester() != null ? quiz.getSemester() : 0);
+                out.writeInt(quiz.getDuration_minutes() != null ? quiz.getDuration_minutes() : 0);
+                out.writeUTF(fingerprints.get(quiz.getId()));
+
+                List<Question> questions = quiz.getQuestions() != null ? quiz.getQuestions() : List.of();
+                out.writeInt(questions.size());
+                for (Question question : questions) {
+                    out.writeLong(question.getId());
+                    out.writeInt(question.getOrdinal() != null ? question.getOrdinal() : 0);
+                    writeLongString(out, question.getText());
+
+                    List<Option> options = question.getOptions() != null ? question.getOptions() : List.of();
+                    out.writeInt(options.size());
+                    for (Option option : options) {
+                        out.writeLong(option.getId());
+                        out.writeInt(option.getOrdinal() != null ? option.getOrdinal() : 0);
+                        writeLongString(out, option.getText());
+                    }
+                }
+            }
+
+            // 2) Students
+            out.writeInt(roster.size());
+            for (User user : roster) {
+                out.writeLong(user.getId());
+                out.writeUTF(user.getName() != null ? user.getName() : "");
+                out.writeUTF(user.getEmail());
+                out.writeUTF(user.getPassword());
+                out.writeInt(user.getSemester() != null ? user.getSemester() : 0);
+            }
+
+            // 3) Checksum of everything above (not part of the checksum itself)
+            out.flush();
+            new DataOutputStream(fileOut).writeLong(crc.getValue());
+        }
+
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a package file
+     * @param file Package file
+     * @return The package
+     * @throws IOException if the file cannot be read, is not a package or is damaged
+     */
+    public static QuizPackage read(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+
+        try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file))) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(fileIn, crc));
+
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a QuickZee quiz package");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported quiz package version " + version);
+            }
+            long exportedAt = in.readLong();
+
+            // 1) Quizzes
+            int quizCount = in.readInt();
+            List<Quiz> quizzes = new ArrayList<>();
+            Map<Long, String> fingerprints = new LinkedHashMap<>();
+            for (int i = 0; i < quizCount; i++) {
+                Quiz quiz = new Quiz();
+                quiz.setId(in.readLong());
+                quiz.setTitle(in.readUTF());
+                quiz.setSemester(in.readInt());
+                quiz.setDuration_minutes(in.readInt());
+                fingerprints.put(quiz.getId(), in.readUTF());
+
+                int questionCount = in.readInt();
+                List<Question> questions = new ArrayList<>();
+                for (int q = 0; q < questionCount; q++) {
+                    Question question = new Question();
+                    question.setId(in.readLong());
+                    question.setQuiz_id(quiz.getId());
+                    question.setOrdinal(in.readInt());
+                    question.setText(readLongString(in));
+
+                    int optionCount = in.readInt();
+                    List<Option> options = new ArrayList<>();
+                    for (int o = 0; o < optionCount; o++) {
+                        Option option = new Option();
+                        option.setId(in.readLong());
+                        option.setQuestion_id(question.getId());
+                        option.setOrdinal(in.readInt());
+                        option.setText(readLongString(in));
+                        options.add(option);
+                    }
+                    question.setOptions(options);
+                    questions.add(question);
+                }
+                quiz.setQuestions(questions);
+                quizzes.add(quiz);
+            }
+
+            // 2) Students
+            int rosterCount = in.readInt();
+            List<User> roster = new ArrayList<>();
+            for (int i = 0; i < rosterCount; i++) {
+                User user = new User();
+                user.setId(in.readLong());
+                user.setName(in.readUTF());
+                user.setEmail(in.readUTF());
+                user.setPassword(in.readUTF());
+                user.setSemester(in.readInt());
+                user.setRole("student");
+                roster.add(user);
+            }
+
+            // 3) Checksum
+            long expected = crc.getValue();
+            if (new DataInputStream(fileIn).readLong() != expected) {
+                throw new IOException(file + " is damaged (checksum mismatch)");
+            }
+
+            return new QuizPackage(exportedAt, quizzes, fingerprints, roster);
+
+        } catch (EOFException e) {
+            throw new IOException(file + " is truncated", e);
+        }
+    }
+
+    /**
+     * Find a quiz in the package
+     * @param quizId Quiz ID
+     * @return Quiz or null if it is not in this package
+     */
+    public Quiz findQuiz(Long quizId) {
+        for (Quiz quiz : quizzes) {
+            if (quiz.getId().equals(quizId)) {
+                return quiz;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find a student in the package roster
+     * @param email Email address (case-insensitive)
+     * @return Student or null if not on the roster
+     */
+    public User findStudent(String email) {
+        for (User user : roster) {
+            if (user.getEmail().equalsIgnoreCase(email)) {
+                return user;
+            }
+        }
+        return null;
+    }
+
+    public long getExportedAtMillis() {
+        return exportedAtMillis;
+    }
+
+    public List<Quiz> getQuizzes() {
+        return quizzes;
+    }
+
+    public String getFingerprint(Long quizId) {
+        return fingerprints.get(quizId);
+    }
+
+    public List<User> getRoster() {
+        return roster;
+    }
+
+    // writeUTF is limited to 64 KB; question texts may be longer
+    private static void writeLongString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readLongString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > 16 * 1024 * 1024) {
+            throw new IOException("Invalid text length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
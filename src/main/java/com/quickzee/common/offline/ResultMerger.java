@@ -0,0 +1,126 @@
+package com.quickzee.common.offline;
+
+import com.quickzee.common.dao.OfflineResultDao;
+import com.quickzee.common.dao.QuizDao;
+import com.quickzee.common.dao.UserDao;
+import com.quickzee.common.model.OfflineResult;
+import com.quickzee.common.model.Quiz;
+import com.quickzee.common.model.User;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.Bulkheads;
+import com.quickzee.common.util.QuizFingerprint;
+import com.quickzee.common.util.SessionManager;
+import com.quickzee.common.util.Workload;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * ResultMerger
+ * Central side of offline exam labs (admin only):
+ * - exports quizzes and their students into a QuizPackage for a lab
+ * - merges the results collected in lab folders back into the database
+ */
+public class ResultMerger {
+
+    // Results written per transaction when merging
+    private static final int MERGE_BATCH_SIZE = AppConfig.getInt("quickzee.lab.mergeBatchSize", 500);
+
+    private final QuizDao quizDao;
+    private final UserDao userDao;
+    private final OfflineResultDao offlineResultDao;
+
+    public ResultMerger() {
+        this.quizDao = new QuizDao();
+        this.userDao = new UserDao();
+        this.offlineResultDao = new OfflineResultDao();
+    }
+
+    /**
+     * Export quizzes for an offline lab
+     * Students of the quizzes' semesters are included so they can log in at the lab
+     * (all students if a quiz is open to every semester).
+     * @param quizIds Quizzes to export
+     * @param file Package file to write
+     * @return The written package
+     * @throws IllegalStateException if not admin
+     * @throws IllegalArgumentException if a quiz does not exist or has no questions
+     * @throws SQLException if database error occurs
+     * @throws IOException if the file cannot be written
+     */
+    public QuizPackage exportPackage(List<Long> quizIds, Path file) throws SQLException, IOException {
+        SessionManager.requireAdmin();
+
+        if (quizIds == null || quizIds.isEmpty()) {
+            throw new IllegalArgumentException("Choose at least one quiz to export");
+        }
+
+        // 1) Quizzes with questions, fingerprinted before correct answers are dropped
+        List<Quiz> quizzes = new ArrayList<>();
+        Map<Long, String> fingerprints = new LinkedHashMap<>();
+        Set<Integer> semesters = new HashSet<>();
+        for (Long quizId : new LinkedHashSet<>(quizIds)) {
+            Quiz quiz = Bulkheads.call(Workload.ADMIN_REPORTING, () -> quizDao.findByIdWithQuestions(quizId));
+            if (quiz == null) {
+                throw new IllegalArgumentException("Quiz not found with ID: " + quizId);
+            }
+            if (quiz.getQuestions() == null || quiz.getQuestions().isEmpty()) {
+                throw new IllegalArgumentException("Quiz " + quizId + " has no questions");
+            }
+            fingerprints.put(quiz.getId(), QuizFingerprint.of(quiz));
+            quizzes.add(quiz);
+            semesters.add(quiz.getSemester() != null ? quiz.getSemester() : 0);
+        }
+
+        // 2) Students who may take them
+        List<User> roster = new ArrayList<>();
+        for (User user : Bulkheads.call(Workload.ADMIN_REPORTING, userDao::findAll)) {
+            boolean student = "student".equalsIgnoreCase(user.getRole());
+            if (student && (semesters.contains(0) || semesters.contains(user.getSemester()))) {
+                roster.add(user);
+            }
+        }
+
+        // 3) Write
+        QuizPackage quizPackage = new QuizPackage(System.currentTimeMillis(), quizzes, fingerprints, roster);
+        quizPackage.write(file);
+
+        System.out.println("✅ Exported " + quizzes.size() + " quizzes and " + roster.size() +
+                " students to " + file);
+        return quizPackage;
+    }
+
+    /**
+     * Merge the results of one or more lab folders into the database
+     * Safe to run again: results merged before are recognised by their attempt token.
+     * @param labDirs Lab folders copied back from the labs
+     * @return What was merged, skipped and rejected
+     * @throws IllegalStateException if not admin
+     * @throws SQLException if database error occurs
+     * @throws IOException if a results file cannot be read
+     */
+    public OfflineResultDao.MergeReport merge(List<Path> labDirs) throws SQLException, IOException {
+        SessionManager.requireAdmin();
+
+        List<OfflineResult> results = new ArrayList<>();
+        for (Path dir : labDirs) {
+            results.addAll(LabStore.readResults(dir));
+        }
+
+        long start = System.nanoTime();
+        OfflineResultDao.MergeReport report = Bulkheads.call(Workload.ADMIN_REPORTING,
+                () -> offlineResultDao.merge(results, MERGE_BATCH_SIZE));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("✅ Merged " + report.getMerged() + " of " + results.size() + " lab results in " + millis + " ms");
+        if (report.getAlreadyMerged() > 0) {
+            System.out.println("   Already merged before: " + report.getAlreadyMerged());
+        }
+        for (String conflict : report.getConflicts()) {
+            System.out.println("   ⚠️ Not merged: " + conflict);
+        }
+        return report;
+    }
+}
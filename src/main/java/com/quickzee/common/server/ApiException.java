@@ -0,0 +1,21 @@
+package com.quickzee.common.server;
+
+/**
+ * Error with an HTTP status, thrown by API handlers
+ * (e.g. 404 for an unknown route, 401 for a missing session).
+ */
+public class ApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public ApiException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
@@ -0,0 +1,622 @@
+package com.quickzee.common.server;
+
+import com.quickzee.common.model.AnswerSheet;
+import com.quickzee.common.model.CompactQuiz;
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+import com.quickzee.common.model.QuizResult;
+import com.quickzee.common.model.User;
+import com.quickzee.common.monitor.MetricsServer;
+import com.quickzee.common.service.AttemptRegistry;
+import com.quickzee.common.service.AttemptService;
+import com.quickzee.common.service.AuthService;
+import com.quickzee.common.service.QuizService;
+import com.quickzee.common.snapshot.QuizSnapshot;
+import com.quickzee.common.snapshot.QuizSnapshotWriter;
+import com.quickzee.common.trace.Span;
+import com.quickzee.common.trace.Tracer;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.RateLimitedException;
+import com.quickzee.common.util.Session;
+import com.quickzee.common.util.SessionManager;
+import com.quickzee.common.util.SubmissionQueuedException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ExamApiServer
+ * Headless server mode: exposes login, quiz catalog, start-attempt and submit
+ * as a small JSON-over-HTTP API, so student machines talk to one server
+ * (and its connection pool) instead of each opening MySQL connections.
+ *
+ * Every request runs on its own virtual thread; database work still goes
+ * through the services, so bulkheads, rate limits and retries all apply.
+ *
+ * Endpoints (send "Authorization: Bearer <token>" after login):
+ *   POST /api/login                         {"email", "password"} -> {"token", "user"}
+ *   POST /api/logout
+ *   GET  /api/quizzes                       quizzes for the student's semester (all for admins)
+ *   POST /api/quizzes/{id}/attempts         -> {"attemptToken", "deadline", "resumed", "savedAnswers", "quiz"}
+ *                                              (no correct answers; an unfinished attempt is resumed)
+ *   PUT  /api/attempts/{attemptToken}/answers  {"answers": ...} saved, auto-submitted at the deadline
+ *   POST /api/quizzes/{id}/submissions      {"attemptToken", "answers": ...}
+ *
+ * "answers" is either an object keyed by question ID ({"questionId": optionId|null, ...},
+ * any order, checked against the answer key) or the older array with one option ID
+ * (or null) per question in the quiz's order.
+ *   GET  /api/health
+ *
+ * With quickzee.snapshot.file set, quiz content for attempts is served from a
+ * memory-mapped QuizSnapshot while it matches the cached quiz that answers are
+ * scored against; quizzes edited since then are served from the cache until the
+ * file is rebuilt with QuizSnapshotWriter.
+ *
+ * Run: java com.quickzee.common.server.ExamApiServer
+ */
+public class ExamApiServer {
+
+    private static final int MAX_BODY_BYTES = 1024 * 1024;
+
+    private final AuthService authService = new AuthService();
+    private final QuizService quizService = new QuizService();
+    private final AttemptService attemptService = new AttemptService();
+
+    private final boolean trustForwardedFor =
+            AppConfig.getBoolean("quickzee.server.trustForwardedFor", false);
+
+    // Read-only quiz content for exam delivery (null = always load from the database)
+    private volatile QuizSnapshot snapshot;
+    // Cached quiz -> whether the snapshot still has the same content (entries go with the cache entry)
+    private final Map<CompactQuiz, Boolean> snapshotChecks = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public static void main(String[] args) throws IOException {
+        int port = AppConfig.getInt("quickzee.server.port", 8080);
+
+        DBConnection.enablePool(
+                AppConfig.getInt("quickzee.server.dbPoolSize", 32),
+                AppConfig.getLong("quickzee.server.dbPoolWaitMillis", 10000));
+
+        ExamApiServer api = new ExamApiServer();
+
+        String snapshotFile = AppConfig.getString("quickzee.snapshot.file", "");
+        if (!snapshotFile.isEmpty()) {
+            api.useSnapshot(Paths.get(snapshotFile));
+        }
+
+        // Attempts that were running when the server stopped keep their deadlines
+        try {
+            api.attemptService.recoverOpenAttempts();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Could not recover unfinished attempts: " + e.getMessage());
+        }
+
+        api.start(port);
+
+        // Prometheus endpoint on its own port (0 = off)
+        MetricsServer metrics = null;
+        int metricsPort = AppConfig.getInt("quickzee.metrics.port", 9464);
+        if (metricsPort > 0) {
+            try {
+                metrics = MetricsServer.start(AppConfig.getString("quickzee.metrics.host", "127.0.0.1"), metricsPort);
+            } catch (IOException e) {
+                System.err.println("⚠️ Metrics endpoint not started: " + e.getMessage());
+            }
+        }
+        MetricsServer metricsServer = metrics;
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            api.stop();
+            if (metricsServer != null) {
+                metricsServer.stop();
+            }
+            DBConnection.shutdownPool();
+        }, "qz-server-shutdown"));
+    }
+
+    /**
+     * Serve quiz content from a snapshot file, building it from the database if it does not exist
+     * Quizzes edited after the file was built are served from the quiz cache instead.
+     * @param file Snapshot file
+     */
+    public void useSnapshot(Path file) {
+        try {
+            if (!Files.exists(file)) {
+                QuizSnapshotWriter.exportAll(file);
+            }
+            snapshot = QuizSnapshot.open(file);
+            System.out.println("✅ Quiz snapshot: " + snapshot.getQuizCount() + " quizzes, " +
+                    snapshot.getQuestionCount() + " questions from " + file);
+        } catch (IOException | SQLException e) {
+            System.err.println("⚠️ Quiz snapshot not used, loading quizzes from the database: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Start listening
+     * @param port TCP port (0 picks a free port)
+     * @throws IOException if the port cannot be opened
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port),
+                AppConfig.getInt("quickzee.server.backlog", 256));
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+
+        System.out.println("✅ Exam API listening on port " + server.getAddress().getPort());
+    }
+
+    /**
+     * Stop accepting requests and wait briefly for running ones to finish
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(2);
+            executor.shutdown();
+            System.out.println("👋 Exam API stopped");
+        }
+    }
+
+    /**
+     * @return Port the server is listening on
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    // ---------- request handling ----------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Session session = null;
+        // Root span of the request trace (sampled, see Tracer); clients get its ID to report slow requests
+        Span span = Tracer.start("HTTP " + exchange.getRequestMethod());
+        span.tag("path", exchange.getRequestURI().getPath());
+        if (span.isRecording()) {
+            exchange.getResponseHeaders().set("X-Trace-Id", span.getTraceId());
+        }
+        try {
+            session = SessionManager.bind(bearerToken(exchange));
+            try {
+                Object response = route(exchange, session);
+                send(exchange, 200, response);
+            } finally {
+                SessionManager.unbind();
+            }
+        } catch (ApiException e) {
+            sendError(exchange, e.getStatus(), e.getMessage());
+        } catch (RateLimitedException e) {
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(e.getRetryAfterSeconds()));
+            sendError(exchange, 429, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IllegalStateException e) {
+            // Thrown by requireLogin / requireAdmin
+            sendError(exchange, session == null ? 401 : 403, e.getMessage());
+        } catch (SQLTransientException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendError(exchange, 503, e.getMessage());
+        } catch (SQLException e) {
+            System.err.println("❌ Database error in " + exchange.getRequestURI() + ": " + e.getMessage());
+            sendError(exchange, 500, "Database error");
+        } catch (RuntimeException e) {
+            System.err.println("❌ Unexpected error in " + exchange.getRequestURI() + ": " + e);
+            sendError(exchange, 500, "Internal server error");
+        } finally {
+            span.tag("status", exchange.getResponseCode());
+            span.close();
+            exchange.close();
+        }
+    }
+
+    private Object route(HttpExchange exchange, Session session) throws IOException, SQLException {
+        String method = exchange.getRequestMethod();
+        String[] parts = exchange.getRequestURI().getPath().split("/");
+        // parts[0] = "", parts[1] = "api"
+
+        String resource = parts.length > 2 ? parts[2] : "";
+
+        if (parts.length == 3 && "health".equals(resource) && "GET".equals(method)) {
+            return Map.of("status", "ok");
+        }
+        if (parts.length == 3 && "login".equals(resource) && "POST".equals(method)) {
+            return login(exchange);
+        }
+        if (parts.length == 3 && "logout".equals(resource) && "POST".equals(method)) {
+            requireSession(session);
+            SessionManager.logout();
+            return Map.of("loggedOut", true);
+        }
+        if ("quizzes".equals(resource)) {
+            requireSession(session);
+
+            if (parts.length == 3 && "GET".equals(method)) {
+                return listQuizzes(session.getUser());
+            }
+            if (parts.length == 5 && "POST".equals(method)) {
+                Long quizId = parseId(parts[3]);
+                if ("attempts".equals(parts[4])) {
+                    return startAttempt(quizId);
+                }
+                if ("submissions".equals(parts[4])) {
+                    return submit(quizId, readBody(exchange));
+                }
+            }
+        }
+        if ("attempts".equals(resource)) {
+            requireSession(session);
+
+            if (parts.length == 5 && "answers".equals(parts[4]) && "PUT".equals(method)) {
+                Map<String, Object> body = readBody(exchange);
+                AnswerSheet sheet = answerSheet(body);
+                if (sheet != null) {
+                    attemptService.saveAnswers(parts[3], sheet);
+                } else {
+                    attemptService.saveAnswers(parts[3], answerList(body));
+                }
+                return Map.of("saved", true, "deadline", attemptService.getDeadline(parts[3]));
+            }
+        }
+        throw new ApiException(404, "No such endpoint: " + method + " " + exchange.getRequestURI().getPath());
+    }
+
+    private Object login(HttpExchange exchange) throws IOException, SQLException {
+        Map<String, Object> body = readBody(exchange);
+        Session session = authService.loginWithToken(
+                stringField(body, "email"), stringField(body, "password"), clientAddress(exchange));
+
+        if (session == null) {
+            throw new ApiException(401, "Invalid email or password");
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("token", session.getToken());
+        response.put("expiresAt", session.getExpiresAtMillis());
+        response.put("user", userJson(session.getUser()));
+        return response;
+    }
+
+    private Object listQuizzes(User user) throws SQLException {
+        List<Quiz> quizzes = new ArrayList<>();
+        if (SessionManager.isAdmin()) {
+            quizzes.addAll(quizService.getAllQuizzes());
+        } else {
+            // Same catalog as the student dashboard: own semester plus "all semesters"
+            if (user.getSemester() != null && user.getSemester() > 0) {
+                quizzes.addAll(quizService.getQuizzesBySemester(user.getSemester()));
+            }
+            quizzes.addAll(quizService.getQuizzesBySemester(0));
+        }
+
+        List<Object> items = new ArrayList<>();
+        for (Quiz quiz : quizzes) {
+            items.add(quizJson(quiz));
+        }
+        return Map.of("quizzes", items);
+    }
+
+    private Object startAttempt(Long quizId) throws SQLException {
+        // The cached quiz is what submissions are scored against, so it decides what is served
+        CompactQuiz live = attemptService.startCompactQuizAttempt(quizId);
+        Quiz quiz = new Quiz(live.getId(), live.getTitle(), live.getSemester(), live.getDurationMinutes());
+
+        QuizSnapshot.QuizView view = snapshotView(live);
+        List<Object> questions = view != null
+                ? questionsJson(view) // straight from the mapped file, no Question/Option objects
+                : questionsJson(live.toQuiz(false));
+
+        Map<String, Object> quizJson = quizJson(quiz);
+        quizJson.put("questions", questions);
+
+        AttemptRegistry.Attempt resumed = attemptService.resumeAttempt(quiz);
+        String attemptToken = resumed != null ? resumed.getToken() : attemptService.beginAttempt(quiz);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("attemptToken", attemptToken);
+        response.put("deadline", attemptService.getDeadline(attemptToken));
+        response.put("resumed", resumed != null);
+        response.put("savedAnswers", resumed != null ? resumed.getLastAnswers() : List.of());
+        response.put("quiz", quizJson);
+        return response;
+    }
+
+    private static List<Object> questionsJson(Quiz quiz) {
+        List<Object> questions = new ArrayList<>();
+        for (Question question : quiz.getQuestions()) {
+            List<Object> options = new ArrayList<>();
+            if (question.getOptions() != null) {
+                for (Option option : question.getOptions()) {
+                    // Never send which option is correct
+                    Map<String, Object> o = new LinkedHashMap<>();
+                    o.put("id", option.getId());
+                    o.put("ordinal", option.getOrdinal());
+                    o.put("text", option.getText());
+                    options.add(o);
+                }
+            }
+
+            Map<String, Object> q = new LinkedHashMap<>();
+            q.put("id", question.getId());
+            q.put("ordinal", question.getOrdinal());
+            q.put("text", question.getText());
+            q.put("options", options);
+            questions.add(q);
+        }
+        return questions;
+    }
+
+    // Snapshot of a quiz, or null if it has none or the quiz was edited since the snapshot was built
+    private QuizSnapshot.QuizView snapshotView(CompactQuiz live) {
+        QuizSnapshot current = snapshot;
+        QuizSnapshot.QuizView view = current != null ? current.findQuiz(live.getId()) : null;
+        if (view == null) {
+            return null;
+        }
+
+        // Compared once per cache load: an edit invalidates the cache and brings a new CompactQuiz
+        Boolean matches = snapshotChecks.get(live);
+        if (matches == null) {
+            matches = sameContent(view, live);
+            snapshotChecks.put(live, matches);
+            if (!matches) {
+                System.out.println("⚠️ Quiz " + live.getId() + " changed since the snapshot was built; " +
+                        "serving it from the quiz cache until the snapshot is rebuilt");
+            }
+        }
+        return matches ? view : null;
+    }
+
+    private static boolean sameContent(QuizSnapshot.QuizView view, CompactQuiz live) {
+        if (!Objects.equals(view.getTitle(), live.getTitle()) || view.getSemester() != live.getSemester()
+                || view.getDurationMinutes() != live.getDurationMinutes()
+                || view.getQuestionCount() != live.getQuestionCount()) {
+            return false;
+        }
+        for (int i = 0; i < view.getQuestionCount(); i++) {
+            QuizSnapshot.QuestionView question = view.getQuestion(i);
+            if (question.getId() != live.getQuestionId(i) || !Objects.equals(question.getText(), live.getQuestionText(i))
+                    || question.getOptionCount() != live.getOptionCount(i)) {
+                return false;
+            }
+            for (int j = 0; j < question.getOptionCount(); j++) {
+                QuizSnapshot.OptionView option = question.getOption(j);
+                if (option.getId() != live.getOptionId(i, j) || !Objects.equals(option.getText(), live.getOptionText(i, j))) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static List<Object> questionsJson(QuizSnapshot.QuizView quiz) {
+        List<Object> questions = new ArrayList<>(quiz.getQuestionCount());
+        for (int i = 0; i < quiz.getQuestionCount(); i++) {
+            QuizSnapshot.QuestionView question = quiz.getQuestion(i);
+
+            List<Object> options = new ArrayList<>(question.getOptionCount());
+            for (int j = 0; j < question.getOptionCount(); j++) {
+                QuizSnapshot.OptionView option = question.getOption(j);
+                Map<String, Object> o = new LinkedHashMap<>();
+                o.put("id", option.getId());
+                o.put("ordinal", j);
+                o.put("text", option.getText());
+                options.add(o);
+            }
+
+            Map<String, Object> q = new LinkedHashMap<>();
+            q.put("id", question.getId());
+            q.put("ordinal", i);
+            q.put("text", question.getText());
+            q.put("options", options);
+            questions.add(q);
+        }
+        return questions;
+    }
+
+    private Object submit(Long quizId, Map<String, Object> body) throws SQLException {
+        String attemptToken = stringField(body, "attemptToken");
+        AnswerSheet sheet = answerSheet(body);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        QuizResult result;
+        try {
+            result = sheet != null
+                    ? attemptService.submitQuizAttempt(quizId, sheet, attemptToken)
+                    : attemptService.submitQuizAttempt(quizId, answerSelection(body), attemptToken);
+        } catch (SubmissionQueuedException e) {
+            // Journaled on this server; stored as soon as the database is reachable again
+            response.put("queued", true);
+            response.put("attemptToken", e.getAttemptToken());
+            response.put("message", e.getMessage());
+            return response;
+        }
+        double percentage = attemptService.calculatePercentage(result);
+
+        response.put("queued", false);
+        response.put("resultId", result.getId());
+        response.put("score", result.getScore());
+        response.put("total", result.getTotalQuestions());
+        response.put("percentage", percentage);
+        response.put("grade", attemptService.getGrade(percentage));
+        response.put("passed", attemptService.isPassed(result));
+        return response;
+    }
+
+    // ---------- helpers ----------
+
+    private static Map<String, Object> quizJson(Quiz quiz) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", quiz.getId());
+        json.put("title", quiz.getTitle());
+        json.put("semester", quiz.getSemester());
+        json.put("durationMinutes", quiz.getDuration_minutes());
+        return json;
+    }
+
+    private static Map<String, Object> userJson(User user) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", user.getId());
+        json.put("name", user.getName());
+        json.put("email", user.getEmail());
+        json.put("role", user.getRole());
+        json.put("semester", user.getSemester());
+        return json;
+    }
+
+    private static List<Long> answerList(Map<String, Object> body) {
+        Object rawAnswers = body.get("answers");
+        if (!(rawAnswers instanceof List)) {
+            throw new IllegalArgumentException("\"answers\" must be an array of option IDs (null = skipped)");
+        }
+
+        List<Long> answers = new ArrayList<>();
+        for (Object answer : (List<?>) rawAnswers) {
+            if (answer == null) {
+                answers.add(null);
+            } else if (answer instanceof Long) {
+                answers.add((Long) answer);
+            } else {
+                throw new IllegalArgumentException("Answers must be option IDs or null");
+            }
+        }
+        return answers;
+    }
+
+    // {"questionId": optionId|null, ...}, or null if the answers are sent as an array
+    private static AnswerSheet answerSheet(Map<String, Object> body) {
+        Object rawAnswers = body.get("answers");
+        if (!(rawAnswers instanceof Map)) {
+            return null;
+        }
+
+        Map<?, ?> answers = (Map<?, ?>) rawAnswers;
+        if (answers.size() > AttemptService.MAX_ANSWERS) {
+            throw new IllegalArgumentException("Too many answers");
+        }
+        AnswerSheet sheet = new AnswerSheet(answers.size());
+        for (Map.Entry<?, ?> answer : answers.entrySet()) {
+            long questionId;
+            try {
+                questionId = Long.parseLong(String.valueOf(answer.getKey()));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Answer keys must be question IDs");
+            }
+            if (answer.getValue() instanceof Long) {
+                sheet.put(questionId, (Long) answer.getValue());
+            } else if (answer.getValue() == null) {
+                sheet.put(questionId, CompactQuiz.NO_ANSWER);
+            } else {
+                throw new IllegalArgumentException("Answers must be option IDs or null");
+            }
+        }
+        return sheet;
+    }
+
+    // Same as answerList, but straight into a selection for submitting
+    private static long[] answerSelection(Map<String, Object> body) {
+        Object rawAnswers = body.get("answers");
+        if (!(rawAnswers instanceof List)) {
+            throw new IllegalArgumentException("\"answers\" must be an array of option IDs (null = skipped)");
+        }
+
+        List<?> list = (List<?>) rawAnswers;
+        long[] selected = new long[list.size()];
+        for (int i = 0; i < selected.length; i++) {
+            Object answer = list.get(i);
+            if (answer instanceof Long) {
+                selected[i] = Math.max((Long) answer, CompactQuiz.NO_ANSWER);
+            } else if (answer != null) {
+                throw new IllegalArgumentException("Answers must be option IDs or null");
+            }
+        }
+        return selected;
+    }
+
+    private static void requireSession(Session session) {
+        if (session == null) {
+            throw new ApiException(401, "Missing or expired session token");
+        }
+    }
+
+    private static Long parseId(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(404, "Invalid ID: " + value);
+        }
+    }
+
+    private static String stringField(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException("\"" + name + "\" is required");
+        }
+        return (String) value;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header != null && header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return header.substring(7).trim();
+        }
+        return null;
+    }
+
+    private String clientAddress(HttpExchange exchange) {
+        if (trustForwardedFor) {
+            String forwarded = exchange.getRequestHeaders().getFirst("X-Forwarded-For");
+            if (forwarded != null && !forwarded.isBlank()) {
+                return forwarded.split(",")[0].trim();
+            }
+        }
+        return exchange.getRemoteAddress().getAddress().getHostAddress();
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) {
+                throw new ApiException(413, "Request body too large");
+            }
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        send(exchange, status, Map.of("error", message != null ? message : "Error"));
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.quickzee.common.service;
+
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.HashedTimingWheel;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AttemptRegistry
+ * Server-side record of every running quiz attempt: who started it, when,
+ * and when it must end. The deadline is enforced here, not by the client.
+ *
+ * Deadlines are scheduled on one HashedTimingWheel (no task or thread per
+ * attempt). When an attempt runs out of time without being submitted, the
+ * finalizer stores it with the last answers the client saved.
+ */
+public class AttemptRegistry {
+
+    /**
+     * Stores an expired attempt
+     */
+    @FunctionalInterface
+    public interface Finalizer {
+        void finalizeAttempt(Attempt attempt) throws SQLException;
+    }
+
+    // Extra time after the deadline for network latency before the attempt is closed
+    private static final long GRACE_MILLIS = TimeUnit.SECONDS.toMillis(
+            AppConfig.getLong("quickzee.attempt.graceSeconds", 30));
+
+    // Wait before trying again when finalizing fails (e.g. database down)
+    private static final long FINALIZE_RETRY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final Map<String, Attempt> attempts = new ConcurrentHashMap<>();
+    // "userId:quizId" -> token of that user's latest running attempt of the quiz
+    private final Map<String, String> runningTokens = new ConcurrentHashMap<>();
+    private final HashedTimingWheel wheel;
+    private final Finalizer finalizer;
+
+    /**
+     * @param finalizer Called (on a virtual thread) for every attempt that runs out of time
+     */
+    public AttemptRegistry(Finalizer finalizer) {
+        this.finalizer = finalizer;
+        this.wheel = new HashedTimingWheel("qz-attempt-deadlines",
+                AppConfig.getLong("quickzee.attempt.tickMillis", 1000), TimeUnit.MILLISECONDS,
+                512, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Record a new attempt and schedule its deadline
+     * @param attemptToken Token of the attempt
+     * @param userId User taking the quiz
+     * @param quizId Quiz ID
+     * @param durationMinutes Time limit (null or 0 = no limit)
+     * @return The registered attempt
+     */
+    public Attempt register(String attemptToken, Long userId, Long quizId, Integer durationMinutes) {
+        long now = System.currentTimeMillis();
+        long deadline = (durationMinutes != null && durationMinutes > 0)
+                ? now + TimeUnit.MINUTES.toMillis(durationMinutes)
+                : 0;
+        return register(attemptToken, userId, quizId, now, deadline);
+    }
+
+    /**
+     * Record an attempt with a known start time and deadline (resuming a saved draft)
+     * An attempt that is already past its deadline is closed on the next tick.
+     * @param attemptToken Token of the attempt
+     * @param userId User taking the quiz
+     * @param quizId Quiz ID
+     * @param startedAtMillis When the attempt started
+     * @param deadlineMillis Deadline (epoch millis), 0 = no limit
+     * @return The registered attempt
+     */
+    public Attempt register(String attemptToken, Long userId, Long quizId, long startedAtMillis, long deadlineMillis) {
+        Attempt attempt = new Attempt(attemptToken, userId, quizId, startedAtMillis, deadlineMillis);
+        if (attempts.putIfAbsent(attemptToken, attempt) != null) {
+            throw new IllegalArgumentException("Attempt already started");
+        }
+        runningTokens.put(runningKey(userId, quizId), attemptToken);
+
+        if (deadlineMillis > 0) {
+            attempt.timeout = wheel.schedule(() -> expire(attempt),
+                    deadlineMillis + GRACE_MILLIS - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+        return attempt;
+    }
+
+    /**
+     * Find a running attempt
+     * @param attemptToken Token of the attempt
+     * @return Attempt or null if unknown or already finished
+     */
+    public Attempt find(String attemptToken) {
+        return attemptToken != null ? attempts.get(attemptToken) : null;
+    }
+
+    /**
+     * Find the running attempt of a user for a quiz
+     * @param userId User ID
+     * @param quizId Quiz ID
+     * @return Attempt or null if the user has no running attempt of that quiz
+     */
+    public Attempt findRunning(Long userId, Long quizId) {
+        String attemptToken = runningTokens.get(runningKey(userId, quizId));
+        Attempt attempt = attemptToken != null ? attempts.get(attemptToken) : null;
+        return attempt != null && !attempt.closed.get() ? attempt : null;
+    }
+
+    /**
+     * Mark an attempt as submitted and cancel its deadline
+     * @param attemptToken Token of the attempt
+     */
+    public void complete(String attemptToken) {
+        Attempt attempt = attempts.remove(attemptToken);
+        if (attempt != null) {
+            runningTokens.remove(runningKey(attempt.userId, attempt.quizId), attemptToken);
+            attempt.closed.set(true);
+            if (attempt.timeout != null) {
+                attempt.timeout.cancel();
+            }
+        }
+    }
+
+    /**
+     * Count running attempts per quiz (for the active takers metric)
+     * @return Quiz ID -> running attempts
+     */
+    public Map<Long, Integer> countByQuiz() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Attempt attempt : attempts.values()) {
+            if (!attempt.closed.get()) {
+                counts.merge(attempt.quizId, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * @return Number of attempts currently running
+     */
+    public int size() {
+        return attempts.size();
+    }
+
+    /**
+     * Print registry status (for debugging)
+     */
+    public void printStatus() {
+        System.out.println("=== Attempts ===");
+        System.out.println("Running: " + attempts.size());
+        System.out.println("Deadlines pending: " + wheel.pendingTimeouts());
+        System.out.println("Deadlines fired: " + wheel.firedTimeouts());
+        System.out.println("================");
+    }
+
+    private static String runningKey(Long userId, Long quizId) {
+        return userId + ":" + quizId;
+    }
+
+    // Runs on a virtual thread when the deadline (plus grace) has passed
+    private void expire(Attempt attempt) {
+        if (!attempt.closed.compareAndSet(false, true)) {
+            return; // submitted in the meantime
+        }
+
+        try {
+            finalizer.finalizeAttempt(attempt);
+            attempts.remove(attempt.getToken(), attempt);
+            runningTokens.remove(runningKey(attempt.userId, attempt.quizId), attempt.getToken());
+            System.out.println("⏰ Attempt for quiz " + attempt.getQuizId() + " by user " +
+                    attempt.getUserId() + " closed at its deadline");
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("⚠️ Could not close expired attempt, retrying later: " + e.getMessage());
+            attempt.closed.set(false);
+            attempt.timeout = wheel.schedule(() -> expire(attempt), FINALIZE_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * One running attempt
+     */
+    public static final class Attempt {
+        private final String token;
+        private final Long userId;
+        private final Long quizId;
+        private final long startedAtMillis;
+        private final long deadlineMillis;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+        private volatile List<Long> lastAnswers = Collections.emptyList();
+        private volatile HashedTimingWheel.Timeout timeout;
+
+        private Attempt(String token, Long userId, Long quizId, long startedAtMillis, long deadlineMillis) {
+            this.token = token;
+            this.userId = userId;
+            this.quizId = quizId;
+            this.startedAtMillis = startedAtMillis;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        /**
+         * Check whether the time limit (plus grace) has passed
+         * @param nowMillis Current time
+         * @return true if answers may no longer change
+         */
+        public boolean isOverdue(long nowMillis) {
+            return deadlineMillis > 0 && nowMillis > deadlineMillis + GRACE_MILLIS;
+        }
+
+        /**
+         * Replace the saved answers (copied, so the caller may keep changing its list)
+         * @param answers Selected option IDs, one per question (null = unanswered)
+         */
+        public void saveAnswers(List<Long> answers) {
+            lastAnswers = answers != null
+                    ? Collections.unmodifiableList(new ArrayList<>(answers))
+                    : Collections.emptyList();
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public Long getQuizId() {
+            return quizId;
+        }
+
+        public long getStartedAtMillis() {
+            return startedAtMillis;
+        }
+
+        /**
+         * @return Deadline (epoch millis) or 0 if the quiz has no time limit
+         */
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        public List<Long> getLastAnswers() {
+            return lastAnswers;
+        }
+    }
+}
@@ -1,16 +1,38 @@
 package com.quickzee.common.service;
 
+import com.quickzee.common.dao.DraftDao;
 import com.quickzee.common.dao.ResultDao;
-import com.quickzee.common.dao.QuizDao;
+import com.quickzee.common.model.AnswerSheet;
+import com.quickzee.common.model.AttemptDraft;
+import com.quickzee.common.model.CompactQuiz;
 import com.quickzee.common.model.QuizResult;
 import com.quickzee.common.model.Quiz;
 import com.quickzee.common.model.Question;
+import com.quickzee.common.jfr.QuizLoadEvent;
+import com.quickzee.common.jfr.SubmitEvent;
 import com.quickzee.common.model.Option;
+import com.quickzee.common.monitor.MetricsRegistry;
+import com.quickzee.common.trace.Span;
+import com.quickzee.common.trace.Tracer;
+import com.quickzee.common.trace.WorkloadTracer;
+import com.quickzee.common.util.AnswerJournal;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.Bulkheads;
+import com.quickzee.common.util.InputValidator;
+import com.quickzee.common.util.RateLimitedException;
+import com.quickzee.common.util.RateLimiter;
+import com.quickzee.common.util.RetryPolicy;
 import com.quickzee.common.util.SessionManager;
+import com.quickzee.common.util.SubmissionQueuedException;
+import com.quickzee.common.util.Workload;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * AttemptService
@@ -22,12 +44,56 @@ import java.util.ArrayList;
  */
 public class AttemptService {
 
+    // quickzee.submit.mode=procedure sends submissions to the submit_quiz_answers procedure
+    private static final boolean USE_SUBMIT_PROCEDURE =
+            "procedure".equalsIgnoreCase(AppConfig.getString("quickzee.submit.mode", "jdbc"));
+
+    // Retries for transient failures (deadlocks, lock timeouts, lost connections) on submit
+    private static final RetryPolicy SUBMIT_RETRY = new RetryPolicy(
+            AppConfig.getInt("quickzee.submit.maxAttempts", 5),
+            AppConfig.getLong("quickzee.submit.retryBaseMillis", 100),
+            AppConfig.getLong("quickzee.submit.retryMaxMillis", 2000));
+
+    // Per-user submission limit; internal retries above do not count against it
+    private static final RateLimiter SUBMIT_LIMIT = new RateLimiter("submission",
+            AppConfig.getInt("quickzee.ratelimit.submit.perMinute", 6),
+            AppConfig.getInt("quickzee.ratelimit.submit.burst", 3));
+
+    // Upper bound for one answer sheet, so a bad client cannot make us write huge drafts
+    public static final int MAX_ANSWERS = 1000;
+
+    // Background writer of in-progress answers (must exist before ATTEMPTS uses it)
+    private static final AutosaveBuffer AUTOSAVE = new AutosaveBuffer();
+
+    // Running attempts and their server-side deadlines (shared by every AttemptService)
+    private static final AttemptRegistry ATTEMPTS = new AttemptRegistry(AttemptService::finalizeExpired);
+
+    // Exam metrics for the Prometheus endpoint (see MetricsServer)
+    private static final MetricsRegistry.Counter ATTEMPTS_STARTED = MetricsRegistry.counter(
+            "quickzee_attempts_started_total", "Quiz attempts started");
+    private static final MetricsRegistry.Counter SUBMISSIONS = MetricsRegistry.counter(
+            "quickzee_submissions_total", "Submissions by outcome", "outcome");
+    private static final MetricsRegistry.Summary SCORES = MetricsRegistry.summary(
+            "quickzee_submission_score_percent", "Scores of stored submissions in percent");
+
+    static {
+        MetricsRegistry.gauge("quickzee_active_takers", "Running attempts per quiz", "quiz_id", ATTEMPTS::countByQuiz);
+    }
+
+    // Local copy of every answer and submission, for when the database is unreachable (null = disabled)
+    private static final AnswerJournal JOURNAL = AnswerJournal.openDefault();
+
+    // Sends journaled submissions once the database is back
+    private static final JournalSyncer SYNCER = JOURNAL != null
+            ? new JournalSyncer(JOURNAL, AttemptService::replayJournaled)
+            : null;
+
     private final ResultDao resultDao;
-    private final QuizDao quizDao;
+    private final DraftDao draftDao;
 
     public AttemptService() {
         this.resultDao = new ResultDao();
-        this.quizDao = new QuizDao();
+        this.draftDao = new DraftDao();
     }
 
     /**
@@ -39,27 +105,286 @@ public class AttemptService {
      * @throws SQLException if database error occurs
      */
     public Quiz startQuizAttempt(Long quizId) throws SQLException {
+        return startCompactQuizAttempt(quizId).toQuiz(false);
+    }
+
+    /**
+     * Start a quiz attempt without building Question/Option objects
+     * Same checks, tracing and events as startQuizAttempt; for callers that
+     * render the quiz themselves. The result holds the answer key, so never
+     * send it to a client as it is.
+     * @param quizId Quiz ID
+     * @return Cached quiz
+     * @throws IllegalStateException if not logged in
+     * @throws IllegalArgumentException if quiz not found or has no questions
+     * @throws SQLException if database error occurs
+     */
+    public CompactQuiz startCompactQuizAttempt(Long quizId) throws SQLException {
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            CompactQuiz quiz = Tracer.trace("AttemptService.startQuizAttempt", () -> loadQuizForAttempt(quizId));
+            failed = false;
+            return quiz;
+        } finally {
+            WorkloadTracer.startAttempt(started, quizId != null ? quizId : 0, failed);
+        }
+    }
+
+    private CompactQuiz loadQuizForAttempt(Long quizId) throws SQLException {
         SessionManager.requireLogin();
 
         if (quizId == null || quizId <= 0) {
             throw new IllegalArgumentException("Invalid quiz ID");
         }
 
-        Quiz quiz = quizDao.findByIdWithQuestions(quizId);
+        // Served from the compact cache; callers make their own copy without correct answers
+        QuizLoadEvent event = new QuizLoadEvent();
+        event.begin();
+        CompactQuiz cached = QuizCache.get(quizId);
 
-        if (quiz == null) {
+        if (cached == null) {
             throw new IllegalArgumentException("Quiz not found with ID: " + quizId);
         }
+        event.quizId = quizId;
+        event.questionCount = cached.getQuestionCount();
+        event.commit();
 
-        if (quiz.getQuestions() == null || quiz.getQuestions().isEmpty()) {
+        if (cached.getQuestionCount() == 0) {
             throw new IllegalArgumentException("This quiz has no questions yet");
         }
 
-        System.out.println("✅ Quiz loaded: " + quiz.getTitle());
-        System.out.println("   Questions: " + quiz.getQuestions().size());
-        System.out.println("   Duration: " + quiz.getDuration_minutes() + " minutes");
+        System.out.println("✅ Quiz loaded: " + cached.getTitle());
+        System.out.println("   Questions: " + cached.getQuestionCount());
+        System.out.println("   Duration: " + cached.getDurationMinutes() + " minutes");
+
+        return cached;
+    }
+
+    /**
+     * Create a new attempt token
+     * beginAttempt registers one per attempt; the same token is passed to every
+     * submit of that attempt, so a retried submission is never counted twice.
+     * @return Random unique token (36 characters)
+     */
+    public String newAttemptToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Begin a timed attempt of a loaded quiz
+     * The deadline is kept on the server: if the attempt is not submitted in
+     * time it is submitted automatically with the last saved answers.
+     * @param quiz Quiz returned by startQuizAttempt
+     * @return Attempt token to use for saveAnswers and submitQuizAttempt
+     * @throws IllegalStateException if not logged in
+     */
+    public String beginAttempt(Quiz quiz) {
+        SessionManager.requireLogin();
+
+        if (quiz == null || quiz.getId() == null) {
+            throw new IllegalArgumentException("Invalid quiz");
+        }
+
+        String attemptToken = newAttemptToken();
+        AttemptRegistry.Attempt attempt = ATTEMPTS.register(attemptToken,
+                SessionManager.getLoggedInUserId(), quiz.getId(), quiz.getDuration_minutes());
+
+        ATTEMPTS_STARTED.inc();
+        AUTOSAVE.draftStarted(new AttemptDraft(attemptToken, attempt.getUserId(), attempt.getQuizId(),
+                attempt.getStartedAtMillis(), attempt.getDeadlineMillis()));
+        if (JOURNAL != null) {
+            try {
+                JOURNAL.recordStart(attemptToken, attempt.getUserId(), attempt.getQuizId(),
+                        attempt.getStartedAtMillis(), attempt.getDeadlineMillis());
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not write answer journal: " + e.getMessage());
+            }
+        }
+        return attemptToken;
+    }
+
+    /**
+     * Resume the user's unfinished attempt of a quiz, if there is one
+     * Checks running attempts in memory first, then the local answer journal,
+     * then autosaved drafts (after a crash or restart). Call before beginAttempt.
+     * @param quiz Quiz returned by startQuizAttempt
+     * @return Running attempt (token, deadline and saved answers), or null to start a new one
+     * @throws IllegalStateException if not logged in
+     * @throws SQLException if database error occurs
+     */
+    public AttemptRegistry.Attempt resumeAttempt(Quiz quiz) throws SQLException {
+        SessionManager.requireLogin();
+
+        if (quiz == null || quiz.getId() == null) {
+            throw new IllegalArgumentException("Invalid quiz");
+        }
+
+        Long userId = SessionManager.getLoggedInUserId();
+        long now = System.currentTimeMillis();
+
+        // 1) Still running in this process
+        AttemptRegistry.Attempt attempt = ATTEMPTS.findRunning(userId, quiz.getId());
+        if (attempt != null) {
+            return attempt.isOverdue(now) ? null : attempt;
+        }
+
+        // 2) Local journal (also works while the database is unreachable)
+        AttemptDraft draft = null;
+        AnswerJournal.Entry journaled = JOURNAL != null ? JOURNAL.findOpen(userId, quiz.getId()) : null;
+        if (journaled != null && journaled.getStartedAtMillis() > 0) {
+            draft = new AttemptDraft(journaled.getToken(), userId, quiz.getId(),
+                    journaled.getStartedAtMillis(), journaled.getDeadlineMillis());
+            draft.setAnswers(journaled.getAnswers());
+        }
+
+        // 3) Saved draft from an earlier session
+        if (draft == null) {
+            draft = Bulkheads.call(Workload.EXAM_LOAD, () -> draftDao.findLatest(userId, quiz.getId()));
+        }
+        if (draft == null) {
+            return null;
+        }
+
+        attempt = restore(draft);
+        if (attempt == null || attempt.isOverdue(now)) {
+            return null; // closed automatically on the next tick with its saved answers
+        }
+
+        System.out.println("✅ Resumed attempt with " + countAnswered(draft.getAnswers()) + " saved answers");
+        return attempt;
+    }
+
+    /**
+     * Register every autosaved draft again (server startup after a crash or restart)
+     * Drafts that ran out of time while the server was down are submitted right away.
+     * @return Number of attempts recovered
+     * @throws SQLException if database error occurs
+     */
+    public int recoverOpenAttempts() throws SQLException {
+        int recovered = 0;
+        for (AttemptDraft draft : draftDao.findAll()) {
+            if (restore(draft) != null) {
+                recovered++;
+            }
+        }
+        if (recovered > 0) {
+            System.out.println("✅ Recovered " + recovered + " unfinished attempts from autosave");
+        }
+        return recovered;
+    }
+
+    /**
+     * Save the current answers of a running attempt
+     * These are the answers that get submitted if time runs out.
+     * @param attemptToken Token from beginAttempt
+     * @param selectedOptionIds Selected option IDs, one per question (null = unanswered)
+     * @throws IllegalStateException if not logged in
+     * @throws IllegalArgumentException if the attempt is unknown, finished or out of time
+     */
+    public void saveAnswers(String attemptToken, List<Long> selectedOptionIds) {
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            storeAnswers(attemptToken, selectedOptionIds);
+            failed = false;
+        } finally {
+            if (WorkloadTracer.isEnabled()) {
+                AttemptRegistry.Attempt attempt = ATTEMPTS.find(attemptToken);
+                WorkloadTracer.saveAnswers(started, attempt != null ? attempt.getQuizId() : 0,
+                        selectedOptionIds != null ? countAnswered(CompactQuiz.toSelection(selectedOptionIds)) : 0,
+                        failed);
+            }
+        }
+    }
+
+    private void storeAnswers(String attemptToken, List<Long> selectedOptionIds) {
+        SessionManager.requireLogin();
+
+        AttemptRegistry.Attempt attempt = ATTEMPTS.find(attemptToken);
+        if (attempt == null || !attempt.getUserId().equals(SessionManager.getLoggedInUserId())) {
+            throw new IllegalArgumentException("Unknown or finished attempt");
+        }
+        if (attempt.isOverdue(System.currentTimeMillis())) {
+            throw new IllegalArgumentException("Time is up for this attempt");
+        }
+        if (selectedOptionIds != null && selectedOptionIds.size() > MAX_ANSWERS) {
+            throw new IllegalArgumentException("Too many answers");
+        }
+
+        // Only questions whose answer changed go to the autosave buffer
+        List<Long> previous = attempt.getLastAnswers();
+        attempt.saveAnswers(selectedOptionIds);
+        List<Long> current = attempt.getLastAnswers();
+
+        Map<Integer, Long> changed = new HashMap<>();
+        for (int i = 0; i < Math.max(previous.size(), current.size()); i++) {
+            Long before = i < previous.size() ? previous.get(i) : null;
+            Long after = i < current.size() ? current.get(i) : null;
+            if (before == null ? after != null : !before.equals(after)) {
+                changed.put(i, after);
+            }
+        }
+        AUTOSAVE.answersChanged(attemptToken, changed);
+        if (JOURNAL != null) {
+            try {
+                JOURNAL.recordAnswers(attemptToken, changed);
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not write answer journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Save the current answers of a running attempt, given as a selection
+     * @param attemptToken Token from beginAttempt
+     * @param selected Selected option ID per question slot (CompactQuiz.NO_ANSWER = unanswered)
+     * @throws IllegalStateException if not logged in
+     * @throws IllegalArgumentException if the attempt is unknown, finished or out of time
+     */
+    public void saveAnswers(String attemptToken, long[] selected) {
+        List<Long> answers = new ArrayList<>(selected.length);
+        for (long optionId : selected) {
+            answers.add(optionId != CompactQuiz.NO_ANSWER ? optionId : null);
+        }
+        saveAnswers(attemptToken, answers);
+    }
+
+    /**
+     * Save the current answers of a running attempt, keyed by question ID
+     * @param attemptToken Token from beginAttempt
+     * @param answers Selected option per question ID
+     * @throws IllegalStateException if not logged in
+     * @throws IllegalArgumentException if the attempt is unknown, finished or out of time,
+     *         or an answer does not fit the quiz
+     * @throws SQLException if the quiz cannot be loaded
+     */
+    public void saveAnswers(String attemptToken, AnswerSheet answers) throws SQLException {
+        SessionManager.requireLogin();
+
+        AttemptRegistry.Attempt attempt = ATTEMPTS.find(attemptToken);
+        if (attempt == null || answers == null) {
+            throw new IllegalArgumentException("Unknown or finished attempt");
+        }
+        saveAnswers(attemptToken, resolve(attempt.getQuizId(), answers));
+    }
+
+    /**
+     * Send submissions saved in the local journal right away (instead of waiting for the background sync)
+     * @return Number of submissions stored
+     */
+    public int syncSavedSubmissions() {
+        return SYNCER != null ? SYNCER.sync() : 0;
+    }
 
-        return quiz;
+    /**
+     * Get the deadline of a running attempt
+     * @param attemptToken Token from beginAttempt
+     * @return Deadline (epoch millis), 0 if there is no time limit, or -1 if the attempt is not running
+     */
+    public long getDeadline(String attemptToken) {
+        AttemptRegistry.Attempt attempt = ATTEMPTS.find(attemptToken);
+        return attempt != null ? attempt.getDeadlineMillis() : -1;
     }
 
     /**
@@ -73,21 +398,201 @@ public class AttemptService {
      */
     public QuizResult submitQuizAttempt(Long quizId, List<Long> selectedOptionIds)
             throws SQLException {
+        SessionManager.requireLogin();
+        if (quizId == null || quizId <= 0) {
+            throw new IllegalArgumentException("Invalid quiz ID");
+        }
+
+        // One-shot attempt without a time limit
+        String attemptToken = newAttemptToken();
+        ATTEMPTS.register(attemptToken, SessionManager.getLoggedInUserId(), quizId, null);
+        try {
+            return submitQuizAttempt(quizId, selectedOptionIds, attemptToken);
+        } finally {
+            ATTEMPTS.complete(attemptToken);
+        }
+    }
+
+    /**
+     * Submit a quiz attempt (idempotent)
+     * Deadlocks, lock timeouts and dropped connections are retried automatically
+     * with jittered backoff. Submitting the same token again returns the result
+     * that was already stored instead of creating a second one.
+     * If the attempt is past its deadline, the answers saved before the
+     * deadline are submitted instead of the ones sent now.
+     * The submission is written to the local answer journal first; if the
+     * database cannot be reached it is sent later in the background.
+     * @param quizId Quiz ID
+     * @param selectedOptionIds List of selected option IDs (one per question, in the quiz's
+     *                          order; see the AnswerSheet version for shuffled questions)
+     * @param attemptToken Token from beginAttempt for this attempt
+     * @return QuizResult object with score
+     * @throws IllegalStateException if not logged in
+     * @throws IllegalArgumentException if validation fails or the attempt is not running
+     * @throws RateLimitedException if this user is submitting too often
+     * @throws SubmissionQueuedException if the database is unreachable but the submission is saved locally
+     * @throws SQLException if database error occurs (after all retries)
+     */
+    public QuizResult submitQuizAttempt(Long quizId, List<Long> selectedOptionIds, String attemptToken)
+            throws SQLException {
+        return submitQuizAttempt(quizId,
+                selectedOptionIds != null ? CompactQuiz.toSelection(selectedOptionIds) : null, attemptToken);
+    }
 
+    /**
+     * Submit a quiz attempt (idempotent), answers keyed by question ID
+     * Use this when questions are shown in a different order than the quiz's
+     * own (shuffled views, API clients). The sheet is checked against the
+     * cached answer key and submitted like a selection.
+     * @param quizId Quiz ID
+     * @param answers Selected option per question ID (missing questions count as skipped)
+     * @param attemptToken Token from beginAttempt for this attempt
+     * @return QuizResult object with score
+     * @throws IllegalStateException if not logged in
+     * @throws IllegalArgumentException if validation fails, the attempt is not running
+     *         or an answer does not fit the quiz
+     * @throws RateLimitedException if this user is submitting too often
+     * @throws SubmissionQueuedException if the database is unreachable but the submission is saved locally
+     * @throws SQLException if database error occurs (after all retries)
+     */
+    public QuizResult submitQuizAttempt(Long quizId, AnswerSheet answers, String attemptToken)
+            throws SQLException {
         SessionManager.requireLogin();
 
         if (quizId == null || quizId <= 0) {
             throw new IllegalArgumentException("Invalid quiz ID");
         }
+        if (answers == null) {
+            throw new IllegalArgumentException("No answers provided");
+        }
 
-        if (selectedOptionIds == null) {
+        return submitQuizAttempt(quizId, resolve(quizId, answers), attemptToken);
+    }
+
+    /**
+     * Submit a quiz attempt (idempotent), answers as a selection
+     * Same as the list version, but the answers stay primitive all the way
+     * to the database: no boxing and no per-question objects.
+     * @param quizId Quiz ID
+     * @param selected Selected option ID per question slot, in the quiz's question
+     *                 order (CompactQuiz.NO_ANSWER = skipped)
+     * @param attemptToken Token from beginAttempt for this attempt
+     * @return QuizResult object with score
+     * @throws IllegalStateException if not logged in
+     * @throws IllegalArgumentException if validation fails or the attempt is not running
+     * @throws RateLimitedException if this user is submitting too often
+     * @throws SubmissionQueuedException if the database is unreachable but the submission is saved locally
+     * @throws SQLException if database error occurs (after all retries)
+     */
+    public QuizResult submitQuizAttempt(Long quizId, long[] selected, String attemptToken)
+            throws SQLException {
+        SubmitEvent event = new SubmitEvent();
+        event.begin();
+        Span span = Tracer.start("AttemptService.submitQuizAttempt");
+        long started = System.nanoTime();
+        String outcome = "error";
+        try {
+            QuizResult result = submitSelection(quizId, selected, attemptToken);
+            outcome = "stored";
+            recordScore(result);
+            event.score = result.getScore() != null ? result.getScore() : 0;
+            event.questionCount = result.getTotalQuestions() != null ? result.getTotalQuestions() : 0;
+            return result;
+        } catch (SubmissionQueuedException e) {
+            outcome = "queued";
+            throw e;
+        } catch (RateLimitedException e) {
+            outcome = "rate_limited";
+            throw e;
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            SUBMISSIONS.inc(outcome);
+            int answered = selected != null ? countAnswered(selected) : 0;
+            WorkloadTracer.submit(started, quizId != null ? quizId : 0, answered, !"stored".equals(outcome));
+            event.quizId = quizId != null ? quizId : 0;
+            event.answerCount = answered;
+            event.outcome = outcome;
+            event.commit();
+            span.tag("quizId", quizId).tag("answers", answered).tag("outcome", outcome);
+            span.close();
+        }
+    }
+
+    private QuizResult submitSelection(Long quizId, long[] selected, String attemptToken)
+            throws SQLException {
+
+        SessionManager.requireLogin();
+
+        if (quizId == null || quizId <= 0) {
+            throw new IllegalArgumentException("Invalid quiz ID");
+        }
+
+        if (selected == null) {
             throw new IllegalArgumentException("No answers provided");
         }
 
+        if (selected.length > MAX_ANSWERS) {
+            throw new IllegalArgumentException("Too many answers");
+        }
+
+        if (InputValidator.isEmpty(attemptToken)) {
+            throw new IllegalArgumentException("Missing attempt token");
+        }
+
         Long userId = SessionManager.getLoggedInUserId();
 
-        // Submit through DAO (which handles scoring)
-        QuizResult result = resultDao.submitQuiz(userId, quizId, selectedOptionIds);
+        // Reject floods before they take a submission thread or a connection
+        SUBMIT_LIMIT.acquireOrThrow(String.valueOf(userId), "You are submitting too often.");
+
+        // Only attempts started with beginAttempt are accepted, checked against their server-side deadline
+        long[] answers = selected;
+        AttemptRegistry.Attempt attempt = ATTEMPTS.find(attemptToken);
+        if (attempt == null) {
+            // Not running: only a repeat of a submission that was already queued or stored
+            // (a retry, or an attempt closed at its deadline)
+            if (isQueued(attemptToken, userId, quizId)) {
+                throw new SubmissionQueuedException(attemptToken, null);
+            }
+            QuizResult stored = Bulkheads.call(Workload.SUBMISSION, () -> resultDao.findByAttemptToken(attemptToken));
+            if (stored == null || !userId.equals(stored.getUserId()) || !quizId.equals(stored.getQuizId())) {
+                throw new IllegalArgumentException("Unknown or finished attempt; start the quiz again");
+            }
+            System.out.println("ℹ️ Attempt " + attemptToken + " was already submitted, returning stored result");
+            return stored;
+        }
+        if (!attempt.getUserId().equals(userId) || !attempt.getQuizId().equals(quizId)) {
+            throw new IllegalArgumentException("This attempt belongs to a different user or quiz");
+        }
+        if (attempt.isOverdue(System.currentTimeMillis())) {
+            System.out.println("⏰ Late submission; using the answers saved before the deadline");
+            answers = CompactQuiz.toSelection(attempt.getLastAnswers());
+        }
+
+        // On disk before we touch the database, so a failure below cannot lose it
+        boolean journaled = journalSubmission(userId, quizId, answers, attemptToken);
+
+        QuizResult result;
+        try {
+            result = store(resultDao, userId, quizId, answers, attemptToken);
+        } catch (SQLException e) {
+            if (journaled && RetryPolicy.isTransient(e)) {
+                ATTEMPTS.complete(attemptToken);
+                AUTOSAVE.draftClosed(attemptToken);
+                System.err.println("⚠️ Database unreachable; submission saved locally and queued");
+                throw new SubmissionQueuedException(attemptToken, e);
+            }
+            if (journaled) {
+                JOURNAL.acknowledge(attemptToken); // rejected for good; the caller sees the error
+            }
+            throw e;
+        }
+        ATTEMPTS.complete(attemptToken);
+        AUTOSAVE.draftClosed(attemptToken);
+        if (journaled) {
+            JOURNAL.acknowledge(attemptToken);
+        }
 
         System.out.println("✅ Quiz submitted successfully!");
         System.out.println("   Score: " + result.getScore() + "/" + result.getTotalQuestions());
@@ -95,6 +600,114 @@ public class AttemptService {
         return result;
     }
 
+    private static void recordScore(QuizResult result) {
+        if (result.getTotalQuestions() != null && result.getTotalQuestions() > 0) {
+            SCORES.observe(100.0 * result.getScore() / result.getTotalQuestions());
+        }
+    }
+
+    // Number of answered questions in a selection (for the workload trace)
+    private static int countAnswered(long[] selected) {
+        int answered = 0;
+        for (long optionId : selected) {
+            if (optionId != CompactQuiz.NO_ANSWER) {
+                answered++;
+            }
+        }
+        return answered;
+    }
+
+    // Score against the cached quiz and insert, or let the database score it.
+    // Runs in the submission bulkhead so dashboard load cannot starve it.
+    private static QuizResult store(ResultDao dao, Long userId, Long quizId,
+                                    long[] answers, String attemptToken) throws SQLException {
+        return Bulkheads.call(Workload.SUBMISSION, () -> SUBMIT_RETRY.execute(() -> {
+            if (USE_SUBMIT_PROCEDURE) {
+                return dao.submitQuizViaProcedure(userId, quizId, answers, attemptToken);
+            }
+            CompactQuiz quiz = QuizCache.get(quizId);
+            if (quiz == null) {
+                throw new IllegalArgumentException("Quiz not found with ID: " + quizId);
+            }
+            return dao.submitQuiz(userId, quiz, answers, attemptToken);
+        }));
+    }
+
+    // Check a question-keyed sheet against the cached answer key
+    private static long[] resolve(Long quizId, AnswerSheet answers) throws SQLException {
+        if (answers.size() > MAX_ANSWERS) {
+            throw new IllegalArgumentException("Too many answers");
+        }
+        CompactQuiz quiz = QuizCache.get(quizId);
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz not found with ID: " + quizId);
+        }
+        return quiz.resolve(answers);
+    }
+
+    // Called by the registry when an attempt runs out of time; same token, so a late client submit is a no-op
+    private static void finalizeExpired(AttemptRegistry.Attempt attempt) throws SQLException {
+        QuizResult result = store(new ResultDao(), attempt.getUserId(), attempt.getQuizId(),
+                CompactQuiz.toSelection(attempt.getLastAnswers()), attempt.getToken());
+        AUTOSAVE.draftClosed(attempt.getToken());
+        if (JOURNAL != null) {
+            JOURNAL.acknowledge(attempt.getToken());
+        }
+        SUBMISSIONS.inc("auto");
+        recordScore(result);
+        System.out.println("⏰ Auto-submitted expired attempt: " + result.getScore() + "/" + result.getTotalQuestions());
+    }
+
+    // Called by the journal syncer for submissions made while the database was unreachable
+    private static void replayJournaled(AnswerJournal.Entry submission) throws SQLException {
+        store(new ResultDao(), submission.getUserId(), submission.getQuizId(),
+                submission.getSubmission(), submission.getToken());
+        AUTOSAVE.draftClosed(submission.getToken());
+    }
+
+    // True if this attempt's submission is in the journal waiting for the database
+    private static boolean isQueued(String attemptToken, Long userId, Long quizId) {
+        if (JOURNAL == null) {
+            return false;
+        }
+        AnswerJournal.Entry entry = JOURNAL.findPendingSubmission(attemptToken);
+        return entry != null && userId.equals(entry.getUserId()) && quizId.equals(entry.getQuizId());
+    }
+
+    // Write a submission to the journal and wait for it to reach the disk
+    private static boolean journalSubmission(Long userId, Long quizId, long[] answers, String attemptToken) {
+        if (JOURNAL == null) {
+            return false;
+        }
+        try {
+            JOURNAL.recordSubmission(attemptToken, userId, quizId, answers);
+            return true;
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not write answer journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Put a saved draft back into the registry (or return it if it is already there)
+    private static AttemptRegistry.Attempt restore(AttemptDraft draft) {
+        try {
+            AttemptRegistry.Attempt attempt = ATTEMPTS.register(draft.getAttemptToken(), draft.getUserId(),
+                    draft.getQuizId(), draft.getStartedAtMillis(), draft.getDeadlineMillis());
+            attempt.saveAnswers(draft.getAnswers());
+            return attempt;
+        } catch (IllegalArgumentException alreadyRunning) {
+            return ATTEMPTS.find(draft.getAttemptToken());
+        }
+    }
+
+    private static int countAnswered(List<Long> answers) {
+        int count = 0;
+        for (Long answer : answers) {
+            if (answer != null) count++;
+        }
+        return count;
+    }
+
     /**
      * Get all quiz attempts for the logged-in user
      * @return List of QuizResult objects
@@ -105,7 +718,16 @@ public class AttemptService {
         SessionManager.requireLogin();
 
         Long userId = SessionManager.getLoggedInUserId();
-        return resultDao.findByUserId(userId);
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            List<QuizResult> results = Tracer.trace("AttemptService.getMyAttempts",
+                    () -> Bulkheads.call(Workload.DASHBOARD, () -> resultDao.findByUserId(userId)));
+            failed = false;
+            return results;
+        } finally {
+            WorkloadTracer.history(started, failed);
+        }
     }
 
     /**
@@ -122,7 +744,7 @@ public class AttemptService {
             throw new IllegalArgumentException("Invalid user ID");
         }
 
-        return resultDao.findByUserId(userId);
+        return Bulkheads.call(Workload.ADMIN_REPORTING, () -> resultDao.findByUserId(userId));
     }
 
     /**
@@ -1,9 +1,18 @@
 package com.quickzee.common.service;
 
 import com.quickzee.common.dao.UserDao;
+import com.quickzee.common.jfr.LoginEvent;
 import com.quickzee.common.model.User;
+import com.quickzee.common.monitor.MetricsRegistry;
+import com.quickzee.common.trace.Span;
+import com.quickzee.common.trace.Tracer;
+import com.quickzee.common.trace.WorkloadTracer;
+import com.quickzee.common.util.AppConfig;
 import com.quickzee.common.util.InputValidator;
 import com.quickzee.common.util.PasswordHasher;
+import com.quickzee.common.util.RateLimitedException;
+import com.quickzee.common.util.RateLimiter;
+import com.quickzee.common.util.Session;
 import com.quickzee.common.util.SessionManager;
 
 import java.sql.SQLException;
@@ -18,6 +27,17 @@ import java.sql.SQLException;
  */
 public class AuthService {
 
+    // Login throttling: per account (guessing one password) and per client address (spraying many)
+    private static final RateLimiter LOGIN_BY_EMAIL = new RateLimiter("login-email",
+            AppConfig.getInt("quickzee.ratelimit.login.email.perMinute", 10),
+            AppConfig.getInt("quickzee.ratelimit.login.email.burst", 5));
+    private static final RateLimiter LOGIN_BY_ADDRESS = new RateLimiter("login-address",
+            AppConfig.getInt("quickzee.ratelimit.login.address.perMinute", 60),
+            AppConfig.getInt("quickzee.ratelimit.login.address.burst", 20));
+
+    private static final MetricsRegistry.Counter LOGINS = MetricsRegistry.counter(
+            "quickzee_logins_total", "Login attempts by outcome", "outcome");
+
     private final UserDao userDao;
 
     public AuthService() {
@@ -120,9 +140,88 @@ public class AuthService {
      * @param password User's password (plain text)
      * @return User object if login successful, null otherwise
      * @throws IllegalArgumentException if validation fails
+     * @throws RateLimitedException if there were too many login attempts recently
      * @throws SQLException if database error occurs
      */
     public User login(String email, String password) throws SQLException {
+        return login(email, password, null);
+    }
+
+    /**
+     * Login a user from a known client address
+     * Attempts are throttled per email and per client address before any
+     * database lookup or password hashing is done.
+     * @param email User's email
+     * @param password User's password (plain text)
+     * @param clientAddress Remote IP address (null for the desktop app)
+     * @return User object if login successful, null otherwise
+     * @throws IllegalArgumentException if validation fails
+     * @throws RateLimitedException if there were too many login attempts recently
+     * @throws SQLException if database error occurs
+     */
+    public User login(String email, String password, String clientAddress) throws SQLException {
+        User user = authenticate(email, password, clientAddress);
+        if (user == null) {
+            return null;
+        }
+
+        // Set session
+        SessionManager.setLoggedInUser(user);
+
+        System.out.println("✅ Login successful!");
+        System.out.println("   Welcome, " + user.getName() + "!");
+        System.out.println("   Role: " + user.getRole());
+
+        return user;
+    }
+
+    /**
+     * Login a user and start a token session (server)
+     * The desktop session is not touched, so many users can be logged in at once.
+     * @param email User's email
+     * @param password User's password (plain text)
+     * @param clientAddress Remote IP address
+     * @return New session (send its token to the client), or null if login failed
+     * @throws IllegalArgumentException if validation fails
+     * @throws RateLimitedException if there were too many login attempts recently
+     * @throws SQLException if database error occurs
+     */
+    public Session loginWithToken(String email, String password, String clientAddress) throws SQLException {
+        User user = authenticate(email, password, clientAddress);
+        return user != null ? SessionManager.startSession(user) : null;
+    }
+
+    // Check the credentials and record the attempt (trace and metrics); returns null if the login fails
+    private User authenticate(String email, String password, String clientAddress) throws SQLException {
+        LoginEvent event = new LoginEvent();
+        event.begin();
+        Span span = Tracer.start("AuthService.login");
+        long started = System.nanoTime();
+        User user = null;
+        String outcome = "error";
+        try {
+            user = checkCredentials(email, password, clientAddress);
+            outcome = user != null ? "success" : "bad_credentials";
+            return user;
+        } catch (RateLimitedException e) {
+            outcome = "rate_limited";
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = "invalid";
+            throw e;
+        } finally {
+            LOGINS.inc(outcome);
+            event.userId = user != null ? user.getId() : 0;
+            event.outcome = outcome;
+            event.commit();
+            span.tag("outcome", outcome);
+            span.close();
+            WorkloadTracer.login(started, email, user != null ? user.getId() : null);
+        }
+    }
+
+    // Validate, throttle and check the password; returns null if the login fails
+    private User checkCredentials(String email, String password, String clientAddress) throws SQLException {
 
         // Validate inputs
         if (!InputValidator.isValidEmail(email)) {
@@ -133,8 +232,14 @@ public class AuthService {
             throw new IllegalArgumentException("Password cannot be empty");
         }
 
+        String normalizedEmail = email.trim().toLowerCase();
+
+        // Throttle before doing any work
+        LOGIN_BY_ADDRESS.acquireOrThrow(clientAddress, "Too many login attempts from this address.");
+        LOGIN_BY_EMAIL.acquireOrThrow(normalizedEmail, "Too many login attempts for this account.");
+
         // Find user by email
-        User user = userDao.findByEmail(email.trim().toLowerCase());
+        User user = userDao.findByEmail(normalizedEmail);
 
         if (user == null) {
             System.out.println("❌ Login failed: Email not found");
@@ -149,13 +254,6 @@ public class AuthService {
             return null;
         }
 
-        // Set session
-        SessionManager.setLoggedInUser(user);
-
-        System.out.println("✅ Login successful!");
-        System.out.println("   Welcome, " + user.getName() + "!");
-        System.out.println("   Role: " + user.getRole());
-
         return user;
     }
 
@@ -0,0 +1,173 @@
+package com.quickzee.common.service;
+
+import com.quickzee.common.dao.DraftDao;
+import com.quickzee.common.model.AttemptDraft;
+import com.quickzee.common.util.AppConfig;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AutosaveBuffer
+ * Collects answer changes of running attempts in memory and writes them to
+ * the draft tables in the background, a few statements per flush no matter
+ * how many students are answering.
+ *
+ * - Coalescing: if a question changes several times between flushes, only
+ *   the last value is written.
+ * - Only changed questions are written, never the whole answer sheet.
+ * - One flush = one transaction with at most three batched statements
+ *   (new drafts, changed answers, finished drafts).
+ * - If a flush fails, its changes are put back (newer changes win) and
+ *   written with the next flush.
+ */
+public final class AutosaveBuffer {
+
+    private final DraftDao draftDao = new DraftDao();
+
+    private final Queue<AttemptDraft> created = new ConcurrentLinkedQueue<>();
+    private final Map<String, Map<Integer, Long>> changes = new ConcurrentHashMap<>();
+    private final Queue<String> deleted = new ConcurrentLinkedQueue<>();
+
+    private final ScheduledExecutorService flusher;
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong answersWritten = new AtomicLong();
+
+    public AutosaveBuffer() {
+        long intervalMillis = AppConfig.getLong("quickzee.autosave.flushMillis", 1000);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, "qz-autosave");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+        // Write whatever is still buffered when the application exits normally
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushQuietly, "qz-autosave-shutdown"));
+    }
+
+    /**
+     * Queue a new draft (a started attempt)
+     * @param draft Draft header; its answers are ignored
+     */
+    public void draftStarted(AttemptDraft draft) {
+        created.add(draft);
+    }
+
+    /**
+     * Queue changed answers of an attempt
+     * @param attemptToken Attempt token
+     * @param changedAnswers Question index -> option ID (null = cleared)
+     */
+    public void answersChanged(String attemptToken, Map<Integer, Long> changedAnswers) {
+        if (changedAnswers.isEmpty()) {
+            return;
+        }
+        // compute() locks the entry, so a concurrent flush never drops a change
+        changes.compute(attemptToken, (token, pending) -> {
+            if (pending == null) {
+                pending = new HashMap<>();
+            }
+            pending.putAll(changedAnswers);
+            return pending;
+        });
+    }
+
+    /**
+     * Queue removal of a draft (attempt submitted)
+     * @param attemptToken Attempt token
+     */
+    public void draftClosed(String attemptToken) {
+        changes.remove(attemptToken);
+        deleted.add(attemptToken);
+    }
+
+    /**
+     * Write everything buffered so far
+     * @throws SQLException if the write fails (the changes stay buffered)
+     */
+    public synchronized void flush() throws SQLException {
+        // 1) Take what is buffered right now
+        List<AttemptDraft> newDrafts = new ArrayList<>();
+        AttemptDraft draft;
+        while ((draft = created.poll()) != null) {
+            newDrafts.add(draft);
+        }
+
+        Map<String, Map<Integer, Long>> batch = new HashMap<>();
+        for (String token : new ArrayList<>(changes.keySet())) {
+            Map<Integer, Long> pending = changes.remove(token);
+            if (pending != null) {
+                batch.put(token, pending);
+            }
+        }
+
+        Set<String> finished = new LinkedHashSet<>();
+        String token;
+        while ((token = deleted.poll()) != null) {
+            finished.add(token);
+        }
+
+        if (newDrafts.isEmpty() && batch.isEmpty() && finished.isEmpty()) {
+            return;
+        }
+
+        // 2) Finished attempts need no answer writes
+        batch.keySet().removeAll(finished);
+
+        // 3) Write, or put everything back for the next round
+        try {
+            draftDao.applyBatch(newDrafts, batch, finished);
+        } catch (SQLException e) {
+            created.addAll(newDrafts);
+            for (Map.Entry<String, Map<Integer, Long>> entry : batch.entrySet()) {
+                changes.compute(entry.getKey(), (k, newer) -> {
+                    Map<Integer, Long> merged = new HashMap<>(entry.getValue());
+                    if (newer != null) {
+                        merged.putAll(newer);
+                    }
+                    return merged;
+                });
+            }
+            deleted.addAll(finished);
+            throw e;
+        }
+
+        flushCount.incrementAndGet();
+        for (Map<Integer, Long> answers : batch.values()) {
+            answersWritten.addAndGet(answers.size());
+        }
+    }
+
+    /**
+     * Print autosave statistics (for debugging)
+     */
+    public void printStatus() {
+        System.out.println("=== Autosave ===");
+        System.out.println("Flushes: " + flushCount.get());
+        System.out.println("Answers written: " + answersWritten.get());
+        System.out.println("Attempts with unsaved changes: " + changes.size());
+        System.out.println("================");
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("⚠️ Autosave failed, will retry: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.quickzee.common.service;
+
+import com.quickzee.common.util.AnswerJournal;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.RetryPolicy;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JournalSyncer
+ * Sends submissions that are waiting in the local answer journal to the
+ * database once it is reachable again.
+ *
+ * - Runs in the background every few seconds, a batch at a time.
+ * - Submissions keep their attempt token, so replaying one that did reach
+ *   the database before the connection dropped is a no-op.
+ * - A connection failure ends the round; the rest waits for the next one.
+ * - After a batch is acknowledged the journal is compacted.
+ * - A submission the database keeps rejecting is moved to the journal's
+ *   dead-letter file, never deleted.
+ */
+public final class JournalSyncer {
+
+    /**
+     * Stores one journaled submission
+     */
+    @FunctionalInterface
+    public interface Replayer {
+        void replay(AnswerJournal.Entry submission) throws SQLException;
+    }
+
+    // A submission the database keeps rejecting (not a connection problem) is dead-lettered after this many rounds
+    private static final int MAX_REJECTIONS = 10;
+
+    private final AnswerJournal journal;
+    private final Replayer replayer;
+    private final int batchSize;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, Integer> rejections = new ConcurrentHashMap<>();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    /**
+     * @param journal Journal to read pending submissions from
+     * @param replayer Stores a submission (with its original attempt token)
+     */
+    public JournalSyncer(AnswerJournal journal, Replayer replayer) {
+        this.journal = journal;
+        this.replayer = replayer;
+        this.batchSize = Math.max(1, AppConfig.getInt("quickzee.journal.syncBatchSize", 50));
+        long intervalMillis = AppConfig.getLong("quickzee.journal.replayMillis", 5000);
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, "qz-journal-replay");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Replay pending submissions until the journal is empty or the database is unreachable
+     * @return Number of submissions stored in this call
+     */
+    public synchronized int sync() {
+        int stored = 0;
+
+        while (true) {
+            List<AnswerJournal.Entry> pending = journal.pendingSubmissions();
+            if (pending.isEmpty()) {
+                break;
+            }
+
+            // 1) One batch, oldest first
+            int inBatch = 0;
+            boolean unreachable = false;
+            boolean skipped = false;
+            for (AnswerJournal.Entry submission : pending.subList(0, Math.min(batchSize, pending.size()))) {
+                try {
+                    replayer.replay(submission);
+                    journal.acknowledge(submission.getToken());
+                    rejections.remove(submission.getToken());
+                    inBatch++;
+                } catch (SQLException e) {
+                    if (RetryPolicy.isTransient(e)) {
+                        unreachable = true;
+                        break; // still offline, no point trying the rest
+                    }
+                    skipped = true;
+                    reject(submission, e);
+                } catch (RuntimeException e) {
+                    skipped = true;
+                    reject(submission, e);
+                }
+            }
+
+            // 2) Drop acknowledged records from the file
+            if (inBatch > 0) {
+                stored += inBatch;
+                replayed.addAndGet(inBatch);
+                compactQuietly();
+            }
+
+            // 3) Next batch only while the database accepts this one
+            if (unreachable || skipped || inBatch == 0) {
+                break;
+            }
+        }
+
+        if (stored > 0) {
+            System.out.println("✅ Submitted " + stored + " saved attempt(s) from the local journal");
+        }
+        return stored;
+    }
+
+    /**
+     * Stop the background thread
+     */
+    public void stop() {
+        scheduler.shutdown();
+    }
+
+    /**
+     * Print syncer statistics (for debugging)
+     */
+    public void printStatus() {
+        System.out.println("=== Answer Journal ===");
+        System.out.println("Waiting to be submitted: " + journal.pendingSubmissions().size());
+        System.out.println("Replayed: " + replayed.get());
+        System.out.println("Moved to " + journal.getDeadLetterFile() + ": " + deadLettered.get());
+        System.out.println("======================");
+    }
+
+    private void reject(AnswerJournal.Entry submission, Exception e) {
+        int count = rejections.merge(submission.getToken(), 1, Integer::sum);
+        if (count < MAX_REJECTIONS) {
+            System.err.println("⚠️ Saved submission for quiz " + submission.getQuizId() +
+                    " was rejected, will retry: " + e.getMessage());
+            return;
+        }
+
+        try {
+            journal.deadLetter(submission, e.getMessage());
+        } catch (IOException io) {
+            System.err.println("⚠️ Could not write the dead-letter file, keeping the submission: " + io.getMessage());
+            return;
+        }
+        rejections.remove(submission.getToken());
+        deadLettered.incrementAndGet();
+        System.err.println("❌ Saved submission for quiz " + submission.getQuizId() + " by user " +
+                submission.getUserId() + " keeps being rejected, moved to " + journal.getDeadLetterFile() +
+                ": " + e.getMessage());
+    }
+
+    private void compactQuietly() {
+        try {
+            journal.compact();
+        } catch (IOException e) {
+            System.err.println("⚠️ Journal compaction failed: " + e.getMessage());
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Journal replay failed, will retry: " + e.getMessage());
+        }
+    }
+}
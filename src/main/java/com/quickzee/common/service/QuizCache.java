@@ -0,0 +1,214 @@
+package com.quickzee.common.service;
+
+import com.quickzee.common.dao.QuizDao;
+import com.quickzee.common.jfr.QuizCacheMissEvent;
+import com.quickzee.common.model.CompactQuiz;
+import com.quickzee.common.model.Quiz;
+import com.quickzee.common.monitor.MetricsRegistry;
+import com.quickzee.common.trace.Tracer;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.Bulkheads;
+import com.quickzee.common.util.Workload;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * QuizCache
+ * Process-wide cache of quizzes in their CompactQuiz form, used when quizzes
+ * are delivered and scored. QuizService drops entries when a quiz is edited;
+ * entries also expire after quickzee.quizcache.ttlSeconds so edits made by
+ * another process show up eventually.
+ *
+ * Concurrent misses on the same quiz (an exam opening, or an entry expiring
+ * while many students take it) share one database load.
+ */
+public class QuizCache {
+
+    private static final long TTL_MILLIS = TimeUnit.SECONDS.toMillis(
+            AppConfig.getLong("quickzee.quizcache.ttlSeconds", 300));
+    private static final int MAX_QUIZZES = AppConfig.getInt("quickzee.quizcache.maxQuizzes", 5000);
+
+    private static final QuizDao QUIZ_DAO = new QuizDao();
+
+    private static final Map<Long, Entry> QUIZZES = new ConcurrentHashMap<>();
+    // Loads in progress; callers that miss while one runs wait for it instead of loading again
+    private static final Map<Long, CompletableFuture<CompactQuiz>> LOADING = new ConcurrentHashMap<>();
+    // Shared by all cached quizzes, so common texts are stored once
+    private static final Map<String, String> TEXT_POOL = new ConcurrentHashMap<>();
+
+    // Bumped by every invalidation; a load that saw an older value must not be cached
+    private static final AtomicLong INVALIDATIONS = new AtomicLong();
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong SHARED = new AtomicLong();
+
+    static {
+        MetricsRegistry.counter("quickzee_quizcache_requests_total", "Quiz cache lookups by result", "result",
+                () -> Map.of("hit", HITS.get(), "miss", MISSES.get(), "shared", SHARED.get()));
+        MetricsRegistry.gauge("quickzee_quizcache_quizzes", "Quizzes in the cache", QUIZZES::size);
+    }
+
+    private QuizCache() {}
+
+    private static final class Entry {
+        final CompactQuiz quiz;
+        final long loadedAtMillis;
+
+        Entry(CompactQuiz quiz, long loadedAtMillis) {
+            this.quiz = quiz;
+            this.loadedAtMillis = loadedAtMillis;
+        }
+    }
+
+    /**
+     * Get a quiz, loading it from the database on a miss
+     * @param quizId Quiz ID
+     * @return Compact quiz, or null if it does not exist
+     * @throws SQLException if database error occurs
+     */
+    public static CompactQuiz get(long quizId) throws SQLException {
+        long now = System.currentTimeMillis();
+        Entry entry = QUIZZES.get(quizId);
+        if (entry != null && now - entry.loadedAtMillis < TTL_MILLIS) {
+            HITS.incrementAndGet();
+            return entry.quiz;
+        }
+
+        // 1) Another caller is already loading this quiz: wait for its result
+        CompletableFuture<CompactQuiz> loading = new CompletableFuture<>();
+        CompletableFuture<CompactQuiz> running = LOADING.putIfAbsent(quizId, loading);
+        if (running != null) {
+            SHARED.incrementAndGet();
+            return await(running);
+        }
+
+        // 2) Load it ourselves and hand the result to everyone who waited
+        MISSES.incrementAndGet();
+        try {
+            Entry loaded = QUIZZES.get(quizId);
+            CompactQuiz compact = loaded != null && loaded != entry && now - loaded.loadedAtMillis < TTL_MILLIS
+                    ? loaded.quiz // a load finished just before ours started
+                    : load(quizId, now);
+            loading.complete(compact);
+            return compact;
+        } catch (SQLException | RuntimeException e) {
+            loading.completeExceptionally(e);
+            throw e;
+        } finally {
+            LOADING.remove(quizId, loading);
+        }
+    }
+
+    private static CompactQuiz load(long quizId, long now) throws SQLException {
+        long invalidationsBefore = INVALIDATIONS.get();
+        QuizCacheMissEvent event = new QuizCacheMissEvent();
+        event.begin();
+        Quiz quiz = Tracer.trace("QuizCache.load",
+                () -> Bulkheads.call(Workload.EXAM_LOAD, () -> QUIZ_DAO.findByIdWithQuestions(quizId)));
+        event.quizId = quizId;
+        event.found = quiz != null;
+        event.questionCount = quiz != null && quiz.getQuestions() != null ? quiz.getQuestions().size() : 0;
+        event.commit();
+        if (quiz == null) {
+            QUIZZES.remove(quizId);
+            return null;
+        }
+
+        // Texts of evicted quizzes stay pooled; start over before the pool outgrows the cache
+        if (TEXT_POOL.size() > MAX_QUIZZES * 50) {
+            TEXT_POOL.clear();
+        }
+        CompactQuiz compact = CompactQuiz.from(quiz, TEXT_POOL);
+        if (QUIZZES.size() >= MAX_QUIZZES) {
+            evictOldest();
+        }
+        // An edit during the load may already have dropped this quiz: keep what is there then
+        QUIZZES.compute(quizId, (id, current) ->
+                INVALIDATIONS.get() == invalidationsBefore ? new Entry(compact, now) : current);
+        return compact;
+    }
+
+    private static CompactQuiz await(CompletableFuture<CompactQuiz> running) throws SQLException {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drop a quiz (call after it was edited or deleted)
+     * @param quizId Quiz ID
+     */
+    public static void invalidate(long quizId) {
+        INVALIDATIONS.incrementAndGet();
+        LOADING.remove(quizId); // later callers must not wait for a load that may be stale
+        QUIZZES.remove(quizId);
+    }
+
+    /**
+     * Drop the quiz a question belongs to (call after the question's options changed)
+     * @param questionId Question ID
+     */
+    public static void invalidateQuestion(long questionId) {
+        INVALIDATIONS.incrementAndGet();
+        LOADING.clear();
+        QUIZZES.values().removeIf(entry -> entry.quiz.indexOfQuestion(questionId) >= 0);
+    }
+
+    /**
+     * Drop everything
+     */
+    public static void clear() {
+        INVALIDATIONS.incrementAndGet();
+        LOADING.clear();
+        QUIZZES.clear();
+        TEXT_POOL.clear();
+    }
+
+    /**
+     * @return Number of cached quizzes
+     */
+    public static int size() {
+        return QUIZZES.size();
+    }
+
+    /**
+     * Print cache statistics (for debugging)
+     */
+    public static void printStatus() {
+        System.out.println("=== Quiz Cache ===");
+        System.out.println("Quizzes: " + QUIZZES.size() + " (max " + MAX_QUIZZES + ")");
+        System.out.println("Pooled texts: " + TEXT_POOL.size());
+        System.out.println("Hits: " + HITS.get() + ", misses: " + MISSES.get() + ", shared loads: " + SHARED.get());
+        System.out.println("==================");
+    }
+
+    // Drop the entry loaded longest ago (a full scan, but only when the cache is full)
+    private static void evictOldest() {
+        Long oldestId = null;
+        long oldestAt = Long.MAX_VALUE;
+        for (Map.Entry<Long, Entry> e : QUIZZES.entrySet()) {
+            if (e.getValue().loadedAtMillis < oldestAt) {
+                oldestAt = e.getValue().loadedAtMillis;
+                oldestId = e.getKey();
+            }
+        }
+        if (oldestId != null) {
+            QUIZZES.remove(oldestId);
+        }
+    }
+}
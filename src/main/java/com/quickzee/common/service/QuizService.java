@@ -6,8 +6,12 @@ import com.quickzee.common.dao.OptionDao;
 import com.quickzee.common.model.Quiz;
 import com.quickzee.common.model.Question;
 import com.quickzee.common.model.Option;
+import com.quickzee.common.trace.Tracer;
+import com.quickzee.common.trace.WorkloadTracer;
+import com.quickzee.common.util.Bulkheads;
 import com.quickzee.common.util.InputValidator;
 import com.quickzee.common.util.SessionManager;
+import com.quickzee.common.util.Workload;
 
 import java.sql.SQLException;
 import java.util.List;
@@ -111,6 +115,7 @@ public class QuizService {
 
         // Save to database
         questionDao.insert(question);
+        QuizCache.invalidate(quizId);
 
         System.out.println("✅ Question added successfully with ID: " + question.getId());
         return question;
@@ -155,11 +160,71 @@ public class QuizService {
 
         // Save to database
         optionDao.insert(option);
+        QuizCache.invalidateQuestion(questionId);
 
         System.out.println("✅ Option added successfully with ID: " + option.getId());
         return option;
     }
 
+    /**
+     * Add several questions, each with its options, to a quiz (admin only)
+     * Everything is saved in one transaction with one batch per table.
+     * @param quizId Quiz ID
+     * @param questions Questions with ordinal, text and options filled in
+     * @return The same questions with generated IDs set
+     * @throws IllegalStateException if not admin
+     * @throws IllegalArgumentException if validation fails
+     * @throws SQLException if database error occurs
+     */
+    public List<Question> addQuestionsWithOptions(Long quizId, List<Question> questions)
+            throws SQLException {
+
+        // Check admin permission
+        SessionManager.requireAdmin();
+
+        // Validate inputs
+        if (quizId == null || quizId <= 0) {
+            throw new IllegalArgumentException("Invalid quiz ID");
+        }
+
+        if (questions == null || questions.isEmpty()) {
+            throw new IllegalArgumentException("No questions provided");
+        }
+
+        for (Question question : questions) {
+            if (question.getOrdinal() == null || question.getOrdinal() < 1) {
+                throw new IllegalArgumentException("Question ordinal must be at least 1");
+            }
+
+            if (!InputValidator.isValidQuestionText(question.getText())) {
+                throw new IllegalArgumentException("Question text must be between 10 and 5000 characters");
+            }
+            question.setText(InputValidator.sanitize(question.getText()));
+
+            if (question.getOptions() == null) {
+                continue;
+            }
+
+            for (Option option : question.getOptions()) {
+                if (option.getOrdinal() == null || option.getOrdinal() < 0) {
+                    throw new IllegalArgumentException("Option ordinal must be at least 0");
+                }
+
+                if (!InputValidator.isValidOptionText(option.getText())) {
+                    throw new IllegalArgumentException("Option text must be between 1 and 1000 characters");
+                }
+                option.setText(InputValidator.sanitize(option.getText()));
+            }
+        }
+
+        // Save to database
+        questionDao.insertAllWithOptions(quizId, questions);
+        QuizCache.invalidate(quizId);
+
+        System.out.println("✅ " + questions.size() + " questions added to quiz " + quizId);
+        return questions;
+    }
+
     /**
      * Get all quizzes for a specific semester
      * @param semester Semester number
@@ -173,7 +238,16 @@ public class QuizService {
             throw new IllegalArgumentException("Semester must be between 1 and 8");
         }
 
-        return quizDao.findBySemester(semester);
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            List<Quiz> quizzes = Tracer.trace("QuizService.getQuizzesBySemester",
+                    () -> Bulkheads.call(Workload.DASHBOARD, () -> quizDao.findBySemester(semester)));
+            failed = false;
+            return quizzes;
+        } finally {
+            WorkloadTracer.quizList(started, semester, failed);
+        }
     }
 
     /**
@@ -183,7 +257,7 @@ public class QuizService {
      */
     public List<Quiz> getAllQuizzes() throws SQLException {
         SessionManager.requireAdmin();
-        return quizDao.findAll();
+        return Bulkheads.call(Workload.ADMIN_REPORTING, () -> quizDao.findAll());
     }
 
     /**
@@ -199,7 +273,7 @@ public class QuizService {
             throw new IllegalArgumentException("Invalid quiz ID");
         }
 
-        Quiz quiz = quizDao.findByIdWithQuestions(quizId);
+        Quiz quiz = Bulkheads.call(Workload.ADMIN_REPORTING, () -> quizDao.findByIdWithQuestions(quizId));
 
         if (quiz == null) {
             throw new IllegalArgumentException("Quiz not found with ID: " + quizId);
@@ -221,6 +295,7 @@ public class QuizService {
         }
 
         quizDao.deleteById(quizId);
+        QuizCache.invalidate(quizId);
         System.out.println("✅ Quiz deleted successfully");
     }
 
@@ -263,6 +338,11 @@ public class QuizService {
      * @throws SQLException if database error occurs
      */
     public boolean isQuizValid(Long quizId) throws SQLException {
+        return Bulkheads.call(Workload.ADMIN_REPORTING, () -> checkQuizValid(quizId));
+    }
+
+    // Runs inside the admin bulkhead; all queries share its connection quota
+    private boolean checkQuizValid(Long quizId) throws SQLException {
         List<Question> questions = questionDao.findByQuizId(quizId);
 
         if (questions == null || questions.isEmpty()) {
@@ -301,7 +381,7 @@ public class QuizService {
      * @throws SQLException if database error occurs
      */
     public int getQuestionCount(Long quizId) throws SQLException {
-        List<Question> questions = questionDao.findByQuizId(quizId);
+        List<Question> questions = Bulkheads.call(Workload.ADMIN_REPORTING, () -> questionDao.findByQuizId(quizId));
         return questions != null ? questions.size() : 0;
     }
 
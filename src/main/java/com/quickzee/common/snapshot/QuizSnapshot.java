@@ -0,0 +1,269 @@
+package com.quickzee.common.snapshot;
+
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.quickzee.common.snapshot.QuizSnapshotWriter.*;
+
+/**
+ * QuizSnapshot
+ * Read-only view of a quiz snapshot file (see QuizSnapshotWriter), memory-mapped.
+ *
+ * Opening only maps the file and checks the header, so it is instant and the
+ * content stays in the OS page cache instead of the Java heap. Quizzes,
+ * questions and options are read through small view objects that hold an
+ * index into the file; text is decoded only when asked for.
+ * Safe to use from many threads.
+ */
+public class QuizSnapshot {
+
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final int quizCount;
+    private final int questionCount;
+    private final int optionCount;
+    private final long createdAtMillis;
+
+    private final int quizTable;
+    private final int questionTable;
+    private final int optionTable;
+    private final int textArea;
+
+    private QuizSnapshot(Path file, MappedByteBuffer data) throws IOException {
+        this.file = file;
+        this.data = data;
+
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException(file + " is not a quiz snapshot");
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported quiz snapshot version " + data.getInt(4));
+        }
+
+        this.quizCount = data.getInt(8);
+        this.questionCount = data.getInt(12);
+        this.optionCount = data.getInt(16);
+        int textBytes = data.getInt(20);
+        this.createdAtMillis = data.getLong(24);
+
+        this.quizTable = HEADER_BYTES;
+        this.questionTable = quizTable + quizCount * QUIZ_BYTES;
+        this.optionTable = questionTable + questionCount * QUESTION_BYTES;
+        this.textArea = optionTable + optionCount * OPTION_BYTES;
+
+        if (quizCount < 0 || questionCount < 0 || optionCount < 0 || textBytes < 0
+                || (long) textArea + textBytes != data.capacity()) {
+            throw new IOException(file + " is damaged (size does not match its header)");
+        }
+    }
+
+    /**
+     * Map a snapshot file
+     * @param file Snapshot written by QuizSnapshotWriter
+     * @return Open snapshot
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static QuizSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large for a quiz snapshot");
+            }
+            // The mapping stays valid after the channel is closed
+            return new QuizSnapshot(file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Find a quiz by ID (binary search, no allocation besides the view)
+     * @param quizId Quiz ID
+     * @return Quiz view, or null if the quiz is not in the snapshot
+     */
+    public QuizView findQuiz(long quizId) {
+        int low = 0;
+        int high = quizCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = data.getLong(quizTable + mid * QUIZ_BYTES);
+            if (id < quizId) {
+                low = mid + 1;
+            } else if (id > quizId) {
+                high = mid - 1;
+            } else {
+                return new QuizView(mid);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param index 0 .. getQuizCount()-1, in ID order
+     * @return Quiz view
+     */
+    public QuizView getQuiz(int index) {
+        if (index < 0 || index >= quizCount) {
+            throw new IndexOutOfBoundsException("Quiz index " + index);
+        }
+        return new QuizView(index);
+    }
+
+    public int getQuizCount() {
+        return quizCount;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    public int getOptionCount() {
+        return optionCount;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private String text(int recordOffset) {
+        int offset = data.getInt(recordOffset);
+        int length = data.getInt(recordOffset + 4);
+        byte[] bytes = new byte[length];
+        data.get(textArea + offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * One quiz in the snapshot
+     */
+    public final class QuizView {
+        private final int offset;
+
+        private QuizView(int index) {
+            this.offset = quizTable + index * QUIZ_BYTES;
+        }
+
+        public long getId() {
+            return data.getLong(offset);
+        }
+
+        public int getSemester() {
+            return data.getInt(offset + 8);
+        }
+
+        public int getDurationMinutes() {
+            return data.getInt(offset + 12);
+        }
+
+        public String getTitle() {
+            return text(offset + 16);
+        }
+
+        public int getQuestionCount() {
+            return data.getInt(offset + 28);
+        }
+
+        /**
+         * @param index 0 .. getQuestionCount()-1, in ordinal order
+         * @return Question view
+         */
+        public QuestionView getQuestion(int index) {
+            if (index < 0 || index >= getQuestionCount()) {
+                throw new IndexOutOfBoundsException("Question index " + index);
+            }
+            return new QuestionView(data.getInt(offset + 24) + index);
+        }
+
+        /**
+         * Build a regular Quiz object (for code that needs the mutable model)
+         * @param withAnswers Whether to fill in which options are correct
+         * @return Quiz with questions and options
+         */
+        public Quiz toQuiz(boolean withAnswers) {
+            Quiz quiz = new Quiz(getId(), getTitle(), getSemester(), getDurationMinutes());
+            List<Question> questions = new ArrayList<>(getQuestionCount());
+            for (int q = 0; q < getQuestionCount(); q++) {
+                QuestionView questionView = getQuestion(q);
+                Question question = new Question(questionView.getId(), quiz.getId(), q, questionView.getText());
+                List<Option> options = new ArrayList<>(questionView.getOptionCount());
+                for (int o = 0; o < questionView.getOptionCount(); o++) {
+                    OptionView optionView = questionView.getOption(o);
+                    options.add(new Option(optionView.getId(), question.getId(), o, optionView.getText(),
+                            withAnswers && optionView.isCorrect() ? 1 : 0));
+                }
+                question.setOptions(options);
+                questions.add(question);
+            }
+            quiz.setQuestions(questions);
+            return quiz;
+        }
+    }
+
+    /**
+     * One question in the snapshot
+     */
+    public final class QuestionView {
+        private final int offset;
+
+        private QuestionView(int index) {
+            this.offset = questionTable + index * QUESTION_BYTES;
+        }
+
+        public long getId() {
+            return data.getLong(offset);
+        }
+
+        public String getText() {
+            return text(offset + 8);
+        }
+
+        public int getOptionCount() {
+            return data.getInt(offset + 20);
+        }
+
+        /**
+         * @param index 0 .. getOptionCount()-1, in ordinal order
+         * @return Option view
+         */
+        public OptionView getOption(int index) {
+            if (index < 0 || index >= getOptionCount()) {
+                throw new IndexOutOfBoundsException("Option index " + index);
+            }
+            return new OptionView(data.getInt(offset + 16) + index);
+        }
+    }
+
+    /**
+     * One option in the snapshot
+     */
+    public final class OptionView {
+        private final int offset;
+
+        private OptionView(int index) {
+            this.offset = optionTable + index * OPTION_BYTES;
+        }
+
+        public long getId() {
+            return data.getLong(offset);
+        }
+
+        public String getText() {
+            return text(offset + 8);
+        }
+
+        public boolean isCorrect() {
+            return (data.getInt(offset + 16) & FLAG_CORRECT) != 0;
+        }
+    }
+}
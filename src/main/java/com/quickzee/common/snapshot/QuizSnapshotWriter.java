@@ -0,0 +1,203 @@
+package com.quickzee.common.snapshot;
+
+import com.quickzee.common.dao.QuizDao;
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * QuizSnapshotWriter
+ * Writes quizzes into the binary snapshot format read by QuizSnapshot.
+ *
+ * Layout (big-endian, fixed-size records so every lookup is O(1) or a binary search):
+ *   header     32 bytes: magic, version, quiz/question/option counts, text size, created at
+ *   quizzes    32 bytes each, sorted by id: id, semester, duration, title, first question, question count
+ *   questions  24 bytes each: id, text, first option, option count
+ *   options    24 bytes each: id, text, flags (bit 0 = correct)
+ *   text       UTF-8 strings; equal strings ("True", "False", ...) are stored once
+ *
+ * Run: java com.quickzee.common.snapshot.QuizSnapshotWriter <file>   (snapshot of all quizzes)
+ */
+public class QuizSnapshotWriter {
+
+    static final int MAGIC = 0x515A534E; // "QZSN"
+    static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 32;
+    static final int QUIZ_BYTES = 32;
+    static final int QUESTION_BYTES = 24;
+    static final int OPTION_BYTES = 24;
+
+    static final int FLAG_CORRECT = 1;
+
+    /**
+     * Build a snapshot of every quiz in the database
+     */
+    public static void main(String[] args) throws IOException, SQLException {
+        if (args.length != 1) {
+            System.out.println("Usage: QuizSnapshotWriter <snapshot file>");
+            return;
+        }
+        exportAll(Paths.get(args[0]));
+    }
+
+    /**
+     * Write a snapshot of every quiz in the database
+     * @param file Snapshot file
+     * @return Number of quizzes written
+     * @throws SQLException if database error occurs
+     * @throws IOException if the file cannot be written
+     */
+    public static int exportAll(Path file) throws SQLException, IOException {
+        QuizDao quizDao = new QuizDao();
+        List<Quiz> quizzes = new ArrayList<>();
+        for (Quiz header : quizDao.findAll()) {
+            Quiz quiz = quizDao.findByIdWithQuestions(header.getId());
+            if (quiz != null) {
+                quizzes.add(quiz);
+            }
+        }
+
+        write(quizzes, file);
+        System.out.println("✅ Quiz snapshot written: " + quizzes.size() + " quizzes -> " + file +
+                " (" + Files.size(file) / 1024 + " KB)");
+        return quizzes.size();
+    }
+
+    /**
+     * Write quizzes to a snapshot file (to a temporary file first, then moved into place)
+     * @param quizzes Quizzes with questions and options
+     * @param file Snapshot file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(List<Quiz> quizzes, Path file) throws IOException {
+        List<Quiz> sorted = new ArrayList<>(quizzes);
+        sorted.sort(Comparator.comparing(Quiz::getId));
+
+        int questionCount = 0;
+        int optionCount = 0;
+        for (Quiz quiz : sorted) {
+            for (Question question : questions(quiz)) {
+                questionCount++;
+                optionCount += options(question).size();
+            }
+        }
+
+        ByteBuffer quizTable = ByteBuffer.allocate(sorted.size() * QUIZ_BYTES);
+        ByteBuffer questionTable = ByteBuffer.allocate(questionCount * QUESTION_BYTES);
+        ByteBuffer optionTable = ByteBuffer.allocate(optionCount * OPTION_BYTES);
+        TextPool text = new TextPool();
+
+        // 1) Tables; children of a quiz/question are consecutive, so a start index and count is enough
+        int questionIndex = 0;
+        int optionIndex = 0;
+        Long previousId = null;
+        for (Quiz quiz : sorted) {
+            if (quiz.getId().equals(previousId)) {
+                throw new IllegalArgumentException("Quiz " + quiz.getId() + " appears twice");
+            }
+            previousId = quiz.getId();
+
+            List<Question> questions = questions(quiz);
+            quizTable.putLong(quiz.getId());
+            quizTable.putInt(quiz.getSemester() != null ? quiz.getSemester() : 0);
+            quizTable.putInt(quiz.getDuration_minutes() != null ? quiz.getDuration_minutes() : 0);
+            text.put(quizTable, quiz.getTitle());
+            quizTable.putInt(questionIndex);
+            quizTable.putInt(questions.size());
+
+            for (Question question : questions) {
+                List<Option> options = options(question);
+                questionTable.putLong(question.getId());
+                text.put(questionTable, question.getText());
+                questionTable.putInt(optionIndex);
+                questionTable.putInt(options.size());
+                questionIndex++;
+
+                for (Option option : options) {
+                    optionTable.putLong(option.getId());
+                    text.put(optionTable, option.getText());
+                    optionTable.putInt(option.isCorrect() ? FLAG_CORRECT : 0);
+                    optionTable.putInt(0); // reserved
+                    optionIndex++;
+                }
+            }
+        }
+
+        byte[] textBytes = text.toByteArray();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(sorted.size());
+        header.putInt(questionCount);
+        header.putInt(optionCount);
+        header.putInt(textBytes.length);
+        header.putLong(System.currentTimeMillis());
+
+        // 2) Write all sections in one gathering write
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] sections = {header.flip(), quizTable.flip(), questionTable.flip(),
+                    optionTable.flip(), ByteBuffer.wrap(textBytes)};
+            long total = 0;
+            for (ByteBuffer section : sections) {
+                total += section.remaining();
+            }
+            long written = 0;
+            while (written < total) {
+                written += out.write(sections);
+            }
+            out.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static List<Question> questions(Quiz quiz) {
+        return quiz.getQuestions() != null ? quiz.getQuestions() : List.of();
+    }
+
+    private static List<Option> options(Question question) {
+        return question.getOptions() != null ? question.getOptions() : List.of();
+    }
+
+    // UTF-8 text area; each distinct string is stored once
+    private static class TextPool {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final Map<String, int[]> offsets = new HashMap<>();
+
+        // Append (offset, length) of the string to a table record
+        void put(ByteBuffer record, String value) {
+            int[] position = offsets.computeIfAbsent(value != null ? value : "", s -> {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                int offset = bytes.size();
+                bytes.write(utf8, 0, utf8.length);
+                return new int[]{offset, utf8.length};
+            });
+            record.putInt(position[0]);
+            record.putInt(position[1]);
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+}
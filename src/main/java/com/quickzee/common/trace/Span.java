@@ -0,0 +1,189 @@
+package com.quickzee.common.trace;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Span
+ * One timed step of a traced request (see Tracer). Use it in a
+ * try-with-resources block; close() ends it and makes its parent current again.
+ *
+ * Requests that are not sampled get a shared no-op span, so tag() and
+ * error() may always be called and cost nothing then.
+ */
+public final class Span implements AutoCloseable {
+
+    // Spans kept per trace; further children are only counted
+    private static final int MAX_SPANS_PER_TRACE = 1000;
+
+    // Child of an unsampled request (or tracing off): records nothing, changes nothing
+    static final Span NOOP = new Span(null, null, null, false);
+    // Root of an unsampled request: marks the thread so children are not sampled on their own
+    static final Span UNSAMPLED = new Span(null, null, null, false);
+
+    private final boolean recording;
+    private final String name;
+    private final Span parent;
+    private final Span root;
+    private final Span previous; // current span of the thread before this one started
+
+    private final long traceId;
+    private final long spanId;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final String thread;
+    private long durationNanos;
+    private Map<String, Object> tags;
+    private String error;
+    private final AtomicBoolean ended = new AtomicBoolean(false);
+
+    // Root only: finished children of the trace
+    private final ConcurrentLinkedQueue<Span> children;
+    private final AtomicInteger childCount;
+
+    private Span(String name, Span parent, Span previous, boolean recording) {
+        this.recording = recording;
+        this.name = name;
+        this.parent = parent;
+        this.root = parent != null ? parent.root : this;
+        this.previous = previous;
+        this.traceId = parent != null ? parent.traceId : (recording ? Tracer.newId() : 0);
+        this.spanId = recording ? Tracer.newId() : 0;
+        this.startNanos = recording ? System.nanoTime() : 0;
+        // Children are placed relative to the root, so their order is exact within a trace
+        this.startEpochMicros = !recording ? 0 : parent != null
+                ? root.startEpochMicros + (startNanos - root.startNanos) / 1000
+                : System.currentTimeMillis() * 1000;
+        this.thread = recording ? Thread.currentThread().getName() : null;
+        this.children = recording && parent == null ? new ConcurrentLinkedQueue<>() : null;
+        this.childCount = recording && parent == null ? new AtomicInteger() : null;
+    }
+
+    static Span root(String name, Span previous) {
+        return new Span(name, null, previous, true);
+    }
+
+    static Span child(String name, Span parent, Span previous) {
+        return new Span(name, parent, previous, true);
+    }
+
+    /**
+     * Add an attribute (ignored unless the request is sampled)
+     * @param key Attribute name, e.g. quizId
+     * @param value Number, String or Boolean
+     * @return This span
+     */
+    public Span tag(String key, Object value) {
+        if (recording) {
+            if (tags == null) {
+                tags = new LinkedHashMap<>();
+            }
+            tags.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Mark the span as failed
+     * @param e Exception that ended it
+     */
+    public void error(Throwable e) {
+        if (recording) {
+            error = e.getClass().getSimpleName() + (e.getMessage() != null ? ": " + e.getMessage() : "");
+        }
+    }
+
+    /**
+     * @return true if this span is sampled and will be exported
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * @return Trace ID (16 hex digits), or null if not sampled
+     */
+    public String getTraceId() {
+        return recording ? Tracer.hex(traceId) : null;
+    }
+
+    /**
+     * End the span; the trace is exported when its root span ends
+     */
+    @Override
+    public void close() {
+        if (this == NOOP) {
+            return;
+        }
+        if (this == UNSAMPLED) {
+            Tracer.restore(null);
+            return;
+        }
+        if (!ended.compareAndSet(false, true)) {
+            return;
+        }
+        durationNanos = System.nanoTime() - startNanos;
+        Tracer.restore(previous);
+
+        if (parent == null) {
+            Tracer.export(this);
+        } else if (root.childCount.incrementAndGet() <= MAX_SPANS_PER_TRACE) {
+            // Children ending after their root (left-over async work) are not exported
+            root.children.add(this);
+        }
+    }
+
+    // Root only: the root followed by its finished children
+    List<Span> spans() {
+        List<Span> spans = new ArrayList<>(children.size() + 1);
+        spans.add(this);
+        spans.addAll(children);
+        return spans;
+    }
+
+    // Root only: children that were not kept
+    int droppedChildren() {
+        return Math.max(0, childCount.get() - MAX_SPANS_PER_TRACE);
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    long getTraceIdValue() {
+        return traceId;
+    }
+
+    long getSpanId() {
+        return spanId;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getThread() {
+        return thread;
+    }
+
+    long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    long getDurationNanos() {
+        return durationNanos;
+    }
+
+    Map<String, Object> getTags() {
+        return tags;
+    }
+
+    String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,183 @@
+package com.quickzee.common.trace;
+
+import com.quickzee.common.server.Json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SpanExporter
+ * Writes finished traces to rotating JSON-lines files, one span per line:
+ *   {"traceId":"...","spanId":"...","parentId":"...","name":"ResultDao.submitQuiz",
+ *    "thread":"...","start":1718000000000000,"durationMicros":8123,"tags":{...}}
+ * (start in epoch microseconds; parentId is missing on root spans, error only on failures).
+ *
+ * Traces are queued and written by a background thread; when the queue is full
+ * they are dropped (and counted) instead of slowing the request down. A new
+ * file (spans-yyyyMMdd-HHmmss-SSS.jsonl) is started when the current one reaches
+ * maxFileBytes, and only the newest maxFiles files are kept.
+ */
+class SpanExporter {
+
+    private static final String PREFIX = "spans-";
+    private static final String SUFFIX = ".jsonl";
+
+    private final Path dir;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final BlockingQueue<Span> queue;
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Writer thread only
+    private Writer out;
+    private long written;
+
+    private SpanExporter(Path dir, long maxFileBytes, int maxFiles, int queueSize) {
+        this.dir = dir;
+        this.maxFileBytes = Math.max(1024 * 1024, maxFileBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.queue = new ArrayBlockingQueue<>(Math.max(16, queueSize));
+    }
+
+    /**
+     * Create the folder and start the writer
+     * @return Exporter, or null if the folder cannot be written (tracing stays off)
+     */
+    static SpanExporter open(String dir, long maxFileBytes, int maxFiles, int queueSize) {
+        SpanExporter exporter = new SpanExporter(Paths.get(dir), maxFileBytes, maxFiles, queueSize);
+        try {
+            Files.createDirectories(exporter.dir);
+            exporter.rotate();
+        } catch (IOException e) {
+            System.err.println("⚠️ Request tracing disabled, cannot write to " + dir + ": " + e.getMessage());
+            return null;
+        }
+
+        Thread writer = new Thread(exporter::writeLoop, "qz-span-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "qz-span-shutdown"));
+
+        System.out.println("✅ Request tracing: " + exporter.dir.toAbsolutePath());
+        return exporter;
+    }
+
+    void export(Span root) {
+        if (!queue.offer(root)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Write traces as they come; flush whenever the queue runs dry, drain on shutdown
+    private void writeLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Span root;
+                try {
+                    root = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (root == null) {
+                    out.flush();
+                    continue;
+                }
+                write(root);
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+
+            Span root;
+            while ((root = queue.poll()) != null) {
+                write(root);
+            }
+            out.close();
+            if (dropped.get() > 0) {
+                System.err.println("⚠️ Request tracing dropped " + dropped.get() + " traces");
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Request tracing stopped: " + e.getMessage());
+        }
+    }
+
+    private void write(Span root) throws IOException {
+        StringBuilder lines = new StringBuilder(512);
+        for (Span span : root.spans()) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("traceId", Tracer.hex(span.getTraceIdValue()));
+            line.put("spanId", Tracer.hex(span.getSpanId()));
+            if (span.getParent() != null) {
+                line.put("parentId", Tracer.hex(span.getParent().getSpanId()));
+            }
+            line.put("name", span.getName());
+            line.put("thread", span.getThread());
+            line.put("start", span.getStartEpochMicros());
+            line.put("durationMicros", span.getDurationNanos() / 1000);
+            if (span.getError() != null) {
+                line.put("error", span.getError());
+            }
+            Map<String, Object> tags = span.getTags();
+            if (span == root && root.droppedChildren() > 0) {
+                tags = tags != null ? new LinkedHashMap<>(tags) : new LinkedHashMap<>();
+                tags.put("droppedSpans", root.droppedChildren());
+            }
+            if (tags != null) {
+                line.put("tags", tags);
+            }
+            lines.append(Json.write(line)).append('\n');
+        }
+
+        if (written >= maxFileBytes) {
+            rotate();
+        }
+        out.write(lines.toString());
+        written += lines.length(); // close enough to bytes for rotation
+    }
+
+    // Start a new file and delete the oldest ones beyond maxFiles
+    private void rotate() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        out = Files.newBufferedWriter(dir.resolve(PREFIX + stamp + SUFFIX), StandardCharsets.UTF_8);
+        written = 0;
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files); // names sort by time
+        for (int i = 0; i < files.size() - maxFiles; i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+}
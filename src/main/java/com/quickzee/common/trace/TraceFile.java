@@ -0,0 +1,194 @@
+package com.quickzee.common.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TraceFile
+ * Binary format of workload traces written by WorkloadTracer.
+ *
+ * Layout (big-endian; "var" = unsigned LEB128 varint, 1 byte for small values):
+ *   header   16 bytes: magic, version, trace start (epoch millis)
+ *   records  op (1 byte), flags (1 byte, bit 0 = failed), var start offset µs,
+ *            var duration µs, var user ID, then per operation:
+ *              LOGIN            var length + UTF-8 email
+ *              QUIZ_LIST        var semester
+ *              START_ATTEMPT    var quiz ID
+ *              SAVE_ANSWERS     var quiz ID, var answer count
+ *              SUBMIT_ATTEMPT   var quiz ID, var answer count
+ *              ATTEMPT_HISTORY  -
+ * A typical record is 8-12 bytes. Records are in completion order; a record
+ * cut off by a crash at the end of the file is ignored.
+ */
+public class TraceFile {
+
+    static final int MAGIC = 0x515A5452; // "QZTR"
+    static final int VERSION = 1;
+
+    static final int FLAG_FAILED = 1;
+
+    private static final int MAX_EMAIL_BYTES = 1024;
+
+    private final long startedAtMillis;
+    private final List<TraceRecord> records;
+
+    private TraceFile(long startedAtMillis, List<TraceRecord> records) {
+        this.startedAtMillis = startedAtMillis;
+        this.records = records;
+    }
+
+    /**
+     * Read a whole trace
+     * @param file Trace file
+     * @return Trace with its records in file order
+     * @throws IOException if the file cannot be read or is not a trace
+     */
+    public static TraceFile read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a workload trace");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported trace version " + version);
+            }
+            long startedAt = in.readLong();
+
+            List<TraceRecord> records = new ArrayList<>();
+            while (true) {
+                int op = in.read();
+                if (op < 0) {
+                    break;
+                }
+                try {
+                    records.add(readRecord(in, TraceOp.fromCode(op)));
+                } catch (EOFException torn) {
+                    break;
+                }
+            }
+            return new TraceFile(startedAt, records);
+        }
+    }
+
+    static void writeHeader(DataOutputStream out, long startedAtMillis) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(startedAtMillis);
+    }
+
+    static void writeRecord(DataOutputStream out, TraceRecord record) throws IOException {
+        out.writeByte(record.getOp().getCode());
+        out.writeByte(record.isFailed() ? FLAG_FAILED : 0);
+        writeVar(out, record.getOffsetMicros());
+        writeVar(out, record.getDurationMicros());
+        writeVar(out, record.getUserId());
+
+        switch (record.getOp()) {
+            case LOGIN:
+                byte[] email = record.getEmail() != null
+                        ? record.getEmail().getBytes(StandardCharsets.UTF_8) : new byte[0];
+                int length = Math.min(email.length, MAX_EMAIL_BYTES);
+                writeVar(out, length);
+                out.write(email, 0, length);
+                break;
+            case QUIZ_LIST:
+                writeVar(out, record.getSemester());
+                break;
+            case START_ATTEMPT:
+                writeVar(out, record.getQuizId());
+                break;
+            case SAVE_ANSWERS:
+            case SUBMIT_ATTEMPT:
+                writeVar(out, record.getQuizId());
+                writeVar(out, record.getAnswerCount());
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static TraceRecord readRecord(DataInputStream in, TraceOp op) throws IOException {
+        boolean failed = (in.readUnsignedByte() & FLAG_FAILED) != 0;
+        long offset = readVar(in);
+        long duration = readVar(in);
+        long userId = readVar(in);
+
+        String email = null;
+        int semester = 0;
+        long quizId = 0;
+        int answers = 0;
+        switch (op) {
+            case LOGIN:
+                int length = (int) readVar(in);
+                if (length > MAX_EMAIL_BYTES) {
+                    throw new IOException("Corrupt trace record");
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                email = new String(bytes, StandardCharsets.UTF_8);
+                break;
+            case QUIZ_LIST:
+                semester = (int) readVar(in);
+                break;
+            case START_ATTEMPT:
+                quizId = readVar(in);
+                break;
+            case SAVE_ANSWERS:
+            case SUBMIT_ATTEMPT:
+                quizId = readVar(in);
+                answers = (int) readVar(in);
+                break;
+            default:
+                break;
+        }
+        return new TraceRecord(op, failed, offset, duration, userId, email, semester, quizId, answers);
+    }
+
+    // Negative values (never expected) are stored as 0
+    private static void writeVar(DataOutputStream out, long value) throws IOException {
+        long v = Math.max(0, value);
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVar(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt varint in trace");
+    }
+
+    /**
+     * @return Wall-clock time the trace was started (epoch millis)
+     */
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * @return Records in file (completion) order
+     */
+    public List<TraceRecord> getRecords() {
+        return records;
+    }
+}
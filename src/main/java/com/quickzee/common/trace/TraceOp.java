@@ -0,0 +1,44 @@
+package com.quickzee.common.trace;
+
+/**
+ * Service operations recorded in a workload trace.
+ * The code is what is stored in the file, so existing codes must never change.
+ */
+public enum TraceOp {
+    LOGIN(1, "login"),
+    QUIZ_LIST(2, "quiz-list"),
+    START_ATTEMPT(3, "start-attempt"),
+    SAVE_ANSWERS(4, "save-answers"),
+    SUBMIT_ATTEMPT(5, "submit"),
+    ATTEMPT_HISTORY(6, "history");
+
+    private final int code;
+    private final String label;
+
+    TraceOp(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @param code Code read from a trace file
+     * @return Operation
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static TraceOp fromCode(int code) {
+        for (TraceOp op : values()) {
+            if (op.code == code) {
+                return op;
+            }
+        }
+        throw new IllegalArgumentException("Unknown trace operation " + code);
+    }
+}
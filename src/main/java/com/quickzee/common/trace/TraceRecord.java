@@ -0,0 +1,79 @@
+package com.quickzee.common.trace;
+
+/**
+ * One recorded service call.
+ * Only the fields of the record's operation are set:
+ * LOGIN -> email; QUIZ_LIST -> semester; START_ATTEMPT -> quizId;
+ * SAVE_ANSWERS / SUBMIT_ATTEMPT -> quizId and answerCount; ATTEMPT_HISTORY -> none.
+ */
+public class TraceRecord {
+    private final TraceOp op;
+    private final boolean failed;
+    private final long offsetMicros;    // start, relative to the start of the trace
+    private final long durationMicros;
+    private final long userId;          // 0 = no user (failed login)
+    private final String email;
+    private final int semester;
+    private final long quizId;
+    private final int answerCount;
+
+    public TraceRecord(TraceOp op, boolean failed, long offsetMicros, long durationMicros, long userId,
+                       String email, int semester, long quizId, int answerCount) {
+        this.op = op;
+        this.failed = failed;
+        this.offsetMicros = offsetMicros;
+        this.durationMicros = durationMicros;
+        this.userId = userId;
+        this.email = email;
+        this.semester = semester;
+        this.quizId = quizId;
+        this.answerCount = answerCount;
+    }
+
+    public TraceOp getOp() {
+        return op;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public long getOffsetMicros() {
+        return offsetMicros;
+    }
+
+    public long getDurationMicros() {
+        return durationMicros;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public int getSemester() {
+        return semester;
+    }
+
+    public long getQuizId() {
+        return quizId;
+    }
+
+    public int getAnswerCount() {
+        return answerCount;
+    }
+
+    @Override
+    public String toString() {
+        return "TraceRecord{" +
+                "op=" + op +
+                ", failed=" + failed +
+                ", offsetMicros=" + offsetMicros +
+                ", durationMicros=" + durationMicros +
+                ", userId=" + userId +
+                '}';
+    }
+}
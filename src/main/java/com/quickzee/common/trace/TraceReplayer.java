@@ -0,0 +1,431 @@
+package com.quickzee.common.trace;
+
+import com.quickzee.common.dao.UserDao;
+import com.quickzee.common.model.AnswerSheet;
+import com.quickzee.common.model.CompactQuiz;
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+import com.quickzee.common.model.User;
+import com.quickzee.common.service.AttemptRegistry;
+import com.quickzee.common.service.AttemptService;
+import com.quickzee.common.service.AuthService;
+import com.quickzee.common.service.QuizService;
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.DBConnection;
+import com.quickzee.common.util.LatencyHistogram;
+import com.quickzee.common.util.QueryProfiler;
+import com.quickzee.common.util.Session;
+import com.quickzee.common.util.SessionManager;
+import com.quickzee.common.util.SessionStore;
+import com.quickzee.common.util.SqlCall;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * TraceReplayer
+ * Re-issues a workload trace (see WorkloadTracer) against the configured
+ * database through the real service layer, at the recorded pace or faster,
+ * and compares the latencies with the ones recorded.
+ *
+ * - Calls keep their recorded start offsets (divided by --speed); each runs on
+ *   its own virtual thread, and calls of the same user run one at a time.
+ * - Logins use --password (the trace never contains passwords), so replay
+ *   against a test database whose students share one password, e.g. one
+ *   filled by DataGeneratorCLI or a copy with reset passwords. Users first seen
+ *   after their login get a session directly.
+ * - Answers are random, with as many answered questions as recorded.
+ * - Calls that failed in the trace are counted but not replayed.
+ *
+ * Run: java com.quickzee.common.trace.TraceReplayer <trace file> [--speed X] [--pool N]
+ *                                                   [--password TEXT] [--verbose]
+ */
+public class TraceReplayer {
+
+    private final List<TraceRecord> records;
+    private double speed = 1.0;
+    private int poolSize = AppConfig.getInt("quickzee.server.dbPoolSize", 32);
+    private String password = "password123";
+    private boolean verbose = false;
+
+    private final AuthService authService = new AuthService();
+    private final QuizService quizService = new QuizService();
+    private final AttemptService attemptService = new AttemptService();
+    private final UserDao userDao = new UserDao();
+
+    // Trace user ID -> replay session / lock / running attempts ("user:quiz")
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<Long, ReentrantLock> userLocks = new ConcurrentHashMap<>();
+    private final Map<String, ReplayAttempt> attempts = new ConcurrentHashMap<>();
+
+    private final Map<TraceOp, LatencyHistogram> recorded = new EnumMap<>(TraceOp.class);
+    private final Map<TraceOp, LatencyHistogram> replayed = new EnumMap<>(TraceOp.class);
+    private final Map<TraceOp, LongAdder> recordedFailures = new EnumMap<>(TraceOp.class);
+    private final Map<TraceOp, LongAdder> replayFailures = new EnumMap<>(TraceOp.class);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LatencyHistogram lag = new LatencyHistogram();
+    private final LongAdder skipped = new LongAdder();
+
+    // Real stdout; System.out is silenced during the replay unless --verbose
+    private final PrintStream out = System.out;
+
+    private static final class ReplayAttempt {
+        final Quiz quiz;
+        final String token;
+
+        ReplayAttempt(Quiz quiz, String token) {
+            this.quiz = quiz;
+            this.token = token;
+        }
+    }
+
+    /**
+     * @param records Trace records (any order)
+     */
+    public TraceReplayer(List<TraceRecord> records) {
+        this.records = new ArrayList<>(records);
+        this.records.sort(Comparator.comparingLong(TraceRecord::getOffsetMicros));
+        for (TraceOp op : TraceOp.values()) {
+            recorded.put(op, new LatencyHistogram());
+            replayed.put(op, new LatencyHistogram());
+            recordedFailures.put(op, new LongAdder());
+            replayFailures.put(op, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            printUsage();
+            return;
+        }
+
+        TraceFile trace = TraceFile.read(Paths.get(args[0]));
+        TraceReplayer replayer = new TraceReplayer(trace.getRecords());
+        try {
+            replayer.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            printUsage();
+            return;
+        }
+
+        if (!DBConnection.testConnection()) {
+            System.err.println("❌ Failed to connect to database!");
+            return;
+        }
+
+        System.out.println("Trace of " + new Date(trace.getStartedAtMillis()) + ": " + trace.getRecords().size() +
+                " calls over " + replayer.durationSeconds() + " s, replaying at " + replayer.speed + "x");
+        DBConnection.enablePool(replayer.poolSize, AppConfig.getLong("quickzee.server.dbPoolWaitMillis", 10000));
+        DBConnection.getConnectionWaits().reset();
+        QueryProfiler.reset();
+        try {
+            replayer.replay();
+            replayer.printReport();
+        } finally {
+            DBConnection.shutdownPool();
+        }
+        // Background services (autosave, attempt deadlines) keep the JVM alive
+        System.exit(0);
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: TraceReplayer <trace file> [--speed X] [--pool N] [--password TEXT] [--verbose]");
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if ("--verbose".equals(arg)) {
+                verbose = true;
+                continue;
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            String value = args[++i];
+            try {
+                switch (arg) {
+                    case "--speed": speed = Double.parseDouble(value); break;
+                    case "--pool": poolSize = Integer.parseInt(value); break;
+                    case "--password": password = value; break;
+                    default: throw new IllegalArgumentException("Unknown option " + arg);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number: " + value);
+            }
+        }
+        if (!(speed > 0) || poolSize < 1) {
+            throw new IllegalArgumentException("--speed and --pool must be positive");
+        }
+    }
+
+    private long durationSeconds() {
+        return records.isEmpty() ? 0 : records.get(records.size() - 1).getOffsetMicros() / 1_000_000;
+    }
+
+    /**
+     * Replay all records at the configured speed (blocks until every call finished)
+     */
+    public void replay() {
+        if (!verbose) {
+            // The services log every login and submit; that would dominate a fast replay
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+
+        long start = System.nanoTime();
+        long nextProgress = start + TimeUnit.SECONDS.toNanos(10);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < records.size(); i++) {
+                TraceRecord record = records.get(i);
+                recordOriginal(record);
+                if (record.isFailed()) {
+                    continue;
+                }
+
+                // 1) Wait until the call is due
+                long due = start + (long) (record.getOffsetMicros() * 1000 / speed);
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                if (System.nanoTime() > nextProgress) {
+                    out.printf("⏱️  %,d of %,d calls dispatched%n", i + 1, records.size());
+                    nextProgress += TimeUnit.SECONDS.toNanos(10);
+                }
+
+                // 2) Run it on its own thread
+                executor.execute(() -> {
+                    lag.recordSince(due);
+                    replayQuietly(record);
+                });
+            }
+        } finally {
+            System.setOut(out);
+            for (Session session : sessions.values()) {
+                SessionStore.invalidate(session.getToken());
+            }
+        }
+    }
+
+    private void recordOriginal(TraceRecord record) {
+        if (record.isFailed()) {
+            recordedFailures.get(record.getOp()).increment();
+        } else {
+            recorded.get(record.getOp()).record(TimeUnit.MICROSECONDS.toNanos(record.getDurationMicros()));
+        }
+    }
+
+    private void replayQuietly(TraceRecord record) {
+        ReentrantLock lock = record.getUserId() > 0
+                ? userLocks.computeIfAbsent(record.getUserId(), id -> new ReentrantLock()) : null;
+        if (lock != null) {
+            lock.lock();
+        }
+        try {
+            replay(record);
+        } catch (SQLException | RuntimeException e) {
+            replayFailures.get(record.getOp()).increment();
+            errors.computeIfAbsent(record.getOp().getLabel() + " - " + e.getClass().getSimpleName() + ": " +
+                    e.getMessage(), key -> new LongAdder()).increment();
+        } finally {
+            if (lock != null) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void replay(TraceRecord record) throws SQLException {
+        if (record.getOp() == TraceOp.LOGIN) {
+            Session session = timed(TraceOp.LOGIN, () -> authService.loginWithToken(
+                    record.getEmail(), password, "replay-" + record.getUserId()));
+            if (session == null) {
+                throw new IllegalStateException("Login rejected (wrong --password?)");
+            }
+            Session previous = sessions.put(record.getUserId(), session);
+            if (previous != null) {
+                SessionStore.invalidate(previous.getToken());
+            }
+            return;
+        }
+
+        Session session = sessionFor(record.getUserId());
+        if (session == null) {
+            skipped.increment();
+            return;
+        }
+        SessionManager.callAs(session, () -> {
+            replayAs(record);
+            return null;
+        });
+    }
+
+    private void replayAs(TraceRecord record) throws SQLException {
+        String attemptKey = record.getUserId() + ":" + record.getQuizId();
+        switch (record.getOp()) {
+            case QUIZ_LIST:
+                timed(TraceOp.QUIZ_LIST, () -> quizService.getQuizzesBySemester(record.getSemester()));
+                break;
+
+            case START_ATTEMPT:
+                Quiz quiz = timed(TraceOp.START_ATTEMPT, () -> attemptService.startQuizAttempt(record.getQuizId()));
+                attempts.put(attemptKey, begin(quiz));
+                break;
+
+            case SAVE_ANSWERS: {
+                ReplayAttempt attempt = attemptFor(attemptKey, record.getQuizId());
+                long[] selection = randomSelection(attempt.quiz, record.getAnswerCount());
+                timed(TraceOp.SAVE_ANSWERS, () -> {
+                    attemptService.saveAnswers(attempt.token, selection);
+                    return null;
+                });
+                break;
+            }
+
+            case SUBMIT_ATTEMPT: {
+                ReplayAttempt attempt = attemptFor(attemptKey, record.getQuizId());
+                long[] selection = randomSelection(attempt.quiz, record.getAnswerCount());
+                AnswerSheet answers = new AnswerSheet(selection.length);
+                for (int q = 0; q < selection.length; q++) {
+                    if (selection[q] != CompactQuiz.NO_ANSWER) {
+                        answers.put(attempt.quiz.getQuestions().get(q).getId(), selection[q]);
+                    }
+                }
+                attempts.remove(attemptKey);
+                timed(TraceOp.SUBMIT_ATTEMPT,
+                        () -> attemptService.submitQuizAttempt(record.getQuizId(), answers, attempt.token));
+                break;
+            }
+
+            case ATTEMPT_HISTORY:
+                timed(TraceOp.ATTEMPT_HISTORY, attemptService::getMyAttempts);
+                break;
+
+            default:
+                skipped.increment();
+        }
+    }
+
+    // Session of a user seen before in the trace, or a new one for a user logged in before the trace started
+    private Session sessionFor(long userId) throws SQLException {
+        if (userId <= 0) {
+            return null;
+        }
+        Session session = sessions.get(userId);
+        if (session != null && !session.isExpired(System.currentTimeMillis())) {
+            return session;
+        }
+        User user = userDao.findById(userId);
+        if (user == null) {
+            return null;
+        }
+        session = SessionManager.startSession(user);
+        sessions.put(userId, session);
+        return session;
+    }
+
+    // Attempt started earlier in the replay, or one started now (untimed) if the trace began mid-attempt
+    private ReplayAttempt attemptFor(String attemptKey, long quizId) throws SQLException {
+        ReplayAttempt attempt = attempts.get(attemptKey);
+        if (attempt == null) {
+            attempt = begin(attemptService.startQuizAttempt(quizId));
+            attempts.put(attemptKey, attempt);
+        }
+        return attempt;
+    }
+
+    private ReplayAttempt begin(Quiz quiz) throws SQLException {
+        AttemptRegistry.Attempt resumed = attemptService.resumeAttempt(quiz);
+        return new ReplayAttempt(quiz, resumed != null ? resumed.getToken() : attemptService.beginAttempt(quiz));
+    }
+
+    // Random options for the first answerCount questions, the rest skipped
+    private static long[] randomSelection(Quiz quiz, int answerCount) {
+        List<Question> questions = quiz.getQuestions();
+        long[] selection = new long[questions.size()];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int q = 0; q < Math.min(answerCount, questions.size()); q++) {
+            List<Option> options = questions.get(q).getOptions();
+            if (options != null && !options.isEmpty()) {
+                selection[q] = options.get(random.nextInt(options.size())).getId();
+            }
+        }
+        return selection;
+    }
+
+    private <T> T timed(TraceOp op, SqlCall<T> call) throws SQLException {
+        long started = System.nanoTime();
+        T result = call.call();
+        replayed.get(op).recordSince(started);
+        return result;
+    }
+
+    /**
+     * Print recorded vs. replayed latencies per operation
+     */
+    public void printReport() {
+        System.out.println();
+        System.out.println("=== Trace Replay (" + speed + "x) ===");
+        System.out.printf("%-14s %8s | %8s %9s %9s %9s | %8s %9s %9s %9s | %7s %7s%n", "Operation", "Calls",
+                "rec fail", "rec p50", "rec p90", "rec p99", "rep fail", "rep p50", "rep p90", "rep p99", "Δp50", "Δp99");
+        for (TraceOp op : TraceOp.values()) {
+            LatencyHistogram before = recorded.get(op);
+            LatencyHistogram after = replayed.get(op);
+            if (before.getCount() == 0 && recordedFailures.get(op).sum() == 0) {
+                continue;
+            }
+            System.out.printf("%-14s %,8d | %,8d %9.2f %9.2f %9.2f | %,8d %9.2f %9.2f %9.2f | %7s %7s%n",
+                    op.getLabel(), before.getCount() + recordedFailures.get(op).sum(),
+                    recordedFailures.get(op).sum(), before.getPercentileMillis(50),
+                    before.getPercentileMillis(90), before.getPercentileMillis(99),
+                    replayFailures.get(op).sum(), after.getPercentileMillis(50),
+                    after.getPercentileMillis(90), after.getPercentileMillis(99),
+                    change(before.getPercentileMillis(50), after.getPercentileMillis(50)),
+                    change(before.getPercentileMillis(99), after.getPercentileMillis(99)));
+        }
+        System.out.println("(latencies in ms; rec = recorded in the trace, rep = this replay)");
+        System.out.println("Dispatch lag: " + lag.summary());
+        System.out.println("Connection waits: " + DBConnection.getConnectionWaits().summary());
+        QueryProfiler.printReport(10);
+        if (skipped.sum() > 0) {
+            System.out.println("Skipped (user not in this database): " + skipped.sum());
+        }
+
+        if (!errors.isEmpty()) {
+            System.out.println("Replay errors:");
+            new TreeMap<>(errors).forEach((error, count) ->
+                    System.out.printf("  %,8d  %s%n", count.sum(), error));
+        }
+        System.out.println("==========================");
+    }
+
+    private static String change(double before, double after) {
+        if (before <= 0) {
+            return "-";
+        }
+        return String.format("%+.0f%%", (after - before) / before * 100);
+    }
+}
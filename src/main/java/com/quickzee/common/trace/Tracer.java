@@ -0,0 +1,152 @@
+package com.quickzee.common.trace;
+
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.SqlCall;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tracer
+ * Lightweight in-process request tracing. A request (an API call, or a
+ * service call made outside of one) becomes a trace of nested spans: service
+ * methods, bulkhead hops, cache loads and DAO methods. Finished traces are
+ * written as JSON lines to rotating files by SpanExporter.
+ *
+ * - Off unless quickzee.tracing.dir is set.
+ * - Head sampling: whether a request is traced is decided once, when its
+ *   first span starts (quickzee.tracing.sampleRate, default 1%). Requests
+ *   that are not sampled cost one thread-local lookup per span and allocate
+ *   nothing.
+ * - The current span is kept per thread; Bulkheads hands it to its worker
+ *   threads with callWithin() so DAO spans stay in the caller's trace.
+ */
+public class Tracer {
+
+    private static final String DIR = AppConfig.getString("quickzee.tracing.dir", "");
+    private static final double SAMPLE_RATE = Math.min(1, Math.max(0,
+            AppConfig.getDouble("quickzee.tracing.sampleRate", 0.01)));
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    // null when tracing is off
+    private static final SpanExporter EXPORTER = DIR.isBlank() || SAMPLE_RATE <= 0
+            ? null
+            : SpanExporter.open(DIR,
+                    AppConfig.getLong("quickzee.tracing.maxFileMB", 16) * 1024 * 1024,
+                    AppConfig.getInt("quickzee.tracing.maxFiles", 5),
+                    AppConfig.getInt("quickzee.tracing.queueSize", 4096));
+
+    private Tracer() {}
+
+    /**
+     * @return true if requests are being sampled
+     */
+    public static boolean isEnabled() {
+        return EXPORTER != null;
+    }
+
+    /**
+     * Start a span as a child of the current one, or as the root of a new trace
+     * @param name Span name, e.g. AttemptService.startQuizAttempt
+     * @return Span to close when the step ends (a no-op span if not sampled)
+     */
+    public static Span start(String name) {
+        if (EXPORTER == null) {
+            return Span.NOOP;
+        }
+        Span current = CURRENT.get();
+        Span span;
+        if (current == null) {
+            if (ThreadLocalRandom.current().nextDouble() >= SAMPLE_RATE) {
+                CURRENT.set(Span.UNSAMPLED);
+                return Span.UNSAMPLED;
+            }
+            span = Span.root(name, null);
+        } else if (!current.isRecording()) {
+            return Span.NOOP;
+        } else {
+            span = Span.child(name, current, current);
+        }
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Run a task in its own span; a failure is recorded on the span and rethrown
+     * @param name Span name
+     * @param task Task
+     * @return Result of the task
+     * @throws SQLException if the task fails
+     */
+    public static <T> T trace(String name, SqlCall<T> task) throws SQLException {
+        Span span = start(name);
+        try {
+            return task.call();
+        } catch (SQLException | RuntimeException e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * @return Span of the current thread (to hand to another thread), or null if none
+     */
+    public static Span current() {
+        return EXPORTER != null ? CURRENT.get() : null;
+    }
+
+    /**
+     * Run a task on this thread as part of another thread's span (for executor hops)
+     * @param parent Span returned by current() on the submitting thread (null = none)
+     * @param task Task
+     * @return Result of the task
+     * @throws SQLException if the task fails
+     */
+    public static <T> T callWithin(Span parent, SqlCall<T> task) throws SQLException {
+        if (parent == null) {
+            return task.call();
+        }
+        Span previous = CURRENT.get();
+        CURRENT.set(parent);
+        try {
+            return task.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * @return Traces dropped because the exporter fell behind
+     */
+    public static long getDroppedCount() {
+        return EXPORTER != null ? EXPORTER.getDroppedCount() : 0;
+    }
+
+    static void restore(Span span) {
+        if (span == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(span);
+        }
+    }
+
+    static void export(Span root) {
+        EXPORTER.export(root);
+    }
+
+    static long newId() {
+        long id;
+        do {
+            id = ThreadLocalRandom.current().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    static String hex(long id) {
+        String digits = Long.toHexString(id);
+        return "0000000000000000".substring(digits.length()) + digits;
+    }
+}
@@ -0,0 +1,217 @@
+package com.quickzee.common.trace;
+
+import com.quickzee.common.util.AppConfig;
+import com.quickzee.common.util.SessionManager;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * WorkloadTracer
+ * Records the service calls of real users (what, when, how long, with which
+ * parameters) into a compact binary trace (see TraceFile), so exam-day traffic
+ * can be replayed later against a test database with TraceReplayer.
+ *
+ * Off unless quickzee.trace.dir is set. Services hand over one small record
+ * per call to a bounded queue; a background thread writes the file. If the
+ * writer cannot keep up, records are dropped (and counted) instead of slowing
+ * down the caller. Passwords and answers are never recorded, only how many
+ * answers were sent.
+ */
+public class WorkloadTracer {
+
+    private static final String DIR = AppConfig.getString("quickzee.trace.dir", "");
+    private static final int QUEUE_SIZE = AppConfig.getInt("quickzee.trace.queueSize", 65536);
+
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static long startNanos; // set once by open()
+
+    // null when tracing is off
+    private static final BlockingQueue<TraceRecord> QUEUE = open();
+
+    private WorkloadTracer() {}
+
+    /**
+     * @return true if calls are being recorded
+     */
+    public static boolean isEnabled() {
+        return QUEUE != null;
+    }
+
+    /**
+     * Record a login attempt
+     * @param startedNanos System.nanoTime() when the call started
+     * @param email Email used
+     * @param userId ID of the user logged in, or null if the login failed
+     */
+    public static void login(long startedNanos, String email, Long userId) {
+        if (QUEUE != null) {
+            add(startedNanos, TraceOp.LOGIN, userId == null, userId != null ? userId : 0,
+                    email != null ? email.trim().toLowerCase() : null, 0, 0, 0);
+        }
+    }
+
+    /**
+     * Record a quiz catalog lookup
+     * @param startedNanos System.nanoTime() when the call started
+     * @param semester Semester asked for
+     * @param failed Whether the call threw
+     */
+    public static void quizList(long startedNanos, int semester, boolean failed) {
+        if (QUEUE != null) {
+            add(startedNanos, TraceOp.QUIZ_LIST, failed, currentUserId(), null, semester, 0, 0);
+        }
+    }
+
+    /**
+     * Record the start of a quiz attempt
+     * @param startedNanos System.nanoTime() when the call started
+     * @param quizId Quiz ID
+     * @param failed Whether the call threw
+     */
+    public static void startAttempt(long startedNanos, long quizId, boolean failed) {
+        if (QUEUE != null) {
+            add(startedNanos, TraceOp.START_ATTEMPT, failed, currentUserId(), null, 0, quizId, 0);
+        }
+    }
+
+    /**
+     * Record an autosave of answers
+     * @param startedNanos System.nanoTime() when the call started
+     * @param quizId Quiz ID (0 if the attempt was unknown)
+     * @param answerCount Number of answered questions
+     * @param failed Whether the call threw
+     */
+    public static void saveAnswers(long startedNanos, long quizId, int answerCount, boolean failed) {
+        if (QUEUE != null) {
+            add(startedNanos, TraceOp.SAVE_ANSWERS, failed, currentUserId(), null, 0, quizId, answerCount);
+        }
+    }
+
+    /**
+     * Record a submission
+     * @param startedNanos System.nanoTime() when the call started
+     * @param quizId Quiz ID
+     * @param answerCount Number of answered questions
+     * @param failed Whether the call threw
+     */
+    public static void submit(long startedNanos, long quizId, int answerCount, boolean failed) {
+        if (QUEUE != null) {
+            add(startedNanos, TraceOp.SUBMIT_ATTEMPT, failed, currentUserId(), null, 0, quizId, answerCount);
+        }
+    }
+
+    /**
+     * Record a lookup of the caller's own attempt history
+     * @param startedNanos System.nanoTime() when the call started
+     * @param failed Whether the call threw
+     */
+    public static void history(long startedNanos, boolean failed) {
+        if (QUEUE != null) {
+            add(startedNanos, TraceOp.ATTEMPT_HISTORY, failed, currentUserId(), null, 0, 0, 0);
+        }
+    }
+
+    /**
+     * @return Number of records dropped because the writer fell behind
+     */
+    public static long getDroppedCount() {
+        return DROPPED.get();
+    }
+
+    private static void add(long startedNanos, TraceOp op, boolean failed, long userId,
+                            String email, int semester, long quizId, int answerCount) {
+        long now = System.nanoTime();
+        TraceRecord record = new TraceRecord(op, failed,
+                Math.max(0, (startedNanos - startNanos) / 1000), (now - startedNanos) / 1000,
+                userId, email, semester, quizId, answerCount);
+        if (!QUEUE.offer(record)) {
+            DROPPED.incrementAndGet();
+        }
+    }
+
+    private static long currentUserId() {
+        Long userId = SessionManager.getLoggedInUserId();
+        return userId != null ? userId : 0;
+    }
+
+    // Create the trace file and start the writer; returns null when tracing is off or cannot start
+    private static BlockingQueue<TraceRecord> open() {
+        if (DIR.isBlank()) {
+            return null;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date(startedAt));
+        Path file = Paths.get(DIR, "workload-" + stamp + ".qztrace");
+        DataOutputStream out;
+        try {
+            Files.createDirectories(file.getParent());
+            out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+            TraceFile.writeHeader(out, startedAt);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("⚠️ Workload trace disabled, cannot write " + file + ": " + e.getMessage());
+            return null;
+        }
+        startNanos = System.nanoTime();
+
+        BlockingQueue<TraceRecord> queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        Thread writer = new Thread(() -> writeLoop(queue, out), "qz-trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            writer.interrupt();
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "qz-trace-shutdown"));
+
+        System.out.println("✅ Workload trace: " + file);
+        return queue;
+    }
+
+    // Write records as they come; flush whenever the queue runs dry, drain on shutdown
+    private static void writeLoop(BlockingQueue<TraceRecord> queue, DataOutputStream out) {
+        try (out) {
+            while (!Thread.currentThread().isInterrupted()) {
+                TraceRecord record;
+                try {
+                    record = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (record == null) {
+                    out.flush();
+                    continue;
+                }
+                TraceFile.writeRecord(out, record);
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+
+            TraceRecord record;
+            while ((record = queue.poll()) != null) {
+                TraceFile.writeRecord(out, record);
+            }
+            if (DROPPED.get() > 0) {
+                System.err.println("⚠️ Workload trace dropped " + DROPPED.get() + " records");
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Workload trace stopped: " + e.getMessage());
+        }
+    }
+}
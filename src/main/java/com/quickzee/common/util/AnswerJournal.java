@@ -0,0 +1,591 @@
+package com.quickzee.common.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * AnswerJournal utility class
+ * Append-only local file that records every attempt start, answer change and
+ * final submission, so nothing is lost when the database (or the network to
+ * it) is down or the application crashes.
+ *
+ * - Each record is framed as [length][CRC32][payload]. On startup the file is
+ *   replayed; a torn or corrupt tail (crash mid-write) is cut off.
+ * - fsync is batched: answer changes are synced by a background thread every
+ *   few hundred milliseconds; a submission waits until it is on disk, and
+ *   concurrent submissions share one fsync (group commit).
+ * - When submissions are acknowledged (stored in the database) the journal is
+ *   compacted: rewritten with only the attempts that are still open.
+ * - A submission the database will never accept is moved to a dead-letter
+ *   file (answers.rejected, one readable line each) instead of being dropped.
+ */
+public class AnswerJournal {
+
+    private static final byte START = 1;
+    private static final byte ANSWER = 2;
+    private static final byte SUBMIT = 3;
+    private static final byte ACK = 4;
+
+    private static final String FILE_NAME = "answers.journal";
+    private static final String DEAD_LETTER_FILE_NAME = "answers.rejected";
+    private static final int COMPACT_AFTER_ACKS = 50;
+    private static final int MAX_RECORD_BYTES = 1024 * 1024;
+    // Open attempts with no activity for this long are dropped at compaction
+    private static final long ABANDONED_AFTER_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    private final Path file;
+    private final Path deadLetterFile;
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private FileChannel channel;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(); // guarded by this
+    private volatile long writePosition;
+    private volatile long syncedPosition;
+    private final Object syncLock = new Object();
+    private final Object deadLetterLock = new Object();
+    private int acksSinceCompaction = 0;
+
+    private final ScheduledExecutorService syncer;
+
+    // Package-private for tests; use openDefault()
+    AnswerJournal(Path dir, long syncMillis) throws IOException {
+        Files.createDirectories(dir);
+        this.file = dir.resolve(FILE_NAME);
+        this.deadLetterFile = dir.resolve(DEAD_LETTER_FILE_NAME);
+
+        // One process per journal: a second app instance must not write the same file
+        this.lockChannel = FileChannel.open(dir.resolve(FILE_NAME + ".lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.lock = lockChannel.tryLock();
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Journal " + file + " is in use by another QuickZee process");
+        }
+
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        replay();
+        this.syncedPosition = writePosition;
+
+        this.syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, "qz-journal-sync");
+            t.setDaemon(true);
+            return t;
+        });
+        syncer.scheduleWithFixedDelay(this::syncQuietly, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open the journal configured for this machine
+     * (quickzee.journal.enabled, quickzee.journal.dir, quickzee.journal.syncMillis)
+     * @return Journal, or null if it is disabled or cannot be opened (a warning is printed)
+     */
+    public static AnswerJournal openDefault() {
+        if (!AppConfig.getBoolean("quickzee.journal.enabled", true)) {
+            return null;
+        }
+
+        Path dir = Paths.get(AppConfig.getString("quickzee.journal.dir",
+                Paths.get(System.getProperty("user.home"), ".quickzee", "journal").toString()));
+        try {
+            AnswerJournal journal = new AnswerJournal(dir, AppConfig.getLong("quickzee.journal.syncMillis", 200));
+            System.out.println("✅ Answer journal: " + journal.file +
+                    " (" + journal.pendingSubmissions().size() + " submissions waiting)");
+            return journal;
+        } catch (IOException e) {
+            System.err.println("⚠️ Answer journal disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Record that an attempt started
+     * @param token Attempt token
+     * @param userId User ID
+     * @param quizId Quiz ID
+     * @param startedAtMillis Start time
+     * @param deadlineMillis Deadline (0 = no limit)
+     * @throws IOException if the journal cannot be written
+     */
+    public void recordStart(String token, Long userId, Long quizId,
+                            long startedAtMillis, long deadlineMillis) throws IOException {
+        append(encode(START, token, out -> {
+            out.writeLong(userId);
+            out.writeLong(quizId);
+            out.writeLong(startedAtMillis);
+            out.writeLong(deadlineMillis);
+        }), false);
+    }
+
+    /**
+     * Record changed answers (synced to disk within syncMillis)
+     * @param token Attempt token
+     * @param changedAnswers Question index -> option ID (null = cleared)
+     * @throws IOException if the journal cannot be written
+     */
+    public void recordAnswers(String token, Map<Integer, Long> changedAnswers) throws IOException {
+        if (changedAnswers.isEmpty()) {
+            return;
+        }
+        append(encode(ANSWER, token, out -> {
+            out.writeInt(changedAnswers.size());
+            for (Map.Entry<Integer, Long> answer : changedAnswers.entrySet()) {
+                out.writeInt(answer.getKey());
+                out.writeLong(answer.getValue() != null ? answer.getValue() : 0L);
+            }
+        }), false);
+    }
+
+    /**
+     * Record a final submission and wait until it is on disk
+     * @param token Attempt token
+     * @param userId User ID
+     * @param quizId Quiz ID
+     * @param selected Selected option ID per question slot (0 = unanswered)
+     * @throws IOException if the journal cannot be written or synced
+     */
+    public void recordSubmission(String token, Long userId, Long quizId, long[] selected) throws IOException {
+        append(encode(SUBMIT, token, out -> {
+            out.writeLong(userId);
+            out.writeLong(quizId);
+            out.writeInt(selected.length);
+            for (long answer : selected) {
+                out.writeLong(answer);
+            }
+        }), true);
+    }
+
+    /**
+     * Record that an attempt is stored in the database (or given up) and forget it
+     * @param token Attempt token
+     */
+    public void acknowledge(String token) {
+        try {
+            append(encode(ACK, token, out -> {}), false);
+
+            boolean compact;
+            synchronized (this) {
+                compact = ++acksSinceCompaction >= COMPACT_AFTER_ACKS;
+            }
+            if (compact) {
+                compact();
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not write journal acknowledgement: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Move a submission that can never be stored to the dead-letter file, then forget it
+     * The line (time, token, user, quiz, answers and reason) is on disk before the
+     * submission leaves the journal, so it can still be entered by hand.
+     * @param submission Pending submission
+     * @param reason Why it was rejected
+     * @throws IOException if the dead-letter file cannot be written (the submission stays pending)
+     */
+    public void deadLetter(Entry submission, String reason) throws IOException {
+        String line = Instant.now() + "\ttoken=" + submission.token + "\tuser=" + submission.userId +
+                "\tquiz=" + submission.quizId + "\tanswers=" + Arrays.toString(submission.submission) +
+                "\treason=" + String.valueOf(reason).replaceAll("\\s+", " ") + System.lineSeparator();
+        synchronized (deadLetterLock) {
+            Files.writeString(deadLetterFile, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        }
+        acknowledge(submission.token);
+    }
+
+    /**
+     * @return File that rejected submissions are moved to (see deadLetter)
+     */
+    public Path getDeadLetterFile() {
+        return deadLetterFile;
+    }
+
+    /**
+     * Get submissions that were journaled but not acknowledged yet
+     * @return Snapshot of pending submissions, oldest first
+     */
+    public synchronized List<Entry> pendingSubmissions() {
+        List<Entry> pending = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.submission != null) {
+                pending.add(entry.copy());
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Find a submission that was journaled but not acknowledged yet
+     * @param token Attempt token
+     * @return Snapshot of the submission, or null
+     */
+    public synchronized Entry findPendingSubmission(String token) {
+        Entry entry = entries.get(token);
+        return entry != null && entry.submission != null ? entry.copy() : null;
+    }
+
+    /**
+     * Find the latest attempt of a user for a quiz that was started but not submitted
+     * @param userId User ID
+     * @param quizId Quiz ID
+     * @return Snapshot of the attempt, or null
+     */
+    public synchronized Entry findOpen(Long userId, Long quizId) {
+        Entry latest = null;
+        for (Entry entry : entries.values()) {
+            if (entry.submission == null && userId.equals(entry.userId) && quizId.equals(entry.quizId)
+                    && (latest == null || entry.startedAtMillis >= latest.startedAtMillis)) {
+                latest = entry;
+            }
+        }
+        return latest != null ? latest.copy() : null;
+    }
+
+    /**
+     * Rewrite the journal with only the attempts that are still open
+     * @throws IOException if the new file cannot be written (the old one is kept)
+     */
+    public void compact() throws IOException {
+        synchronized (this) {
+            synchronized (syncLock) {
+                long now = System.currentTimeMillis();
+                entries.values().removeIf(e -> e.submission == null && e.userId != null
+                        && now - e.lastActivityMillis > ABANDONED_AFTER_MILLIS);
+
+                Path tmp = file.resolveSibling(FILE_NAME + ".tmp");
+                long size = 0;
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    for (Entry entry : entries.values()) {
+                        for (byte[] frame : entry.toFrames()) {
+                            size += writeFully(out, frame);
+                        }
+                    }
+                    out.force(true);
+                }
+
+                channel.close();
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.position(size);
+
+                writePosition = size;
+                syncedPosition = size;
+                acksSinceCompaction = 0;
+            }
+        }
+    }
+
+    /**
+     * Sync and close the journal
+     */
+    public void close() {
+        syncer.shutdown();
+        syncQuietly();
+        try {
+            channel.close();
+            lock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            System.err.println("⚠️ Error closing journal: " + e.getMessage());
+        }
+    }
+
+    // ---------- writing ----------
+
+    private void append(byte[] frame, boolean durable) throws IOException {
+        long end;
+        synchronized (this) {
+            writeFully(channel, frame);
+            end = writePosition += frame.length;
+            apply(frame, 8);
+        }
+        if (durable) {
+            syncTo(end);
+        }
+    }
+
+    // Group commit: whoever gets the lock syncs everything written so far
+    private void syncTo(long position) throws IOException {
+        if (syncedPosition >= position) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (syncedPosition >= position) {
+                return; // another thread's fsync already covered us
+            }
+            long target = writePosition;
+            channel.force(false);
+            syncedPosition = target;
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            syncTo(writePosition);
+        } catch (IOException e) {
+            System.err.println("⚠️ Journal sync failed: " + e.getMessage());
+        }
+    }
+
+    private static int writeFully(FileChannel out, byte[] frame) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(frame);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        return frame.length;
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static byte[] encode(byte type, String token, Body body) throws IOException {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        payload.writeByte(type);
+        payload.writeLong(System.currentTimeMillis());
+        payload.writeUTF(token);
+        body.write(payload);
+        payload.flush();
+
+        byte[] data = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        ByteArrayOutputStream frameBytes = new ByteArrayOutputStream(data.length + 8);
+        DataOutputStream frame = new DataOutputStream(frameBytes);
+        frame.writeInt(data.length);
+        frame.writeInt((int) crc.getValue());
+        frame.write(data);
+        frame.flush();
+        return frameBytes.toByteArray();
+    }
+
+    // ---------- reading ----------
+
+    private void replay() throws IOException {
+        long size = channel.size();
+        long offset = 0;
+        ByteBuffer header = ByteBuffer.allocate(8);
+
+        while (offset + 8 <= size) {
+            header.clear();
+            channel.read(header, offset);
+            header.flip();
+            int length = header.getInt();
+            int expectedCrc = header.getInt();
+
+            if (length <= 0 || length > MAX_RECORD_BYTES || offset + 8 + length > size) {
+                break; // torn write
+            }
+
+            ByteBuffer data = ByteBuffer.allocate(length);
+            while (data.hasRemaining() && channel.read(data, offset + 8 + data.position()) > 0) {
+                // keep reading
+            }
+            CRC32 crc = new CRC32();
+            crc.update(data.array());
+            if ((int) crc.getValue() != expectedCrc) {
+                break; // corrupt record
+            }
+
+            byte[] frame = new byte[8 + length];
+            System.arraycopy(data.array(), 0, frame, 8, length);
+            apply(frame, 8);
+            offset += 8 + length;
+        }
+
+        if (offset < size) {
+            System.err.println("⚠️ Journal had a damaged tail, " + (size - offset) + " bytes dropped");
+            channel.truncate(offset);
+            channel.force(true);
+        }
+        channel.position(offset);
+        writePosition = offset;
+    }
+
+    // Update the in-memory view from one record (payload starts at offset)
+    private void apply(byte[] frame, int offset) throws IOException {
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(frame, offset, frame.length - offset));
+        try {
+            byte type = in.readByte();
+            long at = in.readLong();
+            String token = in.readUTF();
+
+            if (type == ACK) {
+                entries.remove(token);
+                return;
+            }
+
+            Entry entry = entries.computeIfAbsent(token, Entry::new);
+            entry.lastActivityMillis = at;
+
+            switch (type) {
+                case START:
+                    entry.userId = in.readLong();
+                    entry.quizId = in.readLong();
+                    entry.startedAtMillis = in.readLong();
+                    entry.deadlineMillis = in.readLong();
+                    break;
+                case ANSWER:
+                    int changed = in.readInt();
+                    for (int i = 0; i < changed; i++) {
+                        int index = in.readInt();
+                        long option = in.readLong();
+                        entry.answers.put(index, option != 0 ? option : null);
+                    }
+                    break;
+                case SUBMIT:
+                    entry.userId = in.readLong();
+                    entry.quizId = in.readLong();
+                    int count = in.readInt();
+                    if (count < 0 || count > (frame.length - offset) / 8) {
+                        throw new IOException("Bad answer count " + count);
+                    }
+                    long[] submission = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        submission[i] = in.readLong();
+                    }
+                    entry.submission = submission;
+                    break;
+                default:
+                    System.err.println("⚠️ Unknown journal record type " + type + " skipped");
+            }
+        } catch (EOFException e) {
+            throw new IOException("Truncated journal record", e);
+        }
+    }
+
+    /**
+     * One attempt as recorded in the journal
+     */
+    public static final class Entry {
+        private final String token;
+        private Long userId;
+        private Long quizId;
+        private long startedAtMillis;
+        private long deadlineMillis;
+        private long lastActivityMillis;
+        private final TreeMap<Integer, Long> answers = new TreeMap<>();
+        private long[] submission; // null = not submitted yet
+
+        private Entry(String token) {
+            this.token = token;
+        }
+
+        private Entry copy() {
+            Entry copy = new Entry(token);
+            copy.userId = userId;
+            copy.quizId = quizId;
+            copy.startedAtMillis = startedAtMillis;
+            copy.deadlineMillis = deadlineMillis;
+            copy.lastActivityMillis = lastActivityMillis;
+            copy.answers.putAll(answers);
+            copy.submission = submission != null ? submission.clone() : null;
+            return copy;
+        }
+
+        // Shortest record sequence that rebuilds this entry
+        private List<byte[]> toFrames() throws IOException {
+            List<byte[]> frames = new ArrayList<>();
+            if (startedAtMillis > 0) {
+                frames.add(encode(START, token, out -> {
+                    out.writeLong(userId);
+                    out.writeLong(quizId);
+                    out.writeLong(startedAtMillis);
+                    out.writeLong(deadlineMillis);
+                }));
+            }
+            if (!answers.isEmpty()) {
+                frames.add(encode(ANSWER, token, out -> {
+                    out.writeInt(answers.size());
+                    for (Map.Entry<Integer, Long> answer : answers.entrySet()) {
+                        out.writeInt(answer.getKey());
+                        out.writeLong(answer.getValue() != null ? answer.getValue() : 0L);
+                    }
+                }));
+            }
+            if (submission != null) {
+                frames.add(encode(SUBMIT, token, out -> {
+                    out.writeLong(userId);
+                    out.writeLong(quizId);
+                    out.writeInt(submission.length);
+                    for (long answer : submission) {
+                        out.writeLong(answer);
+                    }
+                }));
+            }
+            return frames;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public Long getQuizId() {
+            return quizId;
+        }
+
+        public long getStartedAtMillis() {
+            return startedAtMillis;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        /**
+         * @return Answers saved so far as a list (index -> option ID, null = unanswered)
+         */
+        public List<Long> getAnswers() {
+            List<Long> list = new ArrayList<>();
+            for (Map.Entry<Integer, Long> answer : answers.entrySet()) {
+                while (list.size() <= answer.getKey()) {
+                    list.add(null);
+                }
+                list.set(answer.getKey(), answer.getValue());
+            }
+            return list;
+        }
+
+        /**
+         * @return Submitted selection (0 = unanswered), or null if the attempt was not submitted yet
+         */
+        public long[] getSubmission() {
+            return submission;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.quickzee.common.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * AppConfig utility class
+ * Central place for optional runtime settings.
+ *
+ * Values are looked up in this order:
+ * 1. JVM system properties (e.g. -Dquickzee.submit.mode=procedure)
+ * 2. quickzee.properties in the working directory
+ * 3. quickzee.properties on the classpath
+ * 4. The default passed by the caller
+ */
+public class AppConfig {
+
+    private static final String FILE_NAME = "quickzee.properties";
+
+    private static final Properties PROPERTIES = load();
+
+    private static Properties load() {
+        Properties props = new Properties();
+
+        // Classpath defaults first, so the working-directory file can override them
+        try (InputStream in = AppConfig.class.getResourceAsStream("/" + FILE_NAME)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not read classpath " + FILE_NAME + ": " + e.getMessage());
+        }
+
+        Path local = Paths.get(FILE_NAME);
+        if (Files.isRegularFile(local)) {
+            try (InputStream in = Files.newInputStream(local)) {
+                props.load(in);
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not read " + local.toAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+        return props;
+    }
+
+    /**
+     * Get a string setting
+     * @param key Setting name
+     * @param defaultValue Value to use if the setting is missing
+     * @return Configured value or the default
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = PROPERTIES.getProperty(key);
+        }
+        return InputValidator.isEmpty(value) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Get an integer setting
+     * @param key Setting name
+     * @param defaultValue Value to use if the setting is missing or not a number
+     * @return Configured value or the default
+     */
+    public static int getInt(String key, int defaultValue) {
+        Integer value = InputValidator.parseInteger(getString(key, null));
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Get a long setting
+     * @param key Setting name
+     * @param defaultValue Value to use if the setting is missing or not a number
+     * @return Configured value or the default
+     */
+    public static long getLong(String key, long defaultValue) {
+        Long value = InputValidator.parseLong(getString(key, null));
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Get a decimal setting (e.g. 0.01)
+     * @param key Setting name
+     * @param defaultValue Value to use if the setting is missing or not a number
+     * @return Configured value or the default
+     */
+    public static double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Get a boolean setting ("true"/"false")
+     * @param key Setting name
+     * @param defaultValue Value to use if the setting is missing
+     * @return Configured value or the default
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
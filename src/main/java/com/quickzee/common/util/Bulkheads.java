@@ -0,0 +1,202 @@
+package com.quickzee.common.util;
+
+import com.quickzee.common.trace.Span;
+import com.quickzee.common.trace.Tracer;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulkheads utility class
+ * Runs database work on a separate bounded thread pool per Workload and
+ * limits how many connections each workload may hold at the same time.
+ *
+ * - A burst of dashboard refreshes can only fill the dashboard pool and its
+ *   connection quota; exam submissions keep their own threads and connections.
+ * - Lower-priority pools reject work when their queue is full ("server busy").
+ *   The submission pool never rejects: when it is saturated the caller runs
+ *   the submission itself.
+ * - When its own quota is used up, a submission may borrow an idle connection
+ *   permit from a lower-priority workload before it starts waiting.
+ */
+public class Bulkheads {
+
+    // Workload of the task running on the current thread (null = not inside a bulkhead)
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private static final Map<Workload, ThreadPoolExecutor> EXECUTORS = new EnumMap<>(Workload.class);
+    private static final Map<Workload, Semaphore> CONNECTION_PERMITS = new EnumMap<>(Workload.class);
+    private static final Map<Workload, String> SPAN_NAMES = new EnumMap<>(Workload.class);
+
+    static {
+        for (Workload workload : Workload.values()) {
+            EXECUTORS.put(workload, createExecutor(workload));
+            CONNECTION_PERMITS.put(workload, new Semaphore(workload.getConnectionQuota(), true));
+            SPAN_NAMES.put(workload, "Bulkhead." + workload.getKey());
+        }
+    }
+
+    /**
+     * Run database work inside the bulkhead of a workload and wait for the result
+     * Calls made from inside a bulkhead run directly on the current thread.
+     * @param workload Workload class of the work
+     * @param task Database work
+     * @return Result of the task
+     * @throws SQLException if the task fails, or (SQLTransientException) if the workload is overloaded
+     */
+    public static <T> T call(Workload workload, SqlCall<T> task) throws SQLException {
+        if (CURRENT.get() != null) {
+            return task.call();
+        }
+
+        // Worker threads see the caller's session (login/admin checks inside the task)
+        // and continue its trace; the bulkhead span starts when a worker picks the task up
+        Session session = SessionManager.currentSession();
+        Span parent = Tracer.current();
+
+        Future<T> future;
+        try {
+            future = EXECUTORS.get(workload).submit(() -> Tracer.callWithin(parent,
+                    () -> Tracer.trace(SPAN_NAMES.get(workload),
+                            () -> SessionManager.callAs(session, () -> runAs(workload, task)))));
+        } catch (RejectedExecutionException e) {
+            throw new SQLTransientException("Server is busy (" + workload.getKey() + "), please try again shortly", e);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new SQLException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new SQLException("Interrupted while waiting for " + workload.getKey() + " work", e);
+        }
+    }
+
+    /**
+     * Get the workload of the current thread
+     * @return Workload or null if not running inside a bulkhead
+     */
+    public static Workload currentWorkload() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Reserve a connection permit for the current thread's workload
+     * Used by DBConnection before opening a connection.
+     * @return Action that gives the permit back, or null if the thread is not inside a bulkhead
+     * @throws SQLException (SQLTransientConnectionException) if no permit became free in time
+     */
+    static Runnable acquireConnectionPermit() throws SQLException {
+        Workload workload = CURRENT.get();
+        if (workload == null) {
+            return null;
+        }
+
+        Semaphore own = CONNECTION_PERMITS.get(workload);
+        if (own.tryAcquire()) {
+            return own::release;
+        }
+
+        // Priority admission: submissions may take an idle permit from lower workloads
+        if (workload == Workload.SUBMISSION) {
+            for (Workload lower : Workload.values()) {
+                if (lower == workload) continue;
+
+                Semaphore borrowed = CONNECTION_PERMITS.get(lower);
+                if (borrowed.tryAcquire()) {
+                    return borrowed::release;
+                }
+            }
+        }
+
+        try {
+            if (own.tryAcquire(workload.getConnectionWaitMillis(), TimeUnit.MILLISECONDS)) {
+                return own::release;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new SQLTransientConnectionException(
+                "Timed out waiting for a database connection (" + workload.getKey() + ")");
+    }
+
+    /**
+     * Print current usage of every bulkhead (for debugging)
+     */
+    public static void printStatus() {
+        System.out.println("=== Bulkheads ===");
+        for (Workload workload : Workload.values()) {
+            ThreadPoolExecutor executor = EXECUTORS.get(workload);
+            Semaphore permits = CONNECTION_PERMITS.get(workload);
+            System.out.printf("%-16s active %d/%d | queued %d/%d | connections free %d/%d%n",
+                    workload.getKey(),
+                    executor.getActiveCount(), workload.getThreads(),
+                    executor.getQueue().size(), workload.getQueueCapacity(),
+                    permits.availablePermits(), workload.getConnectionQuota());
+        }
+        System.out.println("=================");
+    }
+
+    // Run the task with CURRENT set, also when the submission pool falls back to the caller thread
+    private static <T> T runAs(Workload workload, SqlCall<T> task) throws SQLException {
+        Workload previous = CURRENT.get();
+        CURRENT.set(workload);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor createExecutor(Workload workload) {
+        AtomicInteger counter = new AtomicInteger();
+
+        RejectedExecutionHandler onFull = workload == Workload.SUBMISSION
+                ? new ThreadPoolExecutor.CallerRunsPolicy()   // submissions always get through
+                : new ThreadPoolExecutor.AbortPolicy();       // everything else fails fast
+
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                workload.getThreads(), workload.getThreads(),
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, workload.getQueueCapacity())),
+                runnable -> {
+                    Thread t = new Thread(runnable, "qz-" + workload.getKey() + "-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    if (workload == Workload.SUBMISSION) {
+                        t.setPriority(Thread.NORM_PRIORITY + 2);
+                    }
+                    return t;
+                },
+                onFull);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,451 @@
+package com.quickzee.common.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConnectionPool utility class
+ * Small fixed-size JDBC connection pool used in server mode, where many
+ * clients share one set of MySQL connections instead of opening their own.
+ *
+ * - Connections are handed out as proxies; close() returns them to the pool.
+ * - Idle connections are reused most-recently-used first and re-validated
+ *   if they have been idle for a while.
+ * - When all connections are busy, callers wait in arrival order (woken when a
+ *   connection is returned or discarded) up to waitMillis and then
+ *   get an SQLTransientConnectionException (retryable).
+ * - Borrowed connections are tracked with their owner thread and age (and the
+ *   borrowing stack if quickzee.db.pool.captureStacks is set). A connection held
+ *   longer than quickzee.db.pool.maxHoldSeconds is reported once; one held longer
+ *   than quickzee.db.pool.reclaimAfterSeconds is closed, its slot freed (waking a
+ *   waiter) and the borrower's onReclaim action run, so a leak cannot starve the
+ *   pool. See printBorrowed() for an on-demand dump.
+ */
+public class ConnectionPool {
+
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    // Leak detection (0 = off)
+    private static final boolean CAPTURE_STACKS = AppConfig.getBoolean("quickzee.db.pool.captureStacks", false);
+    private static final long MAX_HOLD_MILLIS = TimeUnit.SECONDS.toMillis(
+            AppConfig.getLong("quickzee.db.pool.maxHoldSeconds", 60));
+    private static final long RECLAIM_AFTER_MILLIS = TimeUnit.SECONDS.toMillis(
+            AppConfig.getLong("quickzee.db.pool.reclaimAfterSeconds", 0));
+
+    // Frames shown per borrowing stack
+    private static final int MAX_STACK_FRAMES = 12;
+
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int maxSize;
+    private final long waitMillis;
+    private final long reclaimAfterMillis;
+
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    // One permit per connection that may be borrowed; given back when a borrowed
+    // connection is returned or discarded, which wakes the longest waiter
+    private final Semaphore slots;
+
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final AtomicLong longHolds = new AtomicLong();
+    private final AtomicLong reclaimed = new AtomicLong();
+    private final ScheduledExecutorService leakChecker;
+
+    /**
+     * @param url JDBC URL
+     * @param username Database user
+     * @param password Database password
+     * @param maxSize Maximum number of physical connections
+     * @param waitMillis How long a caller waits for a free connection
+     */
+    public ConnectionPool(String url, String username, String password, int maxSize, long waitMillis) {
+        this(url, username, password, maxSize, waitMillis, RECLAIM_AFTER_MILLIS);
+    }
+
+    // Package-private for tests; reclaimAfterMillis 0 = never reclaim
+    ConnectionPool(String url, String username, String password, int maxSize, long waitMillis,
+                   long reclaimAfterMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.waitMillis = waitMillis;
+        this.reclaimAfterMillis = reclaimAfterMillis;
+        this.slots = new Semaphore(maxSize, true);
+        this.leakChecker = startLeakChecker();
+    }
+
+    /**
+     * Borrow a connection; close() on it gives it back
+     * @return Pooled connection
+     * @throws SQLException if no connection could be opened, or
+     *         (SQLTransientConnectionException) none became free in time
+     */
+    public Connection borrow() throws SQLException {
+        return borrow(null);
+    }
+
+    /**
+     * Borrow a connection; close() on it gives it back
+     * @param onReclaim Run (once) if the pool reclaims the connection because it was
+     *        held too long, to free what the borrower holds with it; may be null
+     * @return Pooled connection
+     * @throws SQLException if no connection could be opened, or
+     *         (SQLTransientConnectionException) none became free in time
+     */
+    public Connection borrow(Runnable onReclaim) throws SQLException {
+        // 1) Take a slot, waiting for a borrower to give one back if all are taken
+        try {
+            if (!slots.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out waiting for a pooled database connection (" + maxSize + " in use)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a pooled database connection");
+        }
+
+        boolean handedOut = false;
+        try {
+            Connection conn = take();
+            handedOut = true;
+            return wrap(conn, onReclaim);
+        } finally {
+            if (!handedOut) {
+                slots.release();
+            }
+        }
+    }
+
+    // Holding a slot: reuse an idle connection, or open a new one
+    private Connection take() throws SQLException {
+        while (true) {
+            // 2) Reuse an idle connection if there is one
+            IdleConnection candidate;
+            while ((candidate = idle.pollFirst()) != null) {
+                Connection usable = validate(candidate);
+                if (usable != null) {
+                    return usable;
+                }
+            }
+
+            // 3) Open a new one if we are below the limit
+            int current = total.get();
+            if (current < maxSize) {
+                if (total.compareAndSet(current, current + 1)) {
+                    try {
+                        return DriverManager.getConnection(url, username, password);
+                    } catch (SQLException e) {
+                        total.decrementAndGet();
+                        throw e;
+                    }
+                }
+                continue;
+            }
+
+            // 4) Raced with a connection being returned to the idle list; look again
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Close all idle connections (busy ones are closed when they are returned)
+     */
+    public void shutdown() {
+        if (leakChecker != null) {
+            leakChecker.shutdownNow();
+        }
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            discard(candidate.connection);
+        }
+    }
+
+    /**
+     * @return Number of physical connections currently open
+     */
+    public int getTotalConnections() {
+        return total.get();
+    }
+
+    /**
+     * @return Number of open connections waiting in the pool
+     */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    /**
+     * @return Maximum number of physical connections
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return Number of connections currently borrowed
+     */
+    public int getBorrowedConnections() {
+        return leases.size();
+    }
+
+    /**
+     * @return Connections reported for being held longer than quickzee.db.pool.maxHoldSeconds
+     */
+    public long getLongHoldCount() {
+        return longHolds.get();
+    }
+
+    /**
+     * @return Connections closed by the pool after quickzee.db.pool.reclaimAfterSeconds
+     */
+    public long getReclaimedCount() {
+        return reclaimed.get();
+    }
+
+    /**
+     * Describe the borrowed connections, oldest first
+     * Each entry has the owner thread and age, plus the borrowing stack if
+     * quickzee.db.pool.captureStacks is set.
+     * @return One multi-line entry per borrowed connection
+     */
+    public List<String> describeBorrowed() {
+        List<Lease> current = new ArrayList<>(leases);
+        current.sort(Comparator.comparingLong(lease -> lease.borrowedAtMillis));
+
+        long now = System.currentTimeMillis();
+        List<String> entries = new ArrayList<>();
+        for (Lease lease : current) {
+            entries.add(describe(lease, now));
+        }
+        return entries;
+    }
+
+    /**
+     * Print the borrowed connections, oldest first (for debugging)
+     */
+    public void printBorrowed() {
+        System.out.println("=== Borrowed Connections ===");
+        System.out.println("Borrowed: " + leases.size() + " of " + total.get() + " open (max " + maxSize + ")");
+        for (String entry : describeBorrowed()) {
+            System.out.println(entry);
+        }
+        System.out.println("Long holds: " + longHolds.get() + ", reclaimed: " + reclaimed.get());
+        if (!CAPTURE_STACKS) {
+            System.out.println("(set quickzee.db.pool.captureStacks=true to see where connections were borrowed)");
+        }
+        System.out.println("============================");
+    }
+
+    // Returns the connection if it is still usable, otherwise discards it and returns null
+    private Connection validate(IdleConnection candidate) {
+        Connection conn = candidate.connection;
+        try {
+            boolean stale = System.currentTimeMillis() - candidate.idleSince > VALIDATE_AFTER_IDLE_MILLIS;
+            if (conn.isClosed() || (stale && !conn.isValid(2))) {
+                discard(conn);
+                return null;
+            }
+            return conn;
+        } catch (SQLException e) {
+            discard(conn);
+            return null;
+        }
+    }
+
+    // Called when the borrower closes its proxy
+    private void giveBack(Connection conn) {
+        try {
+            if (conn.isClosed()) {
+                discard(conn);
+                return;
+            }
+            // Never hand a half-finished transaction to the next borrower
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            idle.offerFirst(new IdleConnection(conn, System.currentTimeMillis()));
+        } catch (SQLException e) {
+            discard(conn);
+        }
+    }
+
+    private void discard(Connection conn) {
+        total.decrementAndGet();
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            System.err.println("⚠️ Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    private Connection wrap(Connection target, Runnable onReclaim) {
+        Lease lease = new Lease(target, onReclaim);
+        leases.add(lease);
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if ("close".equals(name) && method.getParameterCount() == 0) {
+                if (lease.returned.compareAndSet(false, true)) {
+                    leases.remove(lease);
+                    try {
+                        giveBack(target);
+                    } finally {
+                        slots.release();
+                    }
+                }
+                return null;
+            }
+            if ("isClosed".equals(name) && method.getParameterCount() == 0 && lease.returned.get()) {
+                return true;
+            }
+            if (lease.returned.get()) {
+                throw new SQLException(lease.reclaimed
+                        ? "Connection was reclaimed by the pool after being held too long"
+                        : "Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    // Checks the borrowed connections periodically; null when both limits are off
+    private ScheduledExecutorService startLeakChecker() {
+        long limit = Math.min(MAX_HOLD_MILLIS > 0 ? MAX_HOLD_MILLIS : Long.MAX_VALUE,
+                reclaimAfterMillis > 0 ? reclaimAfterMillis : Long.MAX_VALUE);
+        if (limit == Long.MAX_VALUE) {
+            return null;
+        }
+        long period = Math.max(1000, Math.min(limit / 4, TimeUnit.SECONDS.toMillis(10)));
+
+        ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread t = new Thread(runnable, "qz-pool-leaks");
+            t.setDaemon(true);
+            return t;
+        });
+        checker.scheduleWithFixedDelay(this::checkLeases, period, period, TimeUnit.MILLISECONDS);
+        return checker;
+    }
+
+    private void checkLeases() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leases) {
+            long held = now - lease.borrowedAtMillis;
+
+            // 1) Reclaim: close the physical connection so the slot can be reused
+            if (reclaimAfterMillis > 0 && held >= reclaimAfterMillis) {
+                if (lease.returned.compareAndSet(false, true)) {
+                    lease.reclaimed = true;
+                    leases.remove(lease);
+                    reclaimed.incrementAndGet();
+                    System.err.println("⚠️ Reclaimed a pooled connection held too long\n" + describe(lease, now));
+                    discard(lease.connection);
+                    runOnReclaim(lease);
+                    slots.release();
+                }
+                continue;
+            }
+
+            // 2) Alarm once per connection
+            if (MAX_HOLD_MILLIS > 0 && held >= MAX_HOLD_MILLIS && !lease.alarmed) {
+                lease.alarmed = true;
+                longHolds.incrementAndGet();
+                System.err.println("⚠️ Pooled connection held for a long time (possible leak)\n" + describe(lease, now));
+            }
+        }
+    }
+
+    private static void runOnReclaim(Lease lease) {
+        if (lease.onReclaim == null) {
+            return;
+        }
+        try {
+            lease.onReclaim.run();
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Error releasing a reclaimed connection: " + e.getMessage());
+        }
+    }
+
+    private static String describe(Lease lease, long now) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("  owner=%s  age=%.1f s", lease.owner, (now - lease.borrowedAtMillis) / 1000.0));
+        if (lease.stack != null) {
+            int shown = 0;
+            for (StackTraceElement frame : lease.stack) {
+                String className = frame.getClassName();
+                if (shown == 0 && (className.startsWith(ConnectionPool.class.getName())
+                        || className.startsWith(DBConnection.class.getName())
+                        || className.startsWith("jdk.proxy"))) {
+                    continue; // skip the pool's own frames
+                }
+                if (shown++ == MAX_STACK_FRAMES) {
+                    sb.append("\n      ...");
+                    break;
+                }
+                sb.append("\n      at ").append(frame);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String ownerName(Thread thread) {
+        return thread.getName().isEmpty() ? "virtual#" + thread.threadId() : thread.getName();
+    }
+
+    // A borrowed connection
+    private static final class Lease {
+        final Connection connection;
+        final Runnable onReclaim;
+        final String owner = ownerName(Thread.currentThread());
+        final long borrowedAtMillis = System.currentTimeMillis();
+        final StackTraceElement[] stack = CAPTURE_STACKS ? new Throwable().getStackTrace() : null;
+        final AtomicBoolean returned = new AtomicBoolean(false);
+        volatile boolean alarmed;
+        volatile boolean reclaimed;
+
+        Lease(Connection connection, Runnable onReclaim) {
+            this.connection = connection;
+            this.onReclaim = onReclaim;
+        }
+    }
+
+    private static final class IdleConnection {
+        final Connection connection;
+        final long idleSince;
+
+        IdleConnection(Connection connection, long idleSince) {
+            this.connection = connection;
+            this.idleSince = idleSince;
+        }
+    }
+}
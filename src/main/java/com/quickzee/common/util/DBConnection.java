@@ -1,8 +1,14 @@
 package com.quickzee.common.util;
 
+import com.quickzee.common.jfr.ConnectionAcquireEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * DBConnection utility class
@@ -11,13 +17,20 @@ import java.sql.SQLException;
 public class DBConnection {
 
     // Database credentials - CHANGE THESE TO MATCH YOUR SETUP
-    private static final String URL = "jdbc:mysql://localhost:3306/Quick_Zee";
-    private static final String USERNAME = "root";
-    private static final String PASSWORD = "istiack123@";  // ← CHANGE THIS!
+    // (or set quickzee.db.url / quickzee.db.user / quickzee.db.password, see AppConfig)
+    private static final String URL = AppConfig.getString("quickzee.db.url", "jdbc:mysql://localhost:3306/Quick_Zee");
+    private static final String USERNAME = AppConfig.getString("quickzee.db.user", "root");
+    private static final String PASSWORD = AppConfig.getString("quickzee.db.password", "istiack123@");  // ← CHANGE THIS!
 
     // JDBC Driver class name
     private static final String DRIVER = "com.mysql.cj.jdbc.Driver";
 
+    // Shared pool (server mode); null = open a new connection per call
+    private static volatile ConnectionPool pool = null;
+
+    // Time callers spent in getConnection (quota wait + pool wait or connect)
+    private static final LatencyHistogram CONNECTION_WAITS = new LatencyHistogram();
+
     // Static block to load the MySQL JDBC driver
     static {
         try {
@@ -32,11 +45,127 @@ public class DBConnection {
 
     /**
      * Get a connection to the database
+     * Inside a bulkhead (see Bulkheads) this waits for a free slot in the
+     * workload's connection quota; the slot is given back when the connection is closed,
+     * or when the pool reclaims it after it was held too long.
+     * The time until the connection is handed out is recorded in getConnectionWaits(),
+     * and its statements are timed by QueryProfiler.
      * @return Connection object
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        ConnectionAcquireEvent event = new ConnectionAcquireEvent();
+        event.begin();
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            Runnable permit = Bulkheads.acquireConnectionPermit();
+            event.bulkhead = permit != null;
+            if (permit == null) {
+                Connection conn = openConnection(null);
+                failed = false;
+                return conn;
+            }
+
+            // Closing and reclaiming may both happen; the permit is given back once
+            Runnable releasePermit = once(permit);
+            try {
+                Connection conn = releaseOnClose(openConnection(releasePermit), releasePermit);
+                failed = false;
+                return conn;
+            } catch (SQLException e) {
+                releasePermit.run();
+                throw e;
+            }
+        } finally {
+            CONNECTION_WAITS.recordSince(started);
+            event.pooled = pool != null;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    /**
+     * Get the time callers spent waiting in getConnection()
+     * Includes the bulkhead quota wait and the pool wait (or opening a new
+     * connection when pooling is off); failed attempts are included too.
+     * @return Live histogram (reset() it to start a new measurement)
+     */
+    public static LatencyHistogram getConnectionWaits() {
+        return CONNECTION_WAITS;
+    }
+
+    /**
+     * Share a fixed set of connections between all callers (server mode)
+     * Call once at startup, before the first query.
+     * @param maxSize Maximum number of physical connections
+     * @param waitMillis How long a caller waits for a free connection
+     */
+    public static synchronized void enablePool(int maxSize, long waitMillis) {
+        if (pool != null) {
+            throw new IllegalStateException("Connection pool is already enabled");
+        }
+        pool = new ConnectionPool(URL, USERNAME, PASSWORD, maxSize, waitMillis);
+        System.out.println("✅ Connection pool enabled (max " + maxSize + " connections)");
+    }
+
+    /**
+     * Close the idle connections of the pool and go back to one connection per call
+     */
+    public static synchronized void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    /**
+     * Get the shared pool
+     * @return Pool or null if pooling is not enabled
+     */
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    private static Connection openConnection(Runnable onReclaim) throws SQLException {
+        ConnectionPool current = pool;
+        Connection conn = current != null ? current.borrow(onReclaim) : DriverManager.getConnection(URL, USERNAME, PASSWORD);
+        return QueryProfiler.wrap(conn);
+    }
+
+    private static Runnable once(Runnable action) {
+        AtomicBoolean done = new AtomicBoolean(false);
+        return () -> {
+            if (done.compareAndSet(false, true)) {
+                action.run();
+            }
+        };
+    }
+
+    // Wrap a connection so that closing it (once) also runs the given action
+    private static Connection releaseOnClose(Connection target, Runnable onClose) {
+        AtomicBoolean closed = new AtomicBoolean(false);
+
+        InvocationHandler handler = (proxy, method, args) -> {
+            if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                if (closed.compareAndSet(false, true)) {
+                    try {
+                        target.close();
+                    } finally {
+                        onClose.run();
+                    }
+                }
+                return null;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
     }
 
     /**
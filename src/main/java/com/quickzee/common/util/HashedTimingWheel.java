@@ -0,0 +1,297 @@
+package com.quickzee.common.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HashedTimingWheel utility class
+ * Schedules a large number of timeouts (e.g. one per running exam attempt)
+ * with a single thread and O(1) cost per schedule/cancel.
+ *
+ * The wheel is a ring of buckets, one per tick. A timeout goes into the
+ * bucket its deadline hashes to, with the number of full turns ("rounds")
+ * left before it is due. Every tick the worker thread walks one bucket,
+ * fires what is due and decrements the rounds of everything else.
+ *
+ * - New timeouts and cancellations are handed over through lock-free queues;
+ *   only the worker thread touches the buckets.
+ * - Expired tasks run on the given executor, so a slow task never delays the wheel.
+ * - Precision is one tick; timeouts never fire early.
+ */
+public class HashedTimingWheel {
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor taskExecutor;
+
+    private final Queue<Timeout> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> pendingCancels = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicLong firedCount = new AtomicLong();
+
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean stopped = false;
+
+    /**
+     * @param name Name of the worker thread
+     * @param tickDuration Length of one tick
+     * @param unit Unit of tickDuration
+     * @param wheelSize Number of buckets (rounded up to a power of two)
+     * @param taskExecutor Runs the expired tasks
+     */
+    public HashedTimingWheel(String name, long tickDuration, TimeUnit unit, int wheelSize, Executor taskExecutor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize < 1 || wheelSize > (1 << 20)) {
+            throw new IllegalArgumentException("Wheel size must be between 1 and 2^20");
+        }
+
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.taskExecutor = taskExecutor;
+
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedule a task
+     * @param task Task to run once the delay has passed
+     * @param delay Delay from now
+     * @param unit Unit of delay
+     * @return Handle that can cancel the timeout
+     * @throws IllegalStateException if the wheel was stopped
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("Timing wheel has been stopped");
+        }
+
+        long deadline = System.nanoTime() - startNanos + Math.max(0, unit.toNanos(delay));
+        Timeout timeout = new Timeout(this, task, deadline);
+        pendingCount.incrementAndGet();
+        pendingAdds.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return Number of timeouts scheduled and not yet fired or cancelled
+     */
+    public int pendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    /**
+     * @return Number of timeouts fired since start
+     */
+    public long firedTimeouts() {
+        return firedCount.get();
+    }
+
+    /**
+     * Stop the worker thread; pending timeouts never fire
+     */
+    public void stop() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    // ---------- worker thread ----------
+
+    private void run() {
+        long tick = 0;
+        while (!stopped) {
+            long tickDeadline = tickNanos * (tick + 1);
+            if (!sleepUntil(tickDeadline)) {
+                return;
+            }
+
+            processCancels();
+            transferAdds(tick);
+
+            Bucket bucket = wheel[(int) (tick & mask)];
+            bucket.expire(tickDeadline);
+            tick++;
+        }
+    }
+
+    private boolean sleepUntil(long tickDeadline) {
+        while (true) {
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    return false;
+                }
+            }
+        }
+    }
+
+    // Move new timeouts into their buckets (bounded per tick so a flood cannot stall the wheel)
+    private void transferAdds(long currentTick) {
+        for (int i = 0; i < 100_000; i++) {
+            Timeout timeout = pendingAdds.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state.get() != Timeout.ST_INIT) {
+                continue; // cancelled before it was placed
+            }
+
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - currentTick) / wheel.length;
+
+            // Deadlines already in the past go into the current bucket
+            long ticks = Math.max(calculated, currentTick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private void processCancels() {
+        Timeout timeout;
+        while ((timeout = pendingCancels.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        if (!timeout.state.compareAndSet(Timeout.ST_INIT, Timeout.ST_EXPIRED)) {
+            return;
+        }
+        pendingCount.decrementAndGet();
+        firedCount.incrementAndGet();
+        try {
+            taskExecutor.execute(timeout.task);
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Could not run expired timeout task: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handle of one scheduled task
+     */
+    public static final class Timeout {
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedTimingWheel wheel;
+        private final Runnable task;
+        private final long deadline; // nanos since wheel start
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // Only touched by the worker thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(HashedTimingWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the timeout
+         * @return true if it was cancelled, false if it already fired or was cancelled
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            wheel.pendingCount.decrementAndGet();
+            wheel.pendingCancels.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+    }
+
+    // Doubly linked list of timeouts; only used by the worker thread
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expire(long tickDeadline) {
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.state.get() != Timeout.ST_INIT) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if (timeout.deadline <= tickDeadline) {
+                        fire(timeout);
+                    } else {
+                        // Placed in the wrong turn (should not happen); put it back one turn later
+                        timeout.remainingRounds = 1;
+                        add(timeout);
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.quickzee.common.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * IdGenerator utility class
+ * Hands out primary keys on the client side (hi/lo style) so that parent
+ * and child rows can be inserted together without waiting for getGeneratedKeys().
+ *
+ * Each table has a row in id_sequences holding the next free id. A generator
+ * reserves a whole block of ids with a single UPDATE and then serves ids from
+ * memory until the block is used up. Unused ids of a block are simply skipped.
+ */
+public class IdGenerator {
+
+    // Number of ids reserved per round trip to id_sequences
+    private static final int DEFAULT_BLOCK_SIZE = 100;
+
+    // One generator per table, shared by all DAOs
+    private static final Map<String, IdGenerator> GENERATORS = new ConcurrentHashMap<>();
+
+    private final String tableName;
+    private final int blockSize;
+
+    // Current block: [nextId, blockEnd)
+    private long nextId = 0;
+    private long blockEnd = 0;
+
+    private IdGenerator(String tableName, int blockSize) {
+        this.tableName = tableName;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Get the shared generator for a table
+     * @param tableName Table name (must also be the id_sequences.name value)
+     * @return IdGenerator for that table
+     */
+    public static IdGenerator forTable(String tableName) {
+        return GENERATORS.computeIfAbsent(tableName, name -> new IdGenerator(name, DEFAULT_BLOCK_SIZE));
+    }
+
+    /**
+     * Get the next id for this table
+     * @return New unique id
+     * @throws SQLException if a new block cannot be reserved
+     */
+    public synchronized long nextId() throws SQLException {
+        if (nextId >= blockEnd) {
+            reserveBlock(blockSize);
+        }
+        return nextId++;
+    }
+
+    /**
+     * Get several ids at once (e.g. all questions of a quiz)
+     * Ids are increasing but not necessarily contiguous.
+     * @param count Number of ids needed
+     * @return Array of new unique ids
+     * @throws SQLException if a new block cannot be reserved
+     */
+    public synchronized long[] nextIds(int count) throws SQLException {
+        long[] ids = new long[count];
+        int filled = 0;
+
+        while (filled < count) {
+            if (nextId >= blockEnd) {
+                // Reserve enough for the rest of the request in one go
+                reserveBlock(Math.max(blockSize, count - filled));
+            }
+            while (filled < count && nextId < blockEnd) {
+                ids[filled++] = nextId++;
+            }
+        }
+        return ids;
+    }
+
+    // Reserve [end - size, end) by moving id_sequences.next_id forward
+    private void reserveBlock(int size) throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            long end = advanceSequence(conn, size);
+
+            if (end < 0) {
+                // First use of this table: seed the sequence from the current max id
+                seedSequence(conn);
+                end = advanceSequence(conn, size);
+            }
+
+            if (end < 0) {
+                throw new SQLException("Could not reserve ids for table " + tableName);
+            }
+
+            this.blockEnd = end;
+            this.nextId = end - size;
+        }
+    }
+
+    // Returns the new next_id value, or -1 if there is no sequence row yet
+    private long advanceSequence(Connection conn, int size) throws SQLException {
+        String update = "UPDATE id_sequences SET next_id = LAST_INSERT_ID(next_id + ?) WHERE name = ?";
+
+        try (PreparedStatement ps = conn.prepareStatement(update)) {
+            ps.setInt(1, size);
+            ps.setString(2, tableName);
+            if (ps.executeUpdate() == 0) {
+                return -1;
+            }
+        }
+
+        // LAST_INSERT_ID() is per connection, so this is safe under concurrency
+        try (PreparedStatement ps = conn.prepareStatement("SELECT LAST_INSERT_ID()");
+             ResultSet rs = ps.executeQuery()) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        }
+        return -1;
+    }
+
+    private void seedSequence(Connection conn) throws SQLException {
+        // tableName only ever comes from the DAOs' constants, never from user input
+        String seed = "INSERT IGNORE INTO id_sequences (name, next_id) " +
+                "SELECT ?, COALESCE(MAX(id), 0) + 1 FROM " + tableName;
+
+        try (PreparedStatement ps = conn.prepareStatement(seed)) {
+            ps.setString(1, tableName);
+            ps.executeUpdate();
+        }
+    }
+}
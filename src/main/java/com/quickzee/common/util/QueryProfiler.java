@@ -0,0 +1,382 @@
+package com.quickzee.common.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * QueryProfiler
+ * Wraps the connections handed out by DBConnection so every statement is
+ * timed. Per-statement statistics are kept for a top-N report, and statements
+ * slower than quickzee.db.slowQueryMillis are logged with their SQL, bind
+ * parameters (strings redacted), row count and the DAO method that ran them.
+ *
+ * - Statistics are keyed by SQL text; IN lists of any length share one entry.
+ * - Rows of a query are counted as the caller reads them, and the statement is
+ *   recorded when its result set (or the statement) is closed.
+ * - A negative threshold turns the wrapper off (connections are not wrapped).
+ */
+public class QueryProfiler {
+
+    private static final long SLOW_MILLIS = AppConfig.getLong("quickzee.db.slowQueryMillis", 500);
+    private static final long SLOW_NANOS = TimeUnit.MILLISECONDS.toNanos(Math.max(0, SLOW_MILLIS));
+
+    // Distinct statements tracked; anything beyond is counted under OTHER
+    private static final int MAX_STATEMENTS = 2000;
+    private static final String OTHER = "(other statements)";
+
+    // Bind parameters shown in the slow-query log
+    private static final int MAX_LOGGED_PARAMS = 20;
+
+    private static final Pattern PLACEHOLDER_RUN = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final Map<String, QueryStats> STATS = new ConcurrentHashMap<>();
+    // SQL text as sent -> its entry in STATS, so normalize() runs once per distinct text
+    private static final Map<String, QueryStats> BY_SQL = new ConcurrentHashMap<>();
+    private static final AtomicLong SLOW_COUNT = new AtomicLong();
+
+    private QueryProfiler() {}
+
+    /**
+     * @return true if connections are wrapped (quickzee.db.slowQueryMillis >= 0)
+     */
+    public static boolean isEnabled() {
+        return SLOW_MILLIS >= 0;
+    }
+
+    /**
+     * Wrap a connection so its statements are timed
+     * @param target Connection from the driver or the pool
+     * @return Wrapped connection (or target itself when profiling is off)
+     */
+    public static Connection wrap(Connection target) {
+        if (!isEnabled()) {
+            return target;
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return wrapStatement((Statement) result, method.getReturnType(), sql);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    /**
+     * Get the statements that took the most time in total
+     * @param limit Maximum number of statements
+     * @return Statistics, highest total time first
+     */
+    public static List<QueryStats> top(int limit) {
+        List<QueryStats> all = new ArrayList<>(STATS.values());
+        all.sort(Comparator.comparingDouble(QueryStats::getTotalMillis).reversed());
+        return all.subList(0, Math.min(limit, all.size()));
+    }
+
+    /**
+     * @return Number of statements logged as slow
+     */
+    public static long getSlowCount() {
+        return SLOW_COUNT.get();
+    }
+
+    /**
+     * Forget all statistics (e.g. before a load test)
+     */
+    public static void reset() {
+        BY_SQL.clear();
+        STATS.clear();
+        SLOW_COUNT.set(0);
+    }
+
+    /**
+     * Print the statements that took the most time in total
+     * @param limit Maximum number of statements
+     */
+    public static void printReport(int limit) {
+        System.out.println("=== Top Statements (by total time) ===");
+        if (!isEnabled()) {
+            System.out.println("Statement profiling is off (quickzee.db.slowQueryMillis < 0)");
+        }
+        for (QueryStats stats : top(limit)) {
+            System.out.println(stats);
+        }
+        System.out.println("Slow statements (>= " + SLOW_MILLIS + " ms): " + SLOW_COUNT.get());
+        System.out.println("======================================");
+    }
+
+    // State of one statement: its SQL, current bind parameters and the execution waiting for its rows
+    private static final class Tracked {
+        final String sql;
+        Object[] params = new Object[8];
+        int paramCount;
+        int batchSize;
+
+        // Execution of a query, recorded when its rows have been read
+        String pendingSql;
+        long pendingNanos;
+        long pendingRows;
+        String pendingLog;
+
+        Tracked(String sql) {
+            this.sql = sql;
+        }
+
+        void bind(int index, Object value) {
+            if (index < 1 || index > 10_000) {
+                return;
+            }
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            params[index - 1] = value;
+            paramCount = Math.max(paramCount, index);
+        }
+
+        void clearParams() {
+            Arrays.fill(params, 0, paramCount, null);
+            paramCount = 0;
+        }
+
+        // Record the query waiting for its rows, if any
+        void finishPending() {
+            if (pendingSql != null) {
+                finish(pendingSql, pendingNanos, pendingRows, false, pendingLog);
+                pendingSql = null;
+                pendingLog = null;
+            }
+        }
+    }
+
+    private static Statement wrapStatement(Statement target, Class<?> type, String sql) {
+        Tracked tracked = new Tracked(sql);
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                tracked.bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+                return invoke(target, method, args);
+            }
+            switch (name) {
+                case "clearParameters":
+                    tracked.clearParams();
+                    return invoke(target, method, args);
+                case "addBatch":
+                    tracked.batchSize++;
+                    return invoke(target, method, args);
+                case "clearBatch":
+                    tracked.batchSize = 0;
+                    return invoke(target, method, args);
+                case "executeQuery":
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "executeBatch":
+                case "executeLargeBatch":
+                case "execute":
+                    return execute(target, tracked, method, args);
+                case "close":
+                    tracked.finishPending();
+                    return invoke(target, method, args);
+                default:
+                    return invoke(target, method, args);
+            }
+        };
+        return (Statement) Proxy.newProxyInstance(
+                Statement.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object execute(Statement target, Tracked tracked, Method method, Object[] args) throws Throwable {
+        tracked.finishPending();
+        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : tracked.sql;
+        String name = method.getName();
+        boolean batch = name.endsWith("Batch");
+
+        long started = System.nanoTime();
+        Object result;
+        long elapsed;
+        String log;
+        try {
+            result = invoke(target, method, args);
+            elapsed = System.nanoTime() - started;
+            // Described here, while the batch size is still known
+            log = elapsed >= SLOW_NANOS ? describe(tracked, sql, batch) : null;
+        } catch (Throwable e) {
+            long failedAfter = System.nanoTime() - started;
+            finish(sql, failedAfter, 0, true, failedAfter >= SLOW_NANOS ? describe(tracked, sql, batch) : null);
+            throw e;
+        } finally {
+            if (batch) {
+                tracked.batchSize = 0;
+            }
+        }
+
+        if (result instanceof ResultSet) {
+            // Count rows as they are read; recorded when the result set or statement is closed
+            tracked.pendingSql = sql;
+            tracked.pendingNanos = elapsed;
+            tracked.pendingRows = 0;
+            tracked.pendingLog = log;
+            return wrapResultSet((ResultSet) result, tracked);
+        }
+        finish(sql, elapsed, rowCount(result), false, log);
+        return result;
+    }
+
+    private static ResultSet wrapResultSet(ResultSet target, Tracked tracked) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                tracked.pendingRows++;
+            } else if (name.equals("close")) {
+                tracked.finishPending();
+            }
+            return result;
+        };
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class}, handler);
+    }
+
+    private static void finish(String sql, long elapsedNanos, long rows, boolean failed, String log) {
+        QueryStats stats = statsFor(sql);
+        stats.record(elapsedNanos, rows, failed, log != null);
+
+        if (log != null) {
+            SLOW_COUNT.incrementAndGet();
+            System.err.println("🐢 Slow query " + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + " ms"
+                    + (failed ? " (failed)" : "") + ", rows=" + rows + " | " + log);
+        }
+    }
+
+    private static QueryStats statsFor(String sql) {
+        QueryStats stats = sql != null ? BY_SQL.get(sql) : null;
+        if (stats != null) {
+            return stats;
+        }
+        String key = normalize(sql);
+        if (!STATS.containsKey(key) && STATS.size() >= MAX_STATEMENTS) {
+            key = OTHER;
+        }
+        stats = STATS.computeIfAbsent(key, QueryStats::new);
+        if (sql != null && BY_SQL.size() < MAX_STATEMENTS * 2) {
+            BY_SQL.put(sql, stats);
+        }
+        return stats;
+    }
+
+    // Caller, SQL and redacted parameters of a slow execution (only built when it was slow)
+    private static String describe(Tracked tracked, String sql, boolean batch) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(callingDaoMethod()).append(" | ").append(compact(sql));
+        if (batch) {
+            sb.append(" | batch of ").append(tracked.batchSize);
+        }
+        if (tracked.paramCount > 0) {
+            sb.append(" | ").append(tracked.paramCount).append(batch ? " params (last row): [" : " params: [");
+            int shown = Math.min(tracked.paramCount, MAX_LOGGED_PARAMS);
+            for (int i = 0; i < shown; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(redact(tracked.params[i]));
+            }
+            if (tracked.paramCount > shown) {
+                sb.append(", ...");
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    // Numbers and flags are kept (IDs help to reproduce); texts may hold emails or password hashes
+    private static String redact(Object value) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof String) {
+            return "'***'(" + ((String) value).length() + ")";
+        }
+        if (value instanceof byte[]) {
+            return "<" + ((byte[]) value).length + " bytes>";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    // First DAO frame on the stack, e.g. ResultDao.submitQuiz
+    private static String callingDaoMethod() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith("com.quickzee.common.dao."))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + methodName(frame.getMethodName()))
+                .orElse("(unknown caller)"));
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    // DAO bodies run inside METRICS.time(...) lambdas: lambda$findById$3 -> findById
+    private static String methodName(String name) {
+        if (name.startsWith("lambda$")) {
+            int end = name.indexOf('$', 7);
+            return end > 7 ? name.substring(7, end) : name;
+        }
+        return name;
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += Math.max(0, count);
+            }
+        }
+        return rows;
+    }
+
+    private static String normalize(String sql) {
+        if (sql == null) {
+            return "(no SQL)";
+        }
+        return PLACEHOLDER_RUN.matcher(compact(sql)).replaceAll("?...");
+    }
+
+    private static String compact(String sql) {
+        return sql == null ? "(no SQL)" : WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
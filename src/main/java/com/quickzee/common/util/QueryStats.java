@@ -0,0 +1,87 @@
+package com.quickzee.common.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of one SQL statement (see QueryProfiler).
+ * Latencies are execution times as seen by the caller; fetching the rows of
+ * a query is not included. Failed executions count in the latencies too.
+ */
+public class QueryStats {
+
+    private final String sql;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder slow = new LongAdder();
+
+    QueryStats(String sql) {
+        this.sql = sql;
+    }
+
+    void record(long elapsedNanos, long rowCount, boolean failed, boolean wasSlow) {
+        latencies.record(elapsedNanos);
+        rows.add(Math.max(0, rowCount));
+        if (failed) {
+            errors.increment();
+        }
+        if (wasSlow) {
+            slow.increment();
+        }
+    }
+
+    /**
+     * @return SQL text (runs of placeholders in IN lists collapsed to "?...")
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return Number of executions
+     */
+    public long getCount() {
+        return latencies.getCount();
+    }
+
+    /**
+     * @return Rows returned (queries) or affected (updates and batches)
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+
+    /**
+     * @return Executions that threw
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * @return Executions over the slow-query threshold
+     */
+    public long getSlowCount() {
+        return slow.sum();
+    }
+
+    /**
+     * @return Time spent in all executions (ms)
+     */
+    public double getTotalMillis() {
+        return latencies.getMeanMillis() * latencies.getCount();
+    }
+
+    /**
+     * @return Live latency histogram
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,.0f ms total, %s rows=%d slow=%d errors=%d | %s",
+                getTotalMillis(), latencies.summary(), getRows(), getSlowCount(), getErrorCount(), sql);
+    }
+}
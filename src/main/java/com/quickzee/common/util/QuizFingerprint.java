@@ -0,0 +1,82 @@
+package com.quickzee.common.util;
+
+import com.quickzee.common.model.Option;
+import com.quickzee.common.model.Question;
+import com.quickzee.common.model.Quiz;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * QuizFingerprint utility class
+ * Short hash of a quiz's structure (question and option IDs, in order). Two
+ * copies of a quiz with the same fingerprint ask the same questions with the
+ * same options, so answers collected against one can be merged into the other.
+ * Correct answers are not part of it: results are scored when they are merged.
+ *
+ * Feed IDs in ordinal order: question, then its options, then the next question.
+ */
+public class QuizFingerprint {
+
+    private final MessageDigest digest;
+    private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + 1);
+
+    public QuizFingerprint(long quizId) {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        add('Z', quizId);
+    }
+
+    /**
+     * Compute the fingerprint of a fully loaded quiz
+     * @param quiz Quiz with questions and options
+     * @return Fingerprint (16 hex characters)
+     */
+    public static String of(Quiz quiz) {
+        QuizFingerprint fingerprint = new QuizFingerprint(quiz.getId());
+        if (quiz.getQuestions() != null) {
+            for (Question question : quiz.getQuestions()) {
+                fingerprint.addQuestion(question.getId());
+                if (question.getOptions() != null) {
+                    for (Option option : question.getOptions()) {
+                        fingerprint.addOption(option.getId());
+                    }
+                }
+            }
+        }
+        return fingerprint.finish();
+    }
+
+    /**
+     * @param questionId Next question (in ordinal order)
+     */
+    public void addQuestion(long questionId) {
+        add('Q', questionId);
+    }
+
+    /**
+     * @param optionId Next option of the current question (in ordinal order)
+     */
+    public void addOption(long optionId) {
+        add('O', optionId);
+    }
+
+    /**
+     * @return Fingerprint (16 hex characters); this object must not be used afterwards
+     */
+    public String finish() {
+        byte[] hash = digest.digest();
+        return HexFormat.of().formatHex(hash, 0, 8);
+    }
+
+    private void add(char tag, long id) {
+        buffer.clear();
+        buffer.put((byte) tag).putLong(id);
+        digest.update(buffer.array(), 0, buffer.position());
+    }
+}
@@ -0,0 +1,31 @@
+package com.quickzee.common.util;
+
+/**
+ * Thrown when a user or client is sending requests faster than allowed.
+ * Carries how long the caller should wait before trying again.
+ */
+public class RateLimitedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterMillis;
+
+    public RateLimitedException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return Milliseconds to wait before the next attempt can succeed
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+    /**
+     * @return Seconds to wait, rounded up (at least 1)
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (retryAfterMillis + 999) / 1000);
+    }
+}
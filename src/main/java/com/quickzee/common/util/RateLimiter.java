@@ -0,0 +1,133 @@
+package com.quickzee.common.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RateLimiter utility class
+ * Lock-free token bucket per key (user ID, email, IP address, ...).
+ *
+ * Each key holds a single long: the "theoretical arrival time" of the next
+ * request (GCRA, the token bucket written as one timestamp). A request is
+ * allowed when that time is no further ahead of now than the burst allows,
+ * and the timestamp is moved forward with a single compare-and-set.
+ *
+ * Keys are spread over independent stripes. Each stripe is swept lazily:
+ * every few hundred calls it drops keys whose bucket has been full (idle)
+ * for a while, so memory stays bounded without a background thread.
+ */
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+    private static final int SWEEP_EVERY = 512;
+
+    private final String name;
+    private final long intervalNanos;   // time to earn one permit
+    private final long burstNanos;      // how far ahead of now the bucket may run
+    private final long idleExpiryNanos; // idle keys older than this are removed
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Map<String, AtomicLong>[] stripes = new Map[STRIPES];
+    private final AtomicInteger[] sweepCounters = new AtomicInteger[STRIPES];
+
+    /**
+     * @param name Name used in error messages (e.g. "submission")
+     * @param permitsPerMinute Sustained rate
+     * @param burst Requests allowed back to back before the rate applies
+     */
+    public RateLimiter(String name, int permitsPerMinute, int burst) {
+        this.name = name;
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, permitsPerMinute);
+        this.burstNanos = intervalNanos * Math.max(1, burst);
+        this.idleExpiryNanos = burstNanos + TimeUnit.MINUTES.toNanos(1);
+
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+            sweepCounters[i] = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Try to take one permit for a key
+     * @param key Limiter key (null keys are never limited)
+     * @return 0 if allowed, otherwise milliseconds until a permit is available
+     */
+    public long tryAcquire(String key) {
+        if (key == null) {
+            return 0;
+        }
+
+        int stripe = stripeOf(key);
+        long now = System.nanoTime();
+        maybeSweep(stripe, now);
+
+        AtomicLong state = stripes[stripe].computeIfAbsent(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long tat = state.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            long ahead = newTat - now;
+
+            if (ahead > burstNanos) {
+                return Math.max(1, TimeUnit.NANOSECONDS.toMillis(ahead - burstNanos));
+            }
+            if (state.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+            // Another thread moved the bucket; re-read and try again
+        }
+    }
+
+    /**
+     * Take one permit or fail with a "retry after" error
+     * @param key Limiter key
+     * @param message Message shown to the user, the wait time is appended
+     * @throws RateLimitedException if the key is over its limit
+     */
+    public void acquireOrThrow(String key, String message) {
+        long waitMillis = tryAcquire(key);
+        if (waitMillis > 0) {
+            long seconds = Math.max(1, (waitMillis + 999) / 1000);
+            // The key may be an email address or client address: never log it
+            System.out.println("⚠️ Rate limit (" + name + ") hit, retry after " + seconds + "s");
+            throw new RateLimitedException(message + " Please try again in " + seconds + " seconds.", waitMillis);
+        }
+    }
+
+    /**
+     * @return Number of keys currently tracked (for diagnostics)
+     */
+    public int trackedKeys() {
+        int total = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            total += stripe.size();
+        }
+        return total;
+    }
+
+    private int stripeOf(String key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & (STRIPES - 1);
+    }
+
+    // Remove keys whose bucket has been full for longer than idleExpiry
+    private void maybeSweep(int stripe, long now) {
+        if (sweepCounters[stripe].incrementAndGet() % SWEEP_EVERY != 0) {
+            return;
+        }
+
+        Iterator<Map.Entry<String, AtomicLong>> it = stripes[stripe].entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, AtomicLong> entry = it.next();
+            if (now - entry.getValue().get() > idleExpiryNanos) {
+                // Worst case a concurrent request on this key gets a fresh (full) bucket
+                stripes[stripe].remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
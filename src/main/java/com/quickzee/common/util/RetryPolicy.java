@@ -0,0 +1,110 @@
+package com.quickzee.common.util;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RetryPolicy utility class
+ * Re-runs a database call when it fails for a transient reason
+ * (deadlock, lock wait timeout, dropped connection), waiting a random
+ * "full jitter" backoff between attempts so that many clients failing at
+ * the same moment do not all retry at the same moment again.
+ *
+ * Only use this for calls that are safe to repeat (idempotent).
+ */
+public class RetryPolicy {
+
+    // MySQL error codes worth retrying
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+    private static final int ER_LOCK_DEADLOCK = 1213;
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * @param maxAttempts Total attempts including the first one
+     * @param baseDelayMillis Backoff ceiling after the first failure
+     * @param maxDelayMillis Upper bound for any single backoff
+     */
+    public RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(1, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+    }
+
+    /**
+     * Run the call, retrying transient failures
+     * @param call Database call
+     * @return Result of the first successful attempt
+     * @throws SQLException the last error if all attempts fail, or the first non-transient error
+     */
+    public <T> T execute(SqlCall<T> call) throws SQLException {
+        int attempt = 1;
+        while (true) {
+            try {
+                return call.call();
+            } catch (SQLException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+
+                long delay = backoffMillis(attempt);
+                System.out.println("⚠️ Transient database error (attempt " + attempt + "/" + maxAttempts +
+                        "), retrying in " + delay + " ms: " + e.getMessage());
+                sleep(delay, e);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Check whether an error is worth retrying
+     * @param e SQL error (its causes and chained exceptions are checked too)
+     * @return true for deadlocks, lock timeouts and connection failures
+     */
+    public static boolean isTransient(SQLException e) {
+        Throwable t = e;
+        while (t != null) {
+            if (t instanceof SQLTransientException || t instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (t instanceof SQLException) {
+                SQLException sql = (SQLException) t;
+                String state = sql.getSQLState();
+
+                // 40xxx = transaction rollback (deadlock), 08xxx = connection exception
+                if (state != null && (state.startsWith("40") || state.startsWith("08"))) {
+                    return true;
+                }
+                if (sql.getErrorCode() == ER_LOCK_WAIT_TIMEOUT || sql.getErrorCode() == ER_LOCK_DEADLOCK) {
+                    return true;
+                }
+                if (sql.getNextException() != null && sql.getNextException() != t.getCause()
+                        && isTransient(sql.getNextException())) {
+                    return true;
+                }
+            }
+            t = t.getCause() == t ? null : t.getCause();
+        }
+        return false;
+    }
+
+    // Full jitter: random delay in [0, min(max, base * 2^(attempt-1))]
+    private long backoffMillis(int attempt) {
+        long ceiling = baseDelayMillis << Math.min(attempt - 1, 20);
+        ceiling = Math.min(maxDelayMillis, ceiling);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private void sleep(long millis, SQLException cause) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.quickzee.common.util;
+
+import com.quickzee.common.model.User;
+
+/**
+ * Session
+ * One logged-in user, identified by an opaque random token.
+ * Created and looked up through SessionStore.
+ */
+public class Session {
+
+    private final String token;
+    private final User user;
+    private final long createdAtMillis;
+    private final long expiresAtMillis;  // absolute expiry
+    private final long idleTimeoutMillis; // 0 = no idle expiry
+    private volatile long lastAccessMillis;
+
+    Session(String token, User user, long nowMillis, long absoluteTimeoutMillis, long idleTimeoutMillis) {
+        this.token = token;
+        this.user = user;
+        this.createdAtMillis = nowMillis;
+        this.expiresAtMillis = nowMillis + absoluteTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.lastAccessMillis = nowMillis;
+    }
+
+    /**
+     * Check whether the session is past its idle or absolute timeout
+     * @param nowMillis Current time (System.currentTimeMillis())
+     * @return true if the session can no longer be used
+     */
+    public boolean isExpired(long nowMillis) {
+        if (nowMillis >= expiresAtMillis) {
+            return true;
+        }
+        return idleTimeoutMillis > 0 && nowMillis - lastAccessMillis >= idleTimeoutMillis;
+    }
+
+    // Plain volatile write; concurrent touches only race on which "now" wins
+    void touch(long nowMillis) {
+        if (nowMillis > lastAccessMillis) {
+            lastAccessMillis = nowMillis;
+        }
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    @Override
+    public String toString() {
+        // Never print the token itself
+        return "Session{user=" + (user != null ? user.getEmail() : null) +
+                ", role=" + (user != null ? user.getRole() : null) + "}";
+    }
+}
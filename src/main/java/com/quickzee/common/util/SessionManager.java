@@ -2,25 +2,118 @@ package com.quickzee.common.util;
 
 import com.quickzee.common.model.User;
 
+import java.sql.SQLException;
+
 /**
  * SessionManager utility class
- * Manages the currently logged-in user session
+ * Manages the logged-in user of the current caller
  * This is an in-memory session - data is lost when app closes
+ *
+ * Sessions live in SessionStore. The session used by the checks below is:
+ * - the session bound to the current thread (one server request), or else
+ * - the desktop session set by setLoggedInUser (GUI / CLI, one user per JVM).
+ * Both are plain field reads, so requireLogin/requireAdmin never lock.
  */
 public class SessionManager {
 
-    // Static instance to hold the logged-in user
-    private static User loggedInUser = null;
+    // Session of the request running on this thread (server)
+    private static final ThreadLocal<Session> REQUEST_SESSION = new ThreadLocal<>();
+
+    // Session of the single desktop user (GUI / CLI)
+    private static volatile Session desktopSession = null;
 
     /**
-     * Set the currently logged-in user
+     * Set the currently logged-in user (desktop app)
      * @param user The user who just logged in
      */
     public static void setLoggedInUser(User user) {
-        loggedInUser = user;
-        if (user != null) {
-            System.out.println("✅ Session started for: " + user.getName() + " (" + user.getRole() + ")");
+        if (user == null) {
+            logout();
+            return;
+        }
+
+        Session previous = desktopSession;
+        desktopSession = SessionStore.create(user, false);
+        if (previous != null) {
+            SessionStore.invalidate(previous.getToken());
+        }
+        System.out.println("✅ Session started for: " + user.getName() + " (" + user.getRole() + ")");
+    }
+
+    /**
+     * Start a token session for a user without making it the desktop session
+     * Used by the server: the client sends the token back with every request.
+     * @param user The user who just logged in
+     * @return New session
+     */
+    public static Session startSession(User user) {
+        Session session = SessionStore.create(user, true);
+        System.out.println("✅ Session started for: " + user.getName() + " (" + user.getRole() + ")");
+        return session;
+    }
+
+    /**
+     * Bind the session of a token to the current thread (start of a request)
+     * Always pair with unbind() in a finally block.
+     * @param token Session token sent by the client
+     * @return The session, or null if the token is unknown or expired
+     */
+    public static Session bind(String token) {
+        Session session = SessionStore.find(token);
+        if (session != null) {
+            REQUEST_SESSION.set(session);
+        } else {
+            REQUEST_SESSION.remove();
         }
+        return session;
+    }
+
+    /**
+     * Clear the session bound to the current thread (end of a request)
+     */
+    public static void unbind() {
+        REQUEST_SESSION.remove();
+    }
+
+    /**
+     * Run work with a given session bound to the current thread
+     * Used to carry the caller's session onto worker threads.
+     * @param session Session to bind (null runs with no request session)
+     * @param task Work to run
+     * @return Result of the task
+     * @throws SQLException if the task fails
+     */
+    public static <T> T callAs(Session session, SqlCall<T> task) throws SQLException {
+        Session previous = REQUEST_SESSION.get();
+        if (session == null) {
+            REQUEST_SESSION.remove();
+        } else {
+            REQUEST_SESSION.set(session);
+        }
+        try {
+            return task.call();
+        } finally {
+            if (previous == null) {
+                REQUEST_SESSION.remove();
+            } else {
+                REQUEST_SESSION.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Get the session of the current caller
+     * @return Live session or null if no one is logged in (or it expired)
+     */
+    public static Session currentSession() {
+        Session session = REQUEST_SESSION.get();
+        if (session == null) {
+            session = desktopSession;
+        }
+        if (session == null || session.isExpired(System.currentTimeMillis())) {
+            return null;
+        }
+        return session;
     }
 
     /**
@@ -28,7 +121,8 @@ public class SessionManager {
      * @return User object or null if no one is logged in
      */
     public static User getLoggedInUser() {
-        return loggedInUser;
+        Session session = currentSession();
+        return session != null ? session.getUser() : null;
     }
 
     /**
@@ -36,7 +130,7 @@ public class SessionManager {
      * @return true if logged in, false otherwise
      */
     public static boolean isLoggedIn() {
-        return loggedInUser != null;
+        return getLoggedInUser() != null;
     }
 
     /**
@@ -44,6 +138,7 @@ public class SessionManager {
      * @return true if admin, false otherwise
      */
     public static boolean isAdmin() {
+        User loggedInUser = getLoggedInUser();
         return loggedInUser != null && "admin".equalsIgnoreCase(loggedInUser.getRole());
     }
 
@@ -52,6 +147,7 @@ public class SessionManager {
      * @return true if student, false otherwise
      */
     public static boolean isStudent() {
+        User loggedInUser = getLoggedInUser();
         return loggedInUser != null && "student".equalsIgnoreCase(loggedInUser.getRole());
     }
 
@@ -60,6 +156,7 @@ public class SessionManager {
      * @return User ID or null if not logged in
      */
     public static Long getLoggedInUserId() {
+        User loggedInUser = getLoggedInUser();
         return loggedInUser != null ? loggedInUser.getId() : null;
     }
 
@@ -68,6 +165,7 @@ public class SessionManager {
      * @return User name or "Guest" if not logged in
      */
     public static String getLoggedInUserName() {
+        User loggedInUser = getLoggedInUser();
         return loggedInUser != null ? loggedInUser.getName() : "Guest";
     }
 
@@ -76,6 +174,7 @@ public class SessionManager {
      * @return Role string or "none" if not logged in
      */
     public static String getLoggedInUserRole() {
+        User loggedInUser = getLoggedInUser();
         return loggedInUser != null ? loggedInUser.getRole() : "none";
     }
 
@@ -84,17 +183,27 @@ public class SessionManager {
      * @return Semester number or null if not logged in or not set
      */
     public static Integer getLoggedInUserSemester() {
+        User loggedInUser = getLoggedInUser();
         return loggedInUser != null ? loggedInUser.getSemester() : null;
     }
 
     /**
      * Logout the current user
+     * Ends the request session if one is bound, otherwise the desktop session.
      */
     public static void logout() {
-        if (loggedInUser != null) {
-            System.out.println("👋 Logging out: " + loggedInUser.getName());
+        Session session = REQUEST_SESSION.get();
+        if (session != null) {
+            REQUEST_SESSION.remove();
+        } else {
+            session = desktopSession;
+            desktopSession = null;
+        }
+
+        if (session != null) {
+            SessionStore.invalidate(session.getToken());
+            System.out.println("👋 Logging out: " + session.getUser().getName());
         }
-        loggedInUser = null;
     }
 
     /**
@@ -0,0 +1,124 @@
+package com.quickzee.common.util;
+
+import com.quickzee.common.model.User;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SessionStore utility class
+ * Holds every active session of the process, keyed by an opaque token.
+ *
+ * - Lookups are a single ConcurrentHashMap get plus an expiry check (no locks).
+ * - Sessions expire after a period of inactivity and, regardless of activity,
+ *   after an absolute lifetime.
+ * - Expired sessions are removed when they are looked up, and a full sweep runs
+ *   at most once per sweep interval on whichever thread notices it is due.
+ */
+public class SessionStore {
+
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(
+            AppConfig.getLong("quickzee.session.idleMinutes", 60));
+    private static final long ABSOLUTE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(
+            AppConfig.getLong("quickzee.session.absoluteMinutes", 12 * 60));
+    private static final long SWEEP_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final Map<String, Session> SESSIONS = new ConcurrentHashMap<>();
+    private static final AtomicLong NEXT_SWEEP_AT = new AtomicLong();
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Create a new session for a user
+     * @param user Authenticated user
+     * @param idleExpiry false for the desktop app, where a long exam makes no calls for a while
+     * @return New session with a fresh token
+     */
+    public static Session create(User user, boolean idleExpiry) {
+        if (user == null) {
+            throw new IllegalArgumentException("Cannot create a session without a user");
+        }
+
+        long now = System.currentTimeMillis();
+        maybeSweep(now);
+
+        Session session = new Session(newToken(), user, now, ABSOLUTE_TIMEOUT_MILLIS,
+                idleExpiry ? IDLE_TIMEOUT_MILLIS : 0);
+        SESSIONS.put(session.getToken(), session);
+        return session;
+    }
+
+    /**
+     * Find a live session and mark it as used
+     * @param token Session token
+     * @return Session or null if the token is unknown or expired
+     */
+    public static Session find(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        maybeSweep(now);
+
+        Session session = SESSIONS.get(token);
+        if (session == null) {
+            return null;
+        }
+        if (session.isExpired(now)) {
+            SESSIONS.remove(token, session);
+            return null;
+        }
+
+        session.touch(now);
+        return session;
+    }
+
+    /**
+     * End a session
+     * @param token Session token (unknown tokens are ignored)
+     */
+    public static void invalidate(String token) {
+        if (token != null) {
+            SESSIONS.remove(token);
+        }
+    }
+
+    /**
+     * @return Number of sessions currently stored (including not yet swept expired ones)
+     */
+    public static int size() {
+        return SESSIONS.size();
+    }
+
+    // Only the thread that wins the CAS sweeps; everyone else carries on
+    private static void maybeSweep(long now) {
+        long due = NEXT_SWEEP_AT.get();
+        if (now < due || !NEXT_SWEEP_AT.compareAndSet(due, now + SWEEP_INTERVAL_MILLIS)) {
+            return;
+        }
+
+        int removed = 0;
+        Iterator<Session> it = SESSIONS.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().isExpired(now)) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            System.out.println("🧹 Removed " + removed + " expired sessions");
+        }
+    }
+
+    // 256 random bits, URL-safe so it can travel in headers and cookies
+    private static String newToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,12 @@
+package com.quickzee.common.util;
+
+import java.sql.SQLException;
+
+/**
+ * A unit of database work that can be retried or handed to another thread
+ * @param <T> Result type
+ */
+@FunctionalInterface
+public interface SqlCall<T> {
+    T call() throws SQLException;
+}
@@ -0,0 +1,28 @@
+package com.quickzee.common.util;
+
+import java.sql.SQLException;
+
+/**
+ * Thrown when a submission could not reach the database but was saved in the
+ * local answer journal. It is sent automatically once the database is back,
+ * so the student's answers are not lost.
+ */
+public class SubmissionQueuedException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String attemptToken;
+
+    public SubmissionQueuedException(String attemptToken, SQLException cause) {
+        super("Could not reach the database. Your answers are saved on this computer " +
+                "and will be submitted automatically when the connection is back.", cause);
+        this.attemptToken = attemptToken;
+    }
+
+    /**
+     * @return Token of the queued attempt
+     */
+    public String getAttemptToken() {
+        return attemptToken;
+    }
+}
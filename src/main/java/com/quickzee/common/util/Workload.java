@@ -0,0 +1,56 @@
+package com.quickzee.common.util;
+
+/**
+ * Workload classes used by Bulkheads
+ * Each class gets its own worker threads and its own share of database
+ * connections, so one kind of traffic cannot starve another.
+ * Listed from highest to lowest priority.
+ */
+public enum Workload {
+
+    // Exam submissions: never rejected, may borrow connections from the classes below
+    SUBMISSION("submission", 16, 1000, 8, 30_000),
+
+    // Loading a quiz when a student starts an attempt
+    EXAM_LOAD("examLoad", 8, 200, 4, 10_000),
+
+    // Student dashboard lists and history
+    DASHBOARD("dashboard", 4, 50, 2, 3_000),
+
+    // Admin views, statistics and reports
+    ADMIN_REPORTING("adminReporting", 2, 20, 2, 3_000);
+
+    private final String key;
+    private final int threads;
+    private final int queueCapacity;
+    private final int connectionQuota;
+    private final long connectionWaitMillis;
+
+    Workload(String key, int threads, int queueCapacity, int connectionQuota, long connectionWaitMillis) {
+        this.key = key;
+        this.threads = AppConfig.getInt("quickzee.bulkhead." + key + ".threads", threads);
+        this.queueCapacity = AppConfig.getInt("quickzee.bulkhead." + key + ".queue", queueCapacity);
+        this.connectionQuota = AppConfig.getInt("quickzee.bulkhead." + key + ".connections", connectionQuota);
+        this.connectionWaitMillis = AppConfig.getLong("quickzee.bulkhead." + key + ".waitMillis", connectionWaitMillis);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getConnectionQuota() {
+        return connectionQuota;
+    }
+
+    public long getConnectionWaitMillis() {
+        return connectionWaitMillis;
+    }
+}
@@ -2,6 +2,9 @@ module com.quickzee.common {
     requires javafx.controls;
     requires javafx.fxml;
     requires java.sql;
+    requires jdk.httpserver;
+    requires java.management;
+    requires jdk.jfr;
 
     // --- Add this line ---
     requires mysql.connector.j;
@@ -10,5 +13,6 @@ module com.quickzee.common {
     exports com.quickzee.common.gui; // Assuming you fixed the previous error
     opens com.quickzee.common.gui to javafx.fxml;
     exports com.quickzee.common.util;
+    exports com.quickzee.common.monitor; // MXBean interfaces must be visible to JMX
     opens com.quickzee.common.model to javafx.base, javafx.fxml;
 }
\ No newline at end of file
@@ -68,12 +68,14 @@ CREATE TABLE quiz_results (
   quiz_id BIGINT NOT NULL,
   score INT,
   total_questions INT,
+  attempt_token CHAR(36) NULL,          -- client-generated, makes submissions idempotent
   submitted_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
   created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
   CONSTRAINT fk_results_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE RESTRICT,
   CONSTRAINT fk_results_quiz FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE,
   INDEX idx_results_user (user_id),
-  INDEX idx_results_quiz (quiz_id)
+  INDEX idx_results_quiz (quiz_id),
+  UNIQUE KEY uq_results_attempt_token (attempt_token)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 select * from quiz_results;
 
@@ -89,4 +91,37 @@ CREATE TABLE quiz_result_answers (
   CONSTRAINT fk_answers_option FOREIGN KEY (selected_option_id) REFERENCES options(id) ON DELETE SET NULL,
   INDEX idx_answers_result (result_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
-select * from quiz_result_answers;
\ No newline at end of file
+select * from quiz_result_answers;
+
+-- ID SEQUENCES (client-side hi/lo id allocation, see IdGenerator)
+CREATE TABLE id_sequences (
+  name VARCHAR(64) NOT NULL PRIMARY KEY,  -- table name
+  next_id BIGINT NOT NULL                 -- next id that has not been handed out yet
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+INSERT INTO id_sequences (name, next_id) VALUES
+  ('users', 1),
+  ('quizzes', 1),
+  ('questions', 1),
+  ('options', 1),
+  ('quiz_results', 1);
+
+-- ATTEMPT DRAFTS (autosaved answers of running attempts, see AutosaveBuffer)
+CREATE TABLE attempt_drafts (
+  attempt_token CHAR(36) NOT NULL PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  quiz_id BIGINT NOT NULL,
+  started_at DATETIME(3) NOT NULL,
+  deadline_at DATETIME(3) NULL,                -- NULL = no time limit
+  updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  CONSTRAINT fk_drafts_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT fk_drafts_quiz FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE,
+  INDEX idx_drafts_user_quiz (user_id, quiz_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE attempt_draft_answers (
+  attempt_token CHAR(36) NOT NULL,
+  question_index INT NOT NULL,                 -- position in the submitted answer list
+  option_id BIGINT NULL,                       -- NULL = answer cleared
+  PRIMARY KEY (attempt_token, question_index),
+  CONSTRAINT fk_draft_answers_draft FOREIGN KEY (attempt_token) REFERENCES attempt_drafts(attempt_token) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,14 @@
+-- Migration 001: client-side id allocation
+-- Adds the id_sequences table used by IdGenerator and seeds it from the current
+-- max ids, so already existing rows are never handed out again.
+USE Quick_Zee;
+
+CREATE TABLE IF NOT EXISTS id_sequences (
+  name VARCHAR(64) NOT NULL PRIMARY KEY,  -- table name
+  next_id BIGINT NOT NULL                 -- next id that has not been handed out yet
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+INSERT IGNORE INTO id_sequences (name, next_id) SELECT 'quizzes', COALESCE(MAX(id), 0) + 1 FROM quizzes;
+INSERT IGNORE INTO id_sequences (name, next_id) SELECT 'questions', COALESCE(MAX(id), 0) + 1 FROM questions;
+INSERT IGNORE INTO id_sequences (name, next_id) SELECT 'options', COALESCE(MAX(id), 0) + 1 FROM options;
+INSERT IGNORE INTO id_sequences (name, next_id) SELECT 'quiz_results', COALESCE(MAX(id), 0) + 1 FROM quiz_results;
@@ -0,0 +1,70 @@
+-- Migration 002: server-side scoring for quiz submissions
+-- Installs submit_quiz_answers, used by ResultDao.submitQuizViaProcedure when
+-- quickzee.submit.mode=procedure. The whole submission (scoring, quiz_results row
+-- and quiz_result_answers rows) happens in one call and one transaction.
+--
+-- p_answers is a JSON array of selected option ids, one element per question in
+-- questions.ordinal order. Skipped questions are null (or a value <= 0).
+USE Quick_Zee;
+
+DROP PROCEDURE IF EXISTS submit_quiz_answers;
+
+DELIMITER //
+
+CREATE PROCEDURE submit_quiz_answers(
+  IN  p_result_id BIGINT,
+  IN  p_user_id   BIGINT,
+  IN  p_quiz_id   BIGINT,
+  IN  p_answers   JSON,
+  OUT p_score     INT,
+  OUT p_total     INT
+)
+BEGIN
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  SELECT COUNT(*) INTO p_total FROM questions WHERE quiz_id = p_quiz_id;
+  IF p_total = 0 THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'No questions found for quiz';
+  END IF;
+
+  START TRANSACTION;
+
+  -- 1) Summary row first (score is filled in below)
+  INSERT INTO quiz_results (id, user_id, quiz_id, score, total_questions, submitted_at, created_at)
+  VALUES (p_result_id, p_user_id, p_quiz_id, 0, p_total, NOW(), NOW());
+
+  -- 2) One answer row per question; the n-th array element belongs to the n-th question
+  INSERT INTO quiz_result_answers (result_id, question_id, selected_option_id, created_at)
+  SELECT p_result_id, q.id, o.id, NOW()
+  FROM (
+    SELECT id, ROW_NUMBER() OVER (ORDER BY ordinal) AS pos
+    FROM questions
+    WHERE quiz_id = p_quiz_id
+  ) q
+  LEFT JOIN JSON_TABLE(
+    p_answers, '$[*]' COLUMNS (
+      pos       FOR ORDINALITY,
+      option_id BIGINT PATH '$' NULL ON EMPTY NULL ON ERROR
+    )
+  ) a ON a.pos = q.pos AND a.option_id > 0
+  LEFT JOIN options o ON o.id = a.option_id;
+
+  -- 3) Score = selected options that are correct options of this quiz
+  SELECT COUNT(*) INTO p_score
+  FROM quiz_result_answers ra
+  JOIN options o ON o.id = ra.selected_option_id
+  JOIN questions q ON q.id = o.question_id
+  WHERE ra.result_id = p_result_id
+    AND q.quiz_id = p_quiz_id
+    AND o.is_correct = 1;
+
+  UPDATE quiz_results SET score = p_score WHERE id = p_result_id;
+
+  COMMIT;
+END //
+
+DELIMITER ;
@@ -0,0 +1,72 @@
+-- Migration 003: idempotent quiz submissions
+-- Every attempt gets a client-generated token when it starts. The unique key
+-- guarantees that a retried submission can never create a second quiz_results row.
+-- submit_quiz_answers is re-created with the extra p_attempt_token parameter.
+USE Quick_Zee;
+
+ALTER TABLE quiz_results
+  ADD COLUMN attempt_token CHAR(36) NULL AFTER total_questions,
+  ADD UNIQUE KEY uq_results_attempt_token (attempt_token);
+
+DROP PROCEDURE IF EXISTS submit_quiz_answers;
+
+DELIMITER //
+
+CREATE PROCEDURE submit_quiz_answers(
+  IN  p_result_id     BIGINT,
+  IN  p_user_id       BIGINT,
+  IN  p_quiz_id       BIGINT,
+  IN  p_attempt_token CHAR(36),
+  IN  p_answers       JSON,
+  OUT p_score         INT,
+  OUT p_total         INT
+)
+BEGIN
+  DECLARE EXIT HANDLER FOR SQLEXCEPTION
+  BEGIN
+    ROLLBACK;
+    RESIGNAL;
+  END;
+
+  SELECT COUNT(*) INTO p_total FROM questions WHERE quiz_id = p_quiz_id;
+  IF p_total = 0 THEN
+    SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = 'No questions found for quiz';
+  END IF;
+
+  START TRANSACTION;
+
+  -- 1) Summary row first (a duplicate attempt_token fails here and nothing is written)
+  INSERT INTO quiz_results (id, user_id, quiz_id, score, total_questions, attempt_token, submitted_at, created_at)
+  VALUES (p_result_id, p_user_id, p_quiz_id, 0, p_total, p_attempt_token, NOW(), NOW());
+
+  -- 2) One answer row per question; the n-th array element belongs to the n-th question
+  INSERT INTO quiz_result_answers (result_id, question_id, selected_option_id, created_at)
+  SELECT p_result_id, q.id, o.id, NOW()
+  FROM (
+    SELECT id, ROW_NUMBER() OVER (ORDER BY ordinal) AS pos
+    FROM questions
+    WHERE quiz_id = p_quiz_id
+  ) q
+  LEFT JOIN JSON_TABLE(
+    p_answers, '$[*]' COLUMNS (
+      pos       FOR ORDINALITY,
+      option_id BIGINT PATH '$' NULL ON EMPTY NULL ON ERROR
+    )
+  ) a ON a.pos = q.pos AND a.option_id > 0
+  LEFT JOIN options o ON o.id = a.option_id;
+
+  -- 3) Score = selected options that are correct options of this quiz
+  SELECT COUNT(*) INTO p_score
+  FROM quiz_result_answers ra
+  JOIN options o ON o.id = ra.selected_option_id
+  JOIN questions q ON q.id = o.question_id
+  WHERE ra.result_id = p_result_id
+    AND q.quiz_id = p_quiz_id
+    AND o.is_correct = 1;
+
+  UPDATE quiz_results SET score = p_score WHERE id = p_result_id;
+
+  COMMIT;
+END //
+
+DELIMITER ;
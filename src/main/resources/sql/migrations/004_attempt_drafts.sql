@@ -0,0 +1,24 @@
+-- Migration 004: autosaved drafts of running quiz attempts
+-- One row per running attempt plus one row per answered question. Rows are
+-- written in batches by the autosave flusher and deleted when the attempt is submitted.
+USE Quick_Zee;
+
+CREATE TABLE attempt_drafts (
+  attempt_token CHAR(36) NOT NULL PRIMARY KEY,
+  user_id BIGINT NOT NULL,
+  quiz_id BIGINT NOT NULL,
+  started_at DATETIME(3) NOT NULL,
+  deadline_at DATETIME(3) NULL,                -- NULL = no time limit
+  updated_at DATETIME(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+  CONSTRAINT fk_drafts_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+  CONSTRAINT fk_drafts_quiz FOREIGN KEY (quiz_id) REFERENCES quizzes(id) ON DELETE CASCADE,
+  INDEX idx_drafts_user_quiz (user_id, quiz_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE attempt_draft_answers (
+  attempt_token CHAR(36) NOT NULL,
+  question_index INT NOT NULL,                 -- position in the submitted answer list
+  option_id BIGINT NULL,                       -- NULL = answer cleared
+  PRIMARY KEY (attempt_token, question_index),
+  CONSTRAINT fk_draft_answers_draft FOREIGN KEY (attempt_token) REFERENCES attempt_drafts(attempt_token) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
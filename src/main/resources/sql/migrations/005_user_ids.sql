@@ -0,0 +1,9 @@
+-- Migration 005: client-side user ids
+-- Users now get their ids from id_sequences like the other tables (see UserDao).
+-- Moves the sequence past every existing user, including ones registered with
+-- AUTO_INCREMENT after a DataGeneratorCLI run, so no id is handed out twice.
+USE Quick_Zee;
+
+INSERT INTO id_sequences (name, next_id)
+  SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM users
+  ON DUPLICATE KEY UPDATE next_id = GREATEST(next_id, VALUES(next_id));
@@ -0,0 +1,93 @@
+package com.quickzee.common.offline;
+
+import com.quickzee.common.model.OfflineResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LabStoreTest {
+
+    private Path dir;
+    private Path file;
+    private LabStore store;
+
+    @BeforeEach
+    void createStore() throws IOException {
+        dir = Files.createTempDirectory("qz-lab-test");
+        file = dir.resolve(LabStore.RESULTS_FILE);
+        Path packageFile = dir.resolve("export.qzp");
+        new QuizPackage(1_000L, List.of(), Map.of(), List.of()).write(packageFile);
+        store = LabStore.create(dir, packageFile);
+    }
+
+    @AfterEach
+    void deleteStore() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void resultsSurviveReopen() throws IOException {
+        store.record(result("t1", 11L));
+        store.record(result("t2", 12L));
+        reopen();
+
+        assertEquals(List.of("t1", "t2"), tokens(store.readResults()));
+    }
+
+    @Test
+    void reopenCutsOffTornRecord() throws IOException {
+        store.record(result("t1", 11L));
+        long intact = Files.size(file);
+        store.record(result("t2", 12L));
+        store.close();
+
+        // Power cut in the middle of writing the second result
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+        store = LabStore.open(dir);
+        assertEquals(intact, Files.size(file));
+
+        // Results recorded after the cut are not hidden behind the torn bytes
+        store.record(result("t3", 13L));
+        reopen();
+        assertEquals(List.of("t1", "t3"), tokens(store.readResults()));
+    }
+
+    private void reopen() throws IOException {
+        store.close();
+        store = LabStore.open(dir);
+    }
+
+    private static OfflineResult result(String token, Long optionId) {
+        OfflineResult result = new OfflineResult(token, 7L, 100L, "abc", "lab-1", 1_000L, 2_000L);
+        result.getAnswers().put(1L, optionId);
+        return result;
+    }
+
+    private static List<String> tokens(List<OfflineResult> results) {
+        List<String> tokens = new ArrayList<>();
+        for (OfflineResult result : results) {
+            tokens.add(result.getAttemptToken());
+        }
+        return tokens;
+    }
+}
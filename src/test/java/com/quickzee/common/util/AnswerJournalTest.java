@@ -0,0 +1,171 @@
+package com.quickzee.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnswerJournalTest {
+
+    private Path dir;
+    private Path file;
+    private AnswerJournal journal;
+
+    @BeforeEach
+    void openJournal() throws IOException {
+        dir = Files.createTempDirectory("qz-journal-test");
+        file = dir.resolve("answers.journal");
+        journal = new AnswerJournal(dir, 50);
+    }
+
+    @AfterEach
+    void deleteJournal() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Test
+    void reopenRestoresSubmissionsAndOpenAttempts() throws IOException {
+        journal.recordStart("t1", 7L, 100L, 1_000L, 0L);
+        journal.recordAnswers("t1", Map.of(0, 11L, 1, 12L));
+        journal.recordSubmission("t1", 7L, 100L, new long[]{11, 12});
+        journal.recordStart("t2", 7L, 200L, 2_000L, 60_000L);
+        journal.recordAnswers("t2", Map.of(1, 21L));
+
+        reopen();
+
+        List<AnswerJournal.Entry> pending = journal.pendingSubmissions();
+        assertEquals(1, pending.size());
+        assertEquals("t1", pending.get(0).getToken());
+        assertArrayEquals(new long[]{11, 12}, pending.get(0).getSubmission());
+        assertNotNull(journal.findPendingSubmission("t1"));
+        assertNull(journal.findPendingSubmission("t2")); // started, not submitted
+
+        AnswerJournal.Entry open = journal.findOpen(7L, 200L);
+        assertNotNull(open);
+        assertEquals("t2", open.getToken());
+        assertEquals(60_000L, open.getDeadlineMillis());
+        assertEquals(Arrays.asList(null, 21L), open.getAnswers());
+    }
+
+    @Test
+    void reopenCutsOffTruncatedRecord() throws IOException {
+        journal.recordSubmission("t1", 7L, 100L, new long[]{11});
+        long intact = Files.size(file);
+        journal.recordSubmission("t2", 8L, 100L, new long[]{12});
+        journal.close();
+
+        // Crash in the middle of writing the second record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+        journal = new AnswerJournal(dir, 50);
+
+        assertEquals(List.of("t1"), tokens(journal.pendingSubmissions()));
+        assertEquals(intact, Files.size(file));
+
+        // Records written after the cut survive the next reopen
+        journal.recordSubmission("t3", 9L, 100L, new long[]{13});
+        reopen();
+        assertEquals(List.of("t1", "t3"), tokens(journal.pendingSubmissions()));
+    }
+
+    @Test
+    void reopenDropsCorruptRecord() throws IOException {
+        journal.recordSubmission("t1", 7L, 100L, new long[]{11});
+        long intact = Files.size(file);
+        journal.recordSubmission("t2", 8L, 100L, new long[]{12});
+        journal.close();
+
+        // Flip the last byte of the second record so its checksum no longer matches
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(file, bytes);
+        journal = new AnswerJournal(dir, 50);
+
+        assertEquals(List.of("t1"), tokens(journal.pendingSubmissions()));
+        assertEquals(intact, Files.size(file));
+    }
+
+    @Test
+    void compactionKeepsOnlyUnacknowledgedAttempts() throws IOException {
+        for (int i = 1; i <= 3; i++) {
+            journal.recordStart("t" + i, 7L, 100L + i, 1_000L, 0L);
+            journal.recordAnswers("t" + i, Map.of(0, 10L + i));
+            journal.recordSubmission("t" + i, 7L, 100L + i, new long[]{10 + i});
+        }
+        journal.recordStart("open", 7L, 500L, 1_000L, 0L);
+        journal.recordAnswers("open", Map.of(2, 50L));
+        journal.acknowledge("t1");
+        journal.acknowledge("t3");
+        long before = Files.size(file);
+
+        journal.compact();
+
+        assertTrue(Files.size(file) < before, "compaction did not shrink the file");
+        reopen();
+        List<AnswerJournal.Entry> pending = journal.pendingSubmissions();
+        assertEquals(List.of("t2"), tokens(pending));
+        assertArrayEquals(new long[]{12}, pending.get(0).getSubmission());
+        assertEquals(Arrays.asList(null, null, 50L), journal.findOpen(7L, 500L).getAnswers());
+    }
+
+    @Test
+    void appendsAfterCompactionSurviveReopen() throws IOException {
+        journal.recordSubmission("t1", 7L, 100L, new long[]{11});
+        journal.acknowledge("t1");
+        journal.compact();
+
+        journal.recordSubmission("t2", 8L, 100L, new long[]{12});
+        reopen();
+
+        assertEquals(List.of("t2"), tokens(journal.pendingSubmissions()));
+    }
+
+    @Test
+    void deadLetteredSubmissionIsKeptInItsOwnFile() throws IOException {
+        journal.recordSubmission("t1", 7L, 100L, new long[]{11, 0});
+        AnswerJournal.Entry submission = journal.pendingSubmissions().get(0);
+
+        journal.deadLetter(submission, "Quiz not found\nwith ID: 100");
+
+        assertTrue(journal.pendingSubmissions().isEmpty());
+        List<String> lines = Files.readAllLines(journal.getDeadLetterFile());
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).contains("token=t1\tuser=7\tquiz=100\tanswers=[11, 0]\treason=Quiz not found with ID: 100"),
+                lines.get(0));
+
+        reopen();
+        assertTrue(journal.pendingSubmissions().isEmpty());
+        assertNull(journal.findOpen(7L, 100L));
+    }
+
+    private void reopen() throws IOException {
+        journal.close();
+        journal = new AnswerJournal(dir, 50);
+    }
+
+    private static List<String> tokens(List<AnswerJournal.Entry> entries) {
+        return entries.stream().map(AnswerJournal.Entry::getToken).toList();
+    }
+}
@@ -0,0 +1,223 @@
+package com.quickzee.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:qztest:pool";
+    private static final FakeDriver DRIVER = new FakeDriver();
+
+    static {
+        try {
+            DriverManager.registerDriver(DRIVER);
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void resetDriver() {
+        DRIVER.reset();
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void returnedConnectionIsReused() throws SQLException {
+        pool = new ConnectionPool(URL, "user", "secret", 2, 1000);
+
+        pool.borrow().close();
+        pool.borrow().close();
+
+        assertEquals(1, DRIVER.opened.size());
+        assertEquals(1, pool.getIdleConnections());
+        assertEquals(0, pool.getBorrowedConnections());
+    }
+
+    @Test
+    void borrowTimesOutWhenAllConnectionsAreBorrowed() throws SQLException {
+        pool = new ConnectionPool(URL, "user", "secret", 1, 100);
+        pool.borrow();
+
+        assertThrows(SQLTransientConnectionException.class, () -> pool.borrow());
+    }
+
+    @Test
+    void waiterIsWokenWhenReturnedConnectionIsDiscarded() throws Exception {
+        pool = new ConnectionPool(URL, "user", "secret", 1, 10_000);
+        Connection first = pool.borrow();
+
+        Future<Connection> waiter = executor.submit(() -> pool.borrow());
+        Thread.sleep(200); // let the waiter block
+
+        // The physical connection broke while borrowed: giving it back discards it
+        DRIVER.opened.get(0).close();
+        first.close();
+
+        Connection second = waiter.get(2, TimeUnit.SECONDS);
+        assertNotNull(second);
+        assertEquals(2, DRIVER.opened.size());
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    void waiterIsWokenWhenLeakedConnectionIsReclaimed() throws Exception {
+        pool = new ConnectionPool(URL, "user", "secret", 1, 10_000, 100);
+        AtomicInteger released = new AtomicInteger();
+        Connection leaked = pool.borrow(released::incrementAndGet);
+
+        Future<Connection> waiter = executor.submit(() -> pool.borrow());
+
+        // The leak checker runs every second at most
+        Connection second = waiter.get(5, TimeUnit.SECONDS);
+        assertNotNull(second);
+        assertEquals(1, pool.getReclaimedCount());
+        assertEquals(1, released.get());
+        assertTrue(DRIVER.opened.get(0).isClosed());
+        assertThrows(SQLException.class, leaked::commit);
+
+        // The owner closing it late neither frees another slot nor runs the hook again
+        leaked.close();
+        assertEquals(1, released.get());
+        assertEquals(1, pool.getBorrowedConnections());
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    void neverOpensMoreThanMaxSize() throws Exception {
+        pool = new ConnectionPool(URL, "user", "secret", 2, 10_000);
+
+        List<Future<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    Connection conn = pool.borrow();
+                    if (i % 50 == 0) {
+                        // Break the newest connection so it is discarded when given back
+                        DRIVER.opened.get(DRIVER.opened.size() - 1).close();
+                    }
+                    conn.close();
+                }
+                return null;
+            }));
+        }
+        for (Future<Void> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+
+        assertTrue(DRIVER.maxOpen.get() <= 2, "opened " + DRIVER.maxOpen.get() + " connections at once");
+        assertEquals(0, pool.getBorrowedConnections());
+    }
+
+    // Hands out fake connections for jdbc:qztest: URLs and counts the open ones
+    static final class FakeDriver implements Driver {
+        final List<Connection> opened = new CopyOnWriteArrayList<>();
+        final AtomicInteger open = new AtomicInteger();
+        final AtomicInteger maxOpen = new AtomicInteger();
+
+        void reset() {
+            opened.clear();
+            open.set(0);
+            maxOpen.set(0);
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            maxOpen.accumulateAndGet(open.incrementAndGet(), Math::max);
+            AtomicBoolean closed = new AtomicBoolean(false);
+            Connection conn = (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (closed.compareAndSet(false, true)) {
+                                    open.decrementAndGet();
+                                }
+                                return null;
+                            case "isClosed":
+                                return closed.get();
+                            case "isValid":
+                            case "getAutoCommit":
+                                return !closed.get();
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                return null;
+                        }
+                    });
+            opened.add(conn);
+            return conn;
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:qztest:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
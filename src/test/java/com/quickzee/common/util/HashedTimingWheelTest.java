@@ -0,0 +1,92 @@
+package com.quickzee.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    // 4 buckets of 5 ms: anything due after 20 ms waits at least one full turn
+    private final HashedTimingWheel wheel = new HashedTimingWheel("qz-test-wheel", 5, TimeUnit.MILLISECONDS, 4, Runnable::run);
+
+    @AfterEach
+    void stopWheel() {
+        wheel.stop();
+    }
+
+    @Test
+    void firesAfterSeveralRoundsButNeverEarly() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long[] firedAfterNanos = new long[1];
+        long scheduled = System.nanoTime();
+
+        wheel.schedule(() -> {
+            firedAfterNanos[0] = System.nanoTime() - scheduled;
+            fired.countDown();
+        }, 70, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS), "timeout did not fire");
+        assertTrue(firedAfterNanos[0] >= TimeUnit.MILLISECONDS.toNanos(70),
+                "fired early, after " + firedAfterNanos[0] / 1_000_000 + " ms");
+        assertEquals(0, wheel.pendingTimeouts());
+        assertEquals(1, wheel.firedTimeouts());
+    }
+
+    @Test
+    void timeoutsInDifferentRoundsFireInDeadlineOrder() throws InterruptedException {
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        CountDownLatch fired = new CountDownLatch(3);
+
+        // Deadlines one to three turns of the wheel away, scheduled out of order
+        for (int delay : new int[]{60, 20, 45}) {
+            wheel.schedule(() -> {
+                order.add(delay);
+                fired.countDown();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS), "not all timeouts fired");
+        assertEquals(List.of(20, 45, 60), order);
+    }
+
+    @Test
+    void cancelledTimeoutNeverFires() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        HashedTimingWheel.Timeout timeout = wheel.schedule(fired::countDown, 40, TimeUnit.MILLISECONDS);
+
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel(), "second cancel should report nothing to cancel");
+        assertTrue(timeout.isCancelled());
+        assertEquals(0, wheel.pendingTimeouts());
+
+        assertFalse(fired.await(150, TimeUnit.MILLISECONDS), "cancelled timeout fired");
+        assertFalse(timeout.isExpired());
+        assertEquals(0, wheel.firedTimeouts());
+    }
+
+    @Test
+    void cancelAfterFiringHasNoEffect() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        HashedTimingWheel.Timeout timeout = wheel.schedule(fired::countDown, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    void scheduleAfterStopIsRejected() {
+        wheel.stop();
+
+        assertThrows(IllegalStateException.class, () -> wheel.schedule(() -> { }, 1, TimeUnit.MILLISECONDS));
+    }
+}